@@ -66,6 +66,14 @@ dependencies {
     implementation("com.google.firebase:firebase-analytics")
     implementation("com.google.firebase:firebase-firestore")
 
+    // Generated Firestore mappers (TaskMapper etc), see :firestore-mapper
+    compileOnly(project(":firestore-mapper"))
+    annotationProcessor(project(":firestore-mapper"))
+
+    // Local mirror of the Firestore collections (data.local)
+    implementation("androidx.room:room-runtime:2.6.1")
+    annotationProcessor("androidx.room:room-compiler:2.6.1")
+
     // Classic Views (only keep if you are actually using XML screens too)
     implementation("androidx.recyclerview:recyclerview:1.3.2")
     implementation("androidx.cardview:cardview:1.0.0")
@@ -0,0 +1,106 @@
+package com.example.studybuddy.adapter;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import com.google.firebase.firestore.MemoryCacheSettings;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Rough timing of TaskMapper.fromDocument() vs doc.toObject(Task.class) on the same
+ * snapshots. Runs fully offline on its own FirebaseApp (like AccountBackupEmulatorTest):
+ * memory-only cache, pointed at the emulator and with the network disabled, so the
+ * documents only ever exist in that instance's memory. tearDown() terminates it, which
+ * drops the pending writes; nothing reaches the real project, and the app's default
+ * instance is never touched. No emulator needs to be running.
+ *
+ * Not a Jetpack Benchmark (no warm-up control / clock locking); look at the ratio in
+ * logcat (tag "MapperBench"), not the absolute numbers.
+ */
+@RunWith(AndroidJUnit4.class)
+public class TaskMapperBenchmark {
+
+    private static final int DOCS = 2000;
+    private static final int ROUNDS = 5;
+
+    private FirebaseFirestore db;
+
+    @Before
+    public void offlineInstance() throws Exception {
+        Context ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        FirebaseApp app;
+        try {
+            app = FirebaseApp.getInstance("mapper-benchmark");
+        } catch (IllegalStateException notYet) {
+            app = FirebaseApp.initializeApp(ctx, FirebaseApp.getInstance().getOptions(), "mapper-benchmark");
+        }
+        db = FirebaseFirestore.getInstance(app);
+        db.setFirestoreSettings(new FirebaseFirestoreSettings.Builder()
+                .setLocalCacheSettings(MemoryCacheSettings.newBuilder().build())
+                .build());
+        db.useEmulator("10.0.2.2", 8080); // belt and braces: even a stray sync can't reach production
+        Tasks.await(db.disableNetwork());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (db != null) Tasks.await(db.terminate()); // memory cache: the unsent writes go with it
+    }
+
+    @Test
+    public void generatedMapperVsReflection() throws Exception {
+        CollectionReference ref = db.collection("mapper_benchmark");
+
+        for (int i = 0; i < DOCS; i++) {
+            Task t = new Task("Task " + i, "Description " + i, "m" + (i % 10), "Module " + (i % 10),
+                    i % 2 == 0 ? "HIGH" : "LOW", System.currentTimeMillis() + i * 60_000L);
+            t.setType("assignment");
+            ref.document("t" + i).set(TaskMapper.toMap(t)); // local write; no server ack offline
+        }
+
+        QuerySnapshot snap = Tasks.await(ref.get(Source.CACHE));
+        List<DocumentSnapshot> docs = snap.getDocuments();
+        assertEquals(DOCS, docs.size());
+
+        // Same result both ways
+        Task a = docs.get(0).toObject(Task.class);
+        Task b = TaskMapper.fromDocument(docs.get(0));
+        assertEquals(a.getTitle(), b.getTitle());
+        assertEquals(a.getDueAt(), b.getDueAt());
+        assertEquals(a.getCreatedAt(), b.getCreatedAt());
+        assertEquals(a.getType(), b.getType());
+
+        long reflection = Long.MAX_VALUE, generated = Long.MAX_VALUE;
+        for (int r = 0; r < ROUNDS; r++) {
+            long start = System.nanoTime();
+            for (DocumentSnapshot d : docs) d.toObject(Task.class);
+            reflection = Math.min(reflection, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (DocumentSnapshot d : docs) TaskMapper.fromDocument(d);
+            generated = Math.min(generated, System.nanoTime() - start);
+        }
+
+        Log.i("MapperBench", DOCS + " docs: toObject " + reflection / 1_000_000.0 + " ms, "
+                + "TaskMapper " + generated / 1_000_000.0 + " ms");
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.studybuddy.data;
+
+import android.content.Context;
+
+import androidx.annotation.Nullable;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import com.google.firebase.firestore.MemoryCacheSettings;
+import com.google.firebase.firestore.WriteBatch;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Backup -> restore round trip against the Firestore emulator (nothing touches the real
+ * project):
+ *
+ *   firebase emulators:start --only firestore
+ *   ./gradlew connectedAndroidTest -Pandroid.testInstrumentationRunnerArguments.class=com.example.studybuddy.data.AccountBackupEmulatorTest
+ *
+ * Uses its own FirebaseApp so the emulator setting can't leak into the app's instance.
+ * Each run works under fresh random uids, so it can be re-run without clearing the emulator.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AccountBackupEmulatorTest {
+
+    /** The host machine as seen from the Android emulator. */
+    private static final String HOST = "10.0.2.2";
+    private static final int PORT = 8080;
+    private static final int TASKS = 1200; // > one export page and > several restore batches
+
+    private static FirebaseFirestore db;
+
+    @BeforeClass
+    public static void useEmulator() {
+        Context ctx = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        FirebaseApp app;
+        try {
+            app = FirebaseApp.getInstance("backup-emulator");
+        } catch (IllegalStateException notYet) {
+            app = FirebaseApp.initializeApp(ctx, FirebaseApp.getInstance().getOptions(), "backup-emulator");
+        }
+        db = FirebaseFirestore.getInstance(app);
+        db.setFirestoreSettings(new FirebaseFirestoreSettings.Builder()
+                .setLocalCacheSettings(MemoryCacheSettings.newBuilder().build())
+                .build());
+        db.useEmulator(HOST, PORT);
+    }
+
+    @Test
+    public void backupThenRestoreKeepsIdsAndValues() throws Exception {
+        DocumentReference source = db.collection("users").document("backup-" + UUID.randomUUID());
+        seed(source);
+
+        // -------- Backup --------
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        Outcome backup = new Outcome();
+        new AccountBackup(source, zip, backup).start();
+        backup.await();
+        assertNull(String.valueOf(backup.error), backup.error);
+        assertEquals(1 + TASKS + 3 + 2 + 2, backup.docs);
+
+        Map<String, Integer> lines = entries(zip.toByteArray());
+        assertEquals(Arrays.asList("manifest.json", "profile.json", "modules.ndjson", "tasks.ndjson",
+                "timetable_events.ndjson", "focus_sessions.ndjson"), new ArrayList<>(lines.keySet()));
+        assertEquals((Integer) TASKS, lines.get("tasks.ndjson"));
+
+        // -------- Restore into another account, which has a stale tombstone for t0 --------
+        DocumentReference target = db.collection("users").document("restore-" + UUID.randomUUID());
+        Map<String, Object> tomb = new HashMap<>();
+        tomb.put("deletedAt", Timestamp.now());
+        DocumentReference t0Tomb = target.collection("tombstones").document("tasks").collection("deleted").document("t0");
+        Tasks.await(t0Tomb.set(tomb), 30, TimeUnit.SECONDS);
+
+        Outcome restore = new Outcome();
+        new AccountRestore(db, target, new ByteArrayInputStream(zip.toByteArray()), restore).start();
+        restore.await();
+        assertNull(String.valueOf(restore.error), restore.error);
+        assertEquals(backup.docs, restore.docs);
+
+        assertSameDocs(source, target, "modules", true);
+        assertSameDocs(source, target, "tasks", true);
+        assertSameDocs(source, target, "timetable_events", true);
+        assertSameDocs(source, target, "focus_sessions", false);
+        assertEquals(Tasks.await(source.get()).getData(), Tasks.await(target.get()).getData());
+        assertFalse("tombstone cleared", Tasks.await(t0Tomb.get()).exists());
+
+        // Restoring again overwrites by id instead of duplicating
+        Outcome again = new Outcome();
+        new AccountRestore(db, target, new ByteArrayInputStream(zip.toByteArray()), again).start();
+        again.await();
+        assertNull(again.error);
+        assertEquals(TASKS, Tasks.await(target.collection("tasks").get()).size());
+    }
+
+    @Test
+    public void restoreRejectsOtherZips() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream z = new ZipOutputStream(bytes)) {
+            z.putNextEntry(new ZipEntry("tasks.ndjson"));
+            z.write("{\"id\":\"x\",\"data\":{}}\n".getBytes(StandardCharsets.UTF_8));
+            z.closeEntry();
+        }
+        DocumentReference target = db.collection("users").document("restore-" + UUID.randomUUID());
+        Outcome restore = new Outcome();
+        new AccountRestore(db, target, new ByteArrayInputStream(bytes.toByteArray()), restore).start();
+        restore.await();
+        assertTrue(restore.error != null && restore.error.getMessage().contains("Not a StudyBuddy backup"));
+        assertEquals(0, Tasks.await(target.collection("tasks").get()).size());
+    }
+
+    // -------- Helpers --------
+
+    private static void seed(DocumentReference user) throws Exception {
+        Map<String, Object> profile = new HashMap<>();
+        profile.put("name", "Test Student");
+        profile.put("dob", "2003-05-01");
+        Tasks.await(user.set(profile), 30, TimeUnit.SECONDS);
+
+        WriteBatch batch = db.batch();
+        int ops = 0;
+        for (int i = 0; i < TASKS; i++) {
+            Map<String, Object> t = new HashMap<>();
+            t.put("title", "Task " + i + " – \"quoted\", ünïcode");
+            t.put("type", "assignment");
+            t.put("priority", i % 2 == 0 ? "HIGH" : "NONE");
+            t.put("completed", i % 3 == 0);
+            t.put("dueAt", i % 5 == 0 ? null : 1_741_971_600_000L + i * 60_000L);
+            t.put("moduleId", "m" + i % 3);
+            batch.set(user.collection("tasks").document("t" + i), SyncedCollection.stamp(t));
+            if (++ops == 500) {
+                Tasks.await(batch.commit(), 30, TimeUnit.SECONDS);
+                batch = db.batch();
+                ops = 0;
+            }
+        }
+        for (int i = 0; i < 3; i++) {
+            Map<String, Object> m = new HashMap<>();
+            m.put("title", "Module " + i);
+            m.put("year", "2");
+            m.put("createdAt", 1_700_000_000_000L + i);
+            batch.set(user.collection("modules").document("m" + i), SyncedCollection.stamp(m));
+        }
+        for (int i = 0; i < 2; i++) {
+            Map<String, Object> e = new HashMap<>();
+            e.put("moduleId", "m" + i);
+            e.put("dayOfWeek", 2L + i);
+            e.put("startMinutes", 9L * 60);
+            e.put("rrule", "FREQ=WEEKLY;UNTIL=20250516");
+            batch.set(user.collection("timetable_events").document("e" + i), SyncedCollection.stamp(e));
+        }
+        for (int i = 0; i < 2; i++) {
+            Map<String, Object> f = new HashMap<>();
+            f.put("minutes", 25L);
+            f.put("score", 0.75 + i);
+            f.put("startedAt", new Timestamp(1_741_971_600L + i, 500));
+            f.put("tags", Arrays.asList("deep", "library"));
+            batch.set(user.collection("focus_sessions").document("f" + i), f);
+        }
+        Tasks.await(batch.commit(), 30, TimeUnit.SECONDS);
+    }
+
+    /** Entry name -> number of lines, in archive order. */
+    private static Map<String, Integer> entries(byte[] zip) throws Exception {
+        Map<String, Integer> out = new LinkedHashMap<>();
+        try (ZipInputStream z = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry e;
+            while ((e = z.getNextEntry()) != null) {
+                BufferedReader r = new BufferedReader(new InputStreamReader(z, StandardCharsets.UTF_8));
+                int n = 0;
+                while (r.readLine() != null) n++;
+                out.put(e.getName(), n);
+            }
+        }
+        return out;
+    }
+
+    /** Same ids, same fields; synced collections get a new updatedAt on restore. */
+    private static void assertSameDocs(DocumentReference a, DocumentReference b, String collection, boolean synced)
+            throws Exception {
+        Map<String, Map<String, Object>> want = byId(a, collection), got = byId(b, collection);
+        assertEquals(collection, want.keySet(), got.keySet());
+        for (String id : want.keySet()) {
+            Map<String, Object> w = want.get(id), g = got.get(id);
+            if (synced) {
+                assertTrue(collection + "/" + id + " stamped", g.remove(SyncedCollection.UPDATED_AT) instanceof Timestamp);
+                w.remove(SyncedCollection.UPDATED_AT);
+            }
+            assertEquals(collection + "/" + id, w, g);
+        }
+    }
+
+    private static Map<String, Map<String, Object>> byId(DocumentReference user, String collection) throws Exception {
+        Map<String, Map<String, Object>> out = new HashMap<>();
+        for (DocumentSnapshot d : Tasks.await(user.collection(collection).get(), 30, TimeUnit.SECONDS).getDocuments()) {
+            out.put(d.getId(), d.getData());
+        }
+        return out;
+    }
+
+    /** Both listeners have the same shape; callbacks arrive on the main thread. */
+    private static final class Outcome implements AccountBackup.Listener, AccountRestore.Listener {
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile int docs;
+        @Nullable volatile Exception error;
+
+        @Override
+        public void onProgress(int docs) {
+            // both interfaces default this; only the end result matters here
+        }
+
+        @Override
+        public void onFinished(int docs, @Nullable Exception error) {
+            this.docs = docs;
+            this.error = error;
+            done.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue("timed out", done.await(2, TimeUnit.MINUTES));
+        }
+    }
+}
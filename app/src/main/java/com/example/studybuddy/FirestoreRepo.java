@@ -1,21 +1,715 @@
 package com.example.studybuddy;
 
+import android.content.Context;
+
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.example.studybuddy.adapter.FocusSession;
+import com.example.studybuddy.adapter.FocusSessionMapper;
+import com.example.studybuddy.adapter.Module;
+import com.example.studybuddy.adapter.ModuleMapper;
+import com.example.studybuddy.adapter.TaskMapper;
+import com.example.studybuddy.adapter.TimetableEvent;
+import com.example.studybuddy.adapter.TimetableEventMapper;
+import com.example.studybuddy.data.AccountBackup;
+import com.example.studybuddy.data.AccountRestore;
+import com.example.studybuddy.data.DueQueue;
+import com.example.studybuddy.data.FilteredCollection;
+import com.example.studybuddy.data.FreeSlots;
+import com.example.studybuddy.data.IcsExport;
+import com.example.studybuddy.data.IcsImport;
+import com.example.studybuddy.data.IcsReader;
+import com.example.studybuddy.data.IcsWriter;
+import com.example.studybuddy.data.LiveCollection;
+import com.example.studybuddy.data.ModuleCascadeDelete;
+import com.example.studybuddy.data.ModuleRenameFanout;
+import com.example.studybuddy.data.RecentCollection;
+import com.example.studybuddy.data.SearchIndex;
+import com.example.studybuddy.data.SyncedCollection;
+import com.example.studybuddy.data.TaskFilter;
+import com.example.studybuddy.data.TaskImport;
+import com.example.studybuddy.data.TaskQueryEngine;
+import com.example.studybuddy.data.TaskRows;
+import com.example.studybuddy.data.TimetableIndex;
+import com.example.studybuddy.data.WriteCoalescer;
+import com.example.studybuddy.data.local.LocalMirror;
+import com.example.studybuddy.util.AppExecutors;
 import com.google.android.gms.tasks.Task;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.WriteBatch;
 
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+/**
+ * Process-wide access to the current user's Firestore data.
+ *
+ * users/{uid}                      -> profile
+ * users/{uid}/tasks                -> tasks()      (every task, newest first)
+ *                                  -> openTasks()  (completed == false, filtered from tasks())
+ * users/{uid}/modules              -> modules()    (one shared live listener)
+ * users/{uid}/timetable_events     -> timetable()  (one shared live listener)
+ * users/{uid}/focus_sessions       -> focusSessions() (last FOCUS_WINDOW_DAYS days)
+ *
+ * All of them are mirrored to SQLite (data.local, Room) once init() has been called:
+ * a screen opening on a cold start gets the last known list from disk right away,
+ * then the first snapshot replaces it.
+ *
+ * tasks / modules / timetable are SyncedCollections on top of that mirror: with a
+ * saved high-water mark they only download docs whose updatedAt is newer, plus the
+ * tombstones of docs deleted since. That's why task/module/event writes go through
+ * SyncedCollection.stamp() and deletes through SyncedCollection.delete() (deleteTask,
+ * ModuleCascadeDelete).
+ *
+ * Documents are decoded with the generated *Mapper classes (see :firestore-mapper), not
+ * toObject(), so there is no reflection on the snapshot path.
+ *
+ * Activities observe the shared collections instead of attaching their own listeners,
+ * so a bottom-nav tab switch reuses the already decoded lists.
+ *
+ * Every task is also mirrored into a TaskQueryEngine (primitive columns + bitmap indexes)
+ * on the io thread; queryTasks() filters/sorts/counts there instead of walking Task objects
+ * on the UI thread. Being fed from the whole collection, its facet counts are exact.
+ *
+ * Open tasks are kept in a DueQueue (ordered by dueAt, then id); every "what's due next" view
+ * reads dueRange() instead of running its own query.
+ *
+ * Timetable events are kept in a TimetableIndex (interval tree over the week) so
+ * timetableClashes() can check a slot while the user is still picking times.
+ * freeStudySlots() looks for study time around the same timetable (+ focus sessions)
+ * in a week-sized occupancy bitmap (FreeSlots).
+ *
+ * Tasks + modules also feed a SearchIndex (inverted index, prefix matching) so the
+ * search boxes never scan text on the UI thread either.
+ *
+ * Renaming a module also queues a ModuleRenameFanout job (same batch) that rewrites
+ * Task.moduleTitle on that module's tasks in the background, resumable across restarts.
+ *
+ * .ics files: importIcs() streams a university timetable into modules + timetable events
+ * (IcsImport, 500-op batches), exportIcs() streams the timetable + deadlines back out.
+ * importTasks() bulk-adds tasks from a CSV / JSON file, checked with the Add Task form's
+ * rules on the compute pool (TaskImport).
+ *
+ * Backups: backupAccount() streams users/{uid} and its collections into a .zip of NDJSON
+ * a page at a time (AccountBackup); restoreAccount() replays one with the same ids
+ * (AccountRestore, batched writes).
+ *
+ * Task field edits go through a WriteCoalescer (updateTask / setTaskCompleted): quick
+ * repeated edits are merged and sent as WriteBatches instead of one update() each.
+ */
 public class FirestoreRepo {
 
     private static final String COLLECTION_PROFILES = "users";
+    private static final String COLLECTION_TASKS = "tasks";
+    private static final String COLLECTION_MODULES = "modules";
+    private static final String COLLECTION_TIMETABLE = "timetable_events";
+    private static final String COLLECTION_FOCUS = "focus_sessions";
+
+    private static final long WRITE_WINDOW_MS = 250;
+    private static final int FOCUS_WINDOW_DAYS = 8; // the garden shows 7, +1 so "7 days ago" is still loaded
+
+    private static FirestoreRepo instance;
+    @Nullable private static LocalMirror mirror;
+
     private final FirebaseFirestore db = FirebaseFirestore.getInstance();
 
+    // Live collections for the currently signed-in user (main thread only)
+    private String boundUid;
+    private SyncedCollection<com.example.studybuddy.adapter.Task> tasks;
+    private LiveCollection<com.example.studybuddy.adapter.Task> openTasks;
+    private LiveCollection<Module> modules;
+    private LiveCollection<TimetableEvent> timetable;
+    private LiveCollection<FocusSession> focusSessions;
+    private WriteCoalescer taskWrites;
+    private ModuleRenameFanout renameFanout;
+    @Nullable private ModuleRenameFanout.Listener renameListener;
+
+    // io thread only
+    private TaskQueryEngine taskQuery;
+    private SearchIndex searchIndex;
+    private DueQueue dueQueue;
+    private TimetableIndex timetableIndex;
+    private List<TimetableEvent> slotTimetable = Collections.emptyList();
+    private List<FocusSession> slotSessions = Collections.emptyList();
+    @Nullable private FreeSlots freeSlots; // rebuilt on the next query after either list changes
+
+    /** Call once from Application.onCreate() to enable the disk mirror. */
+    public static synchronized void init(@NonNull Context context) {
+        if (mirror == null) mirror = new LocalMirror(context.getApplicationContext());
+    }
+
+    public static synchronized FirestoreRepo get() {
+        if (instance == null) instance = new FirestoreRepo();
+        return instance;
+    }
+
+    private FirestoreRepo() {
+        // Drop cached lists + listeners when the user signs out or switches account
+        FirebaseAuth.getInstance().addAuthStateListener(a -> {
+            FirebaseUser u = a.getCurrentUser();
+            String uid = u == null ? null : u.getUid();
+            if (boundUid != null && !boundUid.equals(uid)) reset();
+        });
+    }
+
+    // -------- Shared live collections --------
+
+    /**
+     * Every task in users/{uid}/tasks newest first, or null if nobody is logged in.
+     * Delta-synced, so after the first listing only changed tasks are downloaded. It feeds
+     * queryTasks() and search(): observe it to know when their results may have changed.
+     */
+    @Nullable
+    public LiveCollection<com.example.studybuddy.adapter.Task> tasks() {
+        return bindToCurrentUser() ? tasks : null;
+    }
+
+    /**
+     * Every incomplete task newest first (filtered from tasks()), or null if nobody is logged in.
+     * Observe it to know when dueRange() results may have changed.
+     */
+    @Nullable
+    public LiveCollection<com.example.studybuddy.adapter.Task> openTasks() {
+        return bindToCurrentUser() ? openTasks : null;
+    }
+
+    /** users/{uid}/modules newest first, or null if nobody is logged in. */
+    @Nullable
+    public LiveCollection<Module> modules() {
+        return bindToCurrentUser() ? modules : null;
+    }
+
+    /** users/{uid}/timetable_events by day then start time, or null if nobody is logged in. */
+    @Nullable
+    public LiveCollection<TimetableEvent> timetable() {
+        return bindToCurrentUser() ? timetable : null;
+    }
+
+    /**
+     * users/{uid}/focus_sessions of the last FOCUS_WINDOW_DAYS days (up to a day more, see
+     * RecentCollection), oldest first; null if logged out.
+     */
+    @Nullable
+    public LiveCollection<FocusSession> focusSessions() {
+        return bindToCurrentUser() ? focusSessions : null;
+    }
+
+    private boolean bindToCurrentUser() {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        if (user == null) {
+            reset();
+            return false;
+        }
+        if (user.getUid().equals(boundUid)) return true;
+
+        reset();
+        boundUid = user.getUid();
+        DocumentReference userDoc = db.collection(COLLECTION_PROFILES).document(boundUid);
+        LocalMirror disk = mirror;
+
+        CollectionReference tasksRef = userDoc.collection(COLLECTION_TASKS);
+        Comparator<com.example.studybuddy.adapter.Task> newestFirst =
+                Comparator.comparingLong(com.example.studybuddy.adapter.Task::getCreatedAt).reversed()
+                        .thenComparing(com.example.studybuddy.adapter.Task::getId);
+        tasks = new SyncedCollection<>(
+                "TasksRepo",
+                tasksRef.orderBy("createdAt", Query.Direction.DESCENDING),
+                tasksRef,
+                TaskMapper::fromDocument,
+                newestFirst,
+                com.example.studybuddy.adapter.Task::getUpdatedAt,
+                marks(disk, COLLECTION_TASKS)
+        );
+        // Derived from tasks (a sink), not a second listener on the same collection
+        openTasks = new FilteredCollection<>(
+                "OpenTasksRepo",
+                tasks,
+                t -> !t.isCompleted(),
+                newestFirst,
+                com.example.studybuddy.adapter.Task::getId
+        );
+        DueQueue queue = new DueQueue();
+        dueQueue = queue;
+        tasks.addSink(queue::apply); // skips completed tasks itself
+        TaskQueryEngine engine = new TaskQueryEngine();
+        taskQuery = engine;
+        tasks.addSink(engine::apply);
+        CollectionReference modulesRef = userDoc.collection(COLLECTION_MODULES);
+        modules = new SyncedCollection<>(
+                "ModulesRepo",
+                modulesRef.orderBy("createdAt", Query.Direction.DESCENDING),
+                modulesRef,
+                ModuleMapper::fromDocument,
+                Comparator.comparingLong(Module::getCreatedAt).reversed().thenComparing(Module::getId),
+                Module::getUpdatedAt,
+                marks(disk, COLLECTION_MODULES)
+        );
+        SearchIndex index = new SearchIndex();
+        searchIndex = index;
+        tasks.addSink(index::applyTasks);
+        modules.addSink(index::applyModules);
+        CollectionReference timetableRef = userDoc.collection(COLLECTION_TIMETABLE);
+        timetable = new SyncedCollection<>(
+                "TimetableRepo",
+                timetableRef
+                        .orderBy("dayOfWeek", Query.Direction.ASCENDING)
+                        .orderBy("startMin", Query.Direction.ASCENDING),
+                timetableRef,
+                TimetableEventMapper::fromDocument,
+                Comparator.comparingInt(TimetableEvent::getDayOfWeek)
+                        .thenComparingInt(TimetableEvent::getStartMin)
+                        .thenComparing(TimetableEvent::getId),
+                TimetableEvent::getUpdatedAt,
+                marks(disk, COLLECTION_TIMETABLE)
+        );
+        TimetableIndex clashes = new TimetableIndex(ZoneId.systemDefault());
+        timetableIndex = clashes;
+        timetable.addSink(clashes::apply);
+        RecentCollection<FocusSession> recentFocus = new RecentCollection<>(
+                "FocusSessionsRepo",
+                userDoc.collection(COLLECTION_FOCUS),
+                "completedAt",
+                TimeUnit.DAYS.toMillis(FOCUS_WINDOW_DAYS),
+                TimeUnit.DAYS.toMillis(1),
+                FocusSessionMapper::fromDocument
+        );
+        focusSessions = recentFocus;
+        // The window only moves forward, so this stays <= the listener's bound (what the sink needs)
+        long focusSince = recentFocus.windowStart();
+
+        timetable.addSink((all, changes) -> {
+            slotTimetable = new ArrayList<>(all);
+            freeSlots = null;
+        });
+        focusSessions.addSink((all, changes) -> {
+            slotSessions = new ArrayList<>(all);
+            freeSlots = null;
+        });
+
+        if (disk != null) {
+            tasks.setSeed(disk.tasksSeed(boundUid));
+            tasks.addSink(disk.tasksSink(boundUid));
+            modules.setSeed(disk.modulesSeed(boundUid));
+            modules.addSink(disk.modulesSink(boundUid));
+            timetable.setSeed(disk.timetableSeed(boundUid));
+            timetable.addSink(disk.timetableSink(boundUid));
+            focusSessions.setSeed(disk.focusSessionsSeed(boundUid, focusSince));
+            focusSessions.addSink(disk.focusSessionsSink(boundUid, focusSince));
+        }
+
+        taskWrites = new WriteCoalescer(db, WRITE_WINDOW_MS);
+        renameFanout = new ModuleRenameFanout(db, userDoc);
+        renameFanout.setListener(renameListener);
+        renameFanout.resume(); // finish renames a previous run was killed in the middle of
+        return true;
+    }
+
+    /** Sync marks on disk, or none (always a full listing) without the mirror. */
+    private SyncedCollection.MarkStore marks(@Nullable LocalMirror disk, String collection) {
+        if (disk != null) return disk.marks(boundUid, collection);
+        return new SyncedCollection.MarkStore() {
+            @Override
+            public long load(@NonNull String key) {
+                return 0;
+            }
+
+            @Override
+            public void save(@NonNull String key, long mark) {}
+        };
+    }
+
+    /** Stop all listeners and forget cached data. */
+    public void reset() {
+        if (tasks != null) tasks.stop();
+        if (openTasks != null) openTasks.stop();
+        if (modules != null) modules.stop();
+        if (timetable != null) timetable.stop();
+        if (focusSessions != null) focusSessions.stop();
+        if (renameFanout != null) renameFanout.stop();
+        tasks = null;
+        openTasks = null;
+        dueQueue = null;
+        modules = null;
+        timetable = null;
+        focusSessions = null;
+        taskWrites = null;
+        renameFanout = null;
+        taskQuery = null;
+        searchIndex = null;
+        timetableIndex = null;
+        AppExecutors.io().execute(() -> {
+            slotTimetable = Collections.emptyList();
+            slotSessions = Collections.emptyList();
+            freeSlots = null;
+        });
+        boundUid = null;
+    }
+
+    /**
+     * Filter + sort all tasks off the main thread (newest first), with facet counts.
+     * As current as tasks() (observe it to re-query); delivered on the main thread, null
+     * if nobody is logged in.
+     */
+    public void queryTasks(@NonNull TaskFilter filter, @NonNull Consumer<TaskQueryEngine.Result> result) {
+        queryTasks(filter, null, result);
+    }
+
+    /**
+     * Same as above, but if `search` has any words the list is narrowed to tasks matching
+     * them and ordered by relevance instead of date. Facet counts ignore the search text.
+     */
+    public void queryTasks(@NonNull TaskFilter filter, @Nullable String search,
+                           @NonNull Consumer<TaskQueryEngine.Result> result) {
+        TaskQueryEngine engine = bindToCurrentUser() ? taskQuery : null;
+        SearchIndex index = searchIndex;
+        if (engine == null || index == null) {
+            result.accept(null);
+            return;
+        }
+        AppExecutors.io().execute(() -> {
+            TaskQueryEngine.Result out = engine.query(filter);
+            if (search != null && !search.trim().isEmpty()) {
+                // Index and engine hold the same Task instances, so identity is enough here
+                Set<com.example.studybuddy.adapter.Task> allowed =
+                        Collections.newSetFromMap(new IdentityHashMap<>());
+                allowed.addAll(out.tasks);
+
+                List<com.example.studybuddy.adapter.Task> ranked = new ArrayList<>();
+                for (SearchIndex.Hit hit : index.search(search, SearchIndex.KIND_TASK, Integer.MAX_VALUE)) {
+                    if (allowed.contains(hit.task)) ranked.add(hit.task);
+                }
+                out = out.withTasks(ranked);
+            }
+            TaskQueryEngine.Result done = out;
+            AppExecutors.main().execute(() -> result.accept(done));
+        });
+    }
+
+    /**
+     * Incomplete tasks with from <= dueAt < to, earliest first, at most `limit`.
+     * e.g. upcoming: (now, Long.MAX_VALUE), overdue: (Long.MIN_VALUE, now).
+     * Read from the DueQueue on the io thread, delivered on main; empty if logged out.
+     */
+    public void dueRange(long from, long to, int limit,
+                         @NonNull Consumer<List<com.example.studybuddy.adapter.Task>> result) {
+        DueQueue queue = bindToCurrentUser() ? dueQueue : null;
+        if (queue == null) {
+            result.accept(Collections.emptyList());
+            return;
+        }
+        AppExecutors.io().execute(() -> {
+            List<com.example.studybuddy.adapter.Task> out = queue.range(from, to, limit);
+            AppExecutors.main().execute(() -> result.accept(out));
+        });
+    }
+
+    /**
+     * Timetable events overlapping [startMin, endMin) on dayOfWeek (Calendar.SUNDAY..SATURDAY)
+     * on some date from today on (a class added now repeats weekly from today), ignoring
+     * excludeEventId. Series that have ended don't count. Read from the TimetableIndex on
+     * the io thread, delivered on main; empty if logged out.
+     */
+    public void timetableClashes(int dayOfWeek, int startMin, int endMin, @Nullable String excludeEventId,
+                                 @NonNull Consumer<List<TimetableEvent>> result) {
+        TimetableIndex index = bindToCurrentUser() ? timetableIndex : null;
+        if (index == null) {
+            result.accept(Collections.emptyList());
+            return;
+        }
+        AppExecutors.io().execute(() -> {
+            List<TimetableEvent> out = index.overlapping(dayOfWeek, startMin, endMin,
+                    LocalDate.now(), LocalDate.MAX, excludeEventId);
+            AppExecutors.main().execute(() -> result.accept(out));
+        });
+    }
+
+    /**
+     * Up to `limit` free blocks of `minutes` in [from, to) (e.g. now .. a task's dueAt),
+     * around the timetable and recent focus sessions; see FreeSlots. Only as complete as
+     * timetable() / focusSessions() are loaded, so observe those to refresh.
+     * io thread, delivered on main; empty if logged out.
+     */
+    public void freeStudySlots(long from, long to, int minutes, int limit,
+                               @NonNull Consumer<List<FreeSlots.Slot>> result) {
+        if (!bindToCurrentUser()) {
+            result.accept(Collections.emptyList());
+            return;
+        }
+        AppExecutors.io().execute(() -> {
+            if (freeSlots == null) freeSlots = FreeSlots.of(slotTimetable, slotSessions, TimeZone.getDefault());
+            List<FreeSlots.Slot> out = freeSlots.find(from, to, minutes, limit);
+            AppExecutors.main().execute(() -> result.accept(out));
+        });
+    }
+
+    /**
+     * Ranked text search over tasks and/or modules (SearchIndex.KIND_* mask), as current as
+     * tasks() / modules(). Runs on the io thread, delivered on main; empty list if nobody
+     * is logged in.
+     */
+    public void search(@NonNull String query, int kindMask, int limit,
+                       @NonNull Consumer<List<SearchIndex.Hit>> result) {
+        SearchIndex index = bindToCurrentUser() ? searchIndex : null;
+        if (index == null) {
+            result.accept(Collections.emptyList());
+            return;
+        }
+        AppExecutors.io().execute(() -> {
+            List<SearchIndex.Hit> hits = index.search(query, kindMask, limit);
+            AppExecutors.main().execute(() -> result.accept(hits));
+        });
+    }
+
+    // -------- Task writes --------
+
+    /**
+     * Update some fields of users/{uid}/tasks/{taskId}. Coalesced: edits to the same task
+     * within WRITE_WINDOW_MS merge into one write, edits to different tasks share a batch.
+     * The returned Task still fails on its own if this particular write fails.
+     */
+    public Task<Void> updateTask(@NonNull String taskId, @NonNull Map<String, Object> fields) {
+        if (!bindToCurrentUser()) {
+            return com.google.android.gms.tasks.Tasks.forException(
+                    new IllegalStateException("No logged-in user")
+            );
+        }
+        DocumentReference doc = db.collection(COLLECTION_PROFILES).document(boundUid)
+                .collection(COLLECTION_TASKS).document(taskId);
+        return taskWrites.update(doc, SyncedCollection.stamp(new HashMap<>(fields)));
+    }
+
+    /** Tick / untick a task (for inline toggles; safe to call rapidly). */
+    public Task<Void> setTaskCompleted(@NonNull String taskId, boolean completed) {
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("completed", completed);
+        return updateTask(taskId, fields);
+    }
+
+    /** Delete a task, leaving a tombstone so other devices' delta sync drops it too. */
+    public Task<Void> deleteTask(@NonNull String taskId) {
+        if (!bindToCurrentUser()) {
+            return com.google.android.gms.tasks.Tasks.forException(
+                    new IllegalStateException("No logged-in user")
+            );
+        }
+        WriteBatch batch = db.batch();
+        SyncedCollection.delete(batch, db.collection(COLLECTION_PROFILES).document(boundUid)
+                .collection(COLLECTION_TASKS).document(taskId));
+        return batch.commit();
+    }
+
+    /**
+     * Send any coalesced task edits now instead of waiting for the window (StudyBuddyApp does
+     * on every onPause). Call it before signing out: once the user is gone the writes are rejected.
+     */
+    public void flushWrites() {
+        if (taskWrites != null) taskWrites.flush();
+    }
+
+    // -------- Module writes --------
+
+    /**
+     * Module + its weekly TimetableEvent in one atomic WriteBatch (one round trip).
+     * Both ids are allocated on the device first, so the event can point at the module
+     * before either exists; either both documents are written or neither is.
+     */
+    public Task<Void> createModule(@NonNull Module module, int dayOfWeek, int startMin, int endMin) {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        if (user == null) {
+            return com.google.android.gms.tasks.Tasks.forException(
+                    new IllegalStateException("No logged-in user")
+            );
+        }
+
+        DocumentReference userDoc = db.collection(COLLECTION_PROFILES).document(user.getUid());
+        DocumentReference moduleDoc = userDoc.collection(COLLECTION_MODULES).document();
+        DocumentReference eventDoc = userDoc.collection(COLLECTION_TIMETABLE).document();
+
+        TimetableEvent event = new TimetableEvent(moduleDoc.getId(), module.getTitle(), dayOfWeek, startMin, endMin);
+
+        WriteBatch batch = db.batch();
+        batch.set(moduleDoc, SyncedCollection.stamp(ModuleMapper.toMap(module)));
+        batch.set(eventDoc, SyncedCollection.stamp(TimetableEventMapper.toMap(event)));
+        return batch.commit();
+    }
+
+    /**
+     * Update a module and (if it has one) its timetable event together, atomically.
+     * eventId / eventUpdates may be null to only touch the module.
+     * If the title changes, the task fan-out job is written in the same batch and started.
+     */
+    public Task<Void> updateModule(@NonNull String moduleId, @NonNull Map<String, Object> moduleUpdates,
+                                   @Nullable String eventId, @Nullable Map<String, Object> eventUpdates) {
+        if (!bindToCurrentUser()) {
+            return com.google.android.gms.tasks.Tasks.forException(
+                    new IllegalStateException("No logged-in user")
+            );
+        }
+
+        DocumentReference userDoc = db.collection(COLLECTION_PROFILES).document(boundUid);
+        WriteBatch batch = db.batch();
+        batch.update(userDoc.collection(COLLECTION_MODULES).document(moduleId),
+                SyncedCollection.stamp(new HashMap<>(moduleUpdates)));
+        if (eventId != null && eventUpdates != null) {
+            batch.update(userDoc.collection(COLLECTION_TIMETABLE).document(eventId),
+                    SyncedCollection.stamp(new HashMap<>(eventUpdates)));
+        }
+
+        // Not loaded -> can't tell, so fan out anyway (it skips tasks that are already right)
+        Object newTitle = moduleUpdates.get("title");
+        Module cached = modules.find(moduleId);
+        boolean renamed = newTitle instanceof String
+                && (cached == null || !newTitle.equals(cached.getTitle()));
+        if (!renamed) return batch.commit();
+
+        ModuleRenameFanout fanout = renameFanout;
+        fanout.jobWrite(batch, moduleId, (String) newTitle);
+        return batch.commit().addOnSuccessListener(v -> fanout.start(moduleId));
+    }
+
+    /**
+     * Delete a module, its timetable events, and detach its tasks (see ModuleCascadeDelete).
+     * Runs in the background in 500-op batches; `listener` gets progress + the result.
+     */
+    public void deleteModule(@NonNull String moduleId, @NonNull ModuleCascadeDelete.Listener listener) {
+        if (!bindToCurrentUser()) {
+            listener.onFinished(new IllegalStateException("No logged-in user"));
+            return;
+        }
+        DocumentReference userDoc = db.collection(COLLECTION_PROFILES).document(boundUid);
+        new ModuleCascadeDelete(db, userDoc, moduleId, listener).start();
+    }
+
+    /** Progress / result of module-rename fan-outs (main thread). Pass null to stop listening. */
+    public void setModuleRenameListener(@Nullable ModuleRenameFanout.Listener listener) {
+        renameListener = listener;
+        if (renameFanout != null) renameFanout.setListener(listener);
+    }
+
+    // -------- Calendar files --------
+
+    /**
+     * Import an .ics timetable (see IcsImport). `in` is read on the io thread, a chunk per
+     * batch, and closed at the end; new classes show up through modules() / timetable().
+     */
+    public void importIcs(@NonNull InputStream in, @NonNull IcsImport.Listener listener) {
+        if (!bindToCurrentUser()) {
+            closeQuietly(in);
+            listener.onFinished(new IcsImport.Result(), new IllegalStateException("No logged-in user"));
+            return;
+        }
+        List<Module> known = modules.current();
+        IcsReader reader = new IcsReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        new IcsImport(db, db.collection(COLLECTION_PROFILES).document(boundUid), reader, ZoneId.systemDefault(),
+                known == null ? Collections.emptyList() : known, listener).start();
+    }
+
+    /** Write the timetable + open task deadlines to `out` as .ics (see IcsExport). Closes `out`. */
+    public void exportIcs(@NonNull OutputStream out, @NonNull IcsExport.Listener listener) {
+        if (!bindToCurrentUser()) {
+            closeQuietly(out);
+            listener.onFinished(0, new IllegalStateException("No logged-in user"));
+            return;
+        }
+        IcsWriter writer;
+        try {
+            writer = new IcsWriter(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)),
+                    ZoneId.systemDefault());
+        } catch (IOException e) {
+            closeQuietly(out);
+            listener.onFinished(0, e);
+            return;
+        }
+        new IcsExport(db.collection(COLLECTION_PROFILES).document(boundUid), writer, listener).start();
+    }
+
+    /**
+     * Bulk-add tasks from a CSV or JSON file (see TaskRows for the format, TaskImport for
+     * the checks). Bad rows are skipped and listed in the Result; `in` is closed at the end.
+     */
+    public void importTasks(@NonNull InputStream in, @NonNull TaskImport.Listener listener) {
+        if (!bindToCurrentUser()) {
+            closeQuietly(in);
+            listener.onFinished(new TaskImport.Result(), new IllegalStateException("No logged-in user"));
+            return;
+        }
+        List<Module> known = modules.current();
+        List<Module> mods = known == null ? Collections.emptyList() : known;
+        CollectionReference tasksRef = db.collection(COLLECTION_PROFILES).document(boundUid).collection(COLLECTION_TASKS);
+        AppExecutors.io().execute(() -> {
+            TaskRows rows;
+            try {
+                rows = TaskRows.open(new InputStreamReader(in, StandardCharsets.UTF_8)); // reads the header
+            } catch (IOException e) {
+                closeQuietly(in);
+                AppExecutors.main().execute(() -> listener.onFinished(new TaskImport.Result(), e));
+                return;
+            }
+            new TaskImport(db, tasksRef, rows, mods, ZoneId.systemDefault(), listener).start();
+        });
+    }
+
+    // -------- Backup --------
+
+    /** Back up the whole account to `out` as a .zip (see AccountBackup). Closes `out`. */
+    public void backupAccount(@NonNull OutputStream out, @NonNull AccountBackup.Listener listener) {
+        if (!bindToCurrentUser()) {
+            closeQuietly(out);
+            listener.onFinished(0, new IllegalStateException("No logged-in user"));
+            return;
+        }
+        new AccountBackup(db.collection(COLLECTION_PROFILES).document(boundUid), out, listener).start();
+    }
+
+    /**
+     * Restore a backupAccount() .zip into the current account, keeping document ids (see
+     * AccountRestore). Restored docs show up through the usual listeners. Closes `in`.
+     */
+    public void restoreAccount(@NonNull InputStream in, @NonNull AccountRestore.Listener listener) {
+        if (!bindToCurrentUser()) {
+            closeQuietly(in);
+            listener.onFinished(0, new IllegalStateException("No logged-in user"));
+            return;
+        }
+        new AccountRestore(db, db.collection(COLLECTION_PROFILES).document(boundUid), in, listener).start();
+    }
+
+    private static void closeQuietly(Closeable c) {
+        try {
+            c.close();
+        } catch (IOException ignored) {
+            // nothing useful to do
+        }
+    }
+
+    // -------- Profile --------
+
     public Task<DocumentSnapshot> getProfile() {
         FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
         if (user == null) {
@@ -67,4 +761,3 @@ public class FirestoreRepo {
     }
 
 }
-
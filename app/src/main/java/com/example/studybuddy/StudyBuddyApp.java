@@ -0,0 +1,45 @@
+package com.example.studybuddy;
+
+import android.app.Activity;
+import android.app.Application;
+import android.os.Bundle;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+public class StudyBuddyApp extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        // Local mirror of the user's collections, so screens have data before the network does
+        FirestoreRepo.init(this);
+
+        // Task edits wait up to WRITE_WINDOW_MS to be merged. Hand them to Firestore when any
+        // screen goes away, or a process kill in the background would lose them
+        registerActivityLifecycleCallbacks(new ActivityLifecycleCallbacks() {
+            @Override
+            public void onActivityPaused(@NonNull Activity activity) {
+                FirestoreRepo.get().flushWrites();
+            }
+
+            @Override
+            public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {}
+
+            @Override
+            public void onActivityStarted(@NonNull Activity activity) {}
+
+            @Override
+            public void onActivityResumed(@NonNull Activity activity) {}
+
+            @Override
+            public void onActivityStopped(@NonNull Activity activity) {}
+
+            @Override
+            public void onActivitySaveInstanceState(@NonNull Activity activity, @NonNull Bundle outState) {}
+
+            @Override
+            public void onActivityDestroyed(@NonNull Activity activity) {}
+        });
+    }
+}
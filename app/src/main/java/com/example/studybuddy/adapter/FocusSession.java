@@ -0,0 +1,39 @@
+package com.example.studybuddy.adapter;
+
+import com.example.studybuddy.mapper.DocumentId;
+import com.example.studybuddy.mapper.FirestoreModel;
+
+@FirestoreModel
+public class FocusSession {
+    @DocumentId
+    private String id;
+    private long completedAt;
+    private int studyMins;          // total for the whole session
+    private int studyMinsPerCycle;
+    private int breakMinsPerCycle;
+    private int iterations;
+
+    public FocusSession() {}
+
+    public FocusSession(int studyMinsPerCycle, int breakMinsPerCycle, int iterations) {
+        this.completedAt = System.currentTimeMillis();
+        this.studyMins = studyMinsPerCycle * iterations;
+        this.studyMinsPerCycle = studyMinsPerCycle;
+        this.breakMinsPerCycle = breakMinsPerCycle;
+        this.iterations = iterations;
+    }
+
+    public String getId() { return id; }
+    public long getCompletedAt() { return completedAt; }
+    public int getStudyMins() { return studyMins; }
+    public int getStudyMinsPerCycle() { return studyMinsPerCycle; }
+    public int getBreakMinsPerCycle() { return breakMinsPerCycle; }
+    public int getIterations() { return iterations; }
+
+    public void setId(String id) { this.id = id; }
+    public void setCompletedAt(long completedAt) { this.completedAt = completedAt; }
+    public void setStudyMins(int studyMins) { this.studyMins = studyMins; }
+    public void setStudyMinsPerCycle(int studyMinsPerCycle) { this.studyMinsPerCycle = studyMinsPerCycle; }
+    public void setBreakMinsPerCycle(int breakMinsPerCycle) { this.breakMinsPerCycle = breakMinsPerCycle; }
+    public void setIterations(int iterations) { this.iterations = iterations; }
+}
@@ -1,10 +1,15 @@
 package com.example.studybuddy.adapter;
 
+import com.example.studybuddy.mapper.DocumentId;
+import com.example.studybuddy.mapper.FirestoreModel;
+
 import java.io.Serializable;
 
+@FirestoreModel
 public class Module implements Serializable {
 
     // Firestore document ID (not stored automatically)
+    @DocumentId
     private String id;
 
     private String title;
@@ -13,6 +18,7 @@ public class Module implements Serializable {
     private String semester;
     private String dayOfWeek;
     private long createdAt;
+    private long updatedAt; // server time of the last write (SyncedCollection)
 
     // REQUIRED: no-arg constructor for Firestore
     public Module() {
@@ -57,6 +63,10 @@ public class Module implements Serializable {
         return createdAt;
     }
 
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
     // -------- Setters (REQUIRED for Firestore) --------
     public void setId(String id) {
         this.id = id;
@@ -86,6 +96,10 @@ public class Module implements Serializable {
         this.createdAt = createdAt;
     }
 
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     // -------- UI helper --------
     public String getMetaText() {
         // Example: "Year 3 • Semester 2 • Monday"
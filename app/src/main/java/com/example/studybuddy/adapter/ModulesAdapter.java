@@ -7,24 +7,60 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.studybuddy.R;
+import com.example.studybuddy.util.StableIds;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
-public class ModulesAdapter extends RecyclerView.Adapter<ModulesAdapter.ModuleViewHolder> {
+/**
+ * Module cards on the Modules screen.
+ * List updates go through AsyncListDiffer (submitList), so only changed cards rebind.
+ */
+public class ModulesAdapter extends ListAdapter<Module, ModulesAdapter.ModuleViewHolder> {
 
     public interface OnModuleClickListener {
         void onModuleClick(Module module);
     }
 
-    private final List<Module> modules;
+    private static final DiffUtil.ItemCallback<Module> DIFF = new DiffUtil.ItemCallback<Module>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Module a, @NonNull Module b) {
+            return Objects.equals(a.getId(), b.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Module a, @NonNull Module b) {
+            if (a == b) return true;
+            return Objects.equals(a.getTitle(), b.getTitle())
+                    && Objects.equals(a.getDescription(), b.getDescription())
+                    && Objects.equals(a.getYear(), b.getYear())
+                    && Objects.equals(a.getSemester(), b.getSemester())
+                    && Objects.equals(a.getDayOfWeek(), b.getDayOfWeek());
+        }
+    };
+
     private final OnModuleClickListener listener;
+    private final StableIds stableIds = new StableIds();
+
+    // One listener for every card; the holder resolves which module was tapped
+    private final View.OnClickListener rowClick = this::onRowClick;
 
     public ModulesAdapter(List<Module> modules, OnModuleClickListener listener) {
-        this.modules = modules;
+        super(DIFF);
         this.listener = listener;
+        setHasStableIds(true);
+        if (modules != null && !modules.isEmpty()) submitList(new ArrayList<>(modules));
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return stableIds.of(getItem(position).getId());
     }
 
     @NonNull
@@ -32,12 +68,15 @@ public class ModulesAdapter extends RecyclerView.Adapter<ModulesAdapter.ModuleVi
     public ModuleViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_module_card, parent, false);
-        return new ModuleViewHolder(view);
+        ModuleViewHolder h = new ModuleViewHolder(view);
+        h.clickable.setTag(h);
+        h.clickable.setOnClickListener(rowClick);
+        return h;
     }
 
     @Override
     public void onBindViewHolder(@NonNull ModuleViewHolder holder, int position) {
-        Module module = modules.get(position);
+        Module module = getItem(position);
 
         holder.tvTitle.setText(module.getTitle());
 
@@ -50,31 +89,29 @@ public class ModulesAdapter extends RecyclerView.Adapter<ModulesAdapter.ModuleVi
         }
 
         holder.tvMeta.setText(module.getMetaText());
-
-        View clickable = holder.itemView.findViewById(R.id.moduleRowRoot); // add id in xml (below)
-        if (clickable == null) clickable = holder.itemView;
-
-        clickable.setOnClickListener(v -> {
-            if (listener != null) listener.onModuleClick(module);
-        });
-
     }
 
-    @Override
-    public int getItemCount() {
-        return modules == null ? 0 : modules.size();
+    private void onRowClick(View v) {
+        ModuleViewHolder h = (ModuleViewHolder) v.getTag();
+        int pos = h.getBindingAdapterPosition();
+        if (listener != null && pos != RecyclerView.NO_POSITION) {
+            listener.onModuleClick(getItem(pos));
+        }
     }
 
     static class ModuleViewHolder extends RecyclerView.ViewHolder {
 
         TextView tvTitle, tvSubtitle, tvMeta;
         ImageView ivChevron;
+        View clickable;
 
         ModuleViewHolder(@NonNull View itemView) {
             super(itemView);
             tvTitle = itemView.findViewById(R.id.tvModuleTitle);
             tvSubtitle = itemView.findViewById(R.id.tvModuleSubtitle);
             tvMeta = itemView.findViewById(R.id.tvModuleMeta);
+            View root = itemView.findViewById(R.id.moduleRowRoot);
+            clickable = root != null ? root : itemView;
         }
     }
 }
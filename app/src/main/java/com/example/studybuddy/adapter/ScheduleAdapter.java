@@ -0,0 +1,191 @@
+package com.example.studybuddy.adapter;
+
+import android.graphics.Canvas;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.studybuddy.R;
+import com.example.studybuddy.util.AppExecutors;
+import com.example.studybuddy.util.StableIds;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The Modules screen schedule: classes grouped under day headers.
+ *
+ * - setEvents() expands + formats the rows on AppExecutors.io() (ScheduleRow.build) and
+ *   hands them to AsyncListDiffer, so a timetable snapshot only rebinds changed rows
+ * - recycled views, two types (item_schedule_header / item_schedule_class)
+ * - StickyHeaders (ItemDecoration) keeps the current day's header pinned to the top
+ */
+public class ScheduleAdapter extends ListAdapter<ScheduleRow, ScheduleAdapter.RowVH> {
+
+    public interface OnClassClickListener {
+        void onClassClick(TimetableEvent event);
+    }
+
+    private static final DiffUtil.ItemCallback<ScheduleRow> DIFF = new DiffUtil.ItemCallback<ScheduleRow>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull ScheduleRow a, @NonNull ScheduleRow b) {
+            return Objects.equals(a.key, b.key);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull ScheduleRow a, @NonNull ScheduleRow b) {
+            return a.sameContentAs(b);
+        }
+    };
+
+    private final OnClassClickListener listener;
+    private final StableIds stableIds = new StableIds();
+
+    private final View.OnClickListener rowClick = this::onRowClick;
+
+    public ScheduleAdapter(@Nullable OnClassClickListener listener) {
+        super(DIFF);
+        this.listener = listener;
+        setHasStableIds(true);
+    }
+
+    /**
+     * Show `events` for [from, from + days). Built and diffed off the main thread;
+     * `committed` runs on main once the list is on screen (e.g. to toggle an empty state).
+     */
+    public void setEvents(@NonNull List<TimetableEvent> events, @NonNull LocalDate from, int days,
+                          @Nullable Runnable committed) {
+        List<TimetableEvent> snapshot = new ArrayList<>(events);
+        ZoneId zone = ZoneId.systemDefault();
+
+        // io is a single thread, so calls are built (and submitted) in order
+        AppExecutors.io().execute(() -> {
+            List<ScheduleRow> rows = ScheduleRow.build(snapshot, from, days, zone);
+            AppExecutors.main().execute(() -> submitList(rows, committed));
+        });
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return getItem(position).type;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return stableIds.of(getItem(position).key);
+    }
+
+    @NonNull
+    @Override
+    public RowVH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        boolean header = viewType == ScheduleRow.TYPE_HEADER;
+        View v = LayoutInflater.from(parent.getContext()).inflate(
+                header ? R.layout.item_schedule_header : R.layout.item_schedule_class, parent, false);
+        RowVH h = new RowVH(v);
+        if (!header) {
+            v.setTag(h);
+            v.setOnClickListener(rowClick);
+        }
+        return h;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RowVH h, int position) {
+        ScheduleRow row = getItem(position);
+        h.tvText.setText(row.text);
+        if (h.tvTime != null) h.tvTime.setText(row.time);
+    }
+
+    private void onRowClick(View v) {
+        RowVH h = (RowVH) v.getTag();
+        int pos = h.getBindingAdapterPosition();
+        if (listener == null || pos == RecyclerView.NO_POSITION) return;
+        TimetableEvent e = getItem(pos).event;
+        if (e != null) listener.onClassClick(e);
+    }
+
+    static class RowVH extends RecyclerView.ViewHolder {
+        TextView tvText, tvTime;
+
+        RowVH(@NonNull View itemView) {
+            super(itemView);
+            tvText = itemView.findViewById(R.id.tvScheduleText);
+            tvTime = itemView.findViewById(R.id.tvScheduleTime); // class rows only
+        }
+    }
+
+    /**
+     * Draws the header of the top row's day over the list, pushed up by the next day's
+     * header as it scrolls in. Uses one private header ViewHolder from the adapter, so the
+     * pinned header looks exactly like the in-list ones.
+     */
+    public static class StickyHeaders extends RecyclerView.ItemDecoration {
+
+        private final ScheduleAdapter adapter;
+        private RowVH pinned;
+        private int pinnedPosition = RecyclerView.NO_POSITION;
+
+        public StickyHeaders(@NonNull ScheduleAdapter adapter) {
+            this.adapter = adapter;
+        }
+
+        @Override
+        public void onDrawOver(@NonNull Canvas c, @NonNull RecyclerView parent, @NonNull RecyclerView.State state) {
+            if (parent.getChildCount() == 0 || adapter.getItemCount() == 0) return;
+            View top = parent.getChildAt(0);
+            int topPos = parent.getChildAdapterPosition(top);
+            if (topPos == RecyclerView.NO_POSITION) return;
+
+            int headerPos = adapter.getItem(topPos).header;
+            View header = headerView(parent, headerPos);
+
+            // The next header (if on screen) pushes this one up
+            int offset = 0;
+            for (int i = 1; i < parent.getChildCount(); i++) {
+                View child = parent.getChildAt(i);
+                int pos = parent.getChildAdapterPosition(child);
+                if (pos == RecyclerView.NO_POSITION || adapter.getItemViewType(pos) != ScheduleRow.TYPE_HEADER) continue;
+                if (pos == headerPos) continue;
+                offset = Math.min(0, child.getTop() - header.getHeight());
+                break;
+            }
+
+            c.save();
+            c.translate(parent.getPaddingLeft(), offset);
+            header.draw(c);
+            c.restore();
+        }
+
+        private View headerView(RecyclerView parent, int position) {
+            if (pinned == null) {
+                pinned = adapter.onCreateViewHolder(parent, ScheduleRow.TYPE_HEADER);
+                pinnedPosition = RecyclerView.NO_POSITION;
+            }
+            View v = pinned.itemView;
+            int width = parent.getWidth() - parent.getPaddingLeft() - parent.getPaddingRight();
+            if (position != pinnedPosition || v.getWidth() != width) {
+                adapter.onBindViewHolder(pinned, position);
+                pinnedPosition = position;
+                v.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                        View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+                v.layout(0, 0, v.getMeasuredWidth(), v.getMeasuredHeight());
+            }
+            return v;
+        }
+
+        /** Call when the list changed: the same position may now be another day. */
+        public void invalidate() {
+            pinnedPosition = RecyclerView.NO_POSITION;
+        }
+    }
+}
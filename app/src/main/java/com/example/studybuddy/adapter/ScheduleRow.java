@@ -0,0 +1,100 @@
+package com.example.studybuddy.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.studybuddy.data.Recurrence;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * One row of the Modules screen schedule: a day header or one class on that day.
+ *
+ * Built off the main thread by build() (rrule expansion, sorting, formatting), so
+ * ScheduleAdapter.onBindViewHolder only sets text. `header` is the position of the row's
+ * day header, which is what the sticky header decoration draws.
+ */
+public final class ScheduleRow {
+
+    public static final int TYPE_HEADER = 0;
+    public static final int TYPE_CLASS = 1;
+
+    public final int type;
+    public final String key;        // "d:2025-01-13" / "e:{eventId}:2025-01-13", unique per list
+    public final int header;        // position of this row's day header
+    public final String text;       // header: "Today • Mon 13 Jan", class: title
+    public final String time;       // "09:00 - 10:00" ("" for headers)
+    @Nullable public final TimetableEvent event;
+
+    private ScheduleRow(int type, String key, int header, String text, String time, @Nullable TimetableEvent event) {
+        this.type = type;
+        this.key = key;
+        this.header = header;
+        this.text = text;
+        this.time = time;
+        this.event = event;
+    }
+
+    boolean sameContentAs(@NonNull ScheduleRow o) {
+        return type == o.type && header == o.header && text.equals(o.text) && time.equals(o.time);
+    }
+
+    /** Day headers + classes in [from, from + days), in time order. Any thread. */
+    @NonNull
+    public static List<ScheduleRow> build(@NonNull List<TimetableEvent> events, @NonNull LocalDate from, int days,
+                                          @NonNull ZoneId zone) {
+        DateTimeFormatter dayFormat = DateTimeFormatter.ofPattern("EEE d MMM", Locale.getDefault());
+        List<ScheduleRow> rows = new ArrayList<>();
+        LocalDate today = LocalDate.now(zone);
+
+        LocalDate day = null;
+        int header = -1;
+        Iterator<Recurrence.Occurrence> it = Recurrence.expand(events, from, from.plusDays(days), zone);
+        while (it.hasNext()) {
+            Recurrence.Occurrence o = it.next();
+            if (!o.date.equals(day)) {
+                day = o.date;
+                header = rows.size();
+                String label = dayFormat.format(day);
+                if (day.equals(today)) label = "Today • " + label;
+                else if (day.equals(today.plusDays(1))) label = "Tomorrow • " + label;
+                rows.add(new ScheduleRow(TYPE_HEADER, "d:" + day, header, label, "", null));
+            }
+            TimetableEvent e = o.event;
+            String title = e.getTitle() == null || e.getTitle().trim().isEmpty() ? "Untitled class" : e.getTitle().trim();
+            rows.add(new ScheduleRow(TYPE_CLASS, "e:" + e.getId() + ":" + day, header, title,
+                    clock(e.getStartMin()) + " - " + clock(e.getEndMin()), e));
+        }
+        return rows;
+    }
+
+    /** "HH:mm" without String.format (this runs for every row of every rebuild). */
+    static String clock(int mins) {
+        int m = Math.floorMod(mins, 24 * 60);
+        char[] c = {
+                (char) ('0' + m / 600), (char) ('0' + m / 60 % 10), ':',
+                (char) ('0' + m % 60 / 10), (char) ('0' + m % 10)
+        };
+        return new String(c);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ScheduleRow)) return false;
+        ScheduleRow other = (ScheduleRow) o;
+        return key.equals(other.key) && sameContentAs(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, type, header, text, time);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.studybuddy.adapter;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * One already-inflated view as a single-item adapter: page headers / footers in a
+ * ConcatAdapter, so a screen can scroll as one RecyclerView without wrapping it in a
+ * NestedScrollView (which makes the RecyclerView bind every row).
+ *
+ * The holder is never recycled: the same view (with its spinners / text fields and
+ * their state) comes back every time it scrolls into sight.
+ */
+public class StaticViewAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+    private final View view;
+
+    public StaticViewAdapter(@NonNull View view) {
+        this.view = view;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public int getItemCount() {
+        return 1;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return 0;
+    }
+
+    @NonNull
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        RecyclerView.ViewHolder h = new RecyclerView.ViewHolder(view) {};
+        h.setIsRecyclable(false);
+        return h;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {}
+}
@@ -1,8 +1,13 @@
 package com.example.studybuddy.adapter;
 
+import com.example.studybuddy.mapper.DocumentId;
+import com.example.studybuddy.mapper.FirestoreModel;
+
+@FirestoreModel
 public class Task {
 
     // Firestore document ID (not stored automatically)
+    @DocumentId
     private String id;
 
     // Stored fields (must match Firestore keys exactly)
@@ -20,6 +25,7 @@ public class Task {
 
     private boolean completed;
     private long createdAt;
+    private long updatedAt; // server time of the last write (SyncedCollection)
 
     private String type; // task, assignment, exam, demo, presentation
 
@@ -53,6 +59,7 @@ public class Task {
     public Long getDueAt() { return dueAt; }
     public boolean isCompleted() { return completed; }
     public long getCreatedAt() { return createdAt; }
+    public long getUpdatedAt() { return updatedAt; }
 
     // Setters (REQUIRED for Firestore mapping)
     public void setId(String id) { this.id = id; }
@@ -64,4 +71,5 @@ public class Task {
     public void setDueAt(Long dueAt) { this.dueAt = dueAt; }
     public void setCompleted(boolean completed) { this.completed = completed; }
     public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+    public void setUpdatedAt(long updatedAt) { this.updatedAt = updatedAt; }
 }
\ No newline at end of file
@@ -0,0 +1,172 @@
+package com.example.studybuddy.adapter;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+
+import com.example.studybuddy.R;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Everything one task card needs, already formatted.
+ *
+ * Built once per task change on a background thread (Factory), so
+ * TasksAdapter.onBindViewHolder is just setText/setColor with no allocation.
+ */
+public final class TaskRowModel {
+
+    public final Task task;       // original model (click -> detail)
+    public final String id;
+    public final String title;    // trimmed, "Untitled task" fallback
+    public final String meta;     // "Due: 12 Mar • High"
+    public final boolean completed;
+    public final int cardColor;   // resolved color int (type)
+    public final int stripColor;  // resolved color int (priority)
+
+    private TaskRowModel(Task task, String title, String meta, boolean completed,
+                         int cardColor, int stripColor) {
+        this.task = task;
+        this.id = task.getId();
+        this.title = title;
+        this.meta = meta;
+        this.completed = completed;
+        this.cardColor = cardColor;
+        this.stripColor = stripColor;
+    }
+
+    boolean sameContentAs(@NonNull TaskRowModel o) {
+        return completed == o.completed
+                && cardColor == o.cardColor
+                && stripColor == o.stripColor
+                && title.equals(o.title)
+                && meta.equals(o.meta);
+    }
+
+    /**
+     * Turns Tasks into rows. NOT thread-safe (SimpleDateFormat), so use it from one
+     * thread only - TasksAdapter keeps it on AppExecutors.io().
+     *
+     * Rows are cached per document id and reused while the repository hands back the
+     * same Task instance (it only creates a new one when the document changed).
+     */
+    public static final class Factory {
+
+        private final SimpleDateFormat dueFormat = new SimpleDateFormat("dd MMM", Locale.getDefault());
+
+        // Task TYPE -> light card background (from colors.xml)
+        private final int colorTask, colorAssignment, colorExam, colorDemo, colorPresentation;
+
+        // Priority -> left strip accent color
+        private final int colorHigh, colorMedium, colorLow, colorNone;
+
+        private final Map<String, TaskRowModel> cache = new HashMap<>();
+
+        public Factory(@NonNull Context context) {
+            Context app = context.getApplicationContext();
+            colorTask = ContextCompat.getColor(app, R.color.success_green_soft);
+            colorAssignment = ContextCompat.getColor(app, R.color.info_blue_soft);
+            colorExam = ContextCompat.getColor(app, R.color.warning_orange_soft);
+            colorDemo = ContextCompat.getColor(app, R.color.accent_amber_soft);
+            colorPresentation = ContextCompat.getColor(app, R.color.accent_coral_soft);
+
+            colorHigh = ContextCompat.getColor(app, R.color.error_red);
+            colorMedium = ContextCompat.getColor(app, R.color.primary_blue);
+            colorLow = ContextCompat.getColor(app, R.color.secondary_teal);
+            colorNone = ContextCompat.getColor(app, R.color.surface_alt);
+        }
+
+        @NonNull
+        public TaskRowModel rowFor(@NonNull Task t) {
+            String key = t.getId();
+            TaskRowModel cached = key == null ? null : cache.get(key);
+            if (cached != null && cached.task == t) return cached;
+
+            TaskRowModel row = build(t);
+            if (key != null) cache.put(key, row);
+            return row;
+        }
+
+        /** Drop cached rows for docs that are gone (keeps the cache bounded). */
+        public void retain(@NonNull Set<String> liveIds) {
+            cache.keySet().retainAll(liveIds);
+        }
+
+        private TaskRowModel build(Task t) {
+            // Title
+            String title = (t.getTitle() == null || t.getTitle().trim().isEmpty())
+                    ? "Untitled task"
+                    : t.getTitle().trim();
+
+            // Meta: Due + Priority label
+            String dueText = t.getDueAt() == null ? "" : dueFormat.format(new Date(t.getDueAt()));
+            String meta = (dueText.isEmpty() ? "No due date" : ("Due: " + dueText))
+                    + " • " + priorityLabel(t.getPriority());
+
+            return new TaskRowModel(t, title, meta, t.isCompleted(),
+                    typeColor(t.getType()), priorityColor(t.getPriority()));
+        }
+
+        private String priorityLabel(String p) {
+            if (p == null) return "None";
+            switch (p) {
+                case "HIGH":
+                    return "High";
+                case "MEDIUM":
+                    return "Medium";
+                case "LOW":
+                    return "Low";
+                default:
+                    return "None";
+            }
+        }
+
+        /**
+         * Expected stored values: task, assignment, exam, demo, presentation
+         * Falls back to "task".
+         */
+        private int typeColor(String type) {
+            if (type == null) return colorTask;
+            switch (type.trim().toLowerCase(Locale.ROOT)) {
+                case "assignment":
+                    return colorAssignment;
+                case "exam":
+                    return colorExam;
+                case "demo":
+                    return colorDemo;
+                case "presentation":
+                    return colorPresentation;
+                case "task":
+                default:
+                    return colorTask;
+            }
+        }
+
+        private int priorityColor(String p) {
+            if ("HIGH".equals(p)) return colorHigh;
+            if ("MEDIUM".equals(p)) return colorMedium;
+            if ("LOW".equals(p)) return colorLow;
+            return colorNone;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TaskRowModel)) return false;
+        TaskRowModel other = (TaskRowModel) o;
+        return Objects.equals(id, other.id) && sameContentAs(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, title, meta, completed, cardColor, stripColor);
+    }
+}
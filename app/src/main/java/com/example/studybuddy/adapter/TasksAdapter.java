@@ -1,5 +1,6 @@
 package com.example.studybuddy.adapter;
 
+import android.content.Context;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -8,49 +9,88 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
-import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.studybuddy.R;
+import com.example.studybuddy.util.AppExecutors;
+import com.example.studybuddy.util.StableIds;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Adapter for showing tasks (used on Home "Upcoming Tasks" list).
  * Inflates: item_upcoming_task.xml
  *
  * Features:
- * - setTasks(List<Task>) updates list safely + notifies
- * - Clicking a task calls OnTaskClickListener
+ * - setTasks(List<Task>) turns tasks into TaskRowModels on AppExecutors.io(), then hands
+ *   them to AsyncListDiffer; only the rows that actually changed are rebound
+ * - onBindViewHolder is plain field assignment (text + colors are precomputed)
+ * - Stable ids from the Firestore document id (keeps scroll position + animations)
+ * - One shared click listener for every row -> OnTaskClickListener
  * - Shows meta text: due date + priority
  * - Shows completed tick if completed
- * - Uses LIGHT colors from colors.xml based on task type:
- *   task, assignment, exam, demo, presentation
- * - Uses priority strip color (left bar) based on priority
+ * - Card color by task type, left strip color by priority (see TaskRowModel.Factory)
  */
-public class TasksAdapter extends RecyclerView.Adapter<TasksAdapter.TaskVH> {
+public class TasksAdapter extends ListAdapter<TaskRowModel, TasksAdapter.TaskVH> {
 
     public interface OnTaskClickListener {
         void onTaskClick(Task task);
     }
 
-    private final List<Task> tasks = new ArrayList<>();
+    private static final DiffUtil.ItemCallback<TaskRowModel> DIFF = new DiffUtil.ItemCallback<TaskRowModel>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull TaskRowModel a, @NonNull TaskRowModel b) {
+            return Objects.equals(a.id, b.id);
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull TaskRowModel a, @NonNull TaskRowModel b) {
+            // Factory reuses the row while the Task is unchanged, so this is usually a == b
+            return a == b || a.sameContentAs(b);
+        }
+    };
+
     private final OnTaskClickListener listener;
+    private final StableIds stableIds = new StableIds();
+    private final TaskRowModel.Factory rowFactory; // io thread only
 
-    public TasksAdapter(List<Task> initialTasks, OnTaskClickListener listener) {
-        if (initialTasks != null) this.tasks.addAll(initialTasks);
+    private final View.OnClickListener rowClick = this::onRowClick;
+
+    public TasksAdapter(@NonNull Context context, List<Task> initialTasks, OnTaskClickListener listener) {
+        super(DIFF);
         this.listener = listener;
+        this.rowFactory = new TaskRowModel.Factory(context);
+        setHasStableIds(true);
+        if (initialTasks != null && !initialTasks.isEmpty()) setTasks(initialTasks);
     }
 
-    /** Replace the adapter data and refresh the list. */
+    /** Replace the adapter data; rows are built and diffed off the main thread. */
     public void setTasks(List<Task> newTasks) {
-        tasks.clear();
-        if (newTasks != null) tasks.addAll(newTasks);
-        notifyDataSetChanged();
+        List<Task> snapshot = newTasks == null ? new ArrayList<>() : new ArrayList<>(newTasks);
+
+        // io is a single thread, so calls are built (and submitted) in order
+        AppExecutors.io().execute(() -> {
+            List<TaskRowModel> rows = new ArrayList<>(snapshot.size());
+            Set<String> ids = new HashSet<>();
+            for (Task t : snapshot) {
+                TaskRowModel row = rowFactory.rowFor(t);
+                rows.add(row);
+                if (row.id != null) ids.add(row.id);
+            }
+            rowFactory.retain(ids);
+            AppExecutors.main().execute(() -> submitList(rows));
+        });
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return stableIds.of(getItem(position).id);
     }
 
     @NonNull
@@ -58,45 +98,30 @@ public class TasksAdapter extends RecyclerView.Adapter<TasksAdapter.TaskVH> {
     public TaskVH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View v = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_upcoming_task, parent, false);
-        return new TaskVH(v);
+        TaskVH h = new TaskVH(v);
+        v.setTag(h);
+        v.setOnClickListener(rowClick);
+        return h;
     }
 
     @Override
     public void onBindViewHolder(@NonNull TaskVH h, int position) {
-        Task t = tasks.get(position);
-
-        // Title
-        String title = (t.getTitle() == null || t.getTitle().trim().isEmpty())
-                ? "Untitled task"
-                : t.getTitle().trim();
-        h.tvTitle.setText(title);
-
-        // Meta: Due + Priority label
-        String dueText = formatDue(t.getDueAt());
-        String prText = formatPriorityLabel(t.getPriority());
-
-        String meta = (dueText.isEmpty() ? "No due date" : ("Due: " + dueText))
-                + " • " + prText;
-        h.tvMeta.setText(meta);
+        TaskRowModel row = getItem(position);
 
-        // Completed icon
-        h.imgStatus.setVisibility(t.isCompleted() ? View.VISIBLE : View.GONE);
+        h.tvTitle.setText(row.title);
+        h.tvMeta.setText(row.meta);
+        h.imgStatus.setVisibility(row.completed ? View.VISIBLE : View.GONE);
 
-        // Card background: LIGHT colors from your theme based on task TYPE
-        applyTypeCardColor(h, t);
-
-        // Left strip color: based on PRIORITY (keeps your existing meaning)
-        applyPriorityStripColor(h, t);
-
-        // Click
-        h.itemView.setOnClickListener(v -> {
-            if (listener != null) listener.onTaskClick(t);
-        });
+        if (h.cardTaskItem != null) h.cardTaskItem.setCardBackgroundColor(row.cardColor);
+        if (h.viewPriority != null) h.viewPriority.setBackgroundColor(row.stripColor);
     }
 
-    @Override
-    public int getItemCount() {
-        return tasks.size();
+    private void onRowClick(View v) {
+        TaskVH h = (TaskVH) v.getTag();
+        int pos = h.getBindingAdapterPosition();
+        if (listener != null && pos != RecyclerView.NO_POSITION) {
+            listener.onTaskClick(getItem(pos).task);
+        }
     }
 
     static class TaskVH extends RecyclerView.ViewHolder {
@@ -114,81 +139,4 @@ public class TasksAdapter extends RecyclerView.Adapter<TasksAdapter.TaskVH> {
             imgStatus = itemView.findViewById(R.id.imgStatus);
         }
     }
-
-    private String formatDue(Long dueAt) {
-        if (dueAt == null) return "";
-        SimpleDateFormat fmt = new SimpleDateFormat("dd MMM", Locale.getDefault());
-        return fmt.format(new Date(dueAt));
-    }
-
-    private String formatPriorityLabel(String p) {
-        if (p == null) return "None";
-        switch (p) {
-            case "HIGH":
-                return "High";
-            case "MEDIUM":
-                return "Medium";
-            case "LOW":
-                return "Low";
-            default:
-                return "None";
-        }
-    }
-
-    /**
-     * Task TYPE -> light card background (from your colors.xml).
-     * Expected stored values: task, assignment, exam, demo, presentation
-     * Falls back to "task".
-     */
-    private void applyTypeCardColor(@NonNull TaskVH h, @NonNull Task t) {
-        String type = t.getType();
-        if (type == null) type = "task";
-        type = type.trim().toLowerCase(Locale.ROOT);
-
-        int bgRes;
-        switch (type) {
-            case "assignment":
-                bgRes = R.color.info_blue_soft;
-                break;
-            case "exam":
-                bgRes = R.color.warning_orange_soft;
-                break;
-            case "demo":
-                bgRes = R.color.accent_amber_soft;
-                break;
-            case "presentation":
-                bgRes = R.color.accent_coral_soft;
-                break;
-            case "task":
-            default:
-                bgRes = R.color.success_green_soft;
-                break;
-        }
-
-        if (h.cardTaskItem != null) {
-            h.cardTaskItem.setCardBackgroundColor(
-                    ContextCompat.getColor(h.itemView.getContext(), bgRes)
-            );
-        }
-    }
-
-    /**
-     * Priority -> left strip accent color.
-     * If you want priority strip to also be type-based, tell me and I’ll swap it.
-     */
-    private void applyPriorityStripColor(@NonNull TaskVH h, @NonNull Task t) {
-        String p = t.getPriority();
-
-        int stripRes;
-        if ("HIGH".equals(p)) stripRes = R.color.error_red;
-        else if ("MEDIUM".equals(p)) stripRes = R.color.primary_blue;
-        else if ("LOW".equals(p)) stripRes = R.color.secondary_teal;
-        else stripRes = R.color.surface_alt;
-
-        if (h.viewPriority != null) {
-            h.viewPriority.setBackgroundColor(
-                    ContextCompat.getColor(h.itemView.getContext(), stripRes)
-            );
-        }
-    }
 }
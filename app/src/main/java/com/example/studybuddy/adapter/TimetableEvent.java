@@ -1,14 +1,22 @@
 package com.example.studybuddy.adapter;
 
+import com.example.studybuddy.mapper.DocumentId;
+import com.example.studybuddy.mapper.FirestoreModel;
+
+@FirestoreModel
 public class TimetableEvent {
+    @DocumentId
     private String id;
     private String moduleId;
     private String title;
     private int dayOfWeek;   // Calendar.SUNDAY..SATURDAY (1..7)
     private int startMin;    // minutes from midnight
     private int endMin;
-    private String rrule;    // "WEEKLY"
+    private String rrule;    // "WEEKLY" or e.g. "FREQ=WEEKLY;INTERVAL=2;UNTIL=20250516" (see data.Recurrence)
+    private String dtstart;  // yyyyMMdd of the first week, null = from createdAt
+    private String exdates;  // comma separated yyyyMMdd dates with no class (reading week etc.)
     private long createdAt;
+    private long updatedAt;  // server time of the last write (SyncedCollection)
 
     public TimetableEvent() {}
 
@@ -30,7 +38,10 @@ public class TimetableEvent {
     public int getStartMin() { return startMin; }
     public int getEndMin() { return endMin; }
     public String getRrule() { return rrule; }
+    public String getDtstart() { return dtstart; }
+    public String getExdates() { return exdates; }
     public long getCreatedAt() { return createdAt; }
+    public long getUpdatedAt() { return updatedAt; }
 
     public void setId(String id) { this.id = id; }
     public void setModuleId(String moduleId) { this.moduleId = moduleId; }
@@ -39,6 +50,9 @@ public class TimetableEvent {
     public void setStartMin(int startMin) { this.startMin = startMin; }
     public void setEndMin(int endMin) { this.endMin = endMin; }
     public void setRrule(String rrule) { this.rrule = rrule; }
+    public void setDtstart(String dtstart) { this.dtstart = dtstart; }
+    public void setExdates(String exdates) { this.exdates = exdates; }
     public void setCreatedAt(long createdAt) { this.createdAt = createdAt; }
+    public void setUpdatedAt(long updatedAt) { this.updatedAt = updatedAt; }
 }
 
@@ -0,0 +1,209 @@
+package com.example.studybuddy.data;
+
+import android.util.JsonWriter;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.studybuddy.util.AppExecutors;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.Source;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Backs up everything under users/{uid} into a .zip (read back by AccountRestore):
+ *
+ *   manifest.json            {"format":"studybuddy-backup","version":1,"exportedAt":..,"uid":..}
+ *   profile.json             the users/{uid} document
+ *   modules.ndjson           one document per line (see BackupJson)
+ *   tasks.ndjson
+ *   timetable_events.ndjson
+ *   focus_sessions.ndjson
+ *
+ * Each collection is read from the server a page at a time (document id cursor, like
+ * IcsExport) and the page is written into the zip before the next one is fetched, so
+ * only one page is in memory however big the account is. Source.SERVER on purpose: an
+ * offline export would otherwise quietly save whatever happens to be in the cache.
+ *
+ * tombstones/ and jobs/ are sync / background-work bookkeeping and aren't included.
+ * Runs on AppExecutors.io(); `out` is closed when it finishes or fails.
+ */
+public class AccountBackup {
+
+    public interface Listener {
+        /** Main thread. Documents written so far. */
+        default void onProgress(int docs) {}
+
+        /** Main thread. error == null -> the archive is complete. */
+        void onFinished(int docs, @Nullable Exception error);
+    }
+
+    static final String FORMAT = "studybuddy-backup";
+    static final int VERSION = 1;
+    static final String MANIFEST = "manifest.json";
+    static final String PROFILE = "profile.json";
+    static final String NDJSON = ".ndjson";
+
+    /** Subcollections of users/{uid} in a backup, in archive order. */
+    static final List<String> COLLECTIONS = Collections.unmodifiableList(
+            Arrays.asList("modules", "tasks", "timetable_events", "focus_sessions"));
+
+    private static final String TAG = "AccountBackup";
+    private static final int PAGE_SIZE = 500;
+
+    private final DocumentReference userDoc;
+    private final OutputStream out;
+    private final Listener listener;
+
+    // io thread only
+    private final BackupJson json = new BackupJson();
+    private ZipOutputStream zip;
+    private Writer text;
+    private int docs = 0;
+    private boolean finished = false;
+
+    public AccountBackup(@NonNull DocumentReference userDoc, @NonNull OutputStream out, @NonNull Listener listener) {
+        this.userDoc = userDoc;
+        this.out = out;
+        this.listener = listener;
+    }
+
+    public void start() {
+        AppExecutors.io().execute(() -> {
+            try {
+                zip = new ZipOutputStream(new BufferedOutputStream(out, 64 * 1024));
+                text = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+                writeManifest();
+            } catch (IOException | RuntimeException e) {
+                finish(e);
+                return;
+            }
+            userDoc.get(Source.SERVER)
+                    .addOnSuccessListener(AppExecutors.io(), snap -> {
+                        try {
+                            entry(PROFILE);
+                            if (snap.exists()) writeDoc(snap);
+                            closeEntry();
+                        } catch (IOException | RuntimeException e) {
+                            finish(e);
+                            return;
+                        }
+                        collection(0);
+                    })
+                    .addOnFailureListener(AppExecutors.io(), this::finish);
+        });
+    }
+
+    // -------- Steps (io thread) --------
+
+    private void collection(int i) {
+        if (i == COLLECTIONS.size()) {
+            finish(null);
+            return;
+        }
+        String name = COLLECTIONS.get(i);
+        try {
+            entry(name + NDJSON);
+        } catch (IOException e) {
+            finish(e);
+            return;
+        }
+        Query query = userDoc.collection(name).orderBy(FieldPath.documentId(), Query.Direction.ASCENDING);
+        page(query, null, () -> {
+            try {
+                closeEntry();
+            } catch (IOException e) {
+                finish(e);
+                return;
+            }
+            collection(i + 1);
+        });
+    }
+
+    private void page(Query query, @Nullable String cursor, Runnable then) {
+        Query page = cursor == null ? query : query.startAfter(cursor);
+        page.limit(PAGE_SIZE).get(Source.SERVER)
+                .addOnSuccessListener(AppExecutors.io(), snap -> {
+                    List<DocumentSnapshot> found = snap.getDocuments();
+                    try {
+                        for (DocumentSnapshot doc : found) writeDoc(doc);
+                    } catch (IOException | RuntimeException e) {
+                        finish(e);
+                        return;
+                    }
+                    int written = docs;
+                    AppExecutors.main().execute(() -> listener.onProgress(written));
+                    if (found.size() < PAGE_SIZE) then.run();
+                    else page(query, found.get(found.size() - 1).getId(), then);
+                })
+                .addOnFailureListener(AppExecutors.io(), this::finish);
+    }
+
+    private void writeManifest() throws IOException {
+        entry(MANIFEST);
+        StringWriter s = new StringWriter();
+        JsonWriter w = new JsonWriter(s);
+        w.beginObject();
+        w.name("format").value(FORMAT);
+        w.name("version").value(VERSION);
+        w.name("exportedAt").value(System.currentTimeMillis());
+        w.name("uid").value(userDoc.getId());
+        w.name("collections").beginArray();
+        for (String c : COLLECTIONS) w.value(c);
+        w.endArray();
+        w.endObject();
+        w.flush();
+        text.write(s.toString());
+        text.write('\n');
+        closeEntry();
+    }
+
+    private void writeDoc(DocumentSnapshot doc) throws IOException {
+        text.append(json.line(doc.getId(), doc.getData())).append('\n');
+        docs++;
+    }
+
+    private void entry(String name) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+    }
+
+    private void closeEntry() throws IOException {
+        text.flush(); // the writer's buffer belongs to this entry
+        zip.closeEntry();
+    }
+
+    private void finish(@Nullable Exception error) {
+        if (finished) return;
+        finished = true;
+        try {
+            if (zip != null) {
+                text.flush();
+                zip.close(); // writes the central directory, closes `out`
+            } else {
+                out.close();
+            }
+        } catch (IOException e) {
+            if (error == null) error = e;
+        }
+        if (error != null) Log.w(TAG, "backup stopped after " + docs + " documents", error);
+        int count = docs;
+        Exception result = error;
+        AppExecutors.main().execute(() -> listener.onFinished(count, result));
+    }
+}
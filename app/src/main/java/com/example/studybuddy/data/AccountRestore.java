@@ -0,0 +1,264 @@
+package com.example.studybuddy.data;
+
+import android.util.JsonReader;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.studybuddy.util.AppExecutors;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Replays an AccountBackup .zip into the current user's users/{uid}, keeping every
+ * document id, so restoring twice (or over live data) overwrites instead of duplicating.
+ * Documents that exist now but aren't in the backup are left alone.
+ *
+ * The archive is read one line at a time; lines become WriteBatches of up to BATCH_OPS
+ * ops (and BATCH_CHARS of JSON, well under Firestore's request size limit). The next batch
+ * is read while the previous one commits, so at most two are in memory.
+ *
+ * modules / tasks / timetable_events go through SyncedCollection.restore(): re-stamped
+ * `updatedAt` so other devices' delta sync picks them up, and any tombstone from an
+ * earlier delete removed. The profile is merged into users/{uid} (the backup may come
+ * from another account; the uid in the manifest isn't used). Entries it doesn't know are
+ * skipped, so a newer backup with extra collections still restores what it can.
+ */
+public class AccountRestore {
+
+    public interface Listener {
+        /** Main thread. Documents written so far. */
+        default void onProgress(int docs) {}
+
+        /** Main thread. error != null -> stopped early; the first `docs` documents were written. */
+        void onFinished(int docs, @Nullable Exception error);
+    }
+
+    private static final String TAG = "AccountRestore";
+
+    /** Firestore's per-batch limit. */
+    private static final int BATCH_OPS = 500;
+    private static final int BATCH_CHARS = 4 * 1024 * 1024;
+
+    /** Collections that SyncedCollection keeps in sync (the rest are written as-is). */
+    private static final String[] SYNCED = {"modules", "tasks", "timetable_events"};
+
+    private static final class Pending {
+        final WriteBatch batch;
+        int docs;
+        boolean last;
+
+        Pending(WriteBatch batch) {
+            this.batch = batch;
+        }
+    }
+
+    private final FirebaseFirestore db;
+    private final DocumentReference userDoc;
+    private final InputStream in;
+    private final Listener listener;
+
+    // io thread only
+    private ZipInputStream zip;
+    @Nullable private BufferedReader lines;       // current entry
+    @Nullable private String entryName;
+    @Nullable private CollectionReference target; // null -> profile entry
+    private boolean synced;
+    private boolean sawManifest = false;
+    private int lineNo;
+    private boolean eof = false;
+
+    @Nullable private Pending ready;
+    private boolean committing = false;
+    private boolean stopped = false;
+    @Nullable private Exception readError;  // reported once the batch in flight lands
+    private int restored = 0;
+
+    public AccountRestore(@NonNull FirebaseFirestore db, @NonNull DocumentReference userDoc,
+                          @NonNull InputStream in, @NonNull Listener listener) {
+        this.db = db;
+        this.userDoc = userDoc;
+        this.in = in;
+        this.listener = listener;
+    }
+
+    public void start() {
+        AppExecutors.io().execute(() -> {
+            zip = new ZipInputStream(new BufferedInputStream(in, 64 * 1024));
+            readNext();
+        });
+    }
+
+    // -------- Pipeline (io thread) --------
+
+    private void readNext() {
+        if (stopped) return;
+        try {
+            ready = fill();
+        } catch (IOException | RuntimeException e) {
+            readError = lineNo == 0 ? e : new IOException(entryName + " line " + lineNo + ": " + e.getMessage(), e);
+            if (!committing) finish(readError);
+            return;
+        }
+        pump();
+    }
+
+    /** Commit the ready batch if nothing else is committing; meanwhile read the next. */
+    private void pump() {
+        if (stopped || committing || ready == null) return;
+        Pending p = ready;
+        ready = null;
+        if (p.docs == 0) {
+            finish(null); // only possible at the end
+            return;
+        }
+        committing = true;
+        p.batch.commit()
+                .addOnSuccessListener(AppExecutors.io(), v -> {
+                    committing = false;
+                    restored += p.docs;
+                    int done = restored;
+                    AppExecutors.main().execute(() -> listener.onProgress(done));
+                    if (readError != null) finish(readError);
+                    else if (p.last) finish(null);
+                    else pump();
+                })
+                .addOnFailureListener(AppExecutors.io(), e -> {
+                    committing = false;
+                    finish(e);
+                });
+        if (!p.last) readNext(); // overlaps with the commit
+    }
+
+    /** Read lines into one batch: full, or the end of the archive. */
+    private Pending fill() throws IOException {
+        Pending p = new Pending(db.batch());
+        int ops = 0, chars = 0;
+        while (ops + 2 <= BATCH_OPS && chars < BATCH_CHARS) {
+            if (lines == null && !nextEntry()) {
+                p.last = true;
+                break;
+            }
+            String line = lines.readLine();
+            lineNo++;
+            if (line == null) {
+                lines = null; // next entry; don't close, that would close the zip
+                continue;
+            }
+            if (line.trim().isEmpty()) continue;
+
+            BackupJson.Doc doc = BackupJson.parse(line, db);
+            if (target == null) {
+                p.batch.set(userDoc, doc.data, SetOptions.merge());
+                ops++;
+            } else {
+                checkId(doc.id);
+                DocumentReference ref = target.document(doc.id);
+                if (synced) {
+                    SyncedCollection.restore(p.batch, ref, doc.data);
+                    ops += 2;
+                } else {
+                    p.batch.set(ref, doc.data);
+                    ops++;
+                }
+            }
+            p.docs++;
+            chars += line.length();
+        }
+        return p;
+    }
+
+    /** Move to the next entry worth reading; false at the end of the archive. */
+    private boolean nextEntry() throws IOException {
+        if (eof) return false;
+        ZipEntry e;
+        while ((e = zip.getNextEntry()) != null) {
+            String name = e.getName();
+            entryName = name;
+            lineNo = 0;
+            BufferedReader r = new BufferedReader(new InputStreamReader(zip, StandardCharsets.UTF_8));
+            if (!sawManifest) {
+                if (!AccountBackup.MANIFEST.equals(name)) throw new IOException("Not a StudyBuddy backup");
+                readManifest(r);
+                sawManifest = true;
+                continue;
+            }
+            String collection = name.endsWith(AccountBackup.NDJSON)
+                    ? name.substring(0, name.length() - AccountBackup.NDJSON.length()) : null;
+            if (AccountBackup.PROFILE.equals(name)) {
+                target = null;
+            } else if (collection != null && AccountBackup.COLLECTIONS.contains(collection)) {
+                target = userDoc.collection(collection);
+                synced = isSynced(collection);
+            } else {
+                continue; // from a newer version, or not ours
+            }
+            lines = r;
+            return true;
+        }
+        eof = true;
+        if (!sawManifest) throw new IOException("Not a StudyBuddy backup");
+        return false;
+    }
+
+    private static void readManifest(BufferedReader r) throws IOException {
+        String line = r.readLine();
+        if (line == null) throw new IOException("Empty manifest");
+        JsonReader json = new JsonReader(new StringReader(line));
+        String format = null;
+        int version = 0;
+        json.beginObject();
+        while (json.hasNext()) {
+            String name = json.nextName();
+            if ("format".equals(name)) format = json.nextString();
+            else if ("version".equals(name)) version = json.nextInt();
+            else json.skipValue();
+        }
+        json.endObject();
+        if (!AccountBackup.FORMAT.equals(format)) throw new IOException("Not a StudyBuddy backup");
+        if (version > AccountBackup.VERSION) throw new IOException("This backup is from a newer version of the app");
+    }
+
+    /** Ids come from a file: don't let one reach outside its collection. */
+    private static void checkId(String id) throws IOException {
+        if (id.isEmpty() || id.indexOf('/') >= 0 || id.equals(".") || id.equals("..")) {
+            throw new IOException("Bad document id \"" + id + "\"");
+        }
+    }
+
+    private static boolean isSynced(String collection) {
+        for (String s : SYNCED) {
+            if (s.equals(collection)) return true;
+        }
+        return false;
+    }
+
+    private void finish(@Nullable Exception error) {
+        if (stopped) return;
+        stopped = true;
+        ready = null;
+        try {
+            if (zip != null) zip.close(); // closes `in`
+            else in.close();
+        } catch (IOException ignored) {
+            // done reading either way
+        }
+        if (error != null) Log.w(TAG, "restore stopped after " + restored + " documents", error);
+        int count = restored;
+        AppExecutors.main().execute(() -> listener.onFinished(count, error));
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.studybuddy.data;
+
+import android.util.Base64;
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.JsonWriter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.Blob;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.GeoPoint;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One Firestore document per line of JSON, for account backups (AccountBackup /
+ * AccountRestore):
+ *
+ *   {"id":"abc123","data":{"title":"Essay","dueAt":1741971600000,"updatedAt":{"$time":[1741971600,0]}}}
+ *
+ * Plain JSON can't tell a long from a double or hold Firestore's own types, so:
+ * - integers are written without a decimal point, doubles always with one ("2.0")
+ * - Timestamp -> {"$time":[seconds,nanos]}, GeoPoint -> {"$geo":[lat,lng]},
+ *   Blob -> {"$bytes":"base64"}, DocumentReference -> {"$ref":"users/x/modules/y"},
+ *   NaN / Infinity -> {"$double":"NaN"}
+ * so a document reads back with exactly the field types it was written with.
+ */
+public final class BackupJson {
+
+    private static final String TIME = "$time";
+    private static final String GEO = "$geo";
+    private static final String BYTES = "$bytes";
+    private static final String REF = "$ref";
+    private static final String DOUBLE = "$double";
+
+    /** A document read back from a line. */
+    public static final class Doc {
+        @NonNull public final String id;
+        @NonNull public final Map<String, Object> data;
+
+        Doc(@NonNull String id, @NonNull Map<String, Object> data) {
+            this.id = id;
+            this.data = data;
+        }
+    }
+
+    /** Reused per line so writing a document doesn't allocate a new buffer each time. */
+    private final StringWriter buffer = new StringWriter(1024);
+
+    // -------- Writing --------
+
+    /** `{"id":..,"data":{..}}` without the newline. Not thread-safe (shared buffer). */
+    @NonNull
+    public CharSequence line(@NonNull String id, @Nullable Map<String, Object> data) throws IOException {
+        buffer.getBuffer().setLength(0);
+        JsonWriter w = new JsonWriter(buffer); // one top-level value per writer; never closed (nothing to release)
+        w.beginObject();
+        w.name("id").value(id);
+        w.name("data");
+        value(w, data == null ? new HashMap<>() : data);
+        w.endObject();
+        w.flush();
+        return buffer.getBuffer();
+    }
+
+    static void value(@NonNull JsonWriter w, @Nullable Object v) throws IOException {
+        if (v == null) {
+            w.nullValue();
+        } else if (v instanceof String) {
+            w.value((String) v);
+        } else if (v instanceof Boolean) {
+            w.value((Boolean) v);
+        } else if (v instanceof Long || v instanceof Integer || v instanceof Short || v instanceof Byte) {
+            w.value(((Number) v).longValue());
+        } else if (v instanceof Double || v instanceof Float) {
+            double d = ((Number) v).doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) w.beginObject().name(DOUBLE).value(Double.toString(d)).endObject();
+            else w.value(d); // Double.toString: always has a '.' or an 'E'
+        } else if (v instanceof Timestamp) {
+            Timestamp t = (Timestamp) v;
+            w.beginObject().name(TIME).beginArray().value(t.getSeconds()).value(t.getNanoseconds()).endArray().endObject();
+        } else if (v instanceof GeoPoint) {
+            GeoPoint g = (GeoPoint) v;
+            w.beginObject().name(GEO).beginArray().value(g.getLatitude()).value(g.getLongitude()).endArray().endObject();
+        } else if (v instanceof Blob) {
+            w.beginObject().name(BYTES).value(Base64.encodeToString(((Blob) v).toBytes(), Base64.NO_WRAP)).endObject();
+        } else if (v instanceof DocumentReference) {
+            w.beginObject().name(REF).value(((DocumentReference) v).getPath()).endObject();
+        } else if (v instanceof Map) {
+            w.beginObject();
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) v).entrySet()) {
+                w.name(String.valueOf(e.getKey()));
+                value(w, e.getValue());
+            }
+            w.endObject();
+        } else if (v instanceof List) {
+            w.beginArray();
+            for (Object item : (List<?>) v) value(w, item);
+            w.endArray();
+        } else {
+            throw new IOException("Can't back up a " + v.getClass().getSimpleName() + " field");
+        }
+    }
+
+    // -------- Reading --------
+
+    /** Parse one line written by line(). `db` resolves $ref values. */
+    @NonNull
+    public static Doc parse(@NonNull String line, @NonNull FirebaseFirestore db) throws IOException {
+        JsonReader r = new JsonReader(new StringReader(line));
+        String id = null;
+        Map<String, Object> data = null;
+        r.beginObject();
+        while (r.hasNext()) {
+            String name = r.nextName();
+            if ("id".equals(name)) {
+                id = r.nextString();
+            } else if ("data".equals(name) && r.peek() == JsonToken.BEGIN_OBJECT) {
+                data = map(r, db);
+            } else {
+                r.skipValue();
+            }
+        }
+        r.endObject();
+        if (id == null || data == null) throw new IOException("Line without an id and data");
+        return new Doc(id, data);
+    }
+
+    @Nullable
+    static Object value(@NonNull JsonReader r, @NonNull FirebaseFirestore db) throws IOException {
+        switch (r.peek()) {
+            case NULL:
+                r.nextNull();
+                return null;
+            case BOOLEAN:
+                return r.nextBoolean();
+            case STRING:
+                return r.nextString();
+            case NUMBER:
+                return number(r.nextString());
+            case BEGIN_ARRAY: {
+                List<Object> list = new ArrayList<>();
+                r.beginArray();
+                while (r.hasNext()) list.add(value(r, db));
+                r.endArray();
+                return list;
+            }
+            case BEGIN_OBJECT:
+                return tagged(r, db);
+            default:
+                throw new IOException("Unexpected " + r.peek());
+        }
+    }
+
+    /** An object: one of the $-tagged types, or a plain map. */
+    private static Object tagged(JsonReader r, FirebaseFirestore db) throws IOException {
+        r.beginObject();
+        Map<String, Object> map = new HashMap<>();
+        if (!r.hasNext()) {
+            r.endObject();
+            return map;
+        }
+        String first = r.nextName();
+        Object special;
+        switch (first) {
+            case TIME: {
+                r.beginArray();
+                long seconds = r.nextLong();
+                int nanos = r.nextInt();
+                r.endArray();
+                special = new Timestamp(seconds, nanos);
+                break;
+            }
+            case GEO: {
+                r.beginArray();
+                double lat = r.nextDouble();
+                double lng = r.nextDouble();
+                r.endArray();
+                special = new GeoPoint(lat, lng);
+                break;
+            }
+            case BYTES:
+                special = Blob.fromBytes(Base64.decode(r.nextString(), Base64.NO_WRAP));
+                break;
+            case REF:
+                special = db.document(r.nextString());
+                break;
+            case DOUBLE:
+                special = Double.parseDouble(r.nextString());
+                break;
+            default:
+                special = null;
+                map.put(first, value(r, db));
+                break;
+        }
+        if (special != null) {
+            r.endObject();
+            return special;
+        }
+        while (r.hasNext()) {
+            String name = r.nextName();
+            map.put(name, value(r, db));
+        }
+        r.endObject();
+        return map;
+    }
+
+    private static Map<String, Object> map(JsonReader r, FirebaseFirestore db) throws IOException {
+        Object v = tagged(r, db);
+        if (!(v instanceof Map)) throw new IOException("\"data\" must be a plain object");
+        @SuppressWarnings("unchecked") Map<String, Object> m = (Map<String, Object>) v;
+        return m;
+    }
+
+    /** "12" -> 12L, "12.0" / "1.2E3" -> double (see value(JsonWriter, ..)). */
+    static Object number(@NonNull String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '.' || c == 'e' || c == 'E') return Double.parseDouble(s);
+        }
+        try {
+            return Long.parseLong(s);
+        } catch (NumberFormatException tooBig) {
+            return Double.parseDouble(s);
+        }
+    }
+}
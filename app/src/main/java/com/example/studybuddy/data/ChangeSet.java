@@ -0,0 +1,124 @@
+package com.example.studybuddy.data;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * What one Firestore snapshot changed in a LiveCollection.
+ *
+ * - Positional ops (insert/remove/move/change) are in the order they were applied,
+ *   so they can be replayed straight onto a RecyclerView adapter.
+ * - added/changed/removed hold the affected models for anything that keeps its own index.
+ * - isReset() means "treat the whole list as new" (first delivery, or a fallback rebuild).
+ * - isFromCache() means the list came from the on-disk mirror, not from Firestore.
+ */
+public class ChangeSet<T> {
+
+    private static final int OP_INSERT = 0;
+    private static final int OP_REMOVE = 1;
+    private static final int OP_MOVE = 2;
+    private static final int OP_CHANGE = 3;
+
+    private final boolean reset;
+    private final boolean fromCache;
+
+    // Flat op log: [type, a, b] per op
+    private final List<int[]> ops = new ArrayList<>();
+
+    private final List<T> added = new ArrayList<>();
+    private final List<T> changed = new ArrayList<>();
+    private final List<T> removed = new ArrayList<>();
+
+    private ChangeSet(boolean reset, boolean fromCache) {
+        this.reset = reset;
+        this.fromCache = fromCache;
+    }
+
+    static <T> ChangeSet<T> delta() {
+        return new ChangeSet<>(false, false);
+    }
+
+    public static <T> ChangeSet<T> reset() {
+        return new ChangeSet<>(true, false);
+    }
+
+    static <T> ChangeSet<T> cached() {
+        return new ChangeSet<>(true, true);
+    }
+
+    // -------- Recording (io thread, inside LiveCollection) --------
+
+    void inserted(int position, T item) {
+        ops.add(new int[]{OP_INSERT, position, 0});
+        added.add(item);
+    }
+
+    void removed(int position, T item) {
+        ops.add(new int[]{OP_REMOVE, position, 0});
+        removed.add(item);
+    }
+
+    void modified(int fromPosition, int toPosition, T item) {
+        if (fromPosition != toPosition) ops.add(new int[]{OP_MOVE, fromPosition, toPosition});
+        ops.add(new int[]{OP_CHANGE, toPosition, 0});
+        changed.add(item);
+    }
+
+    // -------- Reading --------
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    /** A reset seeded from disk before the first snapshot; nothing to write back. */
+    public boolean isFromCache() {
+        return fromCache;
+    }
+
+    public boolean isEmpty() {
+        return !reset && ops.isEmpty();
+    }
+
+    @NonNull
+    public List<T> getAdded() {
+        return Collections.unmodifiableList(added);
+    }
+
+    @NonNull
+    public List<T> getChanged() {
+        return Collections.unmodifiableList(changed);
+    }
+
+    @NonNull
+    public List<T> getRemoved() {
+        return Collections.unmodifiableList(removed);
+    }
+
+    /**
+     * Replays the positional ops, e.g. onto new AdapterListUpdateCallback(adapter).
+     * Only valid when the receiver was showing exactly the previous list; check isReset() first.
+     */
+    public void dispatchTo(@NonNull ListUpdateCallback callback) {
+        for (int[] op : ops) {
+            switch (op[0]) {
+                case OP_INSERT:
+                    callback.onInserted(op[1], 1);
+                    break;
+                case OP_REMOVE:
+                    callback.onRemoved(op[1], 1);
+                    break;
+                case OP_MOVE:
+                    callback.onMoved(op[1], op[2]);
+                    break;
+                case OP_CHANGE:
+                default:
+                    callback.onChanged(op[1], 1, null);
+                    break;
+            }
+        }
+    }
+}
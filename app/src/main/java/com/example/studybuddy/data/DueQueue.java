@@ -0,0 +1,123 @@
+package com.example.studybuddy.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.studybuddy.adapter.Task;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Incomplete tasks with a due date, in a balanced search tree ordered by (dueAt, id).
+ *
+ * - upsert/remove are O(log n): an id -> entry map finds the task's current position so an
+ *   edited or completed task is moved/removed in place instead of rebuilding.
+ * - range(from, to, limit) seeks to the first task due at/after `from` and steps forward,
+ *   so reading k tasks costs O(log n + k) however many tasks are overdue or due later.
+ * - count(from, to) walks the same slice: O(log n + count).
+ *
+ * Tasks without a due date and completed tasks are simply not in the queue.
+ * NOT thread-safe: FirestoreRepo feeds and queries it on AppExecutors.io().
+ */
+public class DueQueue {
+
+    private static final class Entry implements Comparable<Entry> {
+        final long due;
+        final String id;
+        final Task task;
+
+        Entry(long due, String id, Task task) {
+            this.due = due;
+            this.id = id;
+            this.task = task;
+        }
+
+        @Override
+        public int compareTo(Entry o) {
+            if (due != o.due) return due < o.due ? -1 : 1;
+            return id.compareTo(o.id);
+        }
+    }
+
+    private final TreeSet<Entry> byDue = new TreeSet<>();
+    private final Map<String, Entry> byId = new HashMap<>();
+
+    // -------- Maintenance --------
+
+    public void apply(@NonNull List<Task> all, @NonNull ChangeSet<Task> changes) {
+        if (changes.isReset()) {
+            clear();
+            for (Task t : all) upsert(t);
+            return;
+        }
+        for (Task t : changes.getRemoved()) remove(t.getId());
+        for (Task t : changes.getAdded()) upsert(t);
+        for (Task t : changes.getChanged()) upsert(t);
+    }
+
+    /** Insert, move or drop a task depending on its current dueAt / completed. */
+    public void upsert(@NonNull Task t) {
+        String id = t.getId();
+        if (id == null) return;
+        remove(id);
+        if (t.isCompleted() || t.getDueAt() == null) return;
+
+        // dueAt is copied into the entry: the tree must not see it change under its feet
+        Entry e = new Entry(t.getDueAt(), id, t);
+        byDue.add(e);
+        byId.put(id, e);
+    }
+
+    public void remove(@Nullable String id) {
+        Entry e = id == null ? null : byId.remove(id);
+        if (e != null) byDue.remove(e);
+    }
+
+    public void clear() {
+        byDue.clear();
+        byId.clear();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    // -------- Reads --------
+
+    /** Earliest-due task, or null if nothing is queued. */
+    @Nullable
+    public Task peek() {
+        return byDue.isEmpty() ? null : byDue.first().task;
+    }
+
+    /** The next `limit` tasks with from <= dueAt < to, earliest first. */
+    @NonNull
+    public List<Task> range(long from, long to, int limit) {
+        List<Task> out = new ArrayList<>(Math.min(Math.max(limit, 0), 16));
+        if (limit <= 0) return out;
+        for (Entry e : byDue.tailSet(first(from), true)) {
+            if (e.due >= to || out.size() == limit) break;
+            out.add(e.task);
+        }
+        return out;
+    }
+
+    /** How many queued tasks have from <= dueAt < to. */
+    public int count(long from, long to) {
+        int count = 0;
+        for (Entry e : byDue.tailSet(first(from), true)) {
+            if (e.due >= to) break;
+            count++;
+        }
+        return count;
+    }
+
+    /** Sorts at/before every real entry due at `due` ("" is the smallest id). */
+    private static Entry first(long due) {
+        return new Entry(due, "", null);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.studybuddy.data;
+
+import androidx.annotation.NonNull;
+
+import com.example.studybuddy.util.AppExecutors;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The items of another LiveCollection that pass `filter`, in the same order.
+ *
+ * There is no listener of its own: it's an IoSink of `source`, so every document is
+ * downloaded, decoded and mirrored to disk once, by `source`. Observing it keeps `source`
+ * attached; its ChangeSets are precise (binary-search inserts by `source`'s order).
+ */
+public class FilteredCollection<T> extends LiveCollection<T> {
+
+    public interface Filter<T> {
+        boolean keep(@NonNull T item);
+    }
+
+    public interface IdOf<T> {
+        String of(@NonNull T item);
+    }
+
+    private final LiveCollection<T> source;
+    private final Filter<T> filter;
+    private final IdOf<T> idOf;
+    private final SortedStore<T> store;
+
+    // io thread only
+    private boolean loaded = false; // source has published at least once
+
+    // Main thread only: keeps `source` attached while this is observed
+    private ListenerRegistration sourceRegistration;
+
+    /** Call before `source` is first observed, like any other sink. */
+    public FilteredCollection(String tag, @NonNull LiveCollection<T> source, @NonNull Filter<T> filter,
+                              @NonNull Comparator<T> order, @NonNull IdOf<T> idOf) {
+        super(tag, null, null);
+        this.source = source;
+        this.filter = filter;
+        this.idOf = idOf;
+        this.store = new SortedStore<>(ordered, byId, order);
+        source.addSink(this::onSource);
+    }
+
+    @Override
+    protected void attach() {
+        sourceRegistration = source.observe(new Observer<T>() {
+            @Override
+            public void onChanged(@NonNull List<T> items) {}
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                fail(e);
+            }
+        });
+        // `source` may have loaded before anyone looked at this one
+        AppExecutors.io().execute(() -> {
+            if (loaded) publish(ChangeSet.reset());
+        });
+    }
+
+    @Override
+    protected void detach() {
+        if (sourceRegistration != null) {
+            sourceRegistration.remove();
+            sourceRegistration = null;
+        }
+    }
+
+    @Override
+    protected void onCleared() {
+        loaded = false;
+    }
+
+    // -------- Applying changes (io thread) --------
+
+    private void onSource(@NonNull List<T> all, @NonNull ChangeSet<T> changes) {
+        loaded = true;
+        if (changes.isReset()) {
+            ordered.clear();
+            byId.clear();
+            for (T item : all) {
+                if (!filter.keep(item)) continue;
+                ordered.add(item);
+                byId.put(idOf.of(item), item);
+            }
+            publish(changes.isFromCache() ? ChangeSet.cached() : ChangeSet.reset());
+            return;
+        }
+
+        ChangeSet<T> mine = ChangeSet.delta();
+        for (T item : changes.getRemoved()) store.remove(idOf.of(item), mine);
+        for (T item : changes.getAdded()) keepOrDrop(item, mine);
+        for (T item : changes.getChanged()) keepOrDrop(item, mine);
+        if (!mine.isEmpty()) publish(mine);
+    }
+
+    private void keepOrDrop(T item, ChangeSet<T> changes) {
+        String id = idOf.of(item);
+        if (filter.keep(item)) store.upsert(id, item, changes);
+        else store.remove(id, changes);
+    }
+}
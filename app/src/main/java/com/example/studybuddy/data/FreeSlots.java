@@ -0,0 +1,303 @@
+package com.example.studybuddy.data;
+
+import androidx.annotation.NonNull;
+
+import com.example.studybuddy.adapter.FocusSession;
+import com.example.studybuddy.adapter.TimetableEvent;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * "When am I free to study?" over a week-sized occupancy bitmap.
+ *
+ * The week (Sunday 00:00 .. Saturday 24:00, local time) is 2016 slots of SLOT_MINS
+ * minutes, one bit each (1 = busy), packed into 32 longs:
+ * - weekly: whatever really is the same every week (setAwakeHours(), addWeekly())
+ * - timetable classes (addClass()) are expanded by their RRULE over the query window
+ *   with Recurrence.expand(), like WeekLayouts, so COUNT / UNTIL / BYDAY / INTERVAL /
+ *   EXDATE are honoured; each occurrence is OR'd onto a copy of the weekly bits for the
+ *   week it falls in, together with the one-off busy ranges (focus sessions etc.)
+ * find() then jumps between busy and free runs a whole word at a time
+ * (numberOfTrailingZeros), so a query costs about one pass over 32 words per week
+ * searched plus one setRange per class occurrence in those weeks.
+ *
+ * Busy ranges are rounded outwards to whole slots, the query start inwards, so a
+ * returned block never overlaps anything. Plain Java (no Android), NOT thread-safe.
+ */
+public class FreeSlots {
+
+    public static final int SLOT_MINS = 5;
+    static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINS;  // 288
+    static final int SLOTS_PER_WEEK = 7 * SLOTS_PER_DAY;   // 2016
+    private static final int WORDS = (SLOTS_PER_WEEK + 63) / 64;
+    private static final long MINUTE = 60_000L;
+    /** find() gives up after this many weeks (e.g. toMs = Long.MAX_VALUE and no free time). */
+    private static final int MAX_WEEKS = 52;
+
+    /** A free block, [start, end) in epoch millis. */
+    public static final class Slot {
+        public final long start;
+        public final long end;
+
+        Slot(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public String toString() {
+            return "Slot[" + start + ", " + end + ")";
+        }
+    }
+
+    private final TimeZone zone;
+    private final long[] weekly = new long[WORDS];
+    private final List<TimetableEvent> classes = new ArrayList<>();
+    // one-off busy ranges, epoch millis, unsorted (there are few and they're checked per week)
+    private long[] busyFrom = new long[8];
+    private long[] busyTo = new long[8];
+    private int busyCount = 0;
+
+    public FreeSlots(@NonNull TimeZone zone) {
+        this.zone = zone;
+    }
+
+    /** Timetable + focus sessions of the signed-in user, awake between 08:00 and 22:00. */
+    @NonNull
+    public static FreeSlots of(@NonNull List<TimetableEvent> timetable, @NonNull List<FocusSession> sessions,
+                               @NonNull TimeZone zone) {
+        FreeSlots slots = new FreeSlots(zone);
+        slots.setAwakeHours(8 * 60, 22 * 60);
+        for (TimetableEvent e : timetable) slots.addClass(e);
+        for (FocusSession s : sessions) {
+            int iterations = Math.max(1, s.getIterations());
+            long mins = s.getStudyMins() + (long) s.getBreakMinsPerCycle() * (iterations - 1);
+            slots.addBusy(s.getCompletedAt() - mins * MINUTE, s.getCompletedAt());
+        }
+        return slots;
+    }
+
+    // -------- Building --------
+
+    /**
+     * Busy every week on dayOfWeek (Calendar.SUNDAY..SATURDAY), [startMin, endMin), forever.
+     * Timetable events go through addClass() instead, which knows when they stop.
+     */
+    public void addWeekly(int dayOfWeek, int startMin, int endMin) {
+        if (dayOfWeek < Calendar.SUNDAY || dayOfWeek > Calendar.SATURDAY || endMin <= startMin) return;
+        setMinutes(weekly, dayOfWeek - Calendar.SUNDAY, startMin, endMin);
+    }
+
+    /** Busy on every date e's RRULE expands to (see Recurrence), [startMin, endMin) local time. */
+    public void addClass(@NonNull TimetableEvent e) {
+        if (e.getEndMin() <= e.getStartMin()) return;
+        classes.add(e);
+    }
+
+    /** Everything outside [fromMin, toMin) of every day counts as busy (sleep). */
+    public void setAwakeHours(int fromMin, int toMin) {
+        for (int d = 0; d < 7; d++) {
+            int day = d * SLOTS_PER_DAY;
+            setRange(weekly, day, day + Math.max(0, fromMin) / SLOT_MINS);
+            setRange(weekly, day + ceilSlots(Math.min(toMin, 24 * 60)), day + SLOTS_PER_DAY);
+        }
+    }
+
+    /** Busy once, [fromMs, toMs). */
+    public void addBusy(long fromMs, long toMs) {
+        if (toMs <= fromMs) return;
+        if (busyCount == busyFrom.length) {
+            busyFrom = Arrays.copyOf(busyFrom, busyCount * 2);
+            busyTo = Arrays.copyOf(busyTo, busyCount * 2);
+        }
+        busyFrom[busyCount] = fromMs;
+        busyTo[busyCount] = toMs;
+        busyCount++;
+    }
+
+    // -------- Query --------
+
+    /**
+     * Up to `limit` free blocks of `minutes` inside [fromMs, toMs), earliest first.
+     * One block per free stretch (its start), so three results are three different gaps,
+     * not one long afternoon cut into pieces.
+     */
+    @NonNull
+    public List<Slot> find(long fromMs, long toMs, int minutes, int limit) {
+        List<Slot> out = new ArrayList<>(Math.min(Math.max(limit, 0), 16));
+        if (minutes <= 0 || limit <= 0 || toMs <= fromMs) return out;
+        long length = minutes * MINUTE;
+
+        Calendar week = weekStart(fromMs);
+        long[] bits = new long[WORDS];
+        long[] dayStarts = new long[8];
+        long runStart = -1; // a free stretch still open at the end of the previous week
+
+        LocalDate firstSunday = date(week);
+        Iterator<Recurrence.Occurrence> occurrences = classes.isEmpty() ? null
+                : Recurrence.expand(classes, firstSunday, firstSunday.plusWeeks(MAX_WEEKS), zone.toZoneId());
+        Recurrence.Occurrence pending = null; // read ahead, belongs to a later week
+
+        for (int w = 0; w < MAX_WEEKS && out.size() < limit; w++, week.add(Calendar.DAY_OF_MONTH, 7)) {
+            fillDayStarts(week, dayStarts);
+            if (dayStarts[0] >= toMs) break;
+
+            System.arraycopy(weekly, 0, bits, 0, WORDS);
+            LocalDate sunday = firstSunday.plusWeeks(w);
+            while (pending != null || (occurrences != null && occurrences.hasNext())) {
+                Recurrence.Occurrence o = pending != null ? pending : occurrences.next();
+                int day = (int) ChronoUnit.DAYS.between(sunday, o.date);
+                if (day >= 7) {
+                    pending = o;
+                    break;
+                }
+                pending = null;
+                if (day >= 0) setMinutes(bits, day, o.event.getStartMin(), o.event.getEndMin());
+            }
+            overlayBusy(bits, dayStarts);
+            // Before the query start / after its end counts as busy too
+            if (fromMs > dayStarts[0]) setRange(bits, 0, ceilSlot(fromMs, dayStarts));
+            if (toMs < dayStarts[7]) setRange(bits, slotAt(toMs, dayStarts), SLOTS_PER_WEEK);
+
+            int at = 0;
+            if (runStart >= 0) {
+                int busy = nextSet(bits, 0);
+                if (busy >= SLOTS_PER_WEEK) continue; // a whole free week, still going
+                add(out, runStart, slotMillis(busy, dayStarts), length);
+                runStart = -1;
+                at = busy;
+            }
+            while (at < SLOTS_PER_WEEK && out.size() < limit) {
+                int free = nextClear(bits, at);
+                if (free >= SLOTS_PER_WEEK) break;
+                int busy = nextSet(bits, free);
+                if (busy >= SLOTS_PER_WEEK) {
+                    runStart = slotMillis(free, dayStarts); // may carry on into next week
+                    break;
+                }
+                add(out, slotMillis(free, dayStarts), slotMillis(busy, dayStarts), length);
+                at = busy;
+            }
+        }
+
+        if (runStart >= 0 && out.size() < limit) add(out, runStart, toMs, length);
+        return out;
+    }
+
+    private static void add(List<Slot> out, long start, long end, long length) {
+        if (end - start >= length) out.add(new Slot(start, start + length));
+    }
+
+    // -------- Time <-> slot --------
+
+    private Calendar weekStart(long ms) {
+        Calendar c = Calendar.getInstance(zone);
+        c.setTimeInMillis(ms);
+        c.set(Calendar.HOUR_OF_DAY, 0);
+        c.set(Calendar.MINUTE, 0);
+        c.set(Calendar.SECOND, 0);
+        c.set(Calendar.MILLISECOND, 0);
+        c.add(Calendar.DAY_OF_MONTH, Calendar.SUNDAY - c.get(Calendar.DAY_OF_WEEK));
+        return c;
+    }
+
+    private static LocalDate date(Calendar day) {
+        return LocalDate.of(day.get(Calendar.YEAR), day.get(Calendar.MONTH) + 1, day.get(Calendar.DAY_OF_MONTH));
+    }
+
+    /** Midnight of each day of `week` (+ the next Sunday), so DST days get their real length. */
+    private static void fillDayStarts(Calendar week, long[] dayStarts) {
+        Calendar c = (Calendar) week.clone();
+        for (int d = 0; d < 8; d++) {
+            dayStarts[d] = c.getTimeInMillis();
+            c.add(Calendar.DAY_OF_MONTH, 1);
+        }
+    }
+
+    private static long slotMillis(int slot, long[] dayStarts) {
+        if (slot >= SLOTS_PER_WEEK) return dayStarts[7];
+        int day = slot / SLOTS_PER_DAY;
+        return Math.min(dayStarts[day + 1], dayStarts[day] + (long) (slot % SLOTS_PER_DAY) * SLOT_MINS * MINUTE);
+    }
+
+    /** Slot containing `ms` (clamped to the week). */
+    private static int slotAt(long ms, long[] dayStarts) {
+        if (ms <= dayStarts[0]) return 0;
+        if (ms >= dayStarts[7]) return SLOTS_PER_WEEK;
+        int day = 0;
+        while (ms >= dayStarts[day + 1]) day++;
+        long into = (ms - dayStarts[day]) / (SLOT_MINS * MINUTE);
+        return day * SLOTS_PER_DAY + (int) Math.min(into, SLOTS_PER_DAY - 1);
+    }
+
+    /** First slot starting at or after `ms`. */
+    private static int ceilSlot(long ms, long[] dayStarts) {
+        int slot = slotAt(ms, dayStarts);
+        return slot < SLOTS_PER_WEEK && slotMillis(slot, dayStarts) < ms ? slot + 1 : slot;
+    }
+
+    private void overlayBusy(long[] bits, long[] dayStarts) {
+        for (int i = 0; i < busyCount; i++) {
+            if (busyTo[i] <= dayStarts[0] || busyFrom[i] >= dayStarts[7]) continue;
+            setRange(bits, slotAt(busyFrom[i], dayStarts), ceilSlot(busyTo[i], dayStarts));
+        }
+    }
+
+    /** Day `day` (0 = Sunday) of the week, [startMin, endMin), rounded outwards to slots. */
+    private static void setMinutes(long[] bits, int day, int startMin, int endMin) {
+        int base = day * SLOTS_PER_DAY;
+        setRange(bits, base + Math.max(0, startMin) / SLOT_MINS, base + ceilSlots(Math.min(endMin, 24 * 60)));
+    }
+
+    private static int ceilSlots(int minutes) {
+        return (minutes + SLOT_MINS - 1) / SLOT_MINS;
+    }
+
+    // -------- Bit plumbing --------
+
+    /** Set bits [from, to). */
+    static void setRange(long[] bits, int from, int to) {
+        if (to <= from) return;
+        int first = from >>> 6, last = (to - 1) >>> 6;
+        long firstMask = -1L << from;             // shifts are mod 64
+        long lastMask = -1L >>> (64 - (to & 63)); // to & 63 == 0 -> the whole word
+        if (first == last) {
+            bits[first] |= firstMask & lastMask;
+            return;
+        }
+        bits[first] |= firstMask;
+        for (int w = first + 1; w < last; w++) bits[w] = -1L;
+        bits[last] |= lastMask;
+    }
+
+    /** First clear bit at or after `from`, or SLOTS_PER_WEEK. */
+    static int nextClear(long[] bits, int from) {
+        int w = from >>> 6;
+        if (w >= WORDS) return SLOTS_PER_WEEK;
+        long word = ~bits[w] & (-1L << from);
+        while (true) {
+            if (word != 0) return Math.min(SLOTS_PER_WEEK, (w << 6) + Long.numberOfTrailingZeros(word));
+            if (++w == WORDS) return SLOTS_PER_WEEK;
+            word = ~bits[w];
+        }
+    }
+
+    /** First set bit at or after `from`, or SLOTS_PER_WEEK. */
+    static int nextSet(long[] bits, int from) {
+        int w = from >>> 6;
+        if (w >= WORDS) return SLOTS_PER_WEEK;
+        long word = bits[w] & (-1L << from);
+        while (true) {
+            if (word != 0) return Math.min(SLOTS_PER_WEEK, (w << 6) + Long.numberOfTrailingZeros(word));
+            if (++w == WORDS) return SLOTS_PER_WEEK;
+            word = bits[w];
+        }
+    }
+}
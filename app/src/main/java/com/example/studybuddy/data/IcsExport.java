@@ -0,0 +1,101 @@
+package com.example.studybuddy.data;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.studybuddy.adapter.Task;
+import com.example.studybuddy.adapter.TaskMapper;
+import com.example.studybuddy.adapter.TimetableEvent;
+import com.example.studybuddy.adapter.TimetableEventMapper;
+import com.example.studybuddy.util.AppExecutors;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.Query;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the timetable + open task deadlines to an .ics file (see IcsWriter).
+ *
+ * Both collections are read from the server a page at a time (document id cursor, like
+ * ModuleRenameFanout) and each page is written out before the next is fetched, so only
+ * one page is held however much there is. Runs on AppExecutors.io(); the writer is
+ * closed (END:VCALENDAR) when it finishes or fails.
+ */
+public class IcsExport {
+
+    public interface Listener {
+        /** Main thread. error == null -> `count` VEVENTs were written and the file is complete. */
+        void onFinished(int count, @Nullable Exception error);
+    }
+
+    private static final String TAG = "IcsExport";
+    private static final int PAGE_SIZE = 500;
+
+    private interface PageWriter {
+        void write(DocumentSnapshot doc) throws IOException;
+    }
+
+    private final Query events;
+    private final Query openTasks;
+    private final IcsWriter writer;
+    private final Listener listener;
+
+    public IcsExport(@NonNull DocumentReference userDoc, @NonNull IcsWriter writer, @NonNull Listener listener) {
+        this.writer = writer;
+        this.listener = listener;
+        events = userDoc.collection("timetable_events").orderBy(FieldPath.documentId(), Query.Direction.ASCENDING);
+        openTasks = userDoc.collection("tasks").whereEqualTo("completed", false)
+                .orderBy(FieldPath.documentId(), Query.Direction.ASCENDING);
+    }
+
+    public void start() {
+        AppExecutors.io().execute(() -> page(events, null, this::writeEvent,
+                () -> page(openTasks, null, this::writeDeadline, () -> finish(null))));
+    }
+
+    // -------- Steps (io thread) --------
+
+    private void page(Query query, @Nullable String cursor, PageWriter out, Runnable then) {
+        Query page = cursor == null ? query : query.startAfter(cursor);
+        page.limit(PAGE_SIZE).get()
+                .addOnSuccessListener(AppExecutors.io(), snap -> {
+                    List<DocumentSnapshot> docs = snap.getDocuments();
+                    try {
+                        for (DocumentSnapshot doc : docs) out.write(doc);
+                    } catch (IOException | RuntimeException e) {
+                        finish(e);
+                        return;
+                    }
+                    if (docs.size() < PAGE_SIZE) then.run();
+                    else page(query, docs.get(docs.size() - 1).getId(), out, then);
+                })
+                .addOnFailureListener(AppExecutors.io(), this::finish);
+    }
+
+    private void writeEvent(DocumentSnapshot doc) throws IOException {
+        TimetableEvent e = TimetableEventMapper.fromDocument(doc);
+        if (e != null) writer.writeEvent(e);
+    }
+
+    private void writeDeadline(DocumentSnapshot doc) throws IOException {
+        Task t = TaskMapper.fromDocument(doc);
+        if (t != null) writer.writeDeadline(t);
+    }
+
+    private void finish(@Nullable Exception error) {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            if (error == null) error = e;
+        }
+        if (error != null) Log.w(TAG, "export stopped after " + writer.count() + " events", error);
+        int count = writer.count();
+        Exception result = error;
+        AppExecutors.main().execute(() -> listener.onFinished(count, result));
+    }
+}
@@ -0,0 +1,333 @@
+package com.example.studybuddy.data;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.studybuddy.adapter.Module;
+import com.example.studybuddy.adapter.ModuleMapper;
+import com.example.studybuddy.adapter.TimetableEvent;
+import com.example.studybuddy.adapter.TimetableEventMapper;
+import com.example.studybuddy.util.AppExecutors;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Imports a university .ics timetable: every VEVENT becomes a TimetableEvent, grouped into
+ * one Module per SUMMARY ("CS101 Lecture" -> module "CS101 Lecture").
+ *
+ * The file is read with IcsReader one event at a time and written in 500-op WriteBatches;
+ * the next chunk is only read once the previous batch has committed, so memory stays flat
+ * however big the file is. Writes are upserts on deterministic ids:
+ *
+ * - events: "ics-{sha1(UID)}" (or the original id for UIDs this app exported, see IcsWriter)
+ * - modules: an existing module with the same title (case-insensitive), else "ics-{sha1(title)}"
+ *
+ * so importing the same file twice (or a newer export of it) updates instead of duplicating.
+ * Both go through SyncedCollection.restore(): stamped so delta sync picks them up, and
+ * the tombstone of an earlier delete (ModuleCascadeDelete) of the same id dropped, or
+ * other devices would delete the re-imported class again. That's 2 ops per document.
+ *
+ * Skipped, with a reason in Result.problems: all-day and cancelled events, events with no
+ * DTSTART, and repeat rules Recurrence can't follow (anything but FREQ=WEEKLY). A moved
+ * instance (RECURRENCE-ID) comes in as a one-off; its series keeps the original date
+ * unless the file EXDATEs it too.
+ */
+public class IcsImport {
+
+    public interface Listener {
+        /** Main thread. Events written so far. */
+        default void onProgress(int imported) {}
+
+        /** Main thread. error != null means it stopped early (what's in `result` was written). */
+        void onFinished(@NonNull Result result, @Nullable Exception error);
+    }
+
+    public static final class Result {
+        public int imported;
+        public int modulesCreated;
+        public int skipped;
+        /** First MAX_PROBLEMS reasons, e.g. "line 120: all-day event". */
+        public final List<String> problems = new ArrayList<>();
+    }
+
+    /** One VEVENT turned into a class, or why it couldn't be. */
+    static final class Mapped {
+        @Nullable TimetableEvent event;    // id already set
+        @Nullable String moduleTitle;
+        @Nullable String skipReason;
+
+        static Mapped skip(String reason) {
+            Mapped m = new Mapped();
+            m.skipReason = reason;
+            return m;
+        }
+    }
+
+    private static final String TAG = "IcsImport";
+
+    /** Firestore's per-batch limit. */
+    private static final int BATCH_OPS = 500;
+    private static final int MAX_PROBLEMS = 20;
+    private static final int DEFAULT_MINUTES = 60;
+    static final String ID_PREFIX = "ics-";
+
+    private static final DateTimeFormatter LOCAL = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final FirebaseFirestore db;
+    private final CollectionReference modulesRef;
+    private final CollectionReference eventsRef;
+    private final IcsReader reader;
+    private final ZoneId zone;
+    private final Listener listener;
+
+    // io thread only
+    private final Map<String, String> moduleIds;   // lower-cased title -> id
+    private final Result result = new Result();
+    private boolean done = false;
+
+    /**
+     * @param knownModules the user's loaded modules (may be empty), to reuse by title
+     */
+    public IcsImport(@NonNull FirebaseFirestore db, @NonNull DocumentReference userDoc, @NonNull IcsReader reader,
+                     @NonNull ZoneId zone, @NonNull List<Module> knownModules, @NonNull Listener listener) {
+        this.db = db;
+        this.modulesRef = userDoc.collection("modules");
+        this.eventsRef = userDoc.collection("timetable_events");
+        this.reader = reader;
+        this.zone = zone;
+        this.listener = listener;
+        this.moduleIds = new HashMap<>();
+        for (Module m : knownModules) {
+            if (m.getId() != null && m.getTitle() != null) moduleIds.put(key(m.getTitle()), m.getId());
+        }
+    }
+
+    public void start() {
+        AppExecutors.io().execute(this::nextChunk);
+    }
+
+    // -------- Steps (io thread) --------
+
+    private void nextChunk() {
+        WriteBatch batch = db.batch();
+        int ops = 0, events = 0;
+        try {
+            // Stop 4 short of the limit: one event (2 ops) can also need its module (2 more)
+            while (ops <= BATCH_OPS - 4) {
+                IcsReader.VEvent v = reader.next();
+                if (v == null) {
+                    done = true;
+                    break;
+                }
+                Mapped m = map(v, zone);
+                if (m.event == null) {
+                    skipped("line " + v.line + ": " + m.skipReason);
+                    continue;
+                }
+
+                String title = m.moduleTitle;
+                String moduleId = moduleIds.get(key(title));
+                if (moduleId == null) {
+                    moduleId = ID_PREFIX + sha1(key(title));
+                    moduleIds.put(key(title), moduleId);
+                    Module module = new Module(title, "Imported from calendar", "", "",
+                            Recurrence.dayOfWeek(m.event.getDayOfWeek()).getDisplayName(
+                                    TextStyle.FULL, Locale.ENGLISH));
+                    SyncedCollection.restore(batch, modulesRef.document(moduleId), ModuleMapper.toMap(module));
+                    ops += 2;
+                    result.modulesCreated++;
+                }
+                m.event.setModuleId(moduleId);
+                SyncedCollection.restore(batch, eventsRef.document(m.event.getId()), TimetableEventMapper.toMap(m.event));
+                ops += 2;
+                events++;
+            }
+        } catch (IOException | RuntimeException e) {
+            failed(e);
+            return;
+        }
+
+        if (ops == 0) {
+            finish(null);
+            return;
+        }
+        int written = events;
+        batch.commit()
+                .addOnSuccessListener(AppExecutors.io(), v -> {
+                    result.imported += written;
+                    int soFar = result.imported;
+                    AppExecutors.main().execute(() -> listener.onProgress(soFar));
+                    if (done) finish(null);
+                    else nextChunk();
+                })
+                .addOnFailureListener(AppExecutors.io(), this::failed);
+    }
+
+    private void skipped(String reason) {
+        result.skipped++;
+        if (result.problems.size() < MAX_PROBLEMS) result.problems.add(reason);
+    }
+
+    private void failed(Exception e) {
+        Log.w(TAG, "import stopped after " + result.imported + " events", e);
+        finish(e);
+    }
+
+    private void finish(@Nullable Exception error) {
+        try {
+            reader.close();
+        } catch (IOException ignored) {
+            // nothing left to read anyway
+        }
+        AppExecutors.main().execute(() -> listener.onFinished(result, error));
+    }
+
+    // -------- Mapping (pure) --------
+
+    /** A VEVENT as a class in `zone` (times converted from its TZID / UTC). Any thread. */
+    @NonNull
+    static Mapped map(@NonNull IcsReader.VEvent v, @NonNull ZoneId zone) {
+        if ("CANCELLED".equals(v.status)) return Mapped.skip("cancelled");
+        if (v.dtstart == null) return Mapped.skip("no DTSTART");
+        if (v.dtstart.isDateOnly()) return Mapped.skip("all-day event");
+
+        LocalDateTime start = local(v.dtstart, zone);
+        if (start == null) return Mapped.skip("unreadable DTSTART " + v.dtstart.value);
+
+        long minutes = DEFAULT_MINUTES;
+        if (v.dtend != null && !v.dtend.isDateOnly()) {
+            LocalDateTime end = local(v.dtend, zone);
+            if (end != null) minutes = Duration.between(start, end).toMinutes();
+        } else if (v.duration != null) {
+            try {
+                minutes = Duration.parse(v.duration).toMinutes();
+            } catch (DateTimeParseException ignored) {
+                // keep the default
+            }
+        }
+        int startMin = start.getHour() * 60 + start.getMinute();
+        int endMin = (int) Math.min(24 * 60, startMin + Math.max(0, minutes)); // no classes past midnight
+        LocalDate day = start.toLocalDate();
+        int calendarDay = day.getDayOfWeek().getValue() % 7 + 1; // MONDAY(1) -> Calendar.MONDAY(2)
+
+        String rrule;
+        if (v.recurrenceId != null || v.rrule == null) {
+            rrule = "FREQ=WEEKLY;COUNT=1"; // a one-off (or one moved instance of a series)
+        } else {
+            rrule = v.rrule.regionMatches(true, 0, "RRULE:", 0, 6) ? v.rrule.substring(6) : v.rrule;
+            try {
+                Recurrence.parse(rrule, day, day.getDayOfWeek(), null);
+            } catch (IllegalArgumentException e) {
+                return Mapped.skip("unsupported repeat rule (" + e.getMessage() + ")");
+            }
+        }
+
+        String title = v.summary == null || v.summary.trim().isEmpty() ? "Imported class" : v.summary.trim();
+        TimetableEvent e = new TimetableEvent(null, title, calendarDay, startMin, endMin);
+        e.setId(eventId(v));
+        e.setRrule(rrule);
+        e.setDtstart(Recurrence.DATE.format(day));
+        e.setExdates(exdates(v.exdates, zone));
+
+        Mapped m = new Mapped();
+        m.event = e;
+        m.moduleTitle = title;
+        return m;
+    }
+
+    /** Our own exported UIDs go back to the same doc; anything else gets a hashed id. */
+    static String eventId(IcsReader.VEvent v) {
+        String uid = v.uid;
+        if (uid != null && v.recurrenceId == null && uid.startsWith(IcsWriter.EVENT_UID_PREFIX)
+                && uid.endsWith(IcsWriter.UID_DOMAIN)) {
+            String id = uid.substring(IcsWriter.EVENT_UID_PREFIX.length(), uid.length() - IcsWriter.UID_DOMAIN.length());
+            if (!id.isEmpty() && id.indexOf('/') < 0) return id;
+        }
+        String key = (uid != null ? uid : v.summary + "|" + (v.dtstart == null ? "" : v.dtstart.value))
+                + (v.recurrenceId == null ? "" : "|" + v.recurrenceId.value);
+        return ID_PREFIX + sha1(key);
+    }
+
+    /** DTSTART-style value -> wall time in `zone` (null if unreadable). */
+    @Nullable
+    static LocalDateTime local(@NonNull IcsReader.DateValue d, @NonNull ZoneId zone) {
+        try {
+            String s = d.value;
+            if (s.endsWith("Z") || s.endsWith("z")) {
+                return LocalDateTime.parse(s.substring(0, s.length() - 1), LOCAL)
+                        .atOffset(ZoneOffset.UTC).atZoneSameInstant(zone).toLocalDateTime();
+            }
+            if (s.length() == 8) return LocalDate.parse(s, Recurrence.DATE).atStartOfDay();
+            LocalDateTime t = LocalDateTime.parse(s, LOCAL);
+            ZoneId from = zoneOf(d.tzid);
+            return from == null ? t : t.atZone(from).withZoneSameInstant(zone).toLocalDateTime();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /** TZID -> zone, or null for floating / unknown (e.g. Windows names): taken as local. */
+    @Nullable
+    private static ZoneId zoneOf(@Nullable String tzid) {
+        if (tzid == null) return null;
+        try {
+            return ZoneId.of(tzid.startsWith("/") ? tzid.substring(1) : tzid);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static String exdates(List<IcsReader.DateValue> values, ZoneId zone) {
+        if (values.isEmpty()) return null;
+        List<String> days = new ArrayList<>(values.size());
+        for (IcsReader.DateValue d : values) {
+            LocalDateTime t = local(d, zone);
+            if (t != null) days.add(Recurrence.DATE.format(t.toLocalDate()));
+        }
+        if (days.isEmpty()) return null;
+        Collections.sort(days);
+        return String.join(",", days);
+    }
+
+    private static String key(String title) {
+        return title.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String sha1(String s) {
+        try {
+            byte[] d = MessageDigest.getInstance("SHA-1").digest(s.getBytes(StandardCharsets.UTF_8));
+            char[] hex = new char[d.length * 2];
+            for (int i = 0; i < d.length; i++) {
+                hex[2 * i] = Character.forDigit((d[i] >> 4) & 0xF, 16);
+                hex[2 * i + 1] = Character.forDigit(d[i] & 0xF, 16);
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JVM / Android has SHA-1
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.studybuddy.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streaming iCalendar (RFC 5545) reader: next() returns one VEVENT at a time.
+ *
+ * Only the current (unfolded) content line and the current event are ever held, so a
+ * 10k-event university export costs the same memory as a 10-event one. Components other
+ * than VEVENT (VTIMEZONE, VTODO, ...) and anything nested in a VEVENT (VALARM) are
+ * skipped. A content line longer than MAX_LINE chars is an error rather than an
+ * unbounded buffer.
+ *
+ * Values are kept as text (unescaped for TEXT properties); IcsImport decides what they
+ * mean. Not thread-safe.
+ */
+public class IcsReader implements Closeable {
+
+    static final int MAX_LINE = 64 * 1024;
+    private static final int BUFFER = 8 * 1024;
+
+    /** One date-time property: value plus its TZID / VALUE params (null if absent). */
+    public static final class DateValue {
+        @NonNull public final String value;     // "20250113T090000", "20250113T090000Z", "20250113"
+        @Nullable public final String tzid;
+
+        DateValue(@NonNull String value, @Nullable String tzid) {
+            this.value = value;
+            this.tzid = tzid;
+        }
+
+        public boolean isDateOnly() {
+            return value.indexOf('T') < 0;
+        }
+    }
+
+    /** The VEVENT properties the app can use; everything else is dropped while reading. */
+    public static final class VEvent {
+        @Nullable public String uid;
+        @Nullable public String summary;
+        @Nullable public String description;
+        @Nullable public String location;
+        @Nullable public DateValue dtstart, dtend, recurrenceId;
+        @Nullable public String duration;        // "PT1H30M"
+        @Nullable public String rrule;
+        @NonNull public List<DateValue> exdates = Collections.emptyList();
+        @Nullable public String status;          // "CANCELLED" etc.
+        public int line;                          // where BEGIN:VEVENT was, for error messages
+    }
+
+    private final Reader in;
+    private final char[] buf = new char[BUFFER];
+    private int pos, len;
+    private int lineNo = 0;
+    private final StringBuilder line = new StringBuilder(128);
+    private boolean eof = false;
+    // One line of lookahead, needed to see folded continuations
+    private final StringBuilder peek = new StringBuilder(128);
+    private boolean hasPeek = false;
+
+    public IcsReader(@NonNull Reader in) {
+        this.in = in;
+    }
+
+    /** The next VEVENT, or null at the end of the stream. */
+    @Nullable
+    public VEvent next() throws IOException {
+        int depth = 0;          // nesting inside the current VEVENT (VALARM etc.)
+        VEvent event = null;
+        while (readLogicalLine()) {
+            int colon = valueStart(line);
+            if (colon < 0) continue; // not a content line; lenient like most readers
+            String name = propertyName(line, colon);
+
+            if (name.equals("BEGIN")) {
+                String what = line.substring(colon + 1).trim();
+                if (event == null) {
+                    if (what.equalsIgnoreCase("VEVENT")) {
+                        event = new VEvent();
+                        event.line = lineNo;
+                    }
+                } else {
+                    depth++;
+                }
+                continue;
+            }
+            if (name.equals("END")) {
+                if (event == null) continue;
+                if (depth > 0) depth--;
+                else return event;
+                continue;
+            }
+            if (event == null || depth > 0) continue;
+
+            String value = line.substring(colon + 1);
+            switch (name) {
+                case "UID": event.uid = value.trim(); break;
+                case "SUMMARY": event.summary = unescape(value); break;
+                case "DESCRIPTION": event.description = unescape(value); break;
+                case "LOCATION": event.location = unescape(value); break;
+                case "DTSTART": event.dtstart = date(line, colon, value); break;
+                case "DTEND": event.dtend = date(line, colon, value); break;
+                case "RECURRENCE-ID": event.recurrenceId = date(line, colon, value); break;
+                case "DURATION": event.duration = value.trim(); break;
+                case "RRULE": event.rrule = value.trim(); break;
+                case "STATUS": event.status = value.trim().toUpperCase(Locale.ROOT); break;
+                case "EXDATE": {
+                    if (event.exdates.isEmpty()) event.exdates = new ArrayList<>(4);
+                    String tzid = param(line, colon, "TZID");
+                    for (String v : value.split(",")) {
+                        if (!v.trim().isEmpty()) event.exdates.add(new DateValue(v.trim(), tzid));
+                    }
+                    break;
+                }
+                default:
+                    break;
+            }
+        }
+        if (event != null) throw new IOException("Unterminated VEVENT starting at line " + event.line);
+        return null;
+    }
+
+    /** Line number of the last line read (1-based), for error messages. */
+    public int lineNumber() {
+        return lineNo;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // -------- Lines --------
+
+    /** Next content line with folded continuations joined, into `line`. */
+    private boolean readLogicalLine() throws IOException {
+        line.setLength(0);
+        if (hasPeek) {
+            line.append(peek);
+            hasPeek = false;
+        } else if (!readPhysical(line)) {
+            return false;
+        }
+        while (true) {
+            peek.setLength(0);
+            if (!readPhysical(peek)) return true;
+            char c = peek.length() > 0 ? peek.charAt(0) : 'x';
+            if (c == ' ' || c == '\t') {
+                if (line.length() + peek.length() > MAX_LINE) {
+                    throw new IOException("Content line over " + MAX_LINE + " chars at line " + lineNo);
+                }
+                line.append(peek, 1, peek.length());
+            } else {
+                hasPeek = true;
+                return true;
+            }
+        }
+    }
+
+    /** One physical line (CRLF, LF or CR) without the terminator. */
+    private boolean readPhysical(StringBuilder out) throws IOException {
+        if (eof) return false;
+        boolean any = false;
+        while (true) {
+            if (pos == len) {
+                len = in.read(buf, 0, buf.length);
+                pos = 0;
+                if (len <= 0) {
+                    len = 0;
+                    eof = true;
+                    if (any) lineNo++;
+                    return any;
+                }
+            }
+            char c = buf[pos++];
+            any = true;
+            if (c == '\n') {
+                lineNo++;
+                return true;
+            }
+            if (c == '\r') {
+                lineNo++;
+                if (pos == len) {
+                    len = in.read(buf, 0, buf.length);
+                    pos = 0;
+                    if (len <= 0) {
+                        len = 0;
+                        eof = true;
+                        return true;
+                    }
+                }
+                if (buf[pos] == '\n') pos++;
+                return true;
+            }
+            if (out.length() >= MAX_LINE) throw new IOException("Line over " + MAX_LINE + " chars at line " + (lineNo + 1));
+            out.append(c);
+        }
+    }
+
+    // -------- Content line parts --------
+
+    /** Index of the ':' that starts the value (colons inside quoted params don't count). */
+    private static int valueStart(CharSequence s) {
+        boolean quoted = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"') quoted = !quoted;
+            else if (c == ':' && !quoted) return i;
+        }
+        return -1;
+    }
+
+    private static String propertyName(CharSequence s, int colon) {
+        int end = 0;
+        while (end < colon && s.charAt(end) != ';') end++;
+        return s.subSequence(0, end).toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    /** Value of parameter `name` (e.g. TZID) in the part before the colon, unquoted. */
+    @Nullable
+    static String param(CharSequence s, int colon, String name) {
+        String head = s.subSequence(0, colon).toString();
+        int i = 0;
+        while ((i = head.indexOf(';', i)) >= 0) {
+            i++;
+            int eq = head.indexOf('=', i);
+            if (eq < 0) break;
+            if (head.substring(i, eq).trim().equalsIgnoreCase(name)) {
+                int end = head.indexOf(';', eq);
+                String v = head.substring(eq + 1, end < 0 ? head.length() : end).trim();
+                if (v.length() >= 2 && v.charAt(0) == '"' && v.charAt(v.length() - 1) == '"') {
+                    v = v.substring(1, v.length() - 1);
+                }
+                return v;
+            }
+        }
+        return null;
+    }
+
+    private static DateValue date(CharSequence s, int colon, String value) {
+        return new DateValue(value.trim(), param(s, colon, "TZID"));
+    }
+
+    /** TEXT unescaping: \n \N \, \; \\ . */
+    static String unescape(String v) {
+        if (v.indexOf('\\') < 0) return v;
+        StringBuilder out = new StringBuilder(v.length());
+        for (int i = 0; i < v.length(); i++) {
+            char c = v.charAt(i);
+            if (c != '\\' || i + 1 == v.length()) {
+                out.append(c);
+                continue;
+            }
+            char n = v.charAt(++i);
+            out.append(n == 'n' || n == 'N' ? '\n' : n);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.studybuddy.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.studybuddy.adapter.Task;
+import com.example.studybuddy.adapter.TimetableEvent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Streaming iCalendar writer: header, then one VEVENT per call, then the footer on close().
+ *
+ * - classes: DTSTART/DTEND as local time with TZID, plus RRULE + EXDATE (so calendar apps
+ *   repeat them the same way Recurrence does)
+ * - deadlines: a zero-length VEVENT at Task.dueAt (UTC), "Due: {title}"
+ *
+ * UIDs are "event-{id}@studybuddy" / "task-{id}@studybuddy"; IcsImport maps the event ones
+ * back to the same document, so exporting and re-importing doesn't duplicate anything.
+ * Lines are CRLF and folded at 75 octets (UTF-8), as the spec asks.
+ */
+public class IcsWriter implements Closeable {
+
+    static final String UID_DOMAIN = "@studybuddy";
+    static final String EVENT_UID_PREFIX = "event-";
+    static final String TASK_UID_PREFIX = "task-";
+
+    private static final int FOLD_OCTETS = 75;
+    private static final DateTimeFormatter LOCAL = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UTC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final Writer out;
+    private final ZoneId zone;
+    private final String stamp;   // DTSTAMP, the same for the whole file
+    private final StringBuilder line = new StringBuilder(128);
+    private int written = 0;
+
+    public IcsWriter(@NonNull Writer out, @NonNull ZoneId zone) throws IOException {
+        this.out = out;
+        this.zone = zone;
+        this.stamp = UTC.format(Instant.now());
+        raw("BEGIN:VCALENDAR");
+        raw("VERSION:2.0");
+        raw("PRODID:-//StudyBuddy//Timetable//EN");
+        raw("CALSCALE:GREGORIAN");
+        raw("X-WR-TIMEZONE:" + zone.getId());
+    }
+
+    /** A class, repeating per its rrule. Skipped (false) if it has no id. */
+    public boolean writeEvent(@NonNull TimetableEvent e) throws IOException {
+        if (e.getId() == null) return false;
+        String rule = rrule(e);
+        // DTSTART is the first instance of the rule itself (EXDATEs still count, e.g. for COUNT)
+        LocalDate start = firstWeek(e);
+        LocalDate first = Recurrence.parse(rule, start, Recurrence.dayOfWeek(e.getDayOfWeek()), null).next(start);
+        if (first == null) first = start;
+
+        raw("BEGIN:VEVENT");
+        raw("UID:" + EVENT_UID_PREFIX + e.getId() + UID_DOMAIN);
+        raw("DTSTAMP:" + stamp);
+        text("SUMMARY", e.getTitle() == null ? "Class" : e.getTitle());
+        raw("DTSTART;TZID=" + zone.getId() + ":" + LOCAL.format(at(first, e.getStartMin())));
+        raw("DTEND;TZID=" + zone.getId() + ":" + LOCAL.format(at(first, Math.max(e.getEndMin(), e.getStartMin()))));
+        raw("RRULE:" + rule);
+        if (e.getExdates() != null && !e.getExdates().trim().isEmpty()) {
+            raw("EXDATE;VALUE=DATE:" + e.getExdates().replace(" ", ""));
+        }
+        raw("END:VEVENT");
+        written++;
+        return true;
+    }
+
+    /** An open task's deadline. Skipped (false) without a dueAt or id. */
+    public boolean writeDeadline(@NonNull Task t) throws IOException {
+        if (t.getDueAt() == null || t.getId() == null) return false;
+        String due = UTC.format(Instant.ofEpochMilli(t.getDueAt()));
+        raw("BEGIN:VEVENT");
+        raw("UID:" + TASK_UID_PREFIX + t.getId() + UID_DOMAIN);
+        raw("DTSTAMP:" + stamp);
+        text("SUMMARY", "Due: " + (t.getTitle() == null ? "Task" : t.getTitle()));
+        if (t.getModuleTitle() != null) text("DESCRIPTION", t.getModuleTitle());
+        raw("DTSTART:" + due);
+        raw("DTEND:" + due);
+        raw("TRANSP:TRANSPARENT");
+        raw("END:VEVENT");
+        written++;
+        return true;
+    }
+
+    /** VEVENTs written so far. */
+    public int count() {
+        return written;
+    }
+
+    /** Writes END:VCALENDAR and closes the underlying writer. */
+    @Override
+    public void close() throws IOException {
+        try {
+            raw("END:VCALENDAR");
+            out.flush();
+        } finally {
+            out.close();
+        }
+    }
+
+    // -------- Values --------
+
+    private LocalDate firstWeek(TimetableEvent e) {
+        if (e.getDtstart() != null) {
+            try {
+                return LocalDate.parse(e.getDtstart(), Recurrence.DATE);
+            } catch (RuntimeException ignored) {
+                // fall through to createdAt
+            }
+        }
+        return Instant.ofEpochMilli(e.getCreatedAt()).atZone(zone).toLocalDate();
+    }
+
+    private static LocalDateTime at(LocalDate day, int minutes) {
+        return day.atStartOfDay().plusMinutes(minutes);
+    }
+
+    /**
+     * The stored rule as an RRULE value. "WEEKLY", blank and unreadable rules all export as
+     * plain weekly, which is also how Recurrence.of() shows them in the app.
+     */
+    static String rrule(TimetableEvent e) {
+        String r = e.getRrule() == null ? "" : e.getRrule().trim();
+        if (r.regionMatches(true, 0, "RRULE:", 0, 6)) r = r.substring(6);
+        if (r.isEmpty() || r.equalsIgnoreCase("WEEKLY")) return "FREQ=WEEKLY";
+        try {
+            Recurrence.parse(r, LocalDate.of(1970, 1, 1), Recurrence.dayOfWeek(e.getDayOfWeek()), null);
+            return r;
+        } catch (IllegalArgumentException bad) {
+            return "FREQ=WEEKLY";
+        }
+    }
+
+    // -------- Lines --------
+
+    private void text(String name, @Nullable String value) throws IOException {
+        line.setLength(0);
+        line.append(name).append(':');
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\\': line.append("\\\\"); break;
+                    case ';': line.append("\\;"); break;
+                    case ',': line.append("\\,"); break;
+                    case '\n': line.append("\\n"); break;
+                    case '\r': break;
+                    default: line.append(c);
+                }
+            }
+        }
+        fold(line);
+    }
+
+    private void raw(String s) throws IOException {
+        line.setLength(0);
+        line.append(s);
+        fold(line);
+    }
+
+    /** Write `s` + CRLF, breaking it into 75-octet pieces (continuations start with a space). */
+    private void fold(CharSequence s) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            int n = c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isHighSurrogate(c) ? 4 : Character.isLowSurrogate(c) ? 0 : 3;
+            if (n > 0 && octets + n > FOLD_OCTETS) {
+                out.write("\r\n ");
+                octets = 1;
+            }
+            out.write(c);
+            octets += n;
+        }
+        out.write("\r\n");
+    }
+}
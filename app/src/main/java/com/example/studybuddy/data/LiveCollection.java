@@ -0,0 +1,309 @@
+package com.example.studybuddy.data;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.studybuddy.util.AppExecutors;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * One Firestore snapshot listener for one collection, shared by every screen.
+ *
+ * - The listener is attached the first time someone observes and then stays attached
+ *   (FirestoreRepo owns it, not the Activity), so switching tabs costs no reads.
+ * - Snapshots are applied incrementally from getDocumentChanges(): only ADDED/MODIFIED
+ *   documents are decoded, and an id-keyed store is patched in place on AppExecutors.io().
+ * - Observers are called on the main thread with the new list + a ChangeSet describing
+ *   exactly which positions moved. New observers get the current list as a reset.
+ * - With a Seed (the on-disk mirror), the last known list is published straight away
+ *   as a cached reset, and replaced wholesale by the first real snapshot.
+ */
+public class LiveCollection<T> {
+
+    public interface Observer<T> {
+        void onChanged(@NonNull List<T> items);
+
+        /** Override to get precise ranges; the default just hands over the full list. */
+        default void onDelta(@NonNull List<T> items, @NonNull ChangeSet<T> changes) {
+            onChanged(items);
+        }
+
+        default void onError(@NonNull Exception e) {}
+    }
+
+    /** Gets every applied snapshot on AppExecutors.io(), before observers run. For in-memory indexes. */
+    public interface IoSink<T> {
+        void onApplied(@NonNull List<T> all, @NonNull ChangeSet<T> changes);
+    }
+
+    /** Loads the last known list from disk (io thread): id -> item, in list order. */
+    public interface Seed<T> {
+        void load(@NonNull LinkedHashMap<String, T> into);
+    }
+
+    /** Turns a document into a model (and sets its id). Return null to skip it. */
+    public interface Decoder<T> {
+        @Nullable
+        T decode(@NonNull DocumentSnapshot doc);
+    }
+
+    protected final String tag;
+    protected final Query query;
+    protected final Decoder<T> decoder;
+
+    // io thread only: the store snapshots are applied to (same order as the query)
+    protected final List<T> ordered = new ArrayList<>();
+
+    // Written on io, read from anywhere (find())
+    protected final Map<String, T> byId = new ConcurrentHashMap<>();
+
+    // io thread only
+    private boolean loaded = false;   // first snapshot applied
+    private boolean degraded = false; // a doc failed to decode -> positions can't be trusted
+    private boolean seeded = false;   // `ordered` holds the disk copy, not a snapshot
+    private boolean requeried = false; // reattach(): the next snapshot is from a different query
+
+    private final List<IoSink<T>> sinks = new CopyOnWriteArrayList<>();
+    @Nullable private volatile Seed<T> seed;
+
+    // Main thread only
+    private final List<Observer<T>> observers = new ArrayList<>();
+    private boolean active = false;
+    private List<T> items; // null until the first snapshot arrives
+
+    // Whichever thread attach()/detach() run on
+    private ListenerRegistration registration;
+
+    public LiveCollection(String tag, Query query, Decoder<T> decoder) {
+        this.tag = tag;
+        this.query = query;
+        this.decoder = decoder;
+    }
+
+    /**
+     * Start receiving the list. Call remove() on the result when the screen goes away;
+     * that only unsubscribes the screen, the Firestore listener stays alive.
+     */
+    public ListenerRegistration observe(@NonNull Observer<T> observer) {
+        observers.add(observer);
+        if (items != null) observer.onDelta(items, ChangeSet.reset());
+        start();
+        return () -> observers.remove(observer);
+    }
+
+    /** Register an index that must see every change (call before the first observe()). */
+    public void addSink(@NonNull IoSink<T> sink) {
+        sinks.add(sink);
+    }
+
+    /** Show `seed`'s list until the first snapshot arrives (call before the first observe()). */
+    public void setSeed(@Nullable Seed<T> seed) {
+        this.seed = seed;
+    }
+
+    /** Last decoded list, or null if nothing has loaded yet. */
+    @Nullable
+    public List<T> current() {
+        return items;
+    }
+
+    /** Cached item by document id (null if not loaded / not found). */
+    @Nullable
+    public T find(@Nullable String id) {
+        if (id == null) return null;
+        return byId.get(id);
+    }
+
+    private void start() {
+        if (active) return;
+        active = true;
+        Seed<T> s = seed;
+        if (s != null) {
+            // Queued before attach(), so it runs before any snapshot callback
+            AppExecutors.io().execute(() -> {
+                if (loaded || !ordered.isEmpty()) return;
+                LinkedHashMap<String, T> cached = new LinkedHashMap<>();
+                s.load(cached);
+                if (cached.isEmpty()) return;
+                ordered.addAll(cached.values());
+                byId.putAll(cached);
+                seeded = true;
+                publish(ChangeSet.cached());
+            });
+        }
+        attach();
+    }
+
+    /** The query attach() listens to. Main thread; override to build it at attach time. */
+    protected Query query() {
+        return query;
+    }
+
+    /** Attach the Firestore listener(s). Main thread; subclasses may split the query up. */
+    protected void attach() {
+        registration = query().addSnapshotListener(AppExecutors.io(), (snap, err) -> {
+            if (err != null) {
+                fail(err);
+                return;
+            }
+            if (snap == null) return;
+            publish(apply(snap));
+        });
+    }
+
+    /** Undo attach(). Main thread. */
+    protected void detach() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+    }
+
+    /**
+     * Main thread: swap the listener for one on a fresh query(). Its first snapshot
+     * replaces the store as a reset; until then observers keep the old list.
+     */
+    protected final void reattach() {
+        if (!active) return;
+        detach();
+        // Queued before attach(), so it runs before the new listener's first snapshot
+        AppExecutors.io().execute(() -> requeried = true);
+        attach();
+    }
+
+    /**
+     * io thread: forget the seeded disk copy (if that's what `ordered` holds).
+     * True if there was one, i.e. the caller must publish a reset.
+     */
+    protected final boolean dropSeed() {
+        if (!seeded) return false;
+        seeded = false;
+        ordered.clear();
+        byId.clear();
+        return true;
+    }
+
+    /** io thread: `ordered` was just patched -> update sinks, then observers on main. */
+    protected final void publish(@NonNull ChangeSet<T> changes) {
+        for (IoSink<T> sink : sinks) sink.onApplied(ordered, changes);
+        List<T> frozen = Collections.unmodifiableList(new ArrayList<>(ordered));
+
+        AppExecutors.main().execute(() -> {
+            if (!active) return; // stopped meanwhile
+            items = frozen;
+            for (Observer<T> o : new ArrayList<>(observers)) o.onDelta(frozen, changes);
+        });
+    }
+
+    /** Any thread: a listener failed. Firestore drops it, so the next observe() re-attaches. */
+    protected final void fail(@NonNull Exception err) {
+        Log.e(tag, "listen err", err);
+        AppExecutors.main().execute(() -> {
+            if (!active) return;
+            active = false;
+            detach();
+            for (Observer<T> o : new ArrayList<>(observers)) o.onError(err);
+        });
+    }
+
+    /**
+     * Patch the store with one snapshot's DocumentChanges (io thread).
+     * Firestore reports oldIndex/newIndex relative to the list after the previous change,
+     * which is exactly the order we apply them in.
+     */
+    private ChangeSet<T> apply(QuerySnapshot snap) {
+        if (degraded || seeded || requeried) return rebuild(snap);
+
+        ChangeSet<T> changes = loaded ? ChangeSet.delta() : ChangeSet.reset();
+        loaded = true;
+
+        for (DocumentChange dc : snap.getDocumentChanges()) {
+            switch (dc.getType()) {
+                case ADDED: {
+                    T item = decoder.decode(dc.getDocument());
+                    if (item == null) return rebuild(snap);
+                    ordered.add(dc.getNewIndex(), item);
+                    byId.put(dc.getDocument().getId(), item);
+                    changes.inserted(dc.getNewIndex(), item);
+                    break;
+                }
+                case MODIFIED: {
+                    T item = decoder.decode(dc.getDocument());
+                    if (item == null) return rebuild(snap);
+                    ordered.remove(dc.getOldIndex());
+                    ordered.add(dc.getNewIndex(), item);
+                    byId.put(dc.getDocument().getId(), item);
+                    changes.modified(dc.getOldIndex(), dc.getNewIndex(), item);
+                    break;
+                }
+                case REMOVED: {
+                    T item = ordered.remove(dc.getOldIndex());
+                    byId.remove(dc.getDocument().getId());
+                    changes.removed(dc.getOldIndex(), item);
+                    break;
+                }
+            }
+        }
+
+        if (ordered.size() != snap.size()) {
+            // Should not happen, but never let the store drift from the server list
+            Log.w(tag, "store out of sync (" + ordered.size() + " vs " + snap.size() + "), rebuilding");
+            return rebuild(snap);
+        }
+        return changes;
+    }
+
+    /** Full decode fallback; only used if a document could not be decoded. */
+    private ChangeSet<T> rebuild(QuerySnapshot snap) {
+        ordered.clear();
+        byId.clear();
+        degraded = false;
+        seeded = false;
+        requeried = false;
+        for (DocumentSnapshot doc : snap.getDocuments()) {
+            T item = decoder.decode(doc);
+            if (item == null) {
+                degraded = true;
+                continue;
+            }
+            ordered.add(item);
+            byId.put(doc.getId(), item);
+        }
+        loaded = true;
+        return ChangeSet.reset();
+    }
+
+    /** Detach the Firestore listener and drop cached data (sign-out / user switch). */
+    public void stop() {
+        active = false;
+        detach();
+        items = null;
+        observers.clear();
+        AppExecutors.io().execute(() -> {
+            ordered.clear();
+            byId.clear();
+            loaded = false;
+            degraded = false;
+            seeded = false;
+            requeried = false;
+            onCleared();
+        });
+    }
+
+    /** io thread, after stop() emptied the store. */
+    protected void onCleared() {}
+}
@@ -0,0 +1,138 @@
+package com.example.studybuddy.data;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.studybuddy.util.AppExecutors;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Deletes users/{uid}/modules/{id} together with everything that points at it.
+ *
+ * - timetable_events with that moduleId are deleted
+ * - tasks with that moduleId are kept but detached (moduleId / moduleTitle -> null)
+ * - the module doc (and a pending rename job, if any) goes last
+ *
+ * Deletes go through SyncedCollection.delete() (doc + tombstone = 2 ops), detaches are
+ * stamped with updatedAt, so other devices' delta sync sees both.
+ *
+ * Dependents are read a batch at a time with whereEqualTo("moduleId", id).limit(..).
+ * A committed page no longer matches that query, so the next read simply starts over
+ * from the top: no cursor, and only one page is ever held in memory, however many
+ * tasks the module has. The module is deleted last, so a run that fails or gets killed
+ * halfway can just be started again.
+ */
+public class ModuleCascadeDelete {
+
+    public interface Listener {
+        /** Main thread. Dependents deleted or detached so far. */
+        default void onProgress(int done) {}
+
+        /** Main thread. error == null means the module and its dependents are gone. */
+        void onFinished(@Nullable Exception error);
+    }
+
+    private static final String TAG = "ModuleCascadeDelete";
+
+    /** Firestore's per-batch limit. */
+    private static final int BATCH_OPS = 500;
+    /** Each delete also writes a tombstone. */
+    private static final int EVENTS_PER_BATCH = BATCH_OPS / 2;
+
+    private final FirebaseFirestore db;
+    private final DocumentReference moduleDoc;
+    private final DocumentReference renameJobDoc;
+    private final Query events;
+    private final Query tasks;
+    private final Listener listener;
+
+    // io thread only
+    private int done = 0;
+
+    public ModuleCascadeDelete(@NonNull FirebaseFirestore db, @NonNull DocumentReference userDoc,
+                               @NonNull String moduleId, @NonNull Listener listener) {
+        this.db = db;
+        this.listener = listener;
+        CollectionReference modules = userDoc.collection("modules");
+        moduleDoc = modules.document(moduleId);
+        renameJobDoc = userDoc.collection("jobs").document("rename_" + moduleId);
+        events = userDoc.collection("timetable_events").whereEqualTo("moduleId", moduleId).limit(EVENTS_PER_BATCH);
+        tasks = userDoc.collection("tasks").whereEqualTo("moduleId", moduleId).limit(BATCH_OPS);
+    }
+
+    public void start() {
+        AppExecutors.io().execute(this::nextEvents);
+    }
+
+    // -------- Steps (io thread) --------
+
+    private void nextEvents() {
+        events.get()
+                .addOnSuccessListener(AppExecutors.io(), snap -> {
+                    if (snap.isEmpty()) {
+                        nextTasks();
+                        return;
+                    }
+                    WriteBatch batch = db.batch();
+                    for (DocumentSnapshot doc : snap.getDocuments()) SyncedCollection.delete(batch, doc.getReference());
+                    commit(batch, snap, this::nextEvents);
+                })
+                .addOnFailureListener(AppExecutors.io(), this::failed);
+    }
+
+    private void nextTasks() {
+        tasks.get()
+                .addOnSuccessListener(AppExecutors.io(), snap -> {
+                    if (snap.isEmpty()) {
+                        deleteModule();
+                        return;
+                    }
+                    Map<String, Object> detach = new HashMap<>();
+                    detach.put("moduleId", null);
+                    detach.put("moduleTitle", null);
+                    SyncedCollection.stamp(detach);
+
+                    WriteBatch batch = db.batch();
+                    for (DocumentSnapshot doc : snap.getDocuments()) batch.update(doc.getReference(), detach);
+                    commit(batch, snap, this::nextTasks);
+                })
+                .addOnFailureListener(AppExecutors.io(), this::failed);
+    }
+
+    private void deleteModule() {
+        WriteBatch batch = db.batch();
+        batch.delete(renameJobDoc);
+        SyncedCollection.delete(batch, moduleDoc);
+        batch.commit()
+                .addOnSuccessListener(AppExecutors.io(), v -> AppExecutors.main().execute(() -> listener.onFinished(null)))
+                .addOnFailureListener(AppExecutors.io(), this::failed);
+    }
+
+    private void commit(WriteBatch batch, QuerySnapshot page, Runnable next) {
+        int count = page.size();
+        batch.commit()
+                .addOnSuccessListener(AppExecutors.io(), v -> {
+                    done += count;
+                    int soFar = done;
+                    AppExecutors.main().execute(() -> listener.onProgress(soFar));
+                    next.run();
+                })
+                .addOnFailureListener(AppExecutors.io(), this::failed);
+    }
+
+    private void failed(Exception e) {
+        Log.w(TAG, "cascade delete stopped after " + done + " docs", e);
+        AppExecutors.main().execute(() -> listener.onFinished(e));
+    }
+}
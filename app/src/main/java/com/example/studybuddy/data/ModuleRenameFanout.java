@@ -0,0 +1,220 @@
+package com.example.studybuddy.data;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.studybuddy.util.AppExecutors;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copies a module's new title into Task.moduleTitle (tasks store it denormalized).
+ *
+ * The job itself is a document, users/{uid}/jobs/rename_{moduleId}, written in the SAME
+ * batch as the module rename (see jobWrite()). So it can't be lost: if the app is killed
+ * halfway, the next sign-in / cold start finds the job doc and resume() carries on.
+ *
+ * Each step:
+ * - reads the next PAGE_SIZE tasks of that module (ordered by doc id, after `cursor`)
+ * - rewrites moduleTitle on the ones that are stale, and moves the job's cursor forward,
+ *   in one batch (so progress is saved exactly when the work is)
+ * - a short page means done -> the job doc is deleted.
+ * Failed steps are retried with backoff; after MAX_ATTEMPTS the job waits for the next start.
+ *
+ * Renaming again while a job runs just overwrites the job doc (cursor back to null);
+ * the old run notices at its next step and stops.
+ */
+public class ModuleRenameFanout {
+
+    public interface Listener {
+        /** Main thread. `updated` = tasks rewritten so far in this job. */
+        default void onProgress(@NonNull String moduleId, int updated) {}
+
+        /** Main thread. error == null means every task now has the new title. */
+        void onFinished(@NonNull String moduleId, @Nullable Exception error);
+    }
+
+    private static final String TAG = "RenameFanout";
+    private static final String COLLECTION_JOBS = "jobs";
+    private static final String TYPE = "moduleRename";
+
+    /** Tasks per step; + 1 job update stays well under the 500-op batch limit. */
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long BASE_BACKOFF_MS = 1000;
+
+    private final FirebaseFirestore db;
+    private final CollectionReference tasksRef;
+    private final CollectionReference jobsRef;
+    private final Handler retryHandler = new Handler(Looper.getMainLooper());
+
+    // io thread only: moduleId -> title the running job is writing
+    private final Map<String, String> running = new HashMap<>();
+    private boolean stopped = false;
+
+    @Nullable private volatile Listener listener;
+
+    public ModuleRenameFanout(@NonNull FirebaseFirestore db, @NonNull DocumentReference userDoc) {
+        this.db = db;
+        this.tasksRef = userDoc.collection("tasks");
+        this.jobsRef = userDoc.collection(COLLECTION_JOBS);
+    }
+
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Add the job doc for "module `moduleId` is now called `title`" to `batch`.
+     * Commit it together with the module update, then call start().
+     */
+    public void jobWrite(@NonNull WriteBatch batch, @NonNull String moduleId, @NonNull String title) {
+        Map<String, Object> job = new HashMap<>();
+        job.put("type", TYPE);
+        job.put("moduleId", moduleId);
+        job.put("title", title);
+        job.put("cursor", null);
+        job.put("updated", 0);
+        job.put("createdAt", System.currentTimeMillis());
+        batch.set(jobDoc(moduleId), job);
+    }
+
+    /** Run (or restart) the job for one module, reading its state from the job doc. */
+    public void start(@NonNull String moduleId) {
+        jobDoc(moduleId).get().addOnSuccessListener(AppExecutors.io(), doc -> {
+            if (doc.exists()) run(doc);
+        }).addOnFailureListener(AppExecutors.io(), e -> Log.w(TAG, "could not read job " + moduleId, e));
+    }
+
+    /** Pick up every job left over from a previous run (cold start / sign-in). */
+    public void resume() {
+        jobsRef.whereEqualTo("type", TYPE).get().addOnSuccessListener(AppExecutors.io(), snap -> {
+            for (DocumentSnapshot doc : snap.getDocuments()) run(doc);
+        }).addOnFailureListener(AppExecutors.io(), e -> Log.w(TAG, "could not list jobs", e));
+    }
+
+    /** Sign-out: let running steps finish but don't start new ones. */
+    public void stop() {
+        AppExecutors.io().execute(() -> {
+            stopped = true;
+            running.clear();
+        });
+    }
+
+    // -------- Job steps (io thread) --------
+
+    private void run(DocumentSnapshot job) {
+        String moduleId = job.getString("moduleId");
+        String title = job.getString("title");
+        if (moduleId == null || title == null || stopped) return;
+
+        Long updated = job.getLong("updated");
+        boolean alreadyRunning = title.equals(running.get(moduleId));
+        running.put(moduleId, title);
+        if (!alreadyRunning) {
+            step(moduleId, title, job.getString("cursor"), updated == null ? 0 : updated.intValue(), 1);
+        }
+    }
+
+    private void step(String moduleId, String title, @Nullable String cursor, int updated, int attempt) {
+        if (stopped || !title.equals(running.get(moduleId))) return; // superseded by a newer rename
+
+        Query page = tasksRef.whereEqualTo("moduleId", moduleId)
+                .orderBy(FieldPath.documentId(), Query.Direction.ASCENDING);
+        if (cursor != null) page = page.startAfter(cursor);
+
+        page.limit(PAGE_SIZE).get()
+                .addOnSuccessListener(AppExecutors.io(), snap -> writePage(moduleId, title, cursor, updated, attempt, snap))
+                .addOnFailureListener(AppExecutors.io(), e -> retry(moduleId, title, cursor, updated, attempt, e));
+    }
+
+    private void writePage(String moduleId, String title, @Nullable String from, int updatedBefore, int attempt,
+                           QuerySnapshot snap) {
+        if (stopped || !title.equals(running.get(moduleId))) return;
+
+        List<DocumentSnapshot> docs = snap.getDocuments();
+        boolean last = docs.size() < PAGE_SIZE;
+        String cursor = docs.isEmpty() ? null : docs.get(docs.size() - 1).getId();
+
+        WriteBatch batch = db.batch();
+        int changed = 0;
+        for (DocumentSnapshot doc : docs) {
+            if (title.equals(doc.getString("moduleTitle"))) continue; // already right (e.g. resumed)
+            Map<String, Object> fields = new HashMap<>();
+            fields.put("moduleTitle", title);
+            batch.update(doc.getReference(), SyncedCollection.stamp(fields));
+            changed++;
+        }
+        int updated = updatedBefore + changed;
+
+        if (last) {
+            batch.delete(jobDoc(moduleId));
+        } else {
+            // set+merge (not update) so the job doc comes back even if an older run just deleted it
+            Map<String, Object> progress = new HashMap<>();
+            progress.put("type", TYPE);
+            progress.put("moduleId", moduleId);
+            progress.put("title", title);
+            progress.put("cursor", cursor);
+            progress.put("updated", updated);
+            batch.set(jobDoc(moduleId), progress, SetOptions.merge());
+        }
+
+        batch.commit()
+                .addOnSuccessListener(AppExecutors.io(), v -> {
+                    if (last) {
+                        Log.i(TAG, moduleId + ": renamed on " + updated + " tasks");
+                        running.remove(moduleId);
+                        finished(moduleId, null);
+                    } else {
+                        progress(moduleId, updated);
+                        step(moduleId, title, cursor, updated, 1);
+                    }
+                })
+                // Nothing from this page was written -> read it again from the same cursor
+                .addOnFailureListener(AppExecutors.io(), e -> retry(moduleId, title, from, updatedBefore, attempt, e));
+    }
+
+    private void retry(String moduleId, String title, @Nullable String cursor, int updated, int attempt, Exception e) {
+        if (attempt >= MAX_ATTEMPTS) {
+            // Job doc stays; resume() tries again next start
+            Log.w(TAG, "giving up on " + moduleId + " for now", e);
+            running.remove(moduleId);
+            finished(moduleId, e);
+            return;
+        }
+        long delay = BASE_BACKOFF_MS << (attempt - 1);
+        Log.w(TAG, "step failed for " + moduleId + ", retry in " + delay + "ms", e);
+        retryHandler.postDelayed(() -> AppExecutors.io().execute(
+                () -> step(moduleId, title, cursor, updated, attempt + 1)), delay);
+    }
+
+    private void progress(String moduleId, int updated) {
+        Listener l = listener;
+        if (l != null) AppExecutors.main().execute(() -> l.onProgress(moduleId, updated));
+    }
+
+    private void finished(String moduleId, @Nullable Exception error) {
+        Listener l = listener;
+        if (l != null) AppExecutors.main().execute(() -> l.onFinished(moduleId, error));
+    }
+
+    private DocumentReference jobDoc(String moduleId) {
+        return jobsRef.document("rename_" + moduleId);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.studybuddy.data;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+
+/**
+ * A LiveCollection of the documents whose `field` (epoch millis) falls in the last
+ * `windowMs`, oldest first. E.g. focus sessions of the last 8 days.
+ *
+ * The lower bound is taken each time the listener attaches, not once when the collection
+ * is built. The listener then stays attached, so the bound ages. Once it is more than
+ * `slackMs` behind, the next observe() re-attaches with a fresh one. Without that, a
+ * session that stays signed in for days keeps everything since sign-in. Observers may
+ * still see up to `slackMs` of older documents, so filter by the current time if it matters.
+ */
+public class RecentCollection<T> extends LiveCollection<T> {
+
+    private final String field;
+    private final long windowMs;
+    private final long slackMs;
+
+    // Main thread: lower bound of the attached listener (0 = not attached yet)
+    private long since = 0;
+
+    public RecentCollection(String tag, Query base, String field, long windowMs, long slackMs, Decoder<T> decoder) {
+        super(tag, base, decoder);
+        this.field = field;
+        this.windowMs = windowMs;
+        this.slackMs = slackMs;
+    }
+
+    /** The lower bound a listener attached now would use. */
+    public long windowStart() {
+        return System.currentTimeMillis() - windowMs;
+    }
+
+    @Override
+    public ListenerRegistration observe(@NonNull Observer<T> observer) {
+        if (since != 0 && windowStart() - since > slackMs) reattach();
+        return super.observe(observer);
+    }
+
+    @Override
+    protected Query query() {
+        since = windowStart();
+        return query.whereGreaterThanOrEqualTo(field, since).orderBy(field, Query.Direction.ASCENDING);
+    }
+}
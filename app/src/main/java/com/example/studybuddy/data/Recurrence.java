@@ -0,0 +1,375 @@
+package com.example.studybuddy.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.studybuddy.adapter.TimetableEvent;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * The dates a TimetableEvent happens on, from its RRULE (RFC 5545 subset).
+ *
+ * Supported: FREQ=WEEKLY with INTERVAL, BYDAY, UNTIL, COUNT, WKST, plus EXDATEs
+ * (reading weeks, bank holidays). The legacy value "WEEKLY" means FREQ=WEEKLY.
+ * Like iCalendar, EXDATEs are taken out AFTER COUNT: a cancelled class still uses
+ * up one of its COUNT occurrences.
+ *
+ * between(from, to) is lazy: it jumps straight to the first week of the window
+ * (occurrencesBefore() works COUNT out arithmetically instead of replaying every
+ * earlier week) and then yields one date per next(). Expanding a few weeks of a
+ * multi-year rule costs the same as expanding its first few weeks.
+ *
+ * Plain Java (no Android), immutable, so safe to share between threads.
+ */
+public final class Recurrence {
+
+    /** iCalendar DATE, e.g. 20250113 (what DTSTART / UNTIL / EXDATE use here). */
+    public static final DateTimeFormatter DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final LocalDate dtstart;
+    private final int interval;
+    private final DayOfWeek weekStart;
+    private final int[] offsets;          // BYDAY as days after weekStart, ascending
+    @Nullable private final LocalDate until;
+    private final long count;             // 0 = no COUNT
+    private final Set<LocalDate> exdates;
+
+    private Recurrence(LocalDate dtstart, int interval, DayOfWeek weekStart, int[] offsets,
+                       @Nullable LocalDate until, long count, Set<LocalDate> exdates) {
+        this.dtstart = dtstart;
+        this.interval = interval;
+        this.weekStart = weekStart;
+        this.offsets = offsets;
+        this.until = until;
+        this.count = count;
+        this.exdates = exdates;
+    }
+
+    // -------- Parsing --------
+
+    /**
+     * @param rrule    e.g. "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TH;UNTIL=20250516" (an "RRULE:" prefix is ok)
+     * @param dtstart  first day it can happen on
+     * @param day      weekday used when there is no BYDAY
+     * @param exdates  comma separated dates to skip, e.g. "20250310,20250317" (or null)
+     * @throws IllegalArgumentException for anything outside the supported subset
+     */
+    @NonNull
+    public static Recurrence parse(@Nullable String rrule, @NonNull LocalDate dtstart, @NonNull DayOfWeek day,
+                                   @Nullable String exdates) {
+        int interval = 1;
+        DayOfWeek wkst = DayOfWeek.MONDAY;
+        Set<DayOfWeek> byDay = new HashSet<>();
+        LocalDate until = null;
+        long count = 0;
+        boolean weekly = false;
+
+        String rule = rrule == null ? "" : rrule.trim();
+        if (rule.regionMatches(true, 0, "RRULE:", 0, 6)) rule = rule.substring(6);
+        if (rule.isEmpty() || rule.equalsIgnoreCase("WEEKLY")) rule = "FREQ=WEEKLY";
+
+        for (String part : rule.split(";")) {
+            if (part.isEmpty()) continue;
+            int eq = part.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Bad RRULE part: " + part);
+            String key = part.substring(0, eq).trim().toUpperCase(Locale.ROOT);
+            String value = part.substring(eq + 1).trim().toUpperCase(Locale.ROOT);
+            switch (key) {
+                case "FREQ":
+                    if (!value.equals("WEEKLY")) throw new IllegalArgumentException("Only FREQ=WEEKLY is supported");
+                    weekly = true;
+                    break;
+                case "INTERVAL":
+                    interval = positive(key, value);
+                    break;
+                case "COUNT":
+                    count = positive(key, value);
+                    break;
+                case "UNTIL":
+                    until = date(value.length() > 8 ? value.substring(0, 8) : value); // drop THHMMSSZ
+                    break;
+                case "BYDAY":
+                    for (String d : value.split(",")) byDay.add(weekday(d.trim()));
+                    break;
+                case "WKST":
+                    wkst = weekday(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported RRULE part: " + key);
+            }
+        }
+        if (!weekly) throw new IllegalArgumentException("RRULE without FREQ");
+        if (until != null && count > 0) throw new IllegalArgumentException("UNTIL and COUNT together");
+        if (byDay.isEmpty()) byDay.add(day);
+
+        int[] offsets = new int[byDay.size()];
+        int i = 0;
+        for (DayOfWeek d : byDay) offsets[i++] = Math.floorMod(d.getValue() - wkst.getValue(), 7);
+        Arrays.sort(offsets);
+
+        Set<LocalDate> skip = new HashSet<>();
+        if (exdates != null) {
+            for (String d : exdates.split(",")) {
+                String s = d.trim();
+                if (!s.isEmpty()) skip.add(date(s.length() > 8 ? s.substring(0, 8) : s));
+            }
+        }
+        return new Recurrence(dtstart, interval, wkst, offsets, until, count, skip);
+    }
+
+    /**
+     * The event's recurrence. No dtstart means "from the day it was created". A rule this
+     * class can't read falls back to plain weekly on dayOfWeek, so the class still shows.
+     */
+    @NonNull
+    public static Recurrence of(@NonNull TimetableEvent e, @NonNull ZoneId zone) {
+        DayOfWeek day = dayOfWeek(e.getDayOfWeek());
+        LocalDate start;
+        try {
+            start = e.getDtstart() != null ? date(e.getDtstart())
+                    : Instant.ofEpochMilli(e.getCreatedAt()).atZone(zone).toLocalDate();
+        } catch (IllegalArgumentException bad) {
+            start = Instant.ofEpochMilli(e.getCreatedAt()).atZone(zone).toLocalDate();
+        }
+        try {
+            return parse(e.getRrule(), start, day, e.getExdates());
+        } catch (IllegalArgumentException bad) {
+            return parse(null, start, day, null);
+        }
+    }
+
+    /** Calendar.SUNDAY..SATURDAY (what TimetableEvent stores) -> DayOfWeek. */
+    @NonNull
+    public static DayOfWeek dayOfWeek(int calendarDay) {
+        return DayOfWeek.of(Math.floorMod(calendarDay - 2, 7) + 1);
+    }
+
+    private static int positive(String key, String value) {
+        try {
+            int n = Integer.parseInt(value);
+            if (n > 0) return n;
+        } catch (NumberFormatException ignored) {
+            // fall through
+        }
+        throw new IllegalArgumentException(key + " must be a positive number: " + value);
+    }
+
+    private static LocalDate date(String value) {
+        try {
+            return LocalDate.parse(value, DATE);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Bad date: " + value, e);
+        }
+    }
+
+    private static DayOfWeek weekday(String code) {
+        switch (code) {
+            case "MO": return DayOfWeek.MONDAY;
+            case "TU": return DayOfWeek.TUESDAY;
+            case "WE": return DayOfWeek.WEDNESDAY;
+            case "TH": return DayOfWeek.THURSDAY;
+            case "FR": return DayOfWeek.FRIDAY;
+            case "SA": return DayOfWeek.SATURDAY;
+            case "SU": return DayOfWeek.SUNDAY;
+            default: throw new IllegalArgumentException("Bad weekday: " + code);
+        }
+    }
+
+    // -------- Expansion --------
+
+    /** The weekdays it can happen on (BYDAY, else the event's own day), from WKST on. */
+    @NonNull
+    public List<DayOfWeek> days() {
+        List<DayOfWeek> out = new ArrayList<>(offsets.length);
+        for (int off : offsets) out.add(weekStart.plus(off));
+        return out;
+    }
+
+    /** Occurrence dates in [from, to), ascending, computed as they are iterated. */
+    @NonNull
+    public Iterable<LocalDate> between(@NonNull LocalDate from, @NonNull LocalDate to) {
+        return () -> new Dates(from, to);
+    }
+
+    /** First occurrence on or after `day`, or null if the rule has ended by then. */
+    @Nullable
+    public LocalDate next(@NonNull LocalDate day) {
+        Iterator<LocalDate> it = new Dates(day, LocalDate.MAX);
+        return it.hasNext() ? it.next() : null;
+    }
+
+    /**
+     * How many RRULE instances (EXDATEs included) fall before `day`, without walking them:
+     * the first (partial) week, then whole active weeks, then the part of day's own week.
+     */
+    long occurrencesBefore(@NonNull LocalDate day) {
+        if (!day.isAfter(dtstart)) return 0;
+        LocalDate firstWeek = weekOf(dtstart);
+        long weeks = ChronoUnit.WEEKS.between(firstWeek, weekOf(day));
+
+        if (weeks == 0) return inWeek(firstWeek, dtstart, day);
+        long n = inWeek(firstWeek, dtstart, LocalDate.MAX);
+        n += (weeks - 1) / interval * offsets.length; // active weeks strictly in between
+        if (weeks % interval == 0) n += inWeek(weekOf(day), LocalDate.MIN, day);
+        return n;
+    }
+
+    /** BYDAY dates of `week` in [from, to). */
+    private int inWeek(LocalDate week, LocalDate from, LocalDate to) {
+        int n = 0;
+        for (int off : offsets) {
+            LocalDate d = week.plusDays(off);
+            if (!d.isBefore(from) && d.isBefore(to)) n++;
+        }
+        return n;
+    }
+
+    private LocalDate weekOf(LocalDate d) {
+        return d.minusDays(Math.floorMod(d.getDayOfWeek().getValue() - weekStart.getValue(), 7));
+    }
+
+    /** Walks active weeks from the window start; one week + slot index of state. */
+    private final class Dates implements Iterator<LocalDate> {
+        private final LocalDate to;
+        private LocalDate week;
+        private int slot;
+        private long index;        // RRULE instances produced so far (for COUNT)
+        private LocalDate next;
+        private boolean done;
+
+        Dates(LocalDate from, LocalDate to) {
+            this.to = to;
+            LocalDate start = from.isAfter(dtstart) ? from : dtstart;
+            index = occurrencesBefore(start);
+
+            LocalDate firstWeek = weekOf(dtstart);
+            long weeks = ChronoUnit.WEEKS.between(firstWeek, weekOf(start));
+            long behind = Math.floorMod(weeks, (long) interval);
+            if (behind == 0) {
+                week = weekOf(start);
+                slot = 0;
+                while (slot < offsets.length && week.plusDays(offsets[slot]).isBefore(start)) slot++;
+            } else {
+                week = weekOf(start).plusWeeks(interval - behind); // next active week
+                slot = 0;
+            }
+            advance();
+        }
+
+        private void advance() {
+            while (true) {
+                if (slot == offsets.length) {
+                    week = week.plusWeeks(interval);
+                    slot = 0;
+                }
+                LocalDate d = week.plusDays(offsets[slot++]);
+                if ((count > 0 && index >= count) || (until != null && d.isAfter(until)) || !d.isBefore(to)) {
+                    done = true;
+                    next = null;
+                    return;
+                }
+                index++;
+                if (!exdates.contains(d)) {
+                    next = d;
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !done;
+        }
+
+        @Override
+        public LocalDate next() {
+            if (done) throw new NoSuchElementException();
+            LocalDate d = next;
+            advance();
+            return d;
+        }
+    }
+
+    // -------- Whole timetable --------
+
+    /** One class on one date. */
+    public static final class Occurrence {
+        @NonNull public final TimetableEvent event;
+        @NonNull public final LocalDate date;
+
+        Occurrence(@NonNull TimetableEvent event, @NonNull LocalDate date) {
+            this.event = event;
+            this.date = date;
+        }
+    }
+
+    private static final Comparator<Occurrence> BY_TIME = Comparator
+            .comparing((Occurrence o) -> o.date)
+            .thenComparingInt(o -> o.event.getStartMin())
+            .thenComparing(o -> o.event.getId() == null ? "" : o.event.getId());
+
+    /**
+     * Every event's occurrences in [from, to), merged in time order. Lazy too: a heap
+     * holds one pending occurrence per event, so memory is O(events), not O(occurrences).
+     */
+    @NonNull
+    public static Iterator<Occurrence> expand(@NonNull List<TimetableEvent> events, @NonNull LocalDate from,
+                                              @NonNull LocalDate to, @NonNull ZoneId zone) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, events.size()),
+                (a, b) -> BY_TIME.compare(a.current, b.current));
+        for (TimetableEvent e : events) {
+            Iterator<LocalDate> dates = of(e, zone).between(from, to).iterator();
+            if (dates.hasNext()) heads.add(new Head(e, dates));
+        }
+        return new Iterator<Occurrence>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Occurrence next() {
+                Head h = heads.poll();
+                if (h == null) throw new NoSuchElementException();
+                Occurrence out = h.current;
+                if (h.advance()) heads.add(h);
+                return out;
+            }
+        };
+    }
+
+    private static final class Head {
+        final TimetableEvent event;
+        final Iterator<LocalDate> dates;
+        Occurrence current;
+
+        Head(TimetableEvent event, Iterator<LocalDate> dates) {
+            this.event = event;
+            this.dates = dates;
+            advance();
+        }
+
+        boolean advance() {
+            if (!dates.hasNext()) return false;
+            current = new Occurrence(event, dates.next());
+            return true;
+        }
+    }
+}
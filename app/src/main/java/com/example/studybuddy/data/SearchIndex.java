@@ -0,0 +1,339 @@
+package com.example.studybuddy.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.studybuddy.adapter.Module;
+import com.example.studybuddy.adapter.Task;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Local full-text search over tasks and modules (inverted index).
+ *
+ * Indexed fields (weight):
+ * - Task:   title (3), moduleTitle (2), description (1)
+ * - Module: title (3), description (1)
+ *
+ * Terms live in a sorted dictionary, so every query word also matches as a prefix
+ * ("alg" -> "algebra", "algorithms"): search-as-you-type. All query words must match.
+ * Exact word matches score higher than prefix matches, then weights add up.
+ *
+ * Updated from the same snapshot deltas as the task/module lists.
+ * NOT thread-safe: FirestoreRepo uses it on AppExecutors.io() only.
+ */
+public class SearchIndex {
+
+    public static final int KIND_TASK = 1;
+    public static final int KIND_MODULE = 2;
+
+    private static final int W_TITLE = 3;
+    private static final int W_MODULE_TITLE = 2;
+    private static final int W_DESCRIPTION = 1;
+    private static final int EXACT_BONUS = 2;
+
+    /** One search result. Exactly one of task / module is set. */
+    public static class Hit {
+        @Nullable public final Task task;
+        @Nullable public final Module module;
+        public final int score;
+
+        Hit(@Nullable Task task, @Nullable Module module, int score) {
+            this.task = task;
+            this.module = module;
+            this.score = score;
+        }
+    }
+
+    /** doc numbers + summed field weights for one term (unsorted, swap-remove). */
+    private static class Postings {
+        int[] docs = new int[4];
+        int[] weights = new int[4];
+        int size = 0;
+
+        void add(int doc, int weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+
+        void remove(int doc) {
+            for (int i = 0; i < size; i++) {
+                if (docs[i] != doc) continue;
+                size--;
+                docs[i] = docs[size];
+                weights[i] = weights[size];
+                return;
+            }
+        }
+    }
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+
+    // doc number -> indexed object / its kind / its terms (for removal)
+    private Object[] items = new Object[64];
+    private int[] kinds = new int[64];
+    private String[][] docTerms = new String[64][];
+    private int highWater = 0;
+    private int[] free = new int[16];
+    private int freeCount = 0;
+
+    private final Map<String, Integer> docByKey = new HashMap<>();
+
+    // Query scratch space (sized like items)
+    private int[] scratchScore = new int[64];
+    private int[] scratchMatched = new int[64];
+    private int[] touched = new int[64];
+
+    // -------- Maintenance --------
+
+    public void applyTasks(@NonNull List<Task> all, @NonNull ChangeSet<Task> changes) {
+        if (changes.isReset()) {
+            removeKind(KIND_TASK);
+            for (Task t : all) putTask(t);
+            return;
+        }
+        for (Task t : changes.getRemoved()) remove(KIND_TASK, t.getId());
+        for (Task t : changes.getAdded()) putTask(t);
+        for (Task t : changes.getChanged()) putTask(t);
+    }
+
+    public void applyModules(@NonNull List<Module> all, @NonNull ChangeSet<Module> changes) {
+        if (changes.isReset()) {
+            removeKind(KIND_MODULE);
+            for (Module m : all) putModule(m);
+            return;
+        }
+        for (Module m : changes.getRemoved()) remove(KIND_MODULE, m.getId());
+        for (Module m : changes.getAdded()) putModule(m);
+        for (Module m : changes.getChanged()) putModule(m);
+    }
+
+    public void putTask(@NonNull Task t) {
+        Map<String, Integer> weights = new HashMap<>();
+        addField(weights, t.getTitle(), W_TITLE);
+        addField(weights, t.getModuleTitle(), W_MODULE_TITLE);
+        addField(weights, t.getDescription(), W_DESCRIPTION);
+        put(KIND_TASK, t.getId(), t, weights);
+    }
+
+    public void putModule(@NonNull Module m) {
+        Map<String, Integer> weights = new HashMap<>();
+        addField(weights, m.getTitle(), W_TITLE);
+        addField(weights, m.getDescription(), W_DESCRIPTION);
+        put(KIND_MODULE, m.getId(), m, weights);
+    }
+
+    public void remove(int kind, @Nullable String id) {
+        if (id == null) return;
+        Integer doc = docByKey.remove(key(kind, id));
+        if (doc == null) return;
+
+        for (String term : docTerms[doc]) {
+            Postings p = terms.get(term);
+            if (p == null) continue;
+            p.remove(doc);
+            if (p.size == 0) terms.remove(term);
+        }
+        items[doc] = null;
+        kinds[doc] = 0;
+        docTerms[doc] = null;
+        if (freeCount == free.length) free = Arrays.copyOf(free, freeCount * 2);
+        free[freeCount++] = doc;
+    }
+
+    public void clear() {
+        terms.clear();
+        docByKey.clear();
+        Arrays.fill(items, 0, highWater, null);
+        Arrays.fill(kinds, 0, highWater, 0);
+        Arrays.fill(docTerms, 0, highWater, null);
+        highWater = 0;
+        freeCount = 0;
+    }
+
+    private void removeKind(int kind) {
+        for (int doc = 0; doc < highWater; doc++) {
+            if (kinds[doc] != kind) continue;
+            Object item = items[doc];
+            String id = item instanceof Task ? ((Task) item).getId() : ((Module) item).getId();
+            remove(kind, id);
+        }
+    }
+
+    private void put(int kind, @Nullable String id, Object item, Map<String, Integer> weights) {
+        if (id == null) return;
+        remove(kind, id);
+
+        int doc = freeCount > 0 ? free[--freeCount] : highWater++;
+        if (doc >= items.length) grow(items.length * 2);
+
+        String[] docTermList = new String[weights.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> e : weights.entrySet()) {
+            Postings p = terms.get(e.getKey());
+            if (p == null) {
+                p = new Postings();
+                terms.put(e.getKey(), p);
+            }
+            p.add(doc, e.getValue());
+            docTermList[i++] = e.getKey();
+        }
+
+        items[doc] = item;
+        kinds[doc] = kind;
+        docTerms[doc] = docTermList;
+        docByKey.put(key(kind, id), doc);
+    }
+
+    private void grow(int capacity) {
+        items = Arrays.copyOf(items, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        docTerms = Arrays.copyOf(docTerms, capacity);
+        scratchScore = Arrays.copyOf(scratchScore, capacity);
+        scratchMatched = Arrays.copyOf(scratchMatched, capacity);
+    }
+
+    private static void addField(Map<String, Integer> weights, @Nullable String text, int weight) {
+        for (String term : tokenize(text)) {
+            Integer w = weights.get(term);
+            weights.put(term, w == null ? weight : w + weight);
+        }
+    }
+
+    private static String key(int kind, String id) {
+        return kind + ":" + id;
+    }
+
+    // -------- Query --------
+
+    /**
+     * Best matches for `query`, highest score first.
+     * kindMask: KIND_TASK, KIND_MODULE or both OR'ed together.
+     */
+    @NonNull
+    public List<Hit> search(@Nullable String query, int kindMask, int limit) {
+        List<String> words = tokenize(query);
+        if (words.isEmpty() || limit <= 0) return Collections.emptyList();
+
+        int touchedCount = 0;
+        for (int w = 0; w < words.size(); w++) {
+            String word = words.get(w);
+            // every term that starts with `word`
+            SortedMap<String, Postings> range = terms.subMap(word, word + Character.MAX_VALUE);
+            for (Map.Entry<String, Postings> e : range.entrySet()) {
+                boolean exact = e.getKey().length() == word.length();
+                Postings p = e.getValue();
+                for (int i = 0; i < p.size; i++) {
+                    int doc = p.docs[i];
+                    if ((kinds[doc] & kindMask) == 0) continue;
+                    // only docs that matched every previous word can still qualify
+                    int matched = scratchMatched[doc];
+                    if (matched != w && matched != w + 1) continue;
+
+                    if (matched == 0) {
+                        if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount * 2);
+                        touched[touchedCount++] = doc;
+                    }
+                    scratchMatched[doc] = w + 1;
+                    scratchScore[doc] += p.weights[i] * (exact ? EXACT_BONUS : 1);
+                }
+            }
+        }
+
+        // Top `limit` by score with a small min-heap of doc numbers (no boxing, no full sort)
+        int all = words.size();
+        int[] heap = new int[Math.min(limit, touchedCount)];
+        int heapSize = 0;
+        for (int t = 0; t < touchedCount; t++) {
+            int doc = touched[t];
+            if (scratchMatched[doc] == all) {
+                if (heapSize < heap.length) {
+                    heap[heapSize++] = doc;
+                    siftUp(heap, heapSize - 1);
+                } else if (scratchScore[doc] > scratchScore[heap[0]]) {
+                    heap[0] = doc;
+                    siftDown(heap, heapSize, 0);
+                }
+            }
+        }
+
+        Hit[] hits = new Hit[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            int doc = heap[0];
+            Object item = items[doc];
+            hits[i] = item instanceof Task
+                    ? new Hit((Task) item, null, scratchScore[doc])
+                    : new Hit(null, (Module) item, scratchScore[doc]);
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize, 0);
+        }
+
+        for (int t = 0; t < touchedCount; t++) {
+            scratchScore[touched[t]] = 0;
+            scratchMatched[touched[t]] = 0;
+        }
+        return Arrays.asList(hits);
+    }
+
+    private void siftUp(int[] heap, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (scratchScore[heap[parent]] <= scratchScore[heap[i]]) return;
+            swap(heap, i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int size, int i) {
+        while (true) {
+            int l = 2 * i + 1, r = l + 1, min = i;
+            if (l < size && scratchScore[heap[l]] < scratchScore[heap[min]]) min = l;
+            if (r < size && scratchScore[heap[r]] < scratchScore[heap[min]]) min = r;
+            if (min == i) return;
+            swap(heap, i, min);
+            i = min;
+        }
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int tmp = a[i];
+        a[i] = a[j];
+        a[j] = tmp;
+    }
+
+    /** Lowercase, accent-free words (letters/digits only). */
+    @NonNull
+    static List<String> tokenize(@Nullable String text) {
+        if (text == null || text.isEmpty()) return Collections.emptyList();
+        String norm = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+
+        List<String> out = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= norm.length(); i++) {
+            boolean word = i < norm.length() && Character.isLetterOrDigit(norm.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                out.add(norm.substring(start, i));
+                start = -1;
+            }
+        }
+        return out;
+    }
+}
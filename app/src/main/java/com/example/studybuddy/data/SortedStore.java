@@ -0,0 +1,58 @@
+package com.example.studybuddy.data;
+
+import androidx.annotation.NonNull;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An id-keyed list kept sorted by `order`, patched one item at a time with binary-search
+ * inserts, recording exactly what moved in a ChangeSet. `ordered` / `byId` are the owning
+ * LiveCollection's own store. io thread only, like that store.
+ */
+final class SortedStore<T> {
+
+    private final List<T> ordered;
+    private final Map<String, T> byId;
+    private final Comparator<T> order;
+
+    SortedStore(@NonNull List<T> ordered, @NonNull Map<String, T> byId, @NonNull Comparator<T> order) {
+        this.ordered = ordered;
+        this.byId = byId;
+        this.order = order;
+    }
+
+    void upsert(String id, T item, ChangeSet<T> changes) {
+        T old = byId.get(id);
+        int from = old == null ? -1 : ordered.indexOf(old);
+        if (from >= 0) ordered.remove(from);
+
+        int to = insertionPoint(item);
+        ordered.add(to, item);
+        byId.put(id, item);
+
+        if (from >= 0) changes.modified(from, to, item);
+        else changes.inserted(to, item);
+    }
+
+    void remove(String id, ChangeSet<T> changes) {
+        T old = byId.remove(id);
+        if (old == null) return;
+        int at = ordered.indexOf(old);
+        if (at < 0) return;
+        ordered.remove(at);
+        changes.removed(at, old);
+    }
+
+    /** First index whose item sorts after `item`. */
+    private int insertionPoint(T item) {
+        int lo = 0, hi = ordered.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (order.compare(ordered.get(mid), item) <= 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.studybuddy.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.studybuddy.util.AppExecutors;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.ListenSource;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SnapshotListenOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A LiveCollection that only downloads what changed since last time.
+ *
+ * Every write path stamps documents with `updatedAt` (server time, see stamp()) and every
+ * delete leaves a tombstone at users/{uid}/tombstones/{collection}/deleted/{id} (see
+ * delete()). With the high-water marks saved by the last run:
+ * - the list starts from the disk mirror (the Seed)
+ * - documents: listener on collection.where(updatedAt > docMark - OVERLAP), changed docs only
+ * - deletes: listener on that collection's tombstones.where(deletedAt > tombMark - OVERLAP)
+ * - local writes: a cache-only listener on the collection. A write's server timestamp isn't
+ *   known until Firestore confirms it, so the doc drops out of the updatedAt query meanwhile
+ *   (REMOVED there is ignored); this one shows it right away, offline included
+ * - marks advance after each applied snapshot has gone through the sinks (disk)
+ * So a cold start costs reads proportional to what changed, not to the collection size.
+ *
+ * Without a mark (first run, or nothing on disk) it listens to `fullQuery` like a plain
+ * LiveCollection; deletes then show up as REMOVED and that listing sets the first marks.
+ *
+ * The list is kept sorted by `order` (binary-search inserts, precise ChangeSets).
+ */
+public class SyncedCollection<T> extends LiveCollection<T> {
+
+    public static final String UPDATED_AT = "updatedAt";
+    private static final String DELETED_AT = "deletedAt";
+
+    /** Re-read this much before a mark: commits can become visible slightly out of order. */
+    private static final long OVERLAP_MS = 60_000;
+
+    /** Where the marks live between runs (io thread). 0 = never synced. */
+    public interface MarkStore {
+        long load(@NonNull String key);
+
+        void save(@NonNull String key, long mark);
+    }
+
+    public interface UpdatedAt<T> {
+        long of(@NonNull T item);
+    }
+
+    private static final String KEY_DOCS = "docs";
+    private static final String KEY_TOMBSTONES = "tombstones";
+
+    private final CollectionReference collection;
+    private final CollectionReference tombstones;
+    private final UpdatedAt<T> updatedAt;
+    private final MarkStore marks;
+    private final SortedStore<T> store;
+
+    // io thread only
+    private long docMark = 0, tombMark = 0;
+    private ListenerRegistration docsRegistration, tombstonesRegistration, localRegistration;
+    private final Set<String> unconfirmed = new HashSet<>(); // ids showing a local write's copy
+    private int generation = 0;
+    private boolean delivered = false;
+    private boolean full = true; // listening to fullQuery instead of the delta queries
+
+    public SyncedCollection(String tag, Query fullQuery, CollectionReference collection, Decoder<T> decoder,
+                            Comparator<T> order, UpdatedAt<T> updatedAt, MarkStore marks) {
+        super(tag, fullQuery, decoder);
+        this.collection = collection;
+        this.tombstones = tombstonesOf(collection);
+        this.updatedAt = updatedAt;
+        this.marks = marks;
+        this.store = new SortedStore<>(ordered, byId, order);
+    }
+
+    // -------- Write side (every write path uses these) --------
+
+    /** Adds `updatedAt = server time` to a write. */
+    @NonNull
+    public static Map<String, Object> stamp(@NonNull Map<String, Object> fields) {
+        fields.put(UPDATED_AT, FieldValue.serverTimestamp());
+        return fields;
+    }
+
+    /** Delete `doc` and leave its tombstone, in `batch` (2 ops). */
+    public static void delete(@NonNull WriteBatch batch, @NonNull DocumentReference doc) {
+        Map<String, Object> tomb = new HashMap<>();
+        tomb.put(DELETED_AT, FieldValue.serverTimestamp());
+        batch.set(tombstonesOf(doc.getParent()).document(doc.getId()), tomb);
+        batch.delete(doc);
+    }
+
+    /**
+     * (Re)create `doc` with `fields`, stamped, and drop any tombstone it left, in `batch`
+     * (2 ops). For restores and re-imports onto known ids: a stale tombstone would otherwise
+     * delete it again on devices that haven't seen it yet.
+     */
+    public static void restore(@NonNull WriteBatch batch, @NonNull DocumentReference doc,
+                               @NonNull Map<String, Object> fields) {
+        batch.set(doc, stamp(fields));
+        batch.delete(tombstonesOf(doc.getParent()).document(doc.getId()));
+    }
+
+    private static CollectionReference tombstonesOf(CollectionReference collection) {
+        DocumentReference userDoc = collection.getParent();
+        return userDoc.collection("tombstones").document(collection.getId()).collection("deleted");
+    }
+
+    // -------- Listener lifecycle --------
+
+    @Override
+    protected void attach() {
+        AppExecutors.io().execute(() -> {
+            unlisten();
+            docMark = marks.load(KEY_DOCS);
+            tombMark = marks.load(KEY_TOMBSTONES);
+            // Runs after the seed (queued first), so `ordered` is the disk copy here
+            full = docMark <= 0 || ordered.isEmpty();
+
+            int gen = generation;
+            Query docs = full ? query : collection.whereGreaterThan(UPDATED_AT, since(docMark));
+            docsRegistration = docs.addSnapshotListener(AppExecutors.io(), (snap, err) -> {
+                if (gen != generation) return;
+                if (err != null) {
+                    fail(err);
+                    return;
+                }
+                if (snap != null) onDocs(snap);
+            });
+
+            if (full) return; // REMOVED events cover deletes while listening to everything
+            tombstonesRegistration = tombstones.whereGreaterThan(DELETED_AT, since(tombMark))
+                    .addSnapshotListener(AppExecutors.io(), (snap, err) -> {
+                        if (gen != generation) return;
+                        if (err != null) {
+                            fail(err);
+                            return;
+                        }
+                        if (snap != null) onTombstones(snap);
+                    });
+
+            SnapshotListenOptions cacheOnly = new SnapshotListenOptions.Builder()
+                    .setSource(ListenSource.CACHE)
+                    .setExecutor(AppExecutors.io())
+                    .build();
+            localRegistration = collection.addSnapshotListener(cacheOnly, (snap, err) -> {
+                if (gen != generation) return;
+                if (err != null) {
+                    fail(err);
+                    return;
+                }
+                if (snap != null) onLocal(snap);
+            });
+        });
+    }
+
+    @Override
+    protected void detach() {
+        AppExecutors.io().execute(this::unlisten);
+    }
+
+    @Override
+    protected void onCleared() {
+        unlisten();
+        docMark = tombMark = 0;
+        delivered = false;
+        unconfirmed.clear();
+    }
+
+    private void unlisten() {
+        generation++;
+        if (docsRegistration != null) {
+            docsRegistration.remove();
+            docsRegistration = null;
+        }
+        if (tombstonesRegistration != null) {
+            tombstonesRegistration.remove();
+            tombstonesRegistration = null;
+        }
+        if (localRegistration != null) {
+            localRegistration.remove();
+            localRegistration = null;
+        }
+    }
+
+    private static Timestamp since(long mark) {
+        return new Timestamp(new Date(Math.max(0, mark - OVERLAP_MS)));
+    }
+
+    // -------- Applying changes (io thread) --------
+
+    private void onDocs(QuerySnapshot snap) {
+        // A full listing replaces whatever the disk had (it can't say what was deleted)
+        ChangeSet<T> changes = full && !delivered && dropSeed() ? ChangeSet.reset() : ChangeSet.delta();
+        long newest = docMark;
+
+        for (DocumentChange dc : snap.getDocumentChanges()) {
+            boolean removed = dc.getType() == DocumentChange.Type.REMOVED;
+            T item = removed ? null : decoder.decode(dc.getDocument());
+            if (item != null) newest = Math.max(newest, updatedAt.of(item));
+            onDoc(store, unconfirmed, full, dc.getDocument().getId(), removed, item, changes);
+        }
+
+        if (!delivered || !changes.isEmpty()) {
+            delivered = true; // the first snapshot is published even if it changed nothing
+            publish(changes);
+        }
+
+        // after publish(): the sinks (disk mirror) already have these docs
+        if (newest > docMark) {
+            docMark = newest;
+            marks.save(KEY_DOCS, newest);
+        }
+        if (full && tombMark <= 0 && docMark > 0) {
+            // The disk copy is complete as of docMark; later deletes will have tombstones
+            tombMark = docMark;
+            marks.save(KEY_TOMBSTONES, tombMark);
+        }
+    }
+
+    private void onTombstones(QuerySnapshot snap) {
+        ChangeSet<T> changes = ChangeSet.delta();
+        long newest = tombMark;
+        for (DocumentChange dc : snap.getDocumentChanges()) {
+            if (dc.getType() == DocumentChange.Type.REMOVED) continue;
+            DocumentSnapshot tomb = dc.getDocument();
+            unconfirmed.remove(tomb.getId());
+            store.remove(tomb.getId(), changes);
+            Object at = tomb.get(DELETED_AT);
+            if (at instanceof Timestamp) newest = Math.max(newest, ((Timestamp) at).toDate().getTime());
+        }
+        if (!changes.isEmpty()) publish(changes);
+        if (newest > tombMark) {
+            tombMark = newest;
+            marks.save(KEY_TOMBSTONES, newest);
+        }
+    }
+
+    private void onLocal(QuerySnapshot snap) {
+        ChangeSet<T> changes = ChangeSet.delta();
+        for (DocumentChange dc : snap.getDocumentChanges()) {
+            DocumentSnapshot doc = dc.getDocument();
+            boolean removed = dc.getType() == DocumentChange.Type.REMOVED;
+            boolean pending = doc.getMetadata().hasPendingWrites();
+            // Confirmed docs are the server listeners' job: only decode what this one will use
+            T item = removed || !(pending || unconfirmed.contains(doc.getId())) ? null : decoder.decode(doc);
+            onLocalDoc(store, unconfirmed, doc.getId(), removed, pending, item, changes);
+        }
+        if (!changes.isEmpty()) publish(changes);
+    }
+
+    // -------- Rules (no Firestore types here, so they can be unit tested) --------
+
+    /**
+     * One change from the docs listener. In delta mode a REMOVED only means the doc no
+     * longer matches updatedAt > mark, which is what a local write does until Firestore has
+     * its server timestamp: deletes come through the tombstones there, so it's ignored.
+     */
+    static <T> void onDoc(SortedStore<T> store, Set<String> unconfirmed, boolean full, String id,
+                          boolean removed, @Nullable T item, ChangeSet<T> changes) {
+        if (removed) {
+            if (!full) return;
+            unconfirmed.remove(id);
+            store.remove(id, changes);
+            return;
+        }
+        if (item == null) return;
+        unconfirmed.remove(id);
+        store.upsert(id, item, changes);
+    }
+
+    /**
+     * One change from the cache-only listener. Docs with writes Firestore hasn't confirmed
+     * are shown straight away (and a local delete removes it). Confirmed docs are left to the
+     * server listeners, except ones showing a local copy: that write was just confirmed or
+     * rejected, and the cache now holds the right version either way.
+     */
+    static <T> void onLocalDoc(SortedStore<T> store, Set<String> unconfirmed, String id, boolean removed,
+                               boolean pending, @Nullable T item, ChangeSet<T> changes) {
+        if (removed) {
+            unconfirmed.remove(id);
+            store.remove(id, changes);
+            return;
+        }
+        if (item == null) return;
+        if (pending) unconfirmed.add(id);
+        else if (!unconfirmed.remove(id)) return;
+        store.upsert(id, item, changes);
+    }
+}
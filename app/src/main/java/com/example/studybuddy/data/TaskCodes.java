@@ -0,0 +1,60 @@
+package com.example.studybuddy.data;
+
+import androidx.annotation.Nullable;
+
+import java.util.Locale;
+
+/**
+ * Byte codes for the free-form Strings stored on tasks.
+ *
+ * Firestore keeps "HIGH" / "assignment" etc; TaskTable stores these codes instead so
+ * filters are byte compares. Keep the orders stable, they are used as array indexes.
+ */
+public final class TaskCodes {
+
+    // priority: "NONE", "LOW", "MEDIUM", "HIGH"
+    public static final byte PRIORITY_NONE = 0;
+    public static final byte PRIORITY_LOW = 1;
+    public static final byte PRIORITY_MEDIUM = 2;
+    public static final byte PRIORITY_HIGH = 3;
+    public static final int PRIORITY_COUNT = 4;
+
+    // type: task, assignment, exam, demo, presentation
+    public static final byte TYPE_TASK = 0;
+    public static final byte TYPE_ASSIGNMENT = 1;
+    public static final byte TYPE_EXAM = 2;
+    public static final byte TYPE_DEMO = 3;
+    public static final byte TYPE_PRESENTATION = 4;
+    public static final int TYPE_COUNT = 5;
+
+    /** dueAt value for "no due date"; sorts after every real date. */
+    public static final long NO_DUE = Long.MAX_VALUE;
+
+    private TaskCodes() {}
+
+    public static byte priorityCode(@Nullable String stored) {
+        if (stored == null) return PRIORITY_NONE;
+        switch (stored) {
+            case "HIGH": return PRIORITY_HIGH;
+            case "MEDIUM": return PRIORITY_MEDIUM;
+            case "LOW": return PRIORITY_LOW;
+            default: return PRIORITY_NONE;
+        }
+    }
+
+    /** Unknown / missing types count as "task" (same fallback as the task card colors). */
+    public static byte typeCode(@Nullable String stored) {
+        if (stored == null) return TYPE_TASK;
+        switch (stored.trim().toLowerCase(Locale.ROOT)) {
+            case "assignment": return TYPE_ASSIGNMENT;
+            case "exam": return TYPE_EXAM;
+            case "demo": return TYPE_DEMO;
+            case "presentation": return TYPE_PRESENTATION;
+            default: return TYPE_TASK;
+        }
+    }
+
+    public static long dueCode(@Nullable Long dueAt) {
+        return dueAt == null ? NO_DUE : dueAt;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.studybuddy.data;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Which tasks to show. Everything defaults to "any", set only what you need:
+ *
+ *   TaskFilter f = new TaskFilter();
+ *   f.priorityMask = TaskFilter.bit(TaskCodes.PRIORITY_HIGH);
+ *   f.completed = TaskFilter.NO;
+ *
+ * Evaluated against TaskTable's primitive columns, never against Task objects.
+ */
+public class TaskFilter {
+
+    public static final int ALL = 0xFFFFFFFF;
+
+    public static final byte ANY = -1;
+    public static final byte NO = 0;
+    public static final byte YES = 1;
+
+    /** Bit per TaskCodes.PRIORITY_* value. */
+    public int priorityMask = ALL;
+
+    /** Bit per TaskCodes.TYPE_* value. */
+    public int typeMask = ALL;
+
+    /** ANY / NO / YES */
+    public byte completed = ANY;
+
+    /** Only tasks in this module (null = any module, including none). */
+    @Nullable
+    public String moduleId = null;
+
+    /** dueAt in [dueFrom, dueTo). Tasks without a due date only match the default range. */
+    public long dueFrom = Long.MIN_VALUE;
+    public long dueTo = Long.MAX_VALUE;
+
+    public static int bit(byte code) {
+        return 1 << code;
+    }
+
+    public boolean hasDueRange() {
+        return dueFrom != Long.MIN_VALUE || dueTo != Long.MAX_VALUE;
+    }
+
+    public boolean matchesAll() {
+        return priorityMask == ALL && typeMask == ALL && completed == ANY
+                && moduleId == null && !hasDueRange();
+    }
+}
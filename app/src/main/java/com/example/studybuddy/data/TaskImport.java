@@ -0,0 +1,299 @@
+package com.example.studybuddy.data;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.studybuddy.adapter.Module;
+import com.example.studybuddy.adapter.Task;
+import com.example.studybuddy.adapter.TaskMapper;
+import com.example.studybuddy.util.AppExecutors;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk task import from a CSV / JSON file (rows from TaskRows).
+ *
+ * Pipeline, a chunk of BATCH_OPS rows at a time:
+ *
+ *   read (io) -> check() in parallel (AppExecutors.compute()) -> one WriteBatch (Firestore)
+ *
+ * While a chunk's batch is committing, the next chunk is already being read and checked,
+ * so at most two chunks exist at once: memory doesn't grow with the file. Batches commit
+ * one after another, in file order.
+ *
+ * Rows are checked with the Add Task form's rules (TaskRules: title + type required,
+ * priority mapping, 09:00 for a bare due date); module titles are matched (case-
+ * insensitively) against the user's modules. A bad row doesn't stop the import: it's
+ * counted and its reason reported (the first MAX_ERRORS are kept with their line).
+ */
+public class TaskImport {
+
+    public interface Listener {
+        /** Main thread. Rows written / rejected so far. */
+        default void onProgress(int imported, int rejected) {}
+
+        /** Main thread. error != null means it stopped early (`result.imported` rows were written). */
+        void onFinished(@NonNull Result result, @Nullable Exception error);
+    }
+
+    public static final class Result {
+        public int imported;
+        public int rejected;
+        /** "line 12: Task type is required", in file order, at most MAX_ERRORS. */
+        public final List<String> errors = new ArrayList<>();
+    }
+
+    /** One row after check(): a task ready to write, or why not. */
+    static final class Checked {
+        final int line;
+        @Nullable final Task task;
+        @Nullable final String error;
+
+        Checked(int line, @Nullable Task task, @Nullable String error) {
+            this.line = line;
+            this.task = task;
+            this.error = error;
+        }
+    }
+
+    private static final class Chunk {
+        final List<TaskRows.Row> rows = new ArrayList<>(BATCH_OPS);
+        Checked[] checked;
+        boolean last;
+    }
+
+    private static final String TAG = "TaskImport";
+
+    /** Firestore's per-batch limit (one set() per task). */
+    private static final int BATCH_OPS = 500;
+    static final int MAX_ERRORS = 100;
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd[ ]['T']HH:mm[:ss]");
+    private static final DateTimeFormatter DAY_FIRST = DateTimeFormatter.ofPattern("d/M/yyyy");
+
+    private final FirebaseFirestore db;
+    private final CollectionReference tasksRef;
+    private final TaskRows rows;
+    private final Map<String, Module> modulesByTitle;
+    private final ZoneId zone;
+    private final Listener listener;
+
+    // io thread only
+    private final Result result = new Result();
+    @Nullable private Chunk ready;      // checked, waiting for the previous commit
+    private boolean committing = false;
+    private boolean stopped = false;
+    @Nullable private Exception readError; // reported once the batch in flight lands
+
+    public TaskImport(@NonNull FirebaseFirestore db, @NonNull CollectionReference tasksRef, @NonNull TaskRows rows,
+                      @NonNull List<Module> modules, @NonNull ZoneId zone, @NonNull Listener listener) {
+        this.db = db;
+        this.tasksRef = tasksRef;
+        this.rows = rows;
+        this.zone = zone;
+        this.listener = listener;
+        Map<String, Module> byTitle = new HashMap<>();
+        for (Module m : modules) {
+            if (m.getId() != null && m.getTitle() != null) byTitle.put(key(m.getTitle()), m);
+        }
+        this.modulesByTitle = Collections.unmodifiableMap(byTitle); // read from compute threads
+    }
+
+    public void start() {
+        AppExecutors.io().execute(this::readNext);
+    }
+
+    // -------- Pipeline (io thread) --------
+
+    private void readNext() {
+        if (stopped) return;
+        Chunk chunk = new Chunk();
+        try {
+            while (chunk.rows.size() < BATCH_OPS) {
+                TaskRows.Row row = rows.next();
+                if (row == null) {
+                    chunk.last = true;
+                    break;
+                }
+                chunk.rows.add(row);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Earlier chunks still get written; this partial one doesn't
+            readError = new IOException("After " + rows.unit() + " " + lastLine(chunk) + ": " + e.getMessage(), e);
+            if (!committing) stop(readError);
+            return;
+        }
+        checkInParallel(chunk, () -> {
+            ready = chunk;
+            pump();
+        });
+    }
+
+    /** Split the chunk across the compute pool; `then` runs on io once every row is checked. */
+    private void checkInParallel(Chunk chunk, Runnable then) {
+        int n = chunk.rows.size();
+        chunk.checked = new Checked[n];
+        if (n == 0) {
+            AppExecutors.io().execute(then);
+            return;
+        }
+        int slices = Math.min(AppExecutors.computeThreads(), n);
+        int per = (n + slices - 1) / slices;
+        AtomicInteger left = new AtomicInteger(slices);
+        for (int s = 0; s < slices; s++) {
+            int from = s * per, to = Math.min(n, from + per);
+            AppExecutors.compute().execute(() -> {
+                // Each slice writes only its own indexes of `checked`
+                for (int i = from; i < to; i++) chunk.checked[i] = check(chunk.rows.get(i), modulesByTitle, zone);
+                if (left.decrementAndGet() == 0) AppExecutors.io().execute(then);
+            });
+        }
+    }
+
+    /** Commit the ready chunk if the previous one is done; meanwhile start on the next. */
+    private void pump() {
+        if (stopped || committing || ready == null) return;
+        Chunk chunk = ready;
+        ready = null;
+
+        WriteBatch batch = db.batch();
+        int ok = 0, bad = 0;
+        for (Checked c : chunk.checked) {
+            if (c.task != null) {
+                batch.set(tasksRef.document(), SyncedCollection.stamp(TaskMapper.toMap(c.task)));
+                ok++;
+            } else {
+                bad++;
+                if (result.errors.size() < MAX_ERRORS) result.errors.add(rows.unit() + " " + c.line + ": " + c.error);
+            }
+        }
+        result.rejected += bad;
+
+        if (ok == 0) {
+            if (!chunk.last) readNext();
+            progressed(chunk);
+            return;
+        }
+
+        committing = true;
+        int written = ok;
+        batch.commit()
+                .addOnSuccessListener(AppExecutors.io(), v -> {
+                    committing = false;
+                    result.imported += written;
+                    progressed(chunk);
+                })
+                .addOnFailureListener(AppExecutors.io(), e -> {
+                    committing = false;
+                    stop(e);
+                });
+        if (!chunk.last) readNext(); // read + check the next chunk while this one commits
+    }
+
+    private void progressed(Chunk chunk) {
+        if (stopped) return;
+        int imported = result.imported, rejected = result.rejected;
+        AppExecutors.main().execute(() -> listener.onProgress(imported, rejected));
+        if (readError != null) stop(readError);
+        else if (chunk.last) stop(null);
+        else pump();
+    }
+
+    private void stop(@Nullable Exception error) {
+        if (stopped) return;
+        stopped = true;
+        ready = null;
+        try {
+            rows.close();
+        } catch (IOException ignored) {
+            // done reading either way
+        }
+        if (error != null) Log.w(TAG, "import stopped after " + result.imported + " tasks", error);
+        AppExecutors.main().execute(() -> listener.onFinished(result, error));
+    }
+
+    private static int lastLine(Chunk chunk) {
+        return chunk.rows.isEmpty() ? 0 : chunk.rows.get(chunk.rows.size() - 1).line;
+    }
+
+    // -------- Checks (pure, any thread) --------
+
+    /** The Add Task form's rules applied to one row (see TaskRules). */
+    @NonNull
+    static Checked check(@NonNull TaskRows.Row row, @NonNull Map<String, Module> modulesByTitle, @NonNull ZoneId zone) {
+        String title = TaskRules.title(row.title);
+        if (title == null) return new Checked(row.line, null, "Task title is required");
+
+        String type = TaskRules.storedType(row.type);
+        if (type == null) {
+            return new Checked(row.line, null, row.type == null || row.type.trim().isEmpty()
+                    ? "Task type is required"
+                    : "Unknown type \"" + row.type.trim() + "\" (use " + String.join(", ", TaskRules.TYPES) + ")");
+        }
+
+        Long dueAt = null;
+        if (row.due != null && !row.due.trim().isEmpty()) {
+            dueAt = parseDue(row.due.trim(), zone);
+            if (dueAt == null) return new Checked(row.line, null, "Can't read due date \"" + row.due.trim() + "\"");
+        }
+
+        Module module = null;
+        if (row.module != null && !row.module.trim().isEmpty()) {
+            module = modulesByTitle.get(key(row.module));
+            if (module == null) return new Checked(row.line, null, "No module called \"" + row.module.trim() + "\"");
+        }
+
+        String desc = row.description == null ? null : row.description.trim();
+        Task task = new Task(title, desc == null || desc.isEmpty() ? null : desc,
+                module == null ? null : module.getId(), module == null ? null : module.getTitle(),
+                TaskRules.storedPriority(row.priority), dueAt);
+        task.setType(type);
+        return new Checked(row.line, task, null);
+    }
+
+    /**
+     * "2025-03-14" (09:00, like the form), "2025-03-14 17:00", "2025-03-14T17:00:00Z",
+     * "14/3/2025" or epoch millis. Null if none of those.
+     */
+    @Nullable
+    static Long parseDue(@NonNull String s, @NonNull ZoneId zone) {
+        try {
+            if (s.length() >= 10 && s.chars().allMatch(Character::isDigit)) return Long.parseLong(s);
+            if (s.length() == 10 && s.charAt(4) == '-') {
+                return LocalDate.parse(s).atTime(TaskRules.DUE_HOUR, 0).atZone(zone).toInstant().toEpochMilli();
+            }
+            if (s.indexOf('/') > 0) {
+                return LocalDate.parse(s, DAY_FIRST).atTime(TaskRules.DUE_HOUR, 0).atZone(zone).toInstant().toEpochMilli();
+            }
+            if (s.endsWith("Z") || s.lastIndexOf('+') > 10 || s.lastIndexOf('-') > 10) {
+                return s.endsWith("Z") ? Instant.parse(s).toEpochMilli() : OffsetDateTime.parse(s).toInstant().toEpochMilli();
+            }
+            return LocalDateTime.parse(s, DATE_TIME).atZone(zone).toInstant().toEpochMilli();
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static String key(String title) {
+        return title.trim().toLowerCase(Locale.ROOT);
+    }
+}
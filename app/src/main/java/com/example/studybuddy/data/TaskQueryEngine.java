@@ -0,0 +1,269 @@
+package com.example.studybuddy.data;
+
+import androidx.annotation.NonNull;
+
+import com.example.studybuddy.adapter.Task;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bitmap indexes over TaskTable slots, so any TaskFilter combination is a few BitSet ANDs.
+ *
+ * - one bitmap per priority, per type, per module and for completed / open
+ * - a due-date index (slots sorted by dueAt) that turns a date range into a bitmap
+ * - query() also returns per-facet counts ("how many HIGH / exam / done would match if I
+ *   picked that value instead"), each facet ignoring its own criterion
+ *
+ * Kept current from the same snapshot deltas as the table. NOT thread-safe: io thread only.
+ */
+public class TaskQueryEngine {
+
+    /** Matching tasks plus facet counts for the filter UI. */
+    public static class Result {
+        public final List<Task> tasks;                 // newest first
+        public final int[] priorityCounts;            // index = TaskCodes.PRIORITY_*
+        public final int[] typeCounts;                // index = TaskCodes.TYPE_*
+        public final int openCount;
+        public final int completedCount;
+
+        Result(List<Task> tasks, int[] priorityCounts, int[] typeCounts, int openCount, int completedCount) {
+            this.tasks = tasks;
+            this.priorityCounts = priorityCounts;
+            this.typeCounts = typeCounts;
+            this.openCount = openCount;
+            this.completedCount = completedCount;
+        }
+
+        /** Same facet counts, different task list (e.g. narrowed/ranked by a text search). */
+        public Result withTasks(List<Task> tasks) {
+            return new Result(tasks, priorityCounts, typeCounts, openCount, completedCount);
+        }
+    }
+
+    private final TaskTable table = new TaskTable();
+
+    private final BitSet live = new BitSet();
+    private final BitSet completed = new BitSet();
+    private final BitSet[] byPriority = newBitmaps(TaskCodes.PRIORITY_COUNT);
+    private final BitSet[] byType = newBitmaps(TaskCodes.TYPE_COUNT);
+    private final Map<Integer, BitSet> byModule = new HashMap<>();
+    private final DueIndex byDue = new DueIndex();
+
+    public TaskTable table() {
+        return table;
+    }
+
+    // -------- Maintenance --------
+
+    public void apply(@NonNull List<Task> all, @NonNull ChangeSet<Task> changes) {
+        if (changes.isReset()) {
+            clear();
+            for (Task t : all) upsert(t);
+            return;
+        }
+        for (Task t : changes.getRemoved()) remove(t.getId());
+        for (Task t : changes.getAdded()) upsert(t);
+        for (Task t : changes.getChanged()) upsert(t);
+    }
+
+    public void upsert(@NonNull Task t) {
+        int old = table.slotOf(t.getId());
+        if (old >= 0) unindex(old);
+
+        int slot = table.upsert(t);
+        if (slot >= 0) index(slot);
+    }
+
+    public void remove(String id) {
+        int slot = table.slotOf(id);
+        if (slot < 0) return;
+        unindex(slot);
+        table.remove(id);
+    }
+
+    public void clear() {
+        table.clear();
+        live.clear();
+        completed.clear();
+        for (BitSet b : byPriority) b.clear();
+        for (BitSet b : byType) b.clear();
+        byModule.clear();
+        byDue.clear();
+    }
+
+    private void index(int slot) {
+        live.set(slot);
+        if (table.isCompleted(slot)) completed.set(slot);
+        byPriority[table.priorityAt(slot)].set(slot);
+        byType[table.typeAt(slot)].set(slot);
+
+        int module = table.moduleAt(slot);
+        BitSet m = byModule.get(module);
+        if (m == null) {
+            m = new BitSet();
+            byModule.put(module, m);
+        }
+        m.set(slot);
+
+        long due = table.dueAt(slot);
+        if (due != TaskCodes.NO_DUE) byDue.add(due, slot);
+    }
+
+    private void unindex(int slot) {
+        live.clear(slot);
+        completed.clear(slot);
+        byPriority[table.priorityAt(slot)].clear(slot);
+        byType[table.typeAt(slot)].clear(slot);
+
+        BitSet m = byModule.get(table.moduleAt(slot));
+        if (m != null) m.clear(slot);
+
+        long due = table.dueAt(slot);
+        if (due != TaskCodes.NO_DUE) byDue.remove(due, slot);
+    }
+
+    // -------- Queries --------
+
+    @NonNull
+    public Result query(@NonNull TaskFilter f) {
+        // Module + due are shared by every facet; compute them once
+        BitSet common = base(f);
+        BitSet p = union(byPriority, f.priorityMask);
+        BitSet t = union(byType, f.typeMask);
+
+        // Result
+        BitSet bits = (BitSet) common.clone();
+        if (p != null) bits.and(p);
+        if (t != null) bits.and(t);
+        applyCompleted(bits, f.completed);
+
+        int[] slots = new int[bits.cardinality()];
+        int n = 0;
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) slots[n++] = i;
+        table.sortByCreatedDesc(slots);
+
+        // Facet: priority (everything except the priority criterion)
+        BitSet forPriority = (BitSet) common.clone();
+        if (t != null) forPriority.and(t);
+        applyCompleted(forPriority, f.completed);
+        int[] priorityCounts = new int[TaskCodes.PRIORITY_COUNT];
+        for (int i = 0; i < priorityCounts.length; i++) priorityCounts[i] = andCount(forPriority, byPriority[i]);
+
+        // Facet: type
+        BitSet forType = (BitSet) common.clone();
+        if (p != null) forType.and(p);
+        applyCompleted(forType, f.completed);
+        int[] typeCounts = new int[TaskCodes.TYPE_COUNT];
+        for (int i = 0; i < typeCounts.length; i++) typeCounts[i] = andCount(forType, byType[i]);
+
+        // Facet: completed
+        BitSet forStatus = common;
+        if (p != null) forStatus.and(p);
+        if (t != null) forStatus.and(t);
+        int done = andCount(forStatus, completed);
+        int open = forStatus.cardinality() - done;
+
+        return new Result(table.tasksAt(slots), priorityCounts, typeCounts, open, done);
+    }
+
+    /** live AND module AND due range. */
+    private BitSet base(TaskFilter f) {
+        BitSet bits = (BitSet) live.clone();
+        if (f.moduleId != null) {
+            // An id no task uses comes back as NO_MODULE, which is also the key for
+            // tasks without a module; it must match nothing, not those
+            int code = table.moduleCode(f.moduleId);
+            BitSet m = code == TaskTable.NO_MODULE ? null : byModule.get(code);
+            if (m == null) return new BitSet();
+            bits.and(m);
+        }
+        if (f.hasDueRange()) bits.and(byDue.range(f.dueFrom, f.dueTo));
+        return bits;
+    }
+
+    private void applyCompleted(BitSet bits, byte wanted) {
+        if (wanted == TaskFilter.YES) bits.and(completed);
+        else if (wanted == TaskFilter.NO) bits.andNot(completed);
+    }
+
+    /** OR of the bitmaps selected by mask, or null when the mask selects everything. */
+    private static BitSet union(BitSet[] maps, int mask) {
+        int all = (1 << maps.length) - 1;
+        if ((mask & all) == all) return null;
+        BitSet out = new BitSet();
+        for (int i = 0; i < maps.length; i++) {
+            if ((mask & (1 << i)) != 0) out.or(maps[i]);
+        }
+        return out;
+    }
+
+    private static int andCount(BitSet a, BitSet b) {
+        BitSet tmp = (BitSet) a.clone();
+        tmp.and(b);
+        return tmp.cardinality();
+    }
+
+    private static BitSet[] newBitmaps(int n) {
+        BitSet[] out = new BitSet[n];
+        for (int i = 0; i < n; i++) out[i] = new BitSet();
+        return out;
+    }
+
+    /**
+     * Slots sorted by dueAt (parallel arrays). Insert/remove are a binary search plus an
+     * arraycopy, which for a few thousand tasks is cheaper than any tree node churn.
+     */
+    static class DueIndex {
+        private long[] keys = new long[64];
+        private int[] slots = new int[64];
+        private int size = 0;
+
+        void add(long due, int slot) {
+            int i = lowerBound(due);
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            System.arraycopy(keys, i, keys, i + 1, size - i);
+            System.arraycopy(slots, i, slots, i + 1, size - i);
+            keys[i] = due;
+            slots[i] = slot;
+            size++;
+        }
+
+        void remove(long due, int slot) {
+            for (int i = lowerBound(due); i < size && keys[i] == due; i++) {
+                if (slots[i] != slot) continue;
+                System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+                System.arraycopy(slots, i + 1, slots, i, size - i - 1);
+                size--;
+                return;
+            }
+        }
+
+        /** Slots with from <= due < to. */
+        BitSet range(long from, long to) {
+            BitSet out = new BitSet();
+            for (int i = lowerBound(from); i < size && keys[i] < to; i++) out.set(slots[i]);
+            return out;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        private int lowerBound(long key) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (keys[mid] < key) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.studybuddy.data;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Task rows streamed out of an import file, one at a time (see TaskImport).
+ *
+ * - CSV: a header row naming the columns (title, type, priority, due, module,
+ *   description; any order, case-insensitive, extra columns ignored), RFC 4180 quoting
+ *   (quoted fields may contain commas, "" and newlines)
+ * - JSON: an array of objects with the same keys, or one object per line (NDJSON)
+ *
+ * open() sniffs which one from the first non-blank character. Values are kept as raw
+ * text; TaskImport.check() decides whether they're valid. Fields over MAX_FIELD chars
+ * fail the read instead of growing a buffer.
+ */
+public abstract class TaskRows implements Closeable {
+
+    static final int MAX_FIELD = 16 * 1024;
+
+    /** One row as written in the file. `line` is where it starts (CSV) or its 1-based index (JSON). */
+    public static final class Row {
+        public int line;
+        @Nullable public String title, type, priority, due, module, description;
+    }
+
+    /** Next row, or null at the end. */
+    @Nullable
+    public abstract Row next() throws IOException;
+
+    /** "line" for CSV, "item" for JSON; for error messages. */
+    @NonNull
+    public abstract String unit();
+
+    @NonNull
+    public static TaskRows open(@NonNull Reader in) throws IOException {
+        BufferedReader r = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        r.mark(1);
+        if (r.read() != '\uFEFF') r.reset(); // drop a byte order mark (Excel adds one)
+        r.mark(4096);
+        int c;
+        do {
+            c = r.read();
+        } while (c >= 0 && Character.isWhitespace(c));
+        r.reset();
+        return c == '[' || c == '{' ? new Json(r) : new Csv(r);
+    }
+
+    /** Column / key name -> which Row field it fills (-1 = ignored). */
+    static int field(@NonNull String name) {
+        switch (name.trim().toLowerCase(Locale.ROOT).replace(" ", "").replace("_", "")) {
+            case "title": case "name": return 0;
+            case "type": return 1;
+            case "priority": return 2;
+            case "due": case "dueat": case "duedate": return 3;
+            case "module": case "moduletitle": return 4;
+            case "description": case "notes": return 5;
+            default: return -1;
+        }
+    }
+
+    static void set(Row row, int field, @Nullable String value) {
+        switch (field) {
+            case 0: row.title = value; break;
+            case 1: row.type = value; break;
+            case 2: row.priority = value; break;
+            case 3: row.due = value; break;
+            case 4: row.module = value; break;
+            case 5: row.description = value; break;
+            default: break;
+        }
+    }
+
+    // -------- CSV --------
+
+    static final class Csv extends TaskRows {
+        private final Reader in;
+        private final int[] columns;     // column index -> field
+        private final List<String> record = new ArrayList<>();
+        private final StringBuilder cell = new StringBuilder();
+        private int line = 1;            // line the next record starts on
+        private int pending = -2;        // one char of lookahead (-2 = none)
+
+        Csv(@NonNull Reader in) throws IOException {
+            this.in = in;
+            if (!readRecord()) throw new IOException("Empty file");
+            columns = new int[record.size()];
+            boolean title = false, type = false;
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = field(record.get(i));
+                title |= columns[i] == 0;
+                type |= columns[i] == 1;
+            }
+            if (!title || !type) throw new IOException("The first row must name the columns, with at least title and type");
+        }
+
+        @Nullable
+        @Override
+        public Row next() throws IOException {
+            while (true) {
+                int start = line;
+                if (!readRecord()) return null;
+                if (record.size() == 1 && record.get(0).trim().isEmpty()) continue; // blank line
+                Row row = new Row();
+                row.line = start;
+                for (int i = 0; i < columns.length && i < record.size(); i++) {
+                    String v = record.get(i);
+                    set(row, columns[i], v.isEmpty() ? null : v);
+                }
+                return row;
+            }
+        }
+
+        @NonNull
+        @Override
+        public String unit() {
+            return "line";
+        }
+
+        /** One record into `record`; false at end of input. */
+        private boolean readRecord() throws IOException {
+            record.clear();
+            cell.setLength(0);
+            int c = read();
+            if (c < 0) return false;
+            boolean quoted = false, wasQuoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c < 0) throw new IOException("Unclosed quote in the record starting at line " + line);
+                    if (c == '"') {
+                        int n = read();
+                        if (n == '"') {
+                            append('"');
+                        } else {
+                            quoted = false;
+                            c = n;
+                            continue;
+                        }
+                    } else {
+                        if (c == '\n') line++;
+                        append((char) c);
+                    }
+                } else if (c == '"' && cell.length() == 0 && !wasQuoted) {
+                    quoted = wasQuoted = true;
+                } else if (c == ',') {
+                    record.add(cell.toString());
+                    cell.setLength(0);
+                    wasQuoted = false;
+                } else if (c == '\r' || c == '\n' || c < 0) {
+                    if (c == '\r') {
+                        int n = read();
+                        if (n != '\n') pending = n;
+                    }
+                    if (c >= 0) line++;
+                    record.add(cell.toString());
+                    return true;
+                } else {
+                    append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private void append(char c) throws IOException {
+            if (cell.length() >= MAX_FIELD) throw new IOException("Field over " + MAX_FIELD + " chars at line " + line);
+            cell.append(c);
+        }
+
+        private int read() throws IOException {
+            if (pending != -2) {
+                int c = pending;
+                pending = -2;
+                return c;
+            }
+            return in.read();
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // -------- JSON --------
+
+    static final class Json extends TaskRows {
+        private final JsonReader json;
+        private boolean inArray = false;
+        private int index = 0;
+
+        Json(@NonNull Reader in) {
+            json = new JsonReader(in);
+            json.setLenient(true); // NDJSON = several top-level values
+        }
+
+        @Nullable
+        @Override
+        public Row next() throws IOException {
+            if (index == 0 && json.peek() == JsonToken.BEGIN_ARRAY) {
+                json.beginArray();
+                inArray = true;
+            }
+            if (inArray ? !json.hasNext() : json.peek() == JsonToken.END_DOCUMENT) return null;
+
+            Row row = new Row();
+            row.line = ++index;
+            json.beginObject();
+            while (json.hasNext()) {
+                int f = field(json.nextName());
+                if (f < 0 || json.peek() == JsonToken.NULL || json.peek() == JsonToken.BEGIN_OBJECT
+                        || json.peek() == JsonToken.BEGIN_ARRAY) {
+                    json.skipValue();
+                    continue;
+                }
+                String v = json.peek() == JsonToken.BOOLEAN ? String.valueOf(json.nextBoolean())
+                        : json.nextString(); // numbers come back as their text
+                if (v.length() > MAX_FIELD) throw new IOException("Field over " + MAX_FIELD + " chars in item " + index);
+                set(row, f, v.isEmpty() ? null : v);
+            }
+            json.endObject();
+            return row;
+        }
+
+        @NonNull
+        @Override
+        public String unit() {
+            return "item";
+        }
+
+        @Override
+        public void close() throws IOException {
+            json.close();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.studybuddy.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * What a valid task is, shared by the Add Task form (TasksActivity) and bulk import
+ * (TaskImport) so the two can't drift apart.
+ *
+ * - title: required (trimmed)
+ * - type: required, one of TYPES (stored lower-case: "assignment")
+ * - priority: optional, None / High / Medium / Low (stored "NONE" / "HIGH" / ...);
+ *   anything else counts as None, like the form's spinner
+ * - due date: optional; a bare date means 09:00 that day, like the form's date picker
+ */
+public final class TaskRules {
+
+    public static final String TYPE_PLACEHOLDER = "Select type...";
+    public static final List<String> TYPES = Collections.unmodifiableList(
+            Arrays.asList("Task", "Assignment", "Exam", "Demo", "Presentation"));
+    public static final List<String> PRIORITIES = Collections.unmodifiableList(
+            Arrays.asList("None", "High", "Medium", "Low"));
+    public static final int DUE_HOUR = 9;
+
+    private TaskRules() {}
+
+    /** Trimmed title, or null if it's missing (-> "Task title is required"). */
+    @Nullable
+    public static String title(@Nullable String raw) {
+        if (raw == null) return null;
+        String t = raw.trim();
+        return t.isEmpty() ? null : t;
+    }
+
+    /** "Assignment" / "assignment" -> "assignment"; null for blank, the placeholder or anything unknown. */
+    @Nullable
+    public static String storedType(@Nullable String ui) {
+        if (ui == null) return null;
+        String t = ui.trim();
+        for (String type : TYPES) {
+            if (type.equalsIgnoreCase(t)) return type.toLowerCase(Locale.ROOT);
+        }
+        return null;
+    }
+
+    /** UI priority -> stored priority ("High" -> "HIGH"); unknown / blank -> "NONE". */
+    @NonNull
+    public static String storedPriority(@Nullable String ui) {
+        if (ui == null) return "NONE";
+        switch (ui.trim().toLowerCase(Locale.ROOT)) {
+            case "high": return "HIGH";
+            case "medium": return "MEDIUM";
+            case "low": return "LOW";
+            default: return "NONE";
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.studybuddy.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.studybuddy.adapter.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column-per-field copy of the user's tasks for filtering / sorting / counting.
+ *
+ * Each task lives in a "slot" (row index). Priority, type and flags are bytes, dueAt is a
+ * long with TaskCodes.NO_DUE for "no due date", and module ids are interned to ints, so a
+ * scan over thousands of tasks never touches a String or a boxed Long.
+ *
+ * NOT thread-safe: FirestoreRepo feeds it on AppExecutors.io() and all queries run there too.
+ */
+public class TaskTable {
+
+    private static final byte FLAG_LIVE = 1;
+    private static final byte FLAG_COMPLETED = 2;
+
+    public static final int NO_MODULE = -1;
+
+    // Columns (index = slot)
+    private Task[] tasks;
+    private byte[] flags;
+    private byte[] priority;
+    private byte[] type;
+    private long[] due;
+    private long[] created;
+    private int[] module;
+
+    private int highWater = 0; // slots [0, highWater) have been handed out
+    private int size = 0;
+
+    private int[] free = new int[16];
+    private int freeCount = 0;
+
+    private final Map<String, Integer> slotById = new HashMap<>();
+
+    // Interned module ids: code -> id, id -> code
+    private final List<String> moduleIds = new ArrayList<>();
+    private final Map<String, Integer> moduleCodes = new HashMap<>();
+
+    public TaskTable() {
+        allocate(64);
+    }
+
+    // -------- Maintenance --------
+
+    /** Bring the table in line with one LiveCollection snapshot. */
+    public void apply(@NonNull List<Task> all, @NonNull ChangeSet<Task> changes) {
+        if (changes.isReset()) {
+            clear();
+            for (Task t : all) upsert(t);
+            return;
+        }
+        for (Task t : changes.getRemoved()) remove(t.getId());
+        for (Task t : changes.getAdded()) upsert(t);
+        for (Task t : changes.getChanged()) upsert(t);
+    }
+
+    /** Insert or overwrite a task. Returns its slot (-1 if it has no id). */
+    public int upsert(@NonNull Task t) {
+        String id = t.getId();
+        if (id == null) return -1;
+
+        Integer existing = slotById.get(id);
+        int slot;
+        if (existing != null) {
+            slot = existing;
+        } else {
+            slot = freeCount > 0 ? free[--freeCount] : highWater++;
+            if (slot >= tasks.length) allocate(tasks.length * 2);
+            slotById.put(id, slot);
+            size++;
+        }
+
+        tasks[slot] = t;
+        flags[slot] = (byte) (FLAG_LIVE | (t.isCompleted() ? FLAG_COMPLETED : 0));
+        priority[slot] = TaskCodes.priorityCode(t.getPriority());
+        type[slot] = TaskCodes.typeCode(t.getType());
+        due[slot] = TaskCodes.dueCode(t.getDueAt());
+        created[slot] = t.getCreatedAt();
+        module[slot] = internModule(t.getModuleId());
+        return slot;
+    }
+
+    /** Returns the freed slot, or -1 if the id was not in the table. */
+    public int remove(@Nullable String id) {
+        if (id == null) return -1;
+        Integer slot = slotById.remove(id);
+        if (slot == null) return -1;
+
+        tasks[slot] = null;
+        flags[slot] = 0;
+        if (freeCount == free.length) free = Arrays.copyOf(free, free.length * 2);
+        free[freeCount++] = slot;
+        size--;
+        return slot;
+    }
+
+    public void clear() {
+        Arrays.fill(tasks, 0, highWater, null);
+        Arrays.fill(flags, 0, highWater, (byte) 0);
+        slotById.clear();
+        highWater = 0;
+        freeCount = 0;
+        size = 0;
+        // Codes are only meaningful for rows in the table; start over so deleted
+        // modules don't pile up across resets
+        moduleIds.clear();
+        moduleCodes.clear();
+    }
+
+    private int internModule(@Nullable String moduleId) {
+        if (moduleId == null || moduleId.isEmpty()) return NO_MODULE;
+        Integer code = moduleCodes.get(moduleId);
+        if (code == null) {
+            code = moduleIds.size();
+            moduleIds.add(moduleId);
+            moduleCodes.put(moduleId, code);
+        }
+        return code;
+    }
+
+    private void allocate(int capacity) {
+        tasks = tasks == null ? new Task[capacity] : Arrays.copyOf(tasks, capacity);
+        flags = flags == null ? new byte[capacity] : Arrays.copyOf(flags, capacity);
+        priority = priority == null ? new byte[capacity] : Arrays.copyOf(priority, capacity);
+        type = type == null ? new byte[capacity] : Arrays.copyOf(type, capacity);
+        due = due == null ? new long[capacity] : Arrays.copyOf(due, capacity);
+        created = created == null ? new long[capacity] : Arrays.copyOf(created, capacity);
+        module = module == null ? new int[capacity] : Arrays.copyOf(module, capacity);
+    }
+
+    // -------- Column access (by slot) --------
+
+    public int size() { return size; }
+    public int highWater() { return highWater; }
+    public boolean isLive(int slot) { return (flags[slot] & FLAG_LIVE) != 0; }
+    public boolean isCompleted(int slot) { return (flags[slot] & FLAG_COMPLETED) != 0; }
+    public byte priorityAt(int slot) { return priority[slot]; }
+    public byte typeAt(int slot) { return type[slot]; }
+    public long dueAt(int slot) { return due[slot]; }
+    public long createdAt(int slot) { return created[slot]; }
+    public int moduleAt(int slot) { return module[slot]; }
+    public Task taskAt(int slot) { return tasks[slot]; }
+
+    public int slotOf(@Nullable String id) {
+        Integer slot = id == null ? null : slotById.get(id);
+        return slot == null ? -1 : slot;
+    }
+
+    /** Interned code for a module id, or NO_MODULE if no task references it. */
+    public int moduleCode(@Nullable String moduleId) {
+        Integer code = moduleId == null ? null : moduleCodes.get(moduleId);
+        return code == null ? NO_MODULE : code;
+    }
+
+    // -------- Queries --------
+
+    public boolean matches(int slot, @NonNull TaskFilter f, int moduleCode) {
+        byte fl = flags[slot];
+        if ((fl & FLAG_LIVE) == 0) return false;
+        if ((f.priorityMask & (1 << priority[slot])) == 0) return false;
+        if ((f.typeMask & (1 << type[slot])) == 0) return false;
+        if (f.completed != TaskFilter.ANY
+                && ((fl & FLAG_COMPLETED) != 0) != (f.completed == TaskFilter.YES)) return false;
+        if (f.moduleId != null && module[slot] != moduleCode) return false;
+        if (f.hasDueRange()) {
+            long d = due[slot];
+            if (d == TaskCodes.NO_DUE || d < f.dueFrom || d >= f.dueTo) return false;
+        }
+        return true;
+    }
+
+    /** Matching slots, newest first (same order as the Tasks list). */
+    @NonNull
+    public int[] select(@NonNull TaskFilter f) {
+        int moduleCode = f.moduleId == null ? NO_MODULE : moduleCode(f.moduleId);
+        if (f.moduleId != null && moduleCode == NO_MODULE) return new int[0];
+
+        int[] out = new int[size];
+        int n = 0;
+        for (int slot = 0; slot < highWater; slot++) {
+            if (matches(slot, f, moduleCode)) out[n++] = slot;
+        }
+        out = n == out.length ? out : Arrays.copyOf(out, n);
+        sortByCreatedDesc(out);
+        return out;
+    }
+
+    public int count(@NonNull TaskFilter f) {
+        int moduleCode = f.moduleId == null ? NO_MODULE : moduleCode(f.moduleId);
+        if (f.moduleId != null && moduleCode == NO_MODULE) return 0;
+
+        int n = 0;
+        for (int slot = 0; slot < highWater; slot++) {
+            if (matches(slot, f, moduleCode)) n++;
+        }
+        return n;
+    }
+
+    /** Per-priority counts (index = TaskCodes.PRIORITY_*) for tasks matching f, ignoring f's priority. */
+    @NonNull
+    public int[] countByPriority(@NonNull TaskFilter f) {
+        int saved = f.priorityMask;
+        f.priorityMask = TaskFilter.ALL;
+        int moduleCode = f.moduleId == null ? NO_MODULE : moduleCode(f.moduleId);
+
+        int[] counts = new int[TaskCodes.PRIORITY_COUNT];
+        if (f.moduleId == null || moduleCode != NO_MODULE) {
+            for (int slot = 0; slot < highWater; slot++) {
+                if (matches(slot, f, moduleCode)) counts[priority[slot]]++;
+            }
+        }
+        f.priorityMask = saved;
+        return counts;
+    }
+
+    public void sortByCreatedDesc(@NonNull int[] slots) {
+        sortSlots(slots, created, true);
+    }
+
+    public void sortByDueAsc(@NonNull int[] slots) {
+        sortSlots(slots, due, false);
+    }
+
+    @NonNull
+    public List<Task> tasksAt(@NonNull int[] slots) {
+        List<Task> out = new ArrayList<>(slots.length);
+        for (int slot : slots) out.add(tasks[slot]);
+        return out;
+    }
+
+    /** Stable merge sort of slot numbers by a long column (no boxing, no comparator). */
+    private static void sortSlots(int[] slots, long[] key, boolean desc) {
+        if (slots.length < 2) return;
+        int[] tmp = new int[slots.length];
+        mergeSort(slots, tmp, 0, slots.length, key, desc);
+    }
+
+    private static void mergeSort(int[] a, int[] tmp, int lo, int hi, long[] key, boolean desc) {
+        if (hi - lo <= 16) {
+            // insertion sort for small runs
+            for (int i = lo + 1; i < hi; i++) {
+                int v = a[i];
+                int j = i - 1;
+                while (j >= lo && before(key[v], key[a[j]], desc)) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = v;
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(a, tmp, lo, mid, key, desc);
+        mergeSort(a, tmp, mid, hi, key, desc);
+        if (!before(key[a[mid]], key[a[mid - 1]], desc)) return; // already ordered
+
+        System.arraycopy(a, lo, tmp, lo, hi - lo);
+        int i = lo, j = mid, k = lo;
+        while (i < mid && j < hi) {
+            a[k++] = before(key[tmp[j]], key[tmp[i]], desc) ? tmp[j++] : tmp[i++];
+        }
+        while (i < mid) a[k++] = tmp[i++];
+        while (j < hi) a[k++] = tmp[j++];
+    }
+
+    private static boolean before(long x, long y, boolean desc) {
+        return desc ? x > y : x < y;
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.studybuddy.data;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.studybuddy.adapter.TimetableEvent;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The weekly timetable as an interval tree, for "does this slot clash with anything?".
+ *
+ * Every weekday an event's RRULE lands on (BYDAY, else dayOfWeek) is one interval on a
+ * Sunday-00:00-based week line:
+ *   [(day - 1) * 1440 + startMin, (day - 1) * 1440 + endMin)
+ * kept in an AVL tree ordered by (start, id), each node also holding the largest end in
+ * its subtree (maxEnd). An overlap query skips every subtree whose maxEnd is <= the query
+ * start and everything right of a node that starts at/after the query end, so it visits
+ * O(log n) nodes per candidate instead of every event.
+ *
+ * The tree only knows weekdays; whether a candidate actually happens on that weekday
+ * inside the query's date window (COUNT / UNTIL / dtstart / INTERVAL / EXDATE) is
+ * checked on the candidate's Recurrence, so a one-off or a finished series stops
+ * clashing without the index being rebuilt as the days go by.
+ *
+ * upsert/remove are O(days * log n), so it's fed straight from the timetable listener's
+ * ChangeSets. NOT thread-safe: FirestoreRepo feeds and queries it on AppExecutors.io().
+ */
+public class TimetableIndex {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final class Node {
+        final String id;
+        final int start, end;
+        final TimetableEvent event;
+        final Recurrence rule;
+        final DayOfWeek day;
+        int maxEnd, height = 1;
+        Node left, right;
+
+        Node(String id, int start, int end, TimetableEvent event, Recurrence rule, DayOfWeek day) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.event = event;
+            this.rule = rule;
+            this.day = day;
+            this.maxEnd = end;
+        }
+    }
+
+    private final ZoneId zone;
+    private Node root;
+    // id -> week-line starts of its nodes (one per weekday), to find them again on remove
+    private final Map<String, int[]> startsById = new HashMap<>();
+
+    /** `zone` resolves events without a dtstart (they start the day they were created). */
+    public TimetableIndex(@NonNull ZoneId zone) {
+        this.zone = zone;
+    }
+
+    // -------- Maintenance --------
+
+    public void apply(@NonNull List<TimetableEvent> all, @NonNull ChangeSet<TimetableEvent> changes) {
+        if (changes.isReset()) {
+            clear();
+            for (TimetableEvent e : all) upsert(e);
+            return;
+        }
+        for (TimetableEvent e : changes.getRemoved()) remove(e.getId());
+        for (TimetableEvent e : changes.getAdded()) upsert(e);
+        for (TimetableEvent e : changes.getChanged()) upsert(e);
+    }
+
+    /** Insert or move an event; events without a valid day/time range are left out. */
+    public void upsert(@NonNull TimetableEvent e) {
+        String id = e.getId();
+        if (id == null) return;
+        remove(id);
+
+        int day = e.getDayOfWeek();
+        if (day < 1 || day > 7 || e.getStartMin() < 0 || e.getEndMin() <= e.getStartMin()) return;
+
+        Recurrence rule = Recurrence.of(e, zone);
+        List<DayOfWeek> days = rule.days();
+        int[] starts = new int[days.size()];
+        for (int i = 0; i < starts.length; i++) {
+            int calendarDay = calendarDay(days.get(i));
+            starts[i] = weekMinute(calendarDay, e.getStartMin());
+            root = insert(root, new Node(id, starts[i], weekMinute(calendarDay, e.getEndMin()), e, rule, days.get(i)));
+        }
+        startsById.put(id, starts);
+    }
+
+    public void remove(@Nullable String id) {
+        int[] starts = id == null ? null : startsById.remove(id);
+        if (starts == null) return;
+        for (int start : starts) root = delete(root, start, id);
+    }
+
+    public void clear() {
+        root = null;
+        startsById.clear();
+    }
+
+    /** Events in the index (an event on several weekdays counts once). */
+    public int size() {
+        return startsById.size();
+    }
+
+    /** Tests: walks the whole tree; throws if order, heights, balance or maxEnd are off. Returns the node count. */
+    int checkInvariants() {
+        return check(root, null, null);
+    }
+
+    /** Every node of n's subtree must sort strictly between lo and hi (null = unbounded). */
+    private static int check(Node n, Node lo, Node hi) {
+        if (n == null) return 0;
+        if (lo != null && compare(n.start, n.id, lo) <= 0) throw new IllegalStateException("order at " + n.id);
+        if (hi != null && compare(n.start, n.id, hi) >= 0) throw new IllegalStateException("order at " + n.id);
+        int count = check(n.left, lo, n) + 1 + check(n.right, n, hi);
+        int h = 1 + Math.max(height(n.left), height(n.right));
+        if (n.height != h) throw new IllegalStateException("height at " + n.id);
+        if (Math.abs(height(n.left) - height(n.right)) > 1) throw new IllegalStateException("unbalanced at " + n.id);
+        int max = n.end;
+        if (n.left != null) max = Math.max(max, n.left.maxEnd);
+        if (n.right != null) max = Math.max(max, n.right.maxEnd);
+        if (n.maxEnd != max) throw new IllegalStateException("maxEnd at " + n.id);
+        return count;
+    }
+
+    // -------- Reads --------
+
+    /**
+     * Events overlapping [startMin, endMin) on `dayOfWeek` (Calendar.SUNDAY..SATURDAY) on
+     * at least one date in [fromDate, toDate), earliest first. A class that repeats from
+     * today on asks with (today, LocalDate.MAX). `excludeId` is left out (the event being
+     * edited). Touching ends (10:00-11:00 vs 11:00-12:00) don't count as a clash.
+     */
+    @NonNull
+    public List<TimetableEvent> overlapping(int dayOfWeek, int startMin, int endMin,
+                                            @NonNull LocalDate fromDate, @NonNull LocalDate toDate,
+                                            @Nullable String excludeId) {
+        List<TimetableEvent> out = new ArrayList<>();
+        if (endMin <= startMin || !fromDate.isBefore(toDate)) return out;
+        collect(root, weekMinute(dayOfWeek, startMin), weekMinute(dayOfWeek, endMin),
+                fromDate, toDate, excludeId, out);
+        return out;
+    }
+
+    private static void collect(Node n, int from, int to, LocalDate fromDate, LocalDate toDate,
+                                @Nullable String excludeId, List<TimetableEvent> out) {
+        if (n == null || n.maxEnd <= from) return; // nothing down here ends after `from`
+        collect(n.left, from, to, fromDate, toDate, excludeId, out);
+        if (n.start >= to) return; // this node and its whole right side start too late
+        if (n.end > from && !n.id.equals(excludeId) && occurs(n, fromDate, toDate)) out.add(n.event);
+        collect(n.right, from, to, fromDate, toDate, excludeId, out);
+    }
+
+    /** Does n's event happen on n's weekday in [from, to)? Stops at the first such date. */
+    private static boolean occurs(Node n, LocalDate from, LocalDate to) {
+        for (LocalDate d : n.rule.between(from, to)) {
+            if (d.getDayOfWeek() == n.day) return true;
+        }
+        return false;
+    }
+
+    private static int weekMinute(int dayOfWeek, int minute) {
+        return (dayOfWeek - 1) * MINUTES_PER_DAY + minute;
+    }
+
+    /** DayOfWeek -> Calendar.SUNDAY..SATURDAY (Recurrence.dayOfWeek the other way). */
+    private static int calendarDay(DayOfWeek d) {
+        return d.getValue() % 7 + 1;
+    }
+
+    // -------- AVL plumbing --------
+
+    private static int compare(int start, String id, Node n) {
+        if (start != n.start) return start < n.start ? -1 : 1;
+        return id.compareTo(n.id);
+    }
+
+    private static Node insert(Node n, Node add) {
+        if (n == null) return add;
+        if (compare(add.start, add.id, n) < 0) n.left = insert(n.left, add);
+        else n.right = insert(n.right, add);
+        return balance(n);
+    }
+
+    private static Node delete(Node n, int start, String id) {
+        if (n == null) return null;
+        int c = compare(start, id, n);
+        if (c < 0) {
+            n.left = delete(n.left, start, id);
+        } else if (c > 0) {
+            n.right = delete(n.right, start, id);
+        } else {
+            if (n.left == null) return n.right;
+            if (n.right == null) return n.left;
+            // Replace by the successor (smallest on the right)
+            Node next = n.right;
+            while (next.left != null) next = next.left;
+            next.right = deleteMin(n.right);
+            next.left = n.left;
+            n = next;
+        }
+        return balance(n);
+    }
+
+    private static Node deleteMin(Node n) {
+        if (n.left == null) return n.right;
+        n.left = deleteMin(n.left);
+        return balance(n);
+    }
+
+    private static int height(Node n) {
+        return n == null ? 0 : n.height;
+    }
+
+    private static void update(Node n) {
+        n.height = 1 + Math.max(height(n.left), height(n.right));
+        int max = n.end;
+        if (n.left != null) max = Math.max(max, n.left.maxEnd);
+        if (n.right != null) max = Math.max(max, n.right.maxEnd);
+        n.maxEnd = max;
+    }
+
+    private static Node balance(Node n) {
+        update(n);
+        int skew = height(n.left) - height(n.right);
+        if (skew > 1) {
+            if (height(n.left.left) < height(n.left.right)) n.left = rotateLeft(n.left);
+            return rotateRight(n);
+        }
+        if (skew < -1) {
+            if (height(n.right.right) < height(n.right.left)) n.right = rotateRight(n.right);
+            return rotateLeft(n);
+        }
+        return n;
+    }
+
+    private static Node rotateRight(Node n) {
+        Node l = n.left;
+        n.left = l.right;
+        l.right = n;
+        update(n);
+        update(l);
+        return l;
+    }
+
+    private static Node rotateLeft(Node n) {
+        Node r = n.right;
+        n.right = r.left;
+        r.left = n;
+        update(n);
+        update(r);
+        return r;
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.studybuddy.data;
+
+import androidx.annotation.NonNull;
+
+import com.example.studybuddy.adapter.Task;
+import com.example.studybuddy.adapter.TimetableEvent;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Ready-to-draw weeks for the Modules calendar (week grid + month dots).
+ *
+ * A Week has every class of those 7 days (rrule expanded, see Recurrence) with its
+ * side-by-side column already worked out, plus the open tasks due each day. Weeks are
+ * computed on first use and kept in an LRU keyed by the week's first day, so paging
+ * back and forth across months redraws from the cache. The inputs are fixed per
+ * instance: when the timetable or tasks change, build a new WeekLayouts (it's cheap;
+ * weeks are only computed when asked for) and prefetch() the visible range on io.
+ *
+ * Not thread-safe: fill it on one thread, then hand it over (the calendar builds it on
+ * AppExecutors.io() and only touches it on main afterwards).
+ */
+public class WeekLayouts {
+
+    private static final int MAX_CACHED_WEEKS = 64;
+
+    /** One class, placed: [column, column + 1) of `columns` equal-width columns of its day. */
+    public static final class Block {
+        @NonNull public final TimetableEvent event;
+        public final int day;       // 0..6 from Week.start
+        public final int startMin, endMin;
+        public final int column, columns;
+
+        Block(@NonNull TimetableEvent event, int day, int column, int columns) {
+            this.event = event;
+            this.day = day;
+            this.startMin = event.getStartMin();
+            this.endMin = Math.max(event.getEndMin(), event.getStartMin() + 1);
+            this.column = column;
+            this.columns = columns;
+        }
+    }
+
+    public static final class Week {
+        @NonNull public final LocalDate start;
+        @NonNull public final List<Block> blocks;          // by day, then start time
+        @NonNull public final List<List<Task>> due;        // per day, by dueAt
+        public final int[] classCount = new int[7];
+        public final int earliestMin, latestMin;           // over all blocks (-1 if none)
+
+        Week(LocalDate start, List<Block> blocks, List<List<Task>> due) {
+            this.start = start;
+            this.blocks = blocks;
+            this.due = due;
+            int lo = Integer.MAX_VALUE, hi = -1;
+            for (Block b : blocks) {
+                classCount[b.day]++;
+                lo = Math.min(lo, b.startMin);
+                hi = Math.max(hi, b.endMin);
+            }
+            earliestMin = hi < 0 ? -1 : lo;
+            latestMin = hi;
+        }
+    }
+
+    private final List<TimetableEvent> events;
+    private final NavigableMap<LocalDate, List<Task>> dueByDay = new TreeMap<>();
+    private final DayOfWeek firstDay;
+    private final ZoneId zone;
+
+    private final Map<LocalDate, Week> cache = new LinkedHashMap<LocalDate, Week>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<LocalDate, Week> eldest) {
+            return size() > MAX_CACHED_WEEKS;
+        }
+    };
+
+    public WeekLayouts(@NonNull List<TimetableEvent> events, @NonNull List<Task> tasks,
+                       @NonNull DayOfWeek firstDay, @NonNull ZoneId zone) {
+        this.events = new ArrayList<>(events);
+        this.firstDay = firstDay;
+        this.zone = zone;
+        for (Task t : tasks) {
+            if (t.getDueAt() == null || t.isCompleted()) continue;
+            LocalDate day = Instant.ofEpochMilli(t.getDueAt()).atZone(zone).toLocalDate();
+            List<Task> list = dueByDay.get(day);
+            if (list == null) dueByDay.put(day, list = new ArrayList<>(2));
+            list.add(t);
+        }
+        for (List<Task> list : dueByDay.values()) {
+            Collections.sort(list, (a, b) -> Long.compare(a.getDueAt(), b.getDueAt()));
+        }
+    }
+
+    @NonNull
+    public LocalDate weekStart(@NonNull LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(firstDay));
+    }
+
+    /** The week containing `day` (cached). */
+    @NonNull
+    public Week week(@NonNull LocalDate day) {
+        LocalDate start = weekStart(day);
+        Week w = cache.get(start);
+        if (w == null) {
+            w = compute(start);
+            cache.put(start, w);
+        }
+        return w;
+    }
+
+    /** Compute the weeks touching [from, to] now, so the first draws are cache hits. */
+    public void prefetch(@NonNull LocalDate from, @NonNull LocalDate to) {
+        for (LocalDate d = weekStart(from); !d.isAfter(to); d = d.plusWeeks(1)) week(d);
+    }
+
+    // -------- Layout --------
+
+    private Week compute(LocalDate start) {
+        // Occurrences per day of this week
+        List<List<TimetableEvent>> byDay = new ArrayList<>(7);
+        for (int i = 0; i < 7; i++) byDay.add(new ArrayList<>());
+        Iterator<Recurrence.Occurrence> it = Recurrence.expand(events, start, start.plusDays(7), zone);
+        while (it.hasNext()) {
+            Recurrence.Occurrence o = it.next();
+            byDay.get((int) (o.date.toEpochDay() - start.toEpochDay())).add(o.event);
+        }
+
+        List<Block> blocks = new ArrayList<>();
+        for (int day = 0; day < 7; day++) layoutDay(byDay.get(day), day, blocks);
+
+        List<List<Task>> due = new ArrayList<>(7);
+        for (int day = 0; day < 7; day++) {
+            List<Task> list = dueByDay.get(start.plusDays(day));
+            due.add(list == null ? Collections.<Task>emptyList() : list);
+        }
+        return new Week(start, blocks, due);
+    }
+
+    /**
+     * Side-by-side columns for one day's classes (already sorted by start time).
+     * Sweep: a cluster is a run of transitively overlapping classes; each class takes the
+     * first column that's free at its start, and the whole cluster shares one width.
+     */
+    static void layoutDay(List<TimetableEvent> day, int dayIndex, List<Block> out) {
+        int n = day.size();
+        if (n == 0) return;
+        int[] column = new int[n];
+        int[] colEnds = new int[4];
+        int cols = 0, clusterFrom = 0, clusterEnd = Integer.MIN_VALUE;
+
+        for (int i = 0; i <= n; i++) {
+            TimetableEvent e = i < n ? day.get(i) : null;
+            if (e == null || e.getStartMin() >= clusterEnd) {
+                // close the previous cluster
+                for (int j = clusterFrom; j < i; j++) out.add(new Block(day.get(j), dayIndex, column[j], cols));
+                if (e == null) break;
+                cols = 0;
+                clusterFrom = i;
+                clusterEnd = Integer.MIN_VALUE;
+            }
+            int end = Math.max(e.getEndMin(), e.getStartMin() + 1);
+            int c = 0;
+            while (c < cols && colEnds[c] > e.getStartMin()) c++;
+            if (c == cols) {
+                if (cols == colEnds.length) colEnds = Arrays.copyOf(colEnds, cols * 2);
+                cols++;
+            }
+            colEnds[c] = end;
+            column[i] = c;
+            clusterEnd = Math.max(clusterEnd, end);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.studybuddy.data;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buffers field updates for a short window and sends them as WriteBatches.
+ *
+ * - Several update() calls on the same document inside the window become ONE update
+ *   (fields merged, the last value for a field wins).
+ * - Updates to different documents go out together, at most MAX_BATCH_OPS per batch
+ *   (Firestore's limit). Hitting the limit flushes right away.
+ * - Every update() gets its own Task, completed when the write it ended up in commits.
+ *   A batch is all-or-nothing, so if one fails its ops are retried one by one: only the
+ *   update that is actually bad (e.g. doc deleted meanwhile) reports the failure.
+ *
+ * Main thread only (callers are Activities). FirestoreRepo keeps one per signed-in user.
+ */
+public class WriteCoalescer {
+
+    public static final int MAX_BATCH_OPS = 500;
+
+    /** Writes one batch of merged updates, all-or-nothing. Firestore in the app, a fake in tests. */
+    interface Committer {
+        void commit(@NonNull List<Pending> ops, @NonNull Done done);
+    }
+
+    interface Done {
+        void onDone(@Nullable Exception error);
+    }
+
+    /** Runs the delayed flush. A main-thread Handler in the app. */
+    interface Scheduler {
+        void schedule(@NonNull Runnable r, long delayMs);
+        void cancel(@NonNull Runnable r);
+    }
+
+    /** One document's merged fields + everyone waiting on them. */
+    static final class Pending {
+        final String path;
+        final DocumentReference doc; // only the Firestore committer looks at it
+        final Map<String, Object> fields = new HashMap<>();
+        final List<TaskCompletionSource<Void>> waiters = new ArrayList<>(1);
+
+        Pending(String path, DocumentReference doc) {
+            this.path = path;
+            this.doc = doc;
+        }
+    }
+
+    private final Committer committer;
+    private final Scheduler scheduler;
+    private final long windowMs;
+    private final Runnable flushRunnable = this::flush;
+
+    // keyed by document path, in first-touched order
+    private final Map<String, Pending> pending = new LinkedHashMap<>();
+    private boolean scheduled = false;
+
+    public WriteCoalescer(@NonNull FirebaseFirestore db, long windowMs) {
+        this(firestore(db), mainThread(), windowMs);
+    }
+
+    WriteCoalescer(@NonNull Committer committer, @NonNull Scheduler scheduler, long windowMs) {
+        this.committer = committer;
+        this.scheduler = scheduler;
+        this.windowMs = windowMs;
+    }
+
+    /** Queue `fields` for `doc`. The Task completes once they are committed (or failed). */
+    @NonNull
+    public Task<Void> update(@NonNull DocumentReference doc, @NonNull Map<String, Object> fields) {
+        return update(doc.getPath(), doc, fields);
+    }
+
+    @NonNull
+    Task<Void> update(@NonNull String path, DocumentReference doc, @NonNull Map<String, Object> fields) {
+        Pending p = pending.get(path);
+        if (p == null) {
+            p = new Pending(path, doc);
+            pending.put(path, p);
+        }
+        p.fields.putAll(fields);
+
+        TaskCompletionSource<Void> done = new TaskCompletionSource<>();
+        p.waiters.add(done);
+
+        if (pending.size() >= MAX_BATCH_OPS) {
+            flush();
+        } else if (!scheduled) {
+            scheduled = true;
+            scheduler.schedule(flushRunnable, windowMs);
+        }
+        return done.getTask();
+    }
+
+    /**
+     * Send everything queued now (sign-out, an Activity pausing, batch full). Once
+     * committed, Firestore keeps the writes in its local queue, so they survive the
+     * process being killed; edits still inside the window don't.
+     */
+    public void flush() {
+        scheduler.cancel(flushRunnable);
+        scheduled = false;
+        if (pending.isEmpty()) return;
+
+        List<Pending> all = new ArrayList<>(pending.values());
+        pending.clear();
+
+        for (int from = 0; from < all.size(); from += MAX_BATCH_OPS) {
+            commit(all.subList(from, Math.min(all.size(), from + MAX_BATCH_OPS)), true);
+        }
+    }
+
+    private void commit(List<Pending> ops, boolean retrySingly) {
+        committer.commit(ops, error -> {
+            if (error == null) {
+                for (Pending p : ops) complete(p, null);
+            } else if (retrySingly && ops.size() > 1) {
+                // Find out which update(s) the failure really belongs to
+                for (Pending p : ops) commit(Collections.singletonList(p), false);
+            } else {
+                for (Pending p : ops) complete(p, error);
+            }
+        });
+    }
+
+    private static void complete(Pending p, Exception error) {
+        for (TaskCompletionSource<Void> w : p.waiters) {
+            if (error == null) w.trySetResult(null);
+            else w.trySetException(error);
+        }
+    }
+
+    private static Committer firestore(FirebaseFirestore db) {
+        return (ops, done) -> {
+            WriteBatch batch = db.batch();
+            for (Pending p : ops) batch.update(p.doc, p.fields);
+            batch.commit().addOnCompleteListener(t -> {
+                if (t.isSuccessful()) done.onDone(null);
+                else done.onDone(t.getException() != null
+                        ? t.getException()
+                        : new IllegalStateException("Batch commit failed"));
+            });
+        };
+    }
+
+    private static Scheduler mainThread() {
+        Handler handler = new Handler(Looper.getMainLooper());
+        return new Scheduler() {
+            @Override
+            public void schedule(@NonNull Runnable r, long delayMs) {
+                handler.postDelayed(r, delayMs);
+            }
+
+            @Override
+            public void cancel(@NonNull Runnable r) {
+                handler.removeCallbacks(r);
+            }
+        };
+    }
+}
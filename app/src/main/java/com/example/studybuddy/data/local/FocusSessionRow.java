@@ -0,0 +1,15 @@
+package com.example.studybuddy.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/** users/{uid}/focus_sessions/{id} on disk (see TaskRow). */
+@Entity(tableName = "focus_sessions", indices = @Index({"uid", "completedAt"}))
+public class FocusSessionRow {
+    @PrimaryKey @NonNull public String id = "";
+    @NonNull public String uid = "";
+    public long completedAt;
+    @NonNull public String data = "{}";
+}
@@ -0,0 +1,270 @@
+package com.example.studybuddy.data.local;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.studybuddy.adapter.FocusSession;
+import com.example.studybuddy.adapter.FocusSessionMapper;
+import com.example.studybuddy.adapter.Module;
+import com.example.studybuddy.adapter.ModuleMapper;
+import com.example.studybuddy.adapter.Task;
+import com.example.studybuddy.adapter.TaskMapper;
+import com.example.studybuddy.adapter.TimetableEvent;
+import com.example.studybuddy.adapter.TimetableEventMapper;
+import com.example.studybuddy.data.ChangeSet;
+import com.example.studybuddy.data.LiveCollection;
+import com.example.studybuddy.data.SyncedCollection;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps MirrorDatabase in step with FirestoreRepo's live collections, and reads it back.
+ *
+ * - *Seed(): what a LiveCollection shows before its first snapshot (LiveCollection.setSeed).
+ * - *Sink(): IoSinks that write every applied snapshot to disk, one transaction each.
+ *   Cached resets (the seed itself coming back) are skipped.
+ *
+ * Rows store the documents as JSON made by the generated mappers, so decoding a row is
+ * the same fromMap() the Firestore path uses. Everything here runs on AppExecutors.io().
+ */
+public class LocalMirror {
+
+    private static final String TAG = "LocalMirror";
+
+    /** Ids per DELETE ... IN (..), well under SQLite's bound-variable limit. */
+    private static final int SQL_CHUNK = 500;
+
+    private final MirrorDatabase db;
+    private final MirrorDao dao;
+
+    public LocalMirror(@NonNull Context context) {
+        db = MirrorDatabase.get(context);
+        dao = db.dao();
+    }
+
+    // -------- Seeds --------
+
+    public LiveCollection.Seed<Task> tasksSeed(@NonNull String uid) {
+        return into -> {
+            for (TaskRow r : dao.tasks(uid)) put(into, r.id, TaskMapper.fromMap(r.id, decode(r.data)));
+        };
+    }
+
+    public LiveCollection.Seed<Module> modulesSeed(@NonNull String uid) {
+        return into -> {
+            for (ModuleRow r : dao.modules(uid)) put(into, r.id, ModuleMapper.fromMap(r.id, decode(r.data)));
+        };
+    }
+
+    public LiveCollection.Seed<TimetableEvent> timetableSeed(@NonNull String uid) {
+        return into -> {
+            for (TimetableEventRow r : dao.timetable(uid)) {
+                put(into, r.id, TimetableEventMapper.fromMap(r.id, decode(r.data)));
+            }
+        };
+    }
+
+    public LiveCollection.Seed<FocusSession> focusSessionsSeed(@NonNull String uid, long since) {
+        return into -> {
+            for (FocusSessionRow r : dao.focusSessions(uid, since)) {
+                put(into, r.id, FocusSessionMapper.fromMap(r.id, decode(r.data)));
+            }
+        };
+    }
+
+    private static <T> void put(Map<String, T> into, String id, @Nullable T item) {
+        if (item != null) into.put(id, item);
+    }
+
+    // -------- Sync marks --------
+
+    /** SyncedCollection's high-water marks for one collection of one user. */
+    public SyncedCollection.MarkStore marks(@NonNull String uid, @NonNull String collection) {
+        return new SyncedCollection.MarkStore() {
+            @Override
+            public long load(@NonNull String key) {
+                Long mark = dao.mark(uid, collection, key);
+                return mark == null ? 0 : mark;
+            }
+
+            @Override
+            public void save(@NonNull String key, long mark) {
+                SyncMarkRow row = new SyncMarkRow();
+                row.uid = uid;
+                row.collection = collection;
+                row.key = key;
+                row.mark = mark;
+                dao.putMark(row);
+            }
+        };
+    }
+
+    // -------- Sinks --------
+
+    /** For tasks(): every task, so a reset is the whole table and a removal a real delete. */
+    public LiveCollection.IoSink<Task> tasksSink(@NonNull String uid) {
+        return (all, changes) -> {
+            if (changes.isFromCache()) return;
+            db.runInTransaction(() -> {
+                if (changes.isReset()) dao.clearTasks(uid);
+                else for (List<String> ids : chunks(goneIds(changes))) dao.deleteTasks(ids);
+                dao.putTasks(taskRows(uid, changes.isReset() ? all : touched(changes)));
+            });
+        };
+    }
+
+    public LiveCollection.IoSink<Module> modulesSink(@NonNull String uid) {
+        return (all, changes) -> {
+            if (changes.isFromCache()) return;
+            db.runInTransaction(() -> {
+                if (changes.isReset()) dao.clearModules(uid);
+                else for (List<String> ids : chunks(goneIds(changes))) dao.deleteModules(ids);
+
+                List<ModuleRow> rows = new ArrayList<>();
+                for (Module m : changes.isReset() ? all : touched(changes)) {
+                    ModuleRow r = new ModuleRow();
+                    r.id = m.getId();
+                    r.uid = uid;
+                    r.createdAt = m.getCreatedAt();
+                    r.data = encode(ModuleMapper.toMap(m));
+                    rows.add(r);
+                }
+                dao.putModules(rows);
+            });
+        };
+    }
+
+    public LiveCollection.IoSink<TimetableEvent> timetableSink(@NonNull String uid) {
+        return (all, changes) -> {
+            if (changes.isFromCache()) return;
+            db.runInTransaction(() -> {
+                if (changes.isReset()) dao.clearTimetable(uid);
+                else for (List<String> ids : chunks(goneIds(changes))) dao.deleteTimetable(ids);
+
+                List<TimetableEventRow> rows = new ArrayList<>();
+                for (TimetableEvent e : changes.isReset() ? all : touched(changes)) {
+                    TimetableEventRow r = new TimetableEventRow();
+                    r.id = e.getId();
+                    r.uid = uid;
+                    r.dayOfWeek = e.getDayOfWeek();
+                    r.startMin = e.getStartMin();
+                    r.data = encode(TimetableEventMapper.toMap(e));
+                    rows.add(r);
+                }
+                dao.putTimetable(rows);
+            });
+        };
+    }
+
+    /** `since` must be <= the listener's completedAt lower bound (a reset clears from there on). */
+    public LiveCollection.IoSink<FocusSession> focusSessionsSink(@NonNull String uid, long since) {
+        return (all, changes) -> {
+            if (changes.isFromCache()) return;
+            db.runInTransaction(() -> {
+                if (changes.isReset()) dao.clearFocusSessionsSince(uid, since);
+                else for (List<String> ids : chunks(goneIds(changes))) dao.deleteFocusSessions(ids);
+
+                List<FocusSessionRow> rows = new ArrayList<>();
+                for (FocusSession s : changes.isReset() ? all : touched(changes)) {
+                    FocusSessionRow r = new FocusSessionRow();
+                    r.id = s.getId();
+                    r.uid = uid;
+                    r.completedAt = s.getCompletedAt();
+                    r.data = encode(FocusSessionMapper.toMap(s));
+                    rows.add(r);
+                }
+                dao.putFocusSessions(rows);
+            });
+        };
+    }
+
+    private static List<TaskRow> taskRows(String uid, List<Task> tasks) {
+        List<TaskRow> rows = new ArrayList<>(tasks.size());
+        for (Task t : tasks) {
+            TaskRow r = new TaskRow();
+            r.id = t.getId();
+            r.uid = uid;
+            r.createdAt = t.getCreatedAt();
+            r.data = encode(TaskMapper.toMap(t));
+            rows.add(r);
+        }
+        return rows;
+    }
+
+    // -------- Delta helpers --------
+
+    private static <T> List<T> touched(ChangeSet<T> changes) {
+        List<T> out = new ArrayList<>(changes.getAdded());
+        out.addAll(changes.getChanged());
+        return out;
+    }
+
+    /** Ids removed by this change set and not added back by it. */
+    private static <T> List<String> goneIds(ChangeSet<T> changes) {
+        if (changes.getRemoved().isEmpty()) return new ArrayList<>();
+        Set<String> back = new HashSet<>();
+        for (T item : touched(changes)) back.add(idOf(item));
+        List<String> out = new ArrayList<>();
+        for (T item : changes.getRemoved()) {
+            String id = idOf(item);
+            if (!back.contains(id)) out.add(id);
+        }
+        return out;
+    }
+
+    private static String idOf(Object item) {
+        if (item instanceof Task) return ((Task) item).getId();
+        if (item instanceof Module) return ((Module) item).getId();
+        if (item instanceof TimetableEvent) return ((TimetableEvent) item).getId();
+        return ((FocusSession) item).getId();
+    }
+
+    private static List<List<String>> chunks(List<String> ids) {
+        List<List<String>> out = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += SQL_CHUNK) {
+            out.add(ids.subList(from, Math.min(ids.size(), from + SQL_CHUNK)));
+        }
+        return out;
+    }
+
+    // -------- JSON --------
+
+    private static String encode(Map<String, Object> fields) {
+        JSONObject o = new JSONObject();
+        try {
+            for (Map.Entry<String, Object> e : fields.entrySet()) {
+                o.put(e.getKey(), e.getValue() == null ? JSONObject.NULL : e.getValue());
+            }
+        } catch (JSONException e) {
+            Log.w(TAG, "could not encode row", e); // only non-finite doubles; models have none
+        }
+        return o.toString();
+    }
+
+    private static Map<String, Object> decode(String json) {
+        Map<String, Object> out = new HashMap<>();
+        try {
+            JSONObject o = new JSONObject(json);
+            for (Iterator<String> it = o.keys(); it.hasNext(); ) {
+                String key = it.next();
+                Object v = o.get(key);
+                out.put(key, v == JSONObject.NULL ? null : v);
+            }
+        } catch (JSONException e) {
+            Log.w(TAG, "bad row json", e);
+        }
+        return out;
+    }
+}
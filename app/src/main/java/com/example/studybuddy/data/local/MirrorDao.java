@@ -0,0 +1,77 @@
+package com.example.studybuddy.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface MirrorDao {
+
+    // -------- tasks --------
+
+    @Query("SELECT * FROM tasks WHERE uid = :uid ORDER BY createdAt DESC")
+    List<TaskRow> tasks(String uid);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void putTasks(List<TaskRow> rows);
+
+    @Query("DELETE FROM tasks WHERE id IN (:ids)")
+    void deleteTasks(List<String> ids);
+
+    @Query("DELETE FROM tasks WHERE uid = :uid")
+    void clearTasks(String uid);
+
+    // -------- modules --------
+
+    @Query("SELECT * FROM modules WHERE uid = :uid ORDER BY createdAt DESC")
+    List<ModuleRow> modules(String uid);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void putModules(List<ModuleRow> rows);
+
+    @Query("DELETE FROM modules WHERE id IN (:ids)")
+    void deleteModules(List<String> ids);
+
+    @Query("DELETE FROM modules WHERE uid = :uid")
+    void clearModules(String uid);
+
+    // -------- timetable_events --------
+
+    @Query("SELECT * FROM timetable_events WHERE uid = :uid ORDER BY dayOfWeek, startMin")
+    List<TimetableEventRow> timetable(String uid);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void putTimetable(List<TimetableEventRow> rows);
+
+    @Query("DELETE FROM timetable_events WHERE id IN (:ids)")
+    void deleteTimetable(List<String> ids);
+
+    @Query("DELETE FROM timetable_events WHERE uid = :uid")
+    void clearTimetable(String uid);
+
+    // -------- sync marks --------
+
+    @Query("SELECT mark FROM sync_marks WHERE uid = :uid AND collection = :collection AND `key` = :key")
+    Long mark(String uid, String collection, String key);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void putMark(SyncMarkRow row);
+
+    // -------- focus_sessions --------
+
+    @Query("SELECT * FROM focus_sessions WHERE uid = :uid AND completedAt >= :since ORDER BY completedAt")
+    List<FocusSessionRow> focusSessions(String uid, long since);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void putFocusSessions(List<FocusSessionRow> rows);
+
+    @Query("DELETE FROM focus_sessions WHERE id IN (:ids)")
+    void deleteFocusSessions(List<String> ids);
+
+    /** The listener only covers completedAt >= since, so only that range is replaced. */
+    @Query("DELETE FROM focus_sessions WHERE uid = :uid AND completedAt >= :since")
+    void clearFocusSessionsSince(String uid, long since);
+}
@@ -0,0 +1,34 @@
+package com.example.studybuddy.data.local;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+
+/** On-disk copy of the signed-in users' collections. Pure cache: safe to wipe on schema change. */
+@Database(
+        entities = {TaskRow.class, ModuleRow.class, TimetableEventRow.class, FocusSessionRow.class, SyncMarkRow.class},
+        version = 3,
+        exportSchema = false
+)
+public abstract class MirrorDatabase extends RoomDatabase {
+
+    private static volatile MirrorDatabase instance;
+
+    public abstract MirrorDao dao();
+
+    public static MirrorDatabase get(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (MirrorDatabase.class) {
+                if (instance == null) {
+                    instance = Room.databaseBuilder(context.getApplicationContext(), MirrorDatabase.class, "mirror.db")
+                            .fallbackToDestructiveMigration()
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
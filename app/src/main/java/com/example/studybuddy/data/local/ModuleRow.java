@@ -0,0 +1,15 @@
+package com.example.studybuddy.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/** users/{uid}/modules/{id} on disk (see TaskRow). */
+@Entity(tableName = "modules", indices = @Index({"uid", "createdAt"}))
+public class ModuleRow {
+    @PrimaryKey @NonNull public String id = "";
+    @NonNull public String uid = "";
+    public long createdAt;
+    @NonNull public String data = "{}";
+}
@@ -0,0 +1,13 @@
+package com.example.studybuddy.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+
+/** High-water marks of SyncedCollection, e.g. (uid, "modules", "docs") -> server millis. */
+@Entity(tableName = "sync_marks", primaryKeys = {"uid", "collection", "key"})
+public class SyncMarkRow {
+    @NonNull public String uid = "";
+    @NonNull public String collection = "";
+    @NonNull public String key = "";
+    public long mark;
+}
@@ -0,0 +1,18 @@
+package com.example.studybuddy.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/** users/{uid}/tasks/{id} on disk. Only the columns we query by are real columns; the rest is `data`. */
+@Entity(
+        tableName = "tasks",
+        indices = @Index({"uid", "createdAt"}) // tasks(): newest first
+)
+public class TaskRow {
+    @PrimaryKey @NonNull public String id = "";
+    @NonNull public String uid = "";
+    public long createdAt;
+    @NonNull public String data = "{}"; // the Firestore fields as JSON (TaskMapper.toMap)
+}
@@ -0,0 +1,16 @@
+package com.example.studybuddy.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/** users/{uid}/timetable_events/{id} on disk (see TaskRow). */
+@Entity(tableName = "timetable_events", indices = @Index({"uid", "dayOfWeek", "startMin"}))
+public class TimetableEventRow {
+    @PrimaryKey @NonNull public String id = "";
+    @NonNull public String uid = "";
+    public int dayOfWeek;
+    public int startMin;
+    @NonNull public String data = "{}";
+}
@@ -8,15 +8,17 @@ import android.widget.GridLayout;
 import android.widget.ImageView;
 import android.widget.TextView;
 
+import androidx.annotation.NonNull;
+
 import com.example.studybuddy.BaseBottomNavActivity;
+import com.example.studybuddy.FirestoreRepo;
 import com.example.studybuddy.R;
+import com.example.studybuddy.adapter.FocusSession;
+import com.example.studybuddy.data.LiveCollection;
 import com.google.android.material.textfield.TextInputEditText;
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.DocumentSnapshot;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.ListenerRegistration;
 
+import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.TimeUnit;
 
@@ -27,6 +29,9 @@ public class FocusActivity extends BaseBottomNavActivity {
     private TextView tvWeeklyFocusHours;
     private androidx.gridlayout.widget.GridLayout gridGarden;
 
+    private final FirestoreRepo repo = FirestoreRepo.get();
+    private ListenerRegistration focusListener;
+
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -69,41 +74,42 @@ public class FocusActivity extends BaseBottomNavActivity {
     }
 
     private void loadWeeklyFocusGarden() {
-        com.google.firebase.auth.FirebaseUser user =
-                com.google.firebase.auth.FirebaseAuth.getInstance().getCurrentUser();
-        if (user == null) {
+        LiveCollection<FocusSession> live = repo.focusSessions();
+        if (live == null) {
             tvWeeklyFocusHours.setText("0.0 hours");
             renderGarden(0);
             return;
         }
 
-        long now = System.currentTimeMillis();
-        long sevenDaysAgo = now - java.util.concurrent.TimeUnit.DAYS.toMillis(7);
-
-        com.google.firebase.firestore.FirebaseFirestore.getInstance()
-                .collection("users")
-                .document(user.getUid())
-                .collection("focus_sessions")
-                .whereGreaterThanOrEqualTo("completedAt", sevenDaysAgo)
-                .orderBy("completedAt", com.google.firebase.firestore.Query.Direction.ASCENDING)
-                .get()
-                .addOnSuccessListener(snap -> {
-                    long totalMins = 0;
-                    for (com.google.firebase.firestore.DocumentSnapshot doc : snap.getDocuments()) {
-                        Long mins = doc.getLong("studyMins");
-                        if (mins != null) totalMins += mins;
-                    }
-
-                    double hours = totalMins / 60.0;
-                    tvWeeklyFocusHours.setText(String.format(java.util.Locale.getDefault(), "%.1f hours", hours));
-
-                    int flowers = (int) Math.floor(hours);
-                    renderGarden(flowers);
-                })
-                .addOnFailureListener(e -> {
-                    tvWeeklyFocusHours.setText("0.0 hours");
-                    renderGarden(0);
-                });
+        // Shared listener (+ disk copy on cold start), see FirestoreRepo.focusSessions()
+        focusListener = live.observe(new LiveCollection.Observer<FocusSession>() {
+            @Override
+            public void onChanged(@NonNull List<FocusSession> sessions) {
+                long sevenDaysAgo = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(7);
+                long totalMins = 0;
+                for (FocusSession session : sessions) {
+                    if (session.getCompletedAt() >= sevenDaysAgo) totalMins += session.getStudyMins();
+                }
+
+                double hours = totalMins / 60.0;
+                tvWeeklyFocusHours.setText(String.format(Locale.getDefault(), "%.1f hours", hours));
+
+                int flowers = (int) Math.floor(hours);
+                renderGarden(flowers);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                tvWeeklyFocusHours.setText("0.0 hours");
+                renderGarden(0);
+            }
+        });
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (focusListener != null) focusListener.remove();
     }
 
     private void renderGarden(int flowers) {
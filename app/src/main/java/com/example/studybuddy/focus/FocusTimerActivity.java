@@ -7,14 +7,14 @@ import android.widget.TextView;
 
 import com.example.studybuddy.BaseBottomNavActivity;
 import com.example.studybuddy.R;
+import com.example.studybuddy.adapter.FocusSession;
+import com.example.studybuddy.adapter.FocusSessionMapper;
 
 import java.util.Locale;
 
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.FirebaseFirestore;
-import java.util.HashMap;
-import java.util.Map;
 
 public class FocusTimerActivity extends BaseBottomNavActivity {
 
@@ -107,21 +107,14 @@ public class FocusTimerActivity extends BaseBottomNavActivity {
         FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
         if (user == null) return;
 
-        long completedAt = System.currentTimeMillis();
-        int totalStudyMins = studyMins * iterations;
-
-        Map<String, Object> data = new HashMap<>();
-        data.put("completedAt", completedAt);
-        data.put("studyMins", totalStudyMins);
-        data.put("studyMinsPerCycle", studyMins);
-        data.put("breakMinsPerCycle", breakMins);
-        data.put("iterations", iterations);
+        // completedAt = now, studyMins = per cycle * iterations (constructor)
+        FocusSession session = new FocusSession(studyMins, breakMins, iterations);
 
         FirebaseFirestore.getInstance()
                 .collection("users")
                 .document(user.getUid())
                 .collection("focus_sessions")
-                .add(data);
+                .add(FocusSessionMapper.toMap(session));
     }
 
 
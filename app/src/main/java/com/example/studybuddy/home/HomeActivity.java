@@ -14,17 +14,18 @@ import com.android.volley.Request;
 import com.android.volley.RequestQueue;
 import com.android.volley.toolbox.Volley;
 import com.example.studybuddy.BaseBottomNavActivity;
+import com.example.studybuddy.FirestoreRepo;
 import com.example.studybuddy.R;
 import com.example.studybuddy.adapter.TasksAdapter;
 import com.example.studybuddy.adapter.Task;
+import com.example.studybuddy.data.LiveCollection;
 import com.example.studybuddy.focus.FocusActivity;
 import com.example.studybuddy.tasks.TaskDetailActivity;
 import com.example.studybuddy.tasks.TasksActivity;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.ListenerRegistration;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -51,6 +52,9 @@ public class HomeActivity extends BaseBottomNavActivity {
     private View emptyTasksState;
     private TasksAdapter taskAdapter;
     private List<Task> tasks = new ArrayList<>();
+    private static final int UPCOMING_COUNT = 3;
+    private final FirestoreRepo repo = FirestoreRepo.get();
+    private ListenerRegistration tasksListener;
     private TextView tvGreeting, tvSummary, tvQuoteText, tvQuoteAuthor;
 
 
@@ -85,7 +89,7 @@ public class HomeActivity extends BaseBottomNavActivity {
 
     private void setupTasksRecycler() {
         rvTasks.setLayoutManager(new LinearLayoutManager(this));
-        taskAdapter = new TasksAdapter(tasks, task -> {
+        taskAdapter = new TasksAdapter(this, tasks, task -> {
             Intent i = new Intent(HomeActivity.this, TaskDetailActivity.class);
             i.putExtra("TASK_ID", task.getId());
             startActivity(i);
@@ -151,45 +155,22 @@ public class HomeActivity extends BaseBottomNavActivity {
     }
 
     private void loadUpcomingTasks() {
-        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
-        if (user == null) return;
-
-        FirebaseFirestore.getInstance()
-                .collection("users")
-                .document(user.getUid())
-                .collection("tasks")
-                .orderBy("dueAt", Query.Direction.ASCENDING)
-                .limit(20) // grab some then filter
-                .get()
-                .addOnSuccessListener(snap -> {
-
-                    long now = System.currentTimeMillis();
-                    List<Task> upcoming = new ArrayList<>();
-
-                    for (DocumentSnapshot doc : snap.getDocuments()) {
-                        Task t = doc.toObject(Task.class);
-                        if (t == null) continue;
-
-                        t.setId(doc.getId());
+        if (tasksListener != null) return; // already subscribed
+        LiveCollection<Task> live = repo.openTasks();
+        if (live == null) return;
 
-                        long dueMillis = 0;
-
-                        Object raw = doc.get("dueAt");
-                        if (raw instanceof Long) {
-                            dueMillis = (Long) raw;
-                        } else if (raw instanceof com.google.firebase.Timestamp) {
-                            dueMillis = ((com.google.firebase.Timestamp) raw).toDate().getTime();
-                        }
-
-                        if (dueMillis >= now) upcoming.add(t);
-                        if (upcoming.size() == 3) break;
-                    }
-
-                    taskAdapter.setTasks(upcoming);
-                    updateTasksEmptyState(upcoming);
-                    tvSummary.setText("You have " + upcoming.size() + " upcoming tasks");
-                });
+        // Any change to open tasks -> re-read the top of the repo's due-date queue
+        tasksListener = live.observe(items -> renderUpcomingTasks());
+    }
 
+    private void renderUpcomingTasks() {
+        repo.dueRange(System.currentTimeMillis(), Long.MAX_VALUE, UPCOMING_COUNT, upcoming -> {
+            tasks.clear();
+            tasks.addAll(upcoming);
+            taskAdapter.setTasks(tasks);
+            updateTasksEmptyState(tasks);
+            tvSummary.setText("You have " + tasks.size() + " upcoming tasks");
+        });
     }
 
     private void updateTasksEmptyState(List<Task> tasks) {
@@ -241,7 +222,14 @@ public class HomeActivity extends BaseBottomNavActivity {
     @Override
     protected void onResume() {
         super.onResume();
-        loadUpcomingTasks();
+        // "now" moved on; re-pick from the queue (no Firestore read)
+        if (tasksListener != null) renderUpcomingTasks();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (tasksListener != null) tasksListener.remove();
     }
 
 }
\ No newline at end of file
@@ -9,11 +9,16 @@ import android.widget.ArrayAdapter;
 import android.widget.Toast;
 
 import androidx.annotation.Nullable;
+import androidx.appcompat.app.AlertDialog;
 
 import com.example.studybuddy.BaseBottomNavActivity;
+import com.example.studybuddy.FirestoreRepo;
 import com.example.studybuddy.R;
 import com.example.studybuddy.adapter.Module;
+import com.example.studybuddy.adapter.ModuleMapper;
 import com.example.studybuddy.adapter.TimetableEvent;
+import com.example.studybuddy.adapter.TimetableEventMapper;
+import com.example.studybuddy.data.ModuleCascadeDelete;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.*;
@@ -24,7 +29,7 @@ public class ModuleDetailActivity extends BaseBottomNavActivity {
 
     private EditText etTitle, etDescription;
     private Spinner spYear, spSemester, spDayOfWeek;
-    private Button btnPickStart, btnPickEnd, btnSave;
+    private Button btnPickStart, btnPickEnd, btnSave, btnDelete;
 
     private int selectedStartMin = -1;
     private int selectedEndMin = -1;
@@ -60,6 +65,7 @@ public class ModuleDetailActivity extends BaseBottomNavActivity {
         btnPickStart = findViewById(R.id.btnPickStart);
         btnPickEnd = findViewById(R.id.btnPickEnd);
         btnSave = findViewById(R.id.btnSave);
+        btnDelete = findViewById(R.id.btnDelete);
 
         setupSpinners();
 
@@ -75,6 +81,7 @@ public class ModuleDetailActivity extends BaseBottomNavActivity {
         btnPickStart.setOnClickListener(v -> pickTime(true));
         btnPickEnd.setOnClickListener(v -> pickTime(false));
         btnSave.setOnClickListener(v -> saveChanges());
+        btnDelete.setOnClickListener(v -> confirmDelete());
 
         loadModule();
         loadTimetableEventForModule();
@@ -102,7 +109,7 @@ public class ModuleDetailActivity extends BaseBottomNavActivity {
 
     private void loadModule() {
         moduleDoc.get().addOnSuccessListener(doc -> {
-            Module m = doc.toObject(Module.class);
+            Module m = ModuleMapper.fromDocument(doc);
             if (m == null) return;
 
             etTitle.setText(m.getTitle());
@@ -126,7 +133,7 @@ public class ModuleDetailActivity extends BaseBottomNavActivity {
                     DocumentSnapshot doc = snap.getDocuments().get(0);
                     timetableEventId = doc.getId();
 
-                    TimetableEvent e = doc.toObject(TimetableEvent.class);
+                    TimetableEvent e = TimetableEventMapper.fromDocument(doc);
                     if (e == null) return;
 
                     // Day selection
@@ -167,27 +174,62 @@ public class ModuleDetailActivity extends BaseBottomNavActivity {
             return;
         }
 
-        // Update module doc
+        // Module doc
         Map<String, Object> moduleUpdates = new HashMap<>();
         moduleUpdates.put("title", title);
         moduleUpdates.put("description", desc.isEmpty() ? null : desc);
 
-        moduleDoc.update(moduleUpdates)
+        // Timetable event too (if it exists), in the same batch
+        Map<String, Object> eventUpdates = null;
+        if (timetableEventId != null && selectedStartMin >= 0 && selectedEndMin >= 0) {
+            eventUpdates = timetableEventUpdates(title);
+        }
+
+        FirestoreRepo.get().updateModule(moduleId, moduleUpdates, timetableEventId, eventUpdates)
                 .addOnSuccessListener(v -> {
-                    // Update timetable event too (if exists)
-                    if (timetableEventId != null && selectedStartMin >= 0 && selectedEndMin >= 0) {
-                        updateTimetableEvent(title);
-                    } else {
-                        Toast.makeText(this, "Saved.", Toast.LENGTH_SHORT).show();
-                        finish();
-                    }
+                    Toast.makeText(this, "Saved.", Toast.LENGTH_SHORT).show();
+                    finish();
                 })
                 .addOnFailureListener(e ->
                         Toast.makeText(this, "Save failed: " + e.getMessage(), Toast.LENGTH_SHORT).show()
                 );
     }
 
-    private void updateTimetableEvent(String title) {
+    private void confirmDelete() {
+        new AlertDialog.Builder(this)
+                .setTitle("Delete module?")
+                .setMessage("Its timetable slot is removed. Tasks are kept, just without a module.")
+                .setPositiveButton("Delete", (d, w) -> deleteModule())
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void deleteModule() {
+        btnSave.setEnabled(false);
+        btnDelete.setEnabled(false);
+
+        FirestoreRepo.get().deleteModule(moduleId, new ModuleCascadeDelete.Listener() {
+            @Override
+            public void onProgress(int done) {
+                btnDelete.setText("Deleting… (" + done + ")");
+            }
+
+            @Override
+            public void onFinished(@Nullable Exception error) {
+                if (error == null) {
+                    Toast.makeText(ModuleDetailActivity.this, "Module deleted.", Toast.LENGTH_SHORT).show();
+                    finish();
+                    return;
+                }
+                btnSave.setEnabled(true);
+                btnDelete.setEnabled(true);
+                btnDelete.setText("Delete module");
+                Toast.makeText(ModuleDetailActivity.this, "Delete failed: " + error.getMessage(), Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    private Map<String, Object> timetableEventUpdates(String title) {
         int dayOfWeekConst = spinnerIndexToCalendarDay(spDayOfWeek.getSelectedItemPosition());
 
         Map<String, Object> updates = new HashMap<>();
@@ -195,18 +237,7 @@ public class ModuleDetailActivity extends BaseBottomNavActivity {
         updates.put("dayOfWeek", dayOfWeekConst);
         updates.put("startMin", selectedStartMin);
         updates.put("endMin", selectedEndMin);
-
-        db.collection("users").document(user.getUid())
-                .collection("timetable_events")
-                .document(timetableEventId)
-                .update(updates)
-                .addOnSuccessListener(v -> {
-                    Toast.makeText(this, "Saved.", Toast.LENGTH_SHORT).show();
-                    finish();
-                })
-                .addOnFailureListener(e ->
-                        Toast.makeText(this, "Timetable update failed: " + e.getMessage(), Toast.LENGTH_SHORT).show()
-                );
+        return updates;
     }
 
     private String formatTime(int mins) {
@@ -1,6 +1,7 @@
 package com.example.studybuddy.modules;
 
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.View;
@@ -12,29 +13,39 @@ import android.widget.LinearLayout;
 import android.widget.Spinner;
 import android.widget.TextView;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.studybuddy.BaseBottomNavActivity;
+import com.example.studybuddy.FirestoreRepo;
 import com.example.studybuddy.R;
 import com.example.studybuddy.adapter.Module;
 import com.example.studybuddy.adapter.ModulesAdapter;
+import com.example.studybuddy.adapter.ScheduleAdapter;
+import com.example.studybuddy.adapter.Task;
 import com.example.studybuddy.adapter.TimetableEvent;
+import com.example.studybuddy.data.IcsImport;
+import com.example.studybuddy.data.LiveCollection;
+import com.example.studybuddy.tasks.TaskDetailActivity;
+import com.example.studybuddy.util.SimpleItemSelectedListener;
 import com.google.android.material.button.MaterialButtonToggleGroup;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.CollectionReference;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.ListenerRegistration;
-import com.google.firebase.firestore.Query;
+import com.kizitonwose.calendar.view.CalendarView;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import android.app.TimePickerDialog;
 import java.util.Calendar;
@@ -61,6 +72,7 @@ public class ModulesActivity extends BaseBottomNavActivity {
     // Firebase
     private FirebaseAuth auth;
     private FirebaseFirestore db;
+    private final FirestoreRepo repo = FirestoreRepo.get();
     private CollectionReference modulesRef;
     private ListenerRegistration modulesListener;
 
@@ -70,8 +82,28 @@ public class ModulesActivity extends BaseBottomNavActivity {
     private int selectedEndMin = -1;
     private CollectionReference timetableRef;
     private FrameLayout calendarContainer;
-    private LinearLayout layoutSchedule;
+    private RecyclerView rvSchedule;
+    private TextView tvScheduleEmpty;
+    private ScheduleAdapter scheduleAdapter;
+    private ScheduleAdapter.StickyHeaders scheduleHeaders;
     private ListenerRegistration timetableListener;
+    private ListenerRegistration tasksListener;
+    private MaterialButtonToggleGroup toggleCalendarMode;
+    private LinearLayout layoutWeek;
+    private CalendarView monthCalendar;
+    private TimetableCalendar timetableCalendar;
+    private boolean scheduleEmpty = false;
+    private int clashCheck = 0; // bumped per check so a late answer can't overwrite a newer one
+    private boolean showingClash = false;
+    private static final int SCHEDULE_DAYS = 14;
+
+    // .ics import / export (system file picker)
+    private Button btnImportIcs, btnExportIcs;
+    private TextView tvIcsStatus;
+    private final ActivityResultLauncher<String[]> icsImportLauncher =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), this::importIcs);
+    private final ActivityResultLauncher<String> icsExportLauncher =
+            registerForActivityResult(new ActivityResultContracts.CreateDocument("text/calendar"), this::exportIcs);
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
@@ -81,75 +113,74 @@ public class ModulesActivity extends BaseBottomNavActivity {
 
         bindViews();
         setupRecyclerView();
+        setupCalendar();
         setupSpinnersIfEmpty();   // safe helper (won't override if already set)
         setupFirebase();
         setupAddModule();
         setupTimePickers();
+        setupIcs();
+        spDayOfWeek.setOnItemSelectedListener(new SimpleItemSelectedListener(this::checkClashes));
 
         // Load from DB and keep UI in sync
         listenForModules();
         listenForTimetableEvents();
+        listenForDeadlines();
+        listenForRenameFanout();
     }
 
-    private void listenForTimetableEvents() {
-        if (timetableRef == null) return;
-
-        timetableListener = timetableRef
-                .orderBy("dayOfWeek", Query.Direction.ASCENDING)
-                .orderBy("startMin", Query.Direction.ASCENDING)
-                .addSnapshotListener((snap, err) -> {
-                    if (err != null || snap == null) return;
-
-                    layoutSchedule.removeAllViews();
-
-                    for (DocumentSnapshot doc : snap.getDocuments()) {
-                        TimetableEvent e = doc.toObject(TimetableEvent.class);
-                        if (e == null) continue;
-
-                        TextView tv = new TextView(this);
-                        tv.setText(dayName(e.getDayOfWeek()) + " • " +
-                                formatTime(e.getStartMin()) + " - " + formatTime(e.getEndMin()) +
-                                " • " + e.getTitle());
-                        tv.setPadding(8, 8, 8, 8);
-
-                        layoutSchedule.addView(tv);
-                    }
-
-                    if (snap.isEmpty()) {
-                        TextView tv = new TextView(this);
-                        tv.setText("No classes scheduled yet.");
-                        tv.setPadding(8, 8, 8, 8);
-                        layoutSchedule.addView(tv);
-                    }
-                });
+    private void listenForRenameFanout() {
+        // Renames copy the new title onto each task in the background; only failures matter here
+        repo.setModuleRenameListener((moduleId, error) -> {
+            if (error != null) {
+                showError("Couldn't update task module names yet, will retry: " + error.getMessage());
+            }
+        });
     }
 
-    private String dayName(int calendarConst) {
-        switch (calendarConst) {
-            case Calendar.SUNDAY: return "Sunday";
-            case Calendar.MONDAY: return "Monday";
-            case Calendar.TUESDAY: return "Tuesday";
-            case Calendar.WEDNESDAY: return "Wednesday";
-            case Calendar.THURSDAY: return "Thursday";
-            case Calendar.FRIDAY: return "Friday";
-            case Calendar.SATURDAY: return "Saturday";
-            default: return "Day";
-        }
+    private void listenForTimetableEvents() {
+        LiveCollection<TimetableEvent> live = repo.timetable();
+        if (live == null) return;
+
+        timetableListener = live.observe(events -> {
+            // Actual dates for the next two weeks (rrule expanded, reading weeks skipped),
+            // built + diffed off the main thread
+            scheduleAdapter.setEvents(events, LocalDate.now(), SCHEDULE_DAYS, () -> {
+                scheduleHeaders.invalidate();
+                scheduleEmpty = scheduleAdapter.getItemCount() == 0;
+                tvScheduleEmpty.setText(events.isEmpty() ? "No classes scheduled yet." : "No classes in the next two weeks.");
+                showCalendarMode(toggleCalendarMode.getCheckedButtonId());
+            });
+            timetableCalendar.setTimetable(events);
+
+            checkClashes(); // the slot being picked may have just been taken (or freed)
+        });
     }
 
+    private void listenForDeadlines() {
+        // Open tasks' due dates are the red ticks / dots on the week + month views
+        LiveCollection<Task> live = repo.openTasks();
+        if (live == null) return;
+        tasksListener = live.observe(timetableCalendar::setTasks);
+    }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
         if (modulesListener != null) modulesListener.remove();
         if (timetableListener != null) timetableListener.remove();
+        if (tasksListener != null) tasksListener.remove();
+        repo.setModuleRenameListener(null);
     }
 
     private void bindViews() {
         rvModules = findViewById(R.id.rvModules);
         emptyModulesState = findViewById(R.id.emptyModulesState);
 
-        layoutSchedule = findViewById(R.id.layoutSchedule);
+        rvSchedule = findViewById(R.id.rvSchedule);
+        tvScheduleEmpty = findViewById(R.id.tvScheduleEmpty);
+        toggleCalendarMode = findViewById(R.id.toggleCalendarMode);
+        layoutWeek = findViewById(R.id.layoutWeek);
+        monthCalendar = findViewById(R.id.monthCalendar);
 
         etModuleTitle = findViewById(R.id.etModuleTitle);
         etModuleDescription = findViewById(R.id.etModuleDescription);
@@ -164,6 +195,10 @@ public class ModulesActivity extends BaseBottomNavActivity {
         btnPickStartTime = findViewById(R.id.btnPickStartTime);
         btnPickEndTime = findViewById(R.id.btnPickEndTime);
 
+        btnImportIcs = findViewById(R.id.btnImportIcs);
+        btnExportIcs = findViewById(R.id.btnExportIcs);
+        tvIcsStatus = findViewById(R.id.tvIcsStatus);
+
     }
 
     private void setupRecyclerView() {
@@ -174,6 +209,115 @@ public class ModulesActivity extends BaseBottomNavActivity {
         });
         rvModules.setLayoutManager(new LinearLayoutManager(this));
         rvModules.setAdapter(adapter);
+
+        scheduleAdapter = new ScheduleAdapter(event -> openModule(event.getModuleId()));
+        scheduleHeaders = new ScheduleAdapter.StickyHeaders(scheduleAdapter);
+        rvSchedule.setLayoutManager(new LinearLayoutManager(this));
+        rvSchedule.setAdapter(scheduleAdapter);
+        rvSchedule.addItemDecoration(scheduleHeaders);
+    }
+
+    private void setupCalendar() {
+        timetableCalendar = new TimetableCalendar(layoutWeek, monthCalendar, new TimetableCalendar.Listener() {
+            @Override
+            public void onClassClick(@NonNull TimetableEvent event) {
+                openModule(event.getModuleId());
+            }
+
+            @Override
+            public void onTaskClick(@NonNull Task task) {
+                Intent intent = new Intent(ModulesActivity.this, TaskDetailActivity.class);
+                intent.putExtra("TASK_ID", task.getId());
+                startActivity(intent);
+            }
+        });
+        // Tapping a day in the month opens that week
+        timetableCalendar.setOnDayPicked(() -> toggleCalendarMode.check(R.id.btnModeWeek));
+
+        toggleCalendarMode.addOnButtonCheckedListener((group, checkedId, isChecked) -> {
+            if (isChecked) showCalendarMode(checkedId);
+        });
+        showCalendarMode(toggleCalendarMode.getCheckedButtonId());
+    }
+
+    /** List / Week / Month: show that one, hide the others. */
+    private void showCalendarMode(int checkedId) {
+        boolean list = checkedId == R.id.btnModeList;
+        rvSchedule.setVisibility(list && !scheduleEmpty ? View.VISIBLE : View.GONE);
+        tvScheduleEmpty.setVisibility(list && scheduleEmpty ? View.VISIBLE : View.GONE);
+        layoutWeek.setVisibility(checkedId == R.id.btnModeWeek ? View.VISIBLE : View.GONE);
+        monthCalendar.setVisibility(checkedId == R.id.btnModeMonth ? View.VISIBLE : View.GONE);
+    }
+
+    // -------- .ics --------
+
+    private void setupIcs() {
+        btnImportIcs.setOnClickListener(v -> icsImportLauncher.launch(new String[]{"text/calendar", "application/octet-stream"}));
+        btnExportIcs.setOnClickListener(v -> icsExportLauncher.launch("studybuddy.ics"));
+    }
+
+    private void importIcs(@Nullable Uri uri) {
+        if (uri == null) return; // picker cancelled
+        InputStream in;
+        try {
+            in = getContentResolver().openInputStream(uri);
+        } catch (Exception e) {
+            tvIcsStatus.setText("Couldn't open that file: " + e.getMessage());
+            return;
+        }
+        if (in == null) return;
+
+        setIcsBusy(true);
+        tvIcsStatus.setText("Importing…");
+        repo.importIcs(in, new IcsImport.Listener() {
+            @Override
+            public void onProgress(int imported) {
+                tvIcsStatus.setText("Imported " + imported + " classes…");
+            }
+
+            @Override
+            public void onFinished(@NonNull IcsImport.Result result, @Nullable Exception error) {
+                setIcsBusy(false);
+                String msg = "Imported " + result.imported + " classes"
+                        + (result.modulesCreated > 0 ? " (" + result.modulesCreated + " new modules)" : "")
+                        + (result.skipped > 0 ? ", skipped " + result.skipped : "");
+                if (error != null) msg += ". Stopped early: " + error.getMessage();
+                else if (!result.problems.isEmpty()) msg += " (e.g. " + result.problems.get(0) + ")";
+                tvIcsStatus.setText(msg);
+            }
+        });
+    }
+
+    private void exportIcs(@Nullable Uri uri) {
+        if (uri == null) return;
+        OutputStream out;
+        try {
+            out = getContentResolver().openOutputStream(uri);
+        } catch (Exception e) {
+            tvIcsStatus.setText("Couldn't create that file: " + e.getMessage());
+            return;
+        }
+        if (out == null) return;
+
+        setIcsBusy(true);
+        tvIcsStatus.setText("Exporting…");
+        repo.exportIcs(out, (count, error) -> {
+            setIcsBusy(false);
+            tvIcsStatus.setText(error == null ? "Exported " + count + " events."
+                    : "Export failed: " + error.getMessage());
+        });
+    }
+
+    private void setIcsBusy(boolean busy) {
+        btnImportIcs.setEnabled(!busy);
+        btnExportIcs.setEnabled(!busy);
+    }
+
+    private void openModule(@Nullable String moduleId) {
+        if (moduleId == null) return;
+        Intent intent = new Intent(this, ModuleDetailActivity.class);
+        intent.putExtra("MODULE_ID", moduleId);
+        startActivity(intent);
     }
 
     private void setupSpinnersIfEmpty() {
@@ -221,36 +365,27 @@ public class ModulesActivity extends BaseBottomNavActivity {
     }
 
     private void listenForModules() {
-        if (modulesRef == null) {
+        LiveCollection<Module> live = repo.modules();
+        if (live == null) {
             updateModulesUI();
             return;
         }
 
-        // Live updates whenever modules change
-        modulesListener = modulesRef
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .addSnapshotListener((snap, err) -> {
-                    if (err != null) {
-                        showError("Failed to load modules: " + err.getMessage());
-                        return;
-                    }
-                    if (snap == null) {
-                        updateModulesUI();
-                        return;
-                    }
-
-                    modules.clear();
+        // Live updates whenever modules change (listener is shared via FirestoreRepo)
+        modulesListener = live.observe(new LiveCollection.Observer<Module>() {
+            @Override
+            public void onChanged(@NonNull List<Module> items) {
+                modules.clear();
+                modules.addAll(items);
+                adapter.submitList(items); // diffed off the main thread
+                updateModulesUI();
+            }
 
-                    for (DocumentSnapshot doc : snap.getDocuments()) {
-                        Module m = doc.toObject(Module.class);
-                        if (m != null) {
-                            m.setId(doc.getId());
-                            modules.add(m);
-                        }
-                    }
-                    adapter.notifyDataSetChanged();
-                    updateModulesUI();
-                });
+            @Override
+            public void onError(@NonNull Exception e) {
+                showError("Failed to load modules: " + e.getMessage());
+            }
+        });
     }
 
     private void setupAddModule() {
@@ -285,50 +420,63 @@ public class ModulesActivity extends BaseBottomNavActivity {
 
             // Convert day string -> Calendar day-of-week int
             int dayOfWeek = mapDayToCalendarConstant(safeSpinnerValue(spDayOfWeek));
+            int startMin = selectedStartMin;
+            int endMin = selectedEndMin;
 
             btnAddModule.setEnabled(false);
 
-            // 1) Save module
-            Map<String, Object> moduleData = new HashMap<>();
-            moduleData.put("title", title);
-            moduleData.put("description", description);
-            moduleData.put("year", year);
-            moduleData.put("semester", semester);
-            moduleData.put("createdAt", System.currentTimeMillis());
-
-            modulesRef.add(moduleData)
-                    .addOnSuccessListener(moduleDoc -> {
-                        String moduleId = moduleDoc.getId();
-
-                        // 2) Save timetable recurring event
-                        TimetableEvent event = new TimetableEvent(
-                                moduleId,
-                                title,
-                                dayOfWeek,
-                                selectedStartMin,
-                                selectedEndMin
-                        );
-
-                        timetableRef.add(event)
-                                .addOnSuccessListener(eventDoc -> {
-                                    btnAddModule.setEnabled(true);
-                                    clearForm();
-                                    resetTimeButtons();
-                                    // listeners refresh UI automatically
-                                })
-                                .addOnFailureListener(e -> {
-                                    btnAddModule.setEnabled(true);
-                                    showValidation("Saved module, but failed to create timetable event: " + e.getMessage());
-                                });
-
-                    })
-                    .addOnFailureListener(e -> {
-                        btnAddModule.setEnabled(true);
-                        showValidation("Failed to save module: " + e.getMessage());
-                    });
+            // Check against the timetable one last time (it may have changed since the pick)
+            repo.timetableClashes(dayOfWeek, startMin, endMin, null, clashes -> {
+                if (!clashes.isEmpty()) {
+                    btnAddModule.setEnabled(true);
+                    showValidation(clashMessage(clashes));
+                    return;
+                }
+
+                // Module + its weekly timetable event, one atomic batch (see FirestoreRepo)
+                Module module = new Module(title, description, year, semester, safeSpinnerValue(spDayOfWeek));
+
+                repo.createModule(module, dayOfWeek, startMin, endMin)
+                        .addOnSuccessListener(v2 -> {
+                            btnAddModule.setEnabled(true);
+                            clearForm();
+                            resetTimeButtons();
+                            // listeners refresh UI automatically
+                        })
+                        .addOnFailureListener(e -> {
+                            btnAddModule.setEnabled(true);
+                            showValidation("Failed to save module: " + e.getMessage());
+                        });
+            });
         });
     }
 
+    /** Warn as soon as the picked day + times overlap an existing class. */
+    private void checkClashes() {
+        int check = ++clashCheck;
+        if (selectedStartMin < 0 || selectedEndMin <= selectedStartMin) return;
+
+        int dayOfWeek = mapDayToCalendarConstant(safeSpinnerValue(spDayOfWeek));
+        repo.timetableClashes(dayOfWeek, selectedStartMin, selectedEndMin, null, clashes -> {
+            if (check != clashCheck) return;
+            if (!clashes.isEmpty()) {
+                showValidation(clashMessage(clashes));
+                showingClash = true;
+            } else if (showingClash) {
+                hideValidation(); // only our own warning, not e.g. "title is required"
+                showingClash = false;
+            }
+        });
+    }
+
+    private String clashMessage(List<TimetableEvent> clashes) {
+        TimetableEvent first = clashes.get(0);
+        String msg = "Clashes with " + first.getTitle() + " (" +
+                formatTime(first.getStartMin()) + " - " + formatTime(first.getEndMin()) + ")";
+        if (clashes.size() > 1) msg += " and " + (clashes.size() - 1) + " more";
+        return msg;
+    }
+
     private void resetTimeButtons() {
         selectedStartMin = -1;
         selectedEndMin = -1;
@@ -410,6 +558,7 @@ public class ModulesActivity extends BaseBottomNavActivity {
                         selectedEndMin = mins;
                         btnPickEndTime.setText(formatTime(mins));
                     }
+                    checkClashes();
                 },
                 hour,
                 minute,
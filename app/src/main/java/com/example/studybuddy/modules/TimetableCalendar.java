@@ -0,0 +1,237 @@
+package com.example.studybuddy.modules;
+
+import android.view.View;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import com.example.studybuddy.R;
+import com.example.studybuddy.adapter.Task;
+import com.example.studybuddy.adapter.TimetableEvent;
+import com.example.studybuddy.data.WeekLayouts;
+import com.example.studybuddy.util.AppExecutors;
+import com.kizitonwose.calendar.core.CalendarDay;
+import com.kizitonwose.calendar.core.CalendarMonth;
+import com.kizitonwose.calendar.core.DayPosition;
+import com.kizitonwose.calendar.view.CalendarView;
+import com.kizitonwose.calendar.view.MonthDayBinder;
+import com.kizitonwose.calendar.view.MonthHeaderFooterBinder;
+import com.kizitonwose.calendar.view.ViewContainer;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import kotlin.Unit;
+
+/**
+ * Week + month views of the timetable for the Modules screen.
+ *
+ * Both read from one WeekLayouts (classes placed in columns, deadlines per day). It's
+ * rebuilt on AppExecutors.io() whenever the timetable or open tasks change, with the
+ * weeks around what's on screen computed up front; after that every week is cached, so
+ * paging weeks or scrolling months only draws. Main thread only.
+ */
+class TimetableCalendar {
+
+    interface Listener {
+        void onClassClick(@NonNull TimetableEvent event);
+        void onTaskClick(@NonNull Task task);
+    }
+
+    private static final int MONTHS_EACH_WAY = 12;
+
+    private final WeekTimetableView weekView;
+    private final TextView tvWeekRange;
+    private final CalendarView monthView;
+    private final DayOfWeek firstDay = WeekFields.of(Locale.getDefault()).getFirstDayOfWeek();
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final DateTimeFormatter rangeFormat = DateTimeFormatter.ofPattern("d MMM", Locale.getDefault());
+    private final DateTimeFormatter monthFormat = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.getDefault());
+
+    private List<TimetableEvent> events = Collections.emptyList();
+    private List<Task> tasks = Collections.emptyList();
+    @Nullable private WeekLayouts layouts;   // null until the first build lands
+    private int generation = 0;              // bumped per rebuild so a stale one is dropped
+    private LocalDate weekShown = LocalDate.now();
+    private YearMonth monthShown = YearMonth.now();
+    @Nullable private Runnable onDayPicked;  // the screen flips its toggle to Week
+
+    TimetableCalendar(@NonNull View weekPane, @NonNull CalendarView monthView, @NonNull Listener listener) {
+        this.weekView = weekPane.findViewById(R.id.weekTimetable);
+        this.tvWeekRange = weekPane.findViewById(R.id.tvWeekRange);
+        this.monthView = monthView;
+
+        weekView.setListener(new WeekTimetableView.Listener() {
+            @Override
+            public void onClassClick(@NonNull TimetableEvent event) {
+                listener.onClassClick(event);
+            }
+
+            @Override
+            public void onTaskClick(@NonNull Task task) {
+                listener.onTaskClick(task);
+            }
+
+            @Override
+            public void onSwipe(int weeks) {
+                showWeek(weekShown.plusWeeks(weeks));
+            }
+        });
+        weekPane.findViewById(R.id.btnPrevWeek).setOnClickListener(v -> showWeek(weekShown.minusWeeks(1)));
+        weekPane.findViewById(R.id.btnNextWeek).setOnClickListener(v -> showWeek(weekShown.plusWeeks(1)));
+
+        setupMonthView();
+        showWeek(weekShown);
+    }
+
+    void setOnDayPicked(@Nullable Runnable r) {
+        onDayPicked = r;
+    }
+
+    void setTimetable(@NonNull List<TimetableEvent> events) {
+        this.events = new ArrayList<>(events);
+        rebuild();
+    }
+
+    void setTasks(@NonNull List<Task> tasks) {
+        this.tasks = new ArrayList<>(tasks);
+        rebuild();
+    }
+
+    /** Jump the week view to the week containing `day`. */
+    void showWeek(@NonNull LocalDate day) {
+        weekShown = day;
+        LocalDate start = day.minusDays(Math.floorMod(day.getDayOfWeek().getValue() - firstDay.getValue(), 7));
+        tvWeekRange.setText(rangeFormat.format(start) + " - " + rangeFormat.format(start.plusDays(6)));
+        weekView.setWeek(layouts == null ? null : layouts.week(day), zone);
+    }
+
+    // -------- Layout cache --------
+
+    private void rebuild() {
+        int gen = ++generation;
+        List<TimetableEvent> eventSnapshot = events;
+        List<Task> taskSnapshot = tasks;
+        // Prefetch the month on screen (+ a month either side) and the week on screen
+        LocalDate from = monthShown.minusMonths(1).atDay(1);
+        LocalDate to = monthShown.plusMonths(1).atEndOfMonth();
+        LocalDate week = weekShown;
+
+        AppExecutors.io().execute(() -> {
+            WeekLayouts built = new WeekLayouts(eventSnapshot, taskSnapshot, firstDay, zone);
+            built.prefetch(from, to);
+            built.prefetch(week, week);
+            AppExecutors.main().execute(() -> {
+                if (gen != generation) return;
+                layouts = built;
+                showWeek(weekShown);
+                monthView.notifyCalendarChanged();
+            });
+        });
+    }
+
+    // -------- Month --------
+
+    private void setupMonthView() {
+        monthView.setDayBinder(new MonthDayBinder<DayCell>() {
+            @NonNull
+            @Override
+            public DayCell create(@NonNull View view) {
+                return new DayCell(view);
+            }
+
+            @Override
+            public void bind(@NonNull DayCell cell, @NonNull CalendarDay day) {
+                cell.bind(day);
+            }
+        });
+        monthView.setMonthHeaderBinder(new MonthHeaderFooterBinder<MonthHeader>() {
+            @NonNull
+            @Override
+            public MonthHeader create(@NonNull View view) {
+                return new MonthHeader(view);
+            }
+
+            @Override
+            public void bind(@NonNull MonthHeader header, @NonNull CalendarMonth month) {
+                header.tvMonthTitle.setText(monthFormat.format(month.getYearMonth()));
+            }
+        });
+        monthView.setMonthScrollListener(month -> {
+            monthShown = month.getYearMonth();
+            return Unit.INSTANCE;
+        });
+
+        YearMonth now = YearMonth.now();
+        monthView.setup(now.minusMonths(MONTHS_EACH_WAY), now.plusMonths(MONTHS_EACH_WAY), firstDay);
+        monthView.scrollToMonth(now);
+    }
+
+    private class DayCell extends ViewContainer {
+        final TextView tvDay, tvDayClasses, tvDayDue;
+        LocalDate date;
+
+        DayCell(@NonNull View view) {
+            super(view);
+            tvDay = view.findViewById(R.id.tvCalendarDay);
+            tvDayClasses = view.findViewById(R.id.tvCalendarDayClasses);
+            tvDayDue = view.findViewById(R.id.tvCalendarDayDue);
+            // Tapping a day opens its week
+            view.setOnClickListener(v -> {
+                if (date == null) return;
+                showWeek(date);
+                if (onDayPicked != null) onDayPicked.run();
+            });
+        }
+
+        void bind(CalendarDay day) {
+            date = day.getDate();
+            boolean inMonth = day.getPosition() == DayPosition.MonthDate;
+            tvDay.setText(String.valueOf(date.getDayOfMonth()));
+            tvDay.setTextColor(ContextCompat.getColor(getView().getContext(),
+                    !inMonth ? R.color.text_muted
+                            : date.equals(LocalDate.now(zone)) ? R.color.primary_blue : R.color.text_primary));
+
+            int classes = 0, due = 0;
+            if (layouts != null && inMonth) {
+                WeekLayouts.Week week = layouts.week(date); // cache hit after the first bind of the week
+                int i = (int) (date.toEpochDay() - week.start.toEpochDay());
+                classes = week.classCount[i];
+                due = week.due.get(i).size();
+            }
+            tvDayClasses.setText(dots(classes));
+            tvDayDue.setText(dots(due));
+        }
+    }
+
+    private static final String[] DOTS = {"", "•", "••", "•••"};
+
+    private static String dots(int n) {
+        return DOTS[Math.min(n, DOTS.length - 1)];
+    }
+
+    private class MonthHeader extends ViewContainer {
+        final TextView tvMonthTitle;
+
+        MonthHeader(@NonNull View view) {
+            super(view);
+            tvMonthTitle = view.findViewById(R.id.tvCalendarMonth);
+            LinearLayout days = view.findViewById(R.id.layoutWeekdays);
+            for (int i = 0; i < days.getChildCount(); i++) {
+                ((TextView) days.getChildAt(i)).setText(firstDay.plus(i).getDisplayName(TextStyle.NARROW, Locale.getDefault()));
+            }
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.studybuddy.modules;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import com.example.studybuddy.R;
+import com.example.studybuddy.adapter.Task;
+import com.example.studybuddy.adapter.TimetableEvent;
+import com.example.studybuddy.data.WeekLayouts;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Seven day columns of classes (blocks) and task deadlines (red ticks), drawn straight
+ * onto the canvas. Everything positional comes precomputed in a WeekLayouts.Week, so
+ * onDraw only scales minutes to pixels; labels are formatted once per setWeek().
+ *
+ * Tap a block -> onClassClick, tap near a tick -> onTaskClick, fling sideways -> onSwipe.
+ */
+public class WeekTimetableView extends View {
+
+    public interface Listener {
+        void onClassClick(@NonNull TimetableEvent event);
+        void onTaskClick(@NonNull Task task);
+        void onSwipe(int weeks); // -1 = previous week, +1 = next
+    }
+
+    private static final int DEFAULT_FROM_MIN = 8 * 60;
+    private static final int DEFAULT_TO_MIN = 18 * 60;
+    private static final String[] HOURS = new String[25];
+    static {
+        for (int h = 0; h <= 24; h++) HOURS[h] = (h < 10 ? "0" : "") + h;
+    }
+
+    private final Paint gridPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint labelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint todayPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint blockPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint blockEdgePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint blockTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint duePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF rect = new RectF();
+    private final Path tick = new Path();
+    private final GestureDetector gestures;
+    private final float density;
+
+    @Nullable private WeekLayouts.Week week;
+    @Nullable private Listener listener;
+    private final String[] dayLabels = new String[7];
+    private String[] titles = new String[0];
+    private int[] dueMins = new int[0];     // flattened week.due, minutes into the day
+    private int todayIndex = -1;
+    private int fromMin = DEFAULT_FROM_MIN, toMin = DEFAULT_TO_MIN;
+
+    // Geometry, refreshed in onSizeChanged
+    private float gutter, header, dayWidth, minuteHeight;
+
+    public WeekTimetableView(Context context) {
+        this(context, null);
+    }
+
+    public WeekTimetableView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        density = getResources().getDisplayMetrics().density;
+        float sp = getResources().getDisplayMetrics().scaledDensity;
+
+        gridPaint.setColor(ContextCompat.getColor(context, R.color.divider_grey));
+        gridPaint.setStrokeWidth(density);
+        labelPaint.setColor(ContextCompat.getColor(context, R.color.text_secondary));
+        labelPaint.setTextSize(11 * sp);
+        todayPaint.setColor(ContextCompat.getColor(context, R.color.primary_blue));
+        todayPaint.setTextSize(11 * sp);
+        todayPaint.setFakeBoldText(true);
+        blockPaint.setColor(ContextCompat.getColor(context, R.color.primary_blue_light));
+        blockEdgePaint.setColor(ContextCompat.getColor(context, R.color.primary_blue));
+        blockTextPaint.setColor(ContextCompat.getColor(context, R.color.text_primary));
+        blockTextPaint.setTextSize(10 * sp);
+        duePaint.setColor(ContextCompat.getColor(context, R.color.error_red));
+        duePaint.setStrokeWidth(2 * density);
+
+        gestures = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(@NonNull MotionEvent e) {
+                return true;
+            }
+
+            @Override
+            public boolean onSingleTapUp(@NonNull MotionEvent e) {
+                return onTap(e.getX(), e.getY());
+            }
+
+            @Override
+            public boolean onFling(@Nullable MotionEvent e1, @NonNull MotionEvent e2, float vx, float vy) {
+                if (listener == null || Math.abs(vx) < 2 * Math.abs(vy)) return false;
+                listener.onSwipe(vx < 0 ? 1 : -1);
+                return true;
+            }
+        });
+    }
+
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    /** Show `week` (null = blank grid while the first layout is being built). */
+    public void setWeek(@Nullable WeekLayouts.Week week, @NonNull ZoneId zone) {
+        this.week = week;
+        todayIndex = -1;
+        if (week == null) {
+            titles = new String[0];
+            dueMins = new int[0];
+            invalidate();
+            return;
+        }
+
+        DateTimeFormatter fmt = DateTimeFormatter.ofPattern("EEE d", Locale.getDefault());
+        LocalDate today = LocalDate.now(zone);
+        for (int i = 0; i < 7; i++) {
+            LocalDate d = week.start.plusDays(i);
+            dayLabels[i] = fmt.format(d);
+            if (d.equals(today)) todayIndex = i;
+        }
+
+        List<WeekLayouts.Block> blocks = week.blocks;
+        titles = new String[blocks.size()];
+        for (int i = 0; i < titles.length; i++) {
+            String t = blocks.get(i).event.getTitle();
+            titles[i] = t == null || t.trim().isEmpty() ? "Class" : t.trim();
+        }
+
+        int dueCount = 0;
+        for (List<Task> day : week.due) dueCount += day.size();
+        dueMins = new int[dueCount];
+        int k = 0;
+        for (List<Task> day : week.due) {
+            for (Task t : day) {
+                ZonedDateTime at = Instant.ofEpochMilli(t.getDueAt()).atZone(zone);
+                dueMins[k++] = at.getHour() * 60 + at.getMinute();
+            }
+        }
+
+        // Fit the visible hours to this week (whole hours, at least 08:00 - 18:00)
+        int lo = DEFAULT_FROM_MIN, hi = DEFAULT_TO_MIN;
+        if (week.latestMin >= 0) {
+            lo = Math.min(lo, week.earliestMin);
+            hi = Math.max(hi, week.latestMin);
+        }
+        for (int m : dueMins) {
+            lo = Math.min(lo, m);
+            hi = Math.max(hi, m + 1);
+        }
+        fromMin = lo / 60 * 60;
+        toMin = Math.min(24 * 60, (hi + 59) / 60 * 60);
+
+        updateGeometry();
+        invalidate();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        updateGeometry();
+    }
+
+    private void updateGeometry() {
+        gutter = labelPaint.measureText("00") + 6 * density;
+        header = labelPaint.getTextSize() + 8 * density;
+        dayWidth = (getWidth() - getPaddingLeft() - getPaddingRight() - gutter) / 7f;
+        minuteHeight = (getHeight() - getPaddingTop() - getPaddingBottom() - header) / (float) (toMin - fromMin);
+    }
+
+    private float x(int day) {
+        return getPaddingLeft() + gutter + day * dayWidth;
+    }
+
+    private float y(int minute) {
+        int m = Math.max(fromMin, Math.min(toMin, minute));
+        return getPaddingTop() + header + (m - fromMin) * minuteHeight;
+    }
+
+    // -------- Drawing --------
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+        if (dayWidth <= 0 || minuteHeight <= 0) return;
+        float top = y(fromMin), bottom = y(toMin);
+        float labelBase = getPaddingTop() + labelPaint.getTextSize();
+
+        // Hour lines + labels
+        for (int m = fromMin; m <= toMin; m += 60) {
+            float yy = y(m);
+            canvas.drawLine(x(0), yy, x(7), yy, gridPaint);
+            if (m < toMin) canvas.drawText(HOURS[m / 60], getPaddingLeft(), yy + labelPaint.getTextSize(), labelPaint);
+        }
+
+        // Day columns + headers
+        for (int d = 0; d <= 7; d++) canvas.drawLine(x(d), top, x(d), bottom, gridPaint);
+        if (week != null) {
+            for (int d = 0; d < 7; d++) {
+                Paint p = d == todayIndex ? todayPaint : labelPaint;
+                canvas.drawText(dayLabels[d], x(d) + 2 * density, labelBase, p);
+            }
+        }
+        if (week == null) return;
+
+        // Classes, side by side where they overlap
+        List<WeekLayouts.Block> blocks = week.blocks;
+        float pad = density;
+        for (int i = 0; i < blocks.size(); i++) {
+            WeekLayouts.Block b = blocks.get(i);
+            blockRect(b, rect);
+            rect.inset(pad, pad);
+            canvas.drawRoundRect(rect, 3 * density, 3 * density, blockPaint);
+            canvas.drawRect(rect.left, rect.top, rect.left + 2 * density, rect.bottom, blockEdgePaint);
+
+            float textTop = rect.top + blockTextPaint.getTextSize();
+            if (textTop > rect.bottom) continue;
+            float textLeft = rect.left + 4 * density;
+            String title = titles[i];
+            int chars = blockTextPaint.breakText(title, true, rect.right - textLeft, null);
+            canvas.drawText(title, 0, chars, textLeft, textTop, blockTextPaint);
+        }
+
+        // Deadlines: a red tick across the day at the due time
+        int k = 0;
+        float arrow = 4 * density;
+        for (int d = 0; d < 7; d++) {
+            for (int n = week.due.get(d).size(); n > 0; n--) {
+                float yy = y(dueMins[k++]);
+                canvas.drawLine(x(d), yy, x(d + 1), yy, duePaint);
+                tick.rewind();
+                tick.moveTo(x(d + 1), yy - arrow);
+                tick.lineTo(x(d + 1) - arrow, yy);
+                tick.lineTo(x(d + 1), yy + arrow);
+                tick.close();
+                canvas.drawPath(tick, duePaint);
+            }
+        }
+    }
+
+    private void blockRect(WeekLayouts.Block b, RectF out) {
+        float w = dayWidth / b.columns;
+        float left = x(b.day) + b.column * w;
+        out.set(left, y(b.startMin), left + w, y(b.endMin));
+    }
+
+    // -------- Touch --------
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        return gestures.onTouchEvent(event) || super.onTouchEvent(event);
+    }
+
+    private boolean onTap(float tx, float ty) {
+        if (week == null || listener == null || dayWidth <= 0) return false;
+        int day = (int) ((tx - x(0)) / dayWidth);
+        if (tx < x(0) || day > 6) return false;
+
+        // Deadlines first: they're drawn on top and are thin
+        float slop = 8 * density;
+        int k = 0;
+        for (int d = 0; d < day; d++) k += week.due.get(d).size();
+        for (Task t : week.due.get(day)) {
+            if (Math.abs(y(dueMins[k++]) - ty) <= slop) {
+                listener.onTaskClick(t);
+                return true;
+            }
+        }
+
+        for (WeekLayouts.Block b : week.blocks) {
+            if (b.day != day) continue;
+            blockRect(b, rect);
+            if (rect.contains(tx, ty)) {
+                listener.onClassClick(b.event);
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.studybuddy.profile;
 
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 import android.text.TextUtils;
 import android.util.Log;
@@ -9,25 +10,43 @@ import android.widget.EditText;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.Nullable;
+import androidx.appcompat.app.AlertDialog;
 
 import com.example.studybuddy.BaseBottomNavActivity;
 import com.example.studybuddy.LoginActivity;
 import com.example.studybuddy.R;
 import com.example.studybuddy.FirestoreRepo;
+import com.example.studybuddy.data.AccountBackup;
+import com.example.studybuddy.data.AccountRestore;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
 public class ProfileActivity extends BaseBottomNavActivity {
 
     private TextView emailValue, uidValue, dobInput;
     private EditText nameInput;
     private Button saveProfileBtn, signOutBtn;
+    private Button backupBtn, restoreBtn;
+    private TextView backupStatus;
 
-    private final FirestoreRepo repo = new FirestoreRepo();
+    private final FirestoreRepo repo = FirestoreRepo.get();
 
     private String currentDobFromDb = null;
 
+    private final ActivityResultLauncher<String> backupLauncher =
+            registerForActivityResult(new ActivityResultContracts.CreateDocument("application/zip"), this::backupTo);
+    private final ActivityResultLauncher<String[]> restoreLauncher =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), this::confirmRestore);
+
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -40,6 +59,9 @@ public class ProfileActivity extends BaseBottomNavActivity {
         dobInput   = findViewById(R.id.dobInput);
         saveProfileBtn = findViewById(R.id.saveProfileBtn);
         signOutBtn     = findViewById(R.id.signOutBtn);
+        backupBtn      = findViewById(R.id.backupBtn);
+        restoreBtn     = findViewById(R.id.restoreBtn);
+        backupStatus   = findViewById(R.id.backupStatus);
 
         // Extra safety: enforce DOB read-only even if XML changes later
         dobInput.setEnabled(false);
@@ -117,7 +139,12 @@ public class ProfileActivity extends BaseBottomNavActivity {
 
         });
 
+        backupBtn.setOnClickListener(v -> backupLauncher.launch(
+                "studybuddy-backup-" + new SimpleDateFormat("yyyy-MM-dd", Locale.US).format(new Date()) + ".zip"));
+        restoreBtn.setOnClickListener(v -> restoreLauncher.launch(new String[]{"application/zip", "application/octet-stream"}));
+
         signOutBtn.setOnClickListener(v -> {
+            repo.flushWrites(); // edits still in the window go out under this user
             FirebaseAuth.getInstance().signOut();
             Intent i = new Intent(this, LoginActivity.class);
             i.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
@@ -126,5 +153,76 @@ public class ProfileActivity extends BaseBottomNavActivity {
         });
     }
 
+    // -------- Backup / restore --------
+
+    private void backupTo(@Nullable Uri uri) {
+        if (uri == null) return; // picker cancelled
+        OutputStream out;
+        try {
+            out = getContentResolver().openOutputStream(uri);
+        } catch (Exception e) {
+            backupStatus.setText("Couldn't create that file: " + e.getMessage());
+            return;
+        }
+        if (out == null) return;
+
+        setBackupBusy(true);
+        backupStatus.setText("Backing up…");
+        repo.backupAccount(out, new AccountBackup.Listener() {
+            @Override
+            public void onProgress(int docs) {
+                backupStatus.setText("Backing up… " + docs + " items");
+            }
+
+            @Override
+            public void onFinished(int docs, @Nullable Exception error) {
+                setBackupBusy(false);
+                // A half-written zip isn't a usable backup, so say so plainly
+                backupStatus.setText(error == null ? "Backed up " + docs + " items."
+                        : "Backup failed (the file is incomplete): " + error.getMessage());
+            }
+        });
+    }
+
+    private void confirmRestore(@Nullable Uri uri) {
+        if (uri == null) return;
+        new AlertDialog.Builder(this)
+                .setTitle("Restore from backup?")
+                .setMessage("Everything in the backup is added back. Items that are in both are replaced by the backup's version; items added since are kept.")
+                .setPositiveButton("Restore", (d, w) -> restoreFrom(uri))
+                .setNegativeButton("Cancel", null)
+                .show();
+    }
+
+    private void restoreFrom(Uri uri) {
+        InputStream in;
+        try {
+            in = getContentResolver().openInputStream(uri);
+        } catch (Exception e) {
+            backupStatus.setText("Couldn't open that file: " + e.getMessage());
+            return;
+        }
+        if (in == null) return;
+
+        setBackupBusy(true);
+        backupStatus.setText("Restoring…");
+        repo.restoreAccount(in, new AccountRestore.Listener() {
+            @Override
+            public void onProgress(int docs) {
+                backupStatus.setText("Restoring… " + docs + " items");
+            }
 
-}
\ No newline at end of file
+            @Override
+            public void onFinished(int docs, @Nullable Exception error) {
+                setBackupBusy(false);
+                backupStatus.setText(error == null ? "Restored " + docs + " items."
+                        : "Restore stopped after " + docs + " items: " + error.getMessage());
+            }
+        });
+    }
+
+    private void setBackupBusy(boolean busy) {
+        backupBtn.setEnabled(!busy);
+        restoreBtn.setEnabled(!busy);
+    }
+}
@@ -10,19 +10,24 @@ import android.widget.Spinner;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.example.studybuddy.FirestoreRepo;
 import com.example.studybuddy.R;
+import com.example.studybuddy.adapter.FocusSession;
 import com.example.studybuddy.adapter.Module;
 import com.example.studybuddy.adapter.Task;
+import com.example.studybuddy.adapter.TaskMapper;
+import com.example.studybuddy.adapter.TimetableEvent;
+import com.example.studybuddy.data.FreeSlots;
+import com.example.studybuddy.data.LiveCollection;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.CollectionReference;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.ListenerRegistration;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -39,12 +44,14 @@ public class TaskDetailActivity extends AppCompatActivity {
     private EditText etTitle, etDescription;
     private Spinner spModule, spPriority, spTaskType;
     private Button btnPickDueDate, btnSave, btnDelete;
-    private TextView tvError;
+    private TextView tvError, tvFreeSlots;
 
     private FirebaseFirestore db;
     private FirebaseAuth auth;
     private DocumentReference taskDoc;
-    private CollectionReference modulesRef;
+    private final FirestoreRepo repo = FirestoreRepo.get();
+    private ListenerRegistration modulesListener;
+    private ListenerRegistration timetableListener, focusListener;
 
     private final List<Module> modules = new ArrayList<>();
     private final List<String> moduleTitles = new ArrayList<>();
@@ -52,9 +59,14 @@ public class TaskDetailActivity extends AppCompatActivity {
 
     private String taskId;
     private Task currentTask;
+    private boolean taskRequested = false;
 
     private Long selectedDueAt = null;
 
+    // "Free study time" hint under the due date
+    private static final int STUDY_BLOCK_MINS = 90;
+    private static final int STUDY_BLOCKS_SHOWN = 3;
+
     private static final List<String> PRIORITIES = Arrays.asList("None", "High", "Medium", "Low");
     private static final List<String> TASK_TYPES = Arrays.asList(
             "Select type...", "Task", "Assignment", "Exam", "Demo", "Presentation"
@@ -85,7 +97,6 @@ public class TaskDetailActivity extends AppCompatActivity {
         }
 
         taskDoc = db.collection("users").document(user.getUid()).collection("tasks").document(taskId);
-        modulesRef = db.collection("users").document(user.getUid()).collection("modules");
 
         setupPrioritySpinner();
         setupTaskTypeSpinner();
@@ -94,6 +105,7 @@ public class TaskDetailActivity extends AppCompatActivity {
         setupButtons();
 
         loadModulesThenTask();
+        listenForBusyTime();
     }
 
     private void bindViews() {
@@ -106,6 +118,7 @@ public class TaskDetailActivity extends AppCompatActivity {
         btnSave = findViewById(R.id.btnSave);
         btnDelete = findViewById(R.id.btnDelete);
         tvError = findViewById(R.id.tvError);
+        tvFreeSlots = findViewById(R.id.tvFreeSlots);
     }
 
     private void setupPrioritySpinner() {
@@ -158,6 +171,7 @@ public class TaskDetailActivity extends AppCompatActivity {
 
                     selectedDueAt = picked.getTimeInMillis();
                     btnPickDueDate.setText("Due: " + formatDueFull(selectedDueAt));
+                    refreshFreeSlots();
                 },
                 c.get(Calendar.YEAR),
                 c.get(Calendar.MONTH),
@@ -173,41 +187,60 @@ public class TaskDetailActivity extends AppCompatActivity {
     }
 
     private void loadModulesThenTask() {
-        modulesRef.orderBy("createdAt", Query.Direction.DESCENDING)
-                .get()
-                .addOnSuccessListener(snap -> {
-                    modules.clear();
-                    moduleTitles.clear();
-                    moduleTitles.add("No module (optional)");
-
-                    for (DocumentSnapshot doc : snap.getDocuments()) {
-                        Module m = doc.toObject(Module.class);
-                        if (m != null) {
-                            m.setId(doc.getId());
-                            modules.add(m);
-                            moduleTitles.add(safe(m.getTitle()));
-                        }
-                    }
+        LiveCollection<Module> live = repo.modules();
+        if (live == null) {
+            loadTask();
+            return;
+        }
 
-                    moduleAdapter.notifyDataSetChanged();
-                    loadTask();
-                })
-                .addOnFailureListener(e -> {
-                    // still load task even if modules fail
-                    loadTask();
-                });
+        // Modules come from the shared cache, so this is usually instant
+        modulesListener = live.observe(new LiveCollection.Observer<Module>() {
+            @Override
+            public void onChanged(@NonNull List<Module> items) {
+                modules.clear();
+                moduleTitles.clear();
+                moduleTitles.add("No module (optional)");
+
+                for (Module m : items) {
+                    modules.add(m);
+                    moduleTitles.add(safe(m.getTitle()));
+                }
+
+                moduleAdapter.notifyDataSetChanged();
+                if (currentTask == null) loadTask();
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                // still load task even if modules fail
+                if (currentTask == null) loadTask();
+            }
+        });
     }
 
     private void loadTask() {
+        if (taskRequested) return;
+        taskRequested = true;
+
+        // Already decoded by the Tasks/Home list? Use that copy, no read needed.
+        LiveCollection<Task> liveTasks = repo.tasks();
+        LiveCollection<Task> openTasks = repo.openTasks();
+        Task cached = liveTasks == null ? null : liveTasks.find(taskId);
+        if (cached == null && openTasks != null) cached = openTasks.find(taskId);
+        if (cached != null) {
+            currentTask = cached;
+            populateUI();
+            return;
+        }
+
         taskDoc.get()
                 .addOnSuccessListener(doc -> {
-                    currentTask = doc.toObject(Task.class);
+                    currentTask = TaskMapper.fromDocument(doc);
                     if (currentTask == null) {
                         showError("Task not found.");
                         finish();
                         return;
                     }
-                    currentTask.setId(doc.getId());
                     populateUI();
                 })
                 .addOnFailureListener(e -> {
@@ -216,6 +249,46 @@ public class TaskDetailActivity extends AppCompatActivity {
                 });
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (modulesListener != null) modulesListener.remove();
+        if (timetableListener != null) timetableListener.remove();
+        if (focusListener != null) focusListener.remove();
+    }
+
+    // -------- Free study time --------
+
+    /** Classes + focus sessions decide what's free, so re-run the search when they change. */
+    private void listenForBusyTime() {
+        LiveCollection<TimetableEvent> timetable = repo.timetable();
+        if (timetable != null) timetableListener = timetable.observe(items -> refreshFreeSlots());
+        LiveCollection<FocusSession> sessions = repo.focusSessions();
+        if (sessions != null) focusListener = sessions.observe(items -> refreshFreeSlots());
+    }
+
+    private void refreshFreeSlots() {
+        long now = System.currentTimeMillis();
+        Long due = selectedDueAt;
+        if (due == null || due <= now) {
+            tvFreeSlots.setVisibility(View.GONE);
+            return;
+        }
+
+        repo.freeStudySlots(now, due, STUDY_BLOCK_MINS, STUDY_BLOCKS_SHOWN, slots -> {
+            if (!due.equals(selectedDueAt)) return; // due date changed meanwhile
+            if (slots.isEmpty()) {
+                tvFreeSlots.setText("No free " + STUDY_BLOCK_MINS + " min block before it's due");
+            } else {
+                SimpleDateFormat fmt = new SimpleDateFormat("EEE d MMM HH:mm", Locale.getDefault());
+                StringBuilder sb = new StringBuilder("Free to study (" + STUDY_BLOCK_MINS + " min):");
+                for (FreeSlots.Slot s : slots) sb.append("\n• ").append(fmt.format(new Date(s.start)));
+                tvFreeSlots.setText(sb.toString());
+            }
+            tvFreeSlots.setVisibility(View.VISIBLE);
+        });
+    }
+
     private void populateUI() {
         hideError();
 
@@ -229,6 +302,7 @@ public class TaskDetailActivity extends AppCompatActivity {
         } else {
             btnPickDueDate.setText("Pick due date (optional)");
         }
+        refreshFreeSlots();
 
         // Priority
         spPriority.setSelection(priorityToIndex(currentTask.getPriority()));
@@ -337,7 +411,7 @@ public class TaskDetailActivity extends AppCompatActivity {
         updates.put("dueAt", selectedDueAt);
         updates.put("type", storedType);
 
-        taskDoc.update(updates)
+        repo.updateTask(taskId, updates)
                 .addOnSuccessListener(unused -> {
                     btnSave.setEnabled(true);
                     finish();
@@ -352,7 +426,7 @@ public class TaskDetailActivity extends AppCompatActivity {
         btnDelete.setEnabled(false);
         hideError();
 
-        taskDoc.delete()
+        repo.deleteTask(taskId)
                 .addOnSuccessListener(unused -> finish())
                 .addOnFailureListener(e -> {
                     btnDelete.setEnabled(true);
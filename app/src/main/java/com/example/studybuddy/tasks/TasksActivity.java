@@ -2,8 +2,10 @@ package com.example.studybuddy.tasks;
 
 import android.app.DatePickerDialog;
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 import android.util.Log;
+import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.ArrayAdapter;
 import android.widget.Button;
@@ -12,40 +14,56 @@ import android.widget.LinearLayout;
 import android.widget.Spinner;
 import android.widget.TextView;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.ConcatAdapter;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.studybuddy.BaseBottomNavActivity;
+import com.example.studybuddy.FirestoreRepo;
 import com.example.studybuddy.R;
 import com.example.studybuddy.adapter.Module;
+import com.example.studybuddy.adapter.StaticViewAdapter;
 import com.example.studybuddy.adapter.Task;
+import com.example.studybuddy.adapter.TaskMapper;
 import com.example.studybuddy.adapter.TasksAdapter;
+import com.example.studybuddy.data.LiveCollection;
+import com.example.studybuddy.data.SyncedCollection;
+import com.example.studybuddy.data.TaskCodes;
+import com.example.studybuddy.data.TaskFilter;
+import com.example.studybuddy.data.TaskImport;
+import com.example.studybuddy.data.TaskQueryEngine;
+import com.example.studybuddy.data.TaskRules;
 import com.example.studybuddy.util.SimpleItemSelectedListener;
+import com.example.studybuddy.util.SimpleTextWatcher;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.CollectionReference;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.ListenerRegistration;
-import com.google.firebase.firestore.Query;
 
+import java.io.InputStream;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 public class TasksActivity extends BaseBottomNavActivity {
 
-    // UI (list + empty state)
+    // UI (list + empty state). The page is one RecyclerView: header (filters), rows, footer (add form)
     private RecyclerView rvTasks;
+    private LinearLayoutManager listLayout;
+    private View listHeader, listFooter;
     private LinearLayout emptyTasksState;
-    private Spinner spPriorityFilter;
+    private Spinner spPriorityFilter, spTypeFilter, spStatusFilter, spModuleFilter, spDueFilter;
+    private EditText etTaskSearch;
 
     // UI (add form)
     private EditText etTaskTitle, etTaskDescription;
@@ -53,30 +71,56 @@ public class TasksActivity extends BaseBottomNavActivity {
     private Button btnPickDueDate, btnAddTask;
     private TextView tvTaskValidation;
 
-    // Data
-    private final List<Task> allTasks = new ArrayList<>();
+    // Bulk import
+    private Button btnImportTasks;
+    private TextView tvImportStatus;
+    private final ActivityResultLauncher<String[]> importLauncher =
+            registerForActivityResult(new ActivityResultContracts.OpenDocument(), this::importTasks);
+
+    // Data: everything the filter matched; the adapter only gets the first `window` of it
     private final List<Task> filteredTasks = new ArrayList<>();
+    private int window = PAGE_ROWS;
     private TasksAdapter adapter;
 
     private final List<Module> modules = new ArrayList<>();
     private final List<String> moduleTitles = new ArrayList<>();
     private ArrayAdapter<String> moduleSpinnerAdapter;
 
+    // Filter labels (rewritten with facet counts after every query)
+    private final List<String> priorityFilterLabels = new ArrayList<>(FILTERS);
+    private final List<String> typeFilterLabels = new ArrayList<>(TYPE_FILTERS);
+    private final List<String> statusFilterLabels = new ArrayList<>(STATUS_FILTERS);
+    private final List<String> moduleFilterLabels = new ArrayList<>();
+    private ArrayAdapter<String> priorityFilterAdapter, typeFilterAdapter, statusFilterAdapter, moduleFilterAdapter;
+
     // Firebase
     private FirebaseAuth auth;
     private FirebaseFirestore db;
+    private final FirestoreRepo repo = FirestoreRepo.get();
     private CollectionReference tasksRef;
-    private CollectionReference modulesRef;
     private ListenerRegistration tasksListener;
     private ListenerRegistration modulesListener;
 
     // Due date
     private Long selectedDueAt = null;
 
+    // Rows handed to the adapter at a time, and how close to the end of them a scroll grows the window
+    private static final int PAGE_ROWS = 30;
+    private static final int PREFETCH_ROWS = 10;
+
     // Spinner options
     private static final List<String> FILTERS = Arrays.asList("All", "High", "Medium", "Low", "None");
-    private static final List<String> PRIORITIES = Arrays.asList("None", "High", "Medium", "Low");
-    private static final List<String> TYPES = Arrays.asList("Select type...", "Task", "Assignment", "Exam", "Demo", "Presentation");
+    private static final byte[] FILTER_PRIORITY_CODES = {
+            -1, TaskCodes.PRIORITY_HIGH, TaskCodes.PRIORITY_MEDIUM, TaskCodes.PRIORITY_LOW, TaskCodes.PRIORITY_NONE
+    };
+    private static final List<String> TYPE_FILTERS = Arrays.asList("All types", "Task", "Assignment", "Exam", "Demo", "Presentation");
+    private static final byte[] FILTER_TYPE_CODES = {
+            -1, TaskCodes.TYPE_TASK, TaskCodes.TYPE_ASSIGNMENT, TaskCodes.TYPE_EXAM, TaskCodes.TYPE_DEMO, TaskCodes.TYPE_PRESENTATION
+    };
+    private static final List<String> STATUS_FILTERS = Arrays.asList("Any status", "Open", "Completed");
+    private static final List<String> DUE_FILTERS = Arrays.asList("Any due date", "Overdue", "Due next 7 days", "Due next 30 days");
+    private static final List<String> PRIORITIES = TaskRules.PRIORITIES;
+    private static final List<String> TYPES = withPlaceholder(TaskRules.TYPE_PLACEHOLDER, TaskRules.TYPES);
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
@@ -90,8 +134,10 @@ public class TasksActivity extends BaseBottomNavActivity {
         setupFirebase();
         setupDueDatePicker();
         setupAddTask();
+        btnImportTasks.setOnClickListener(v -> importLauncher.launch(new String[]{
+                "text/csv", "text/comma-separated-values", "application/json", "text/plain", "application/octet-stream"}));
 
-        if (tasksRef != null && modulesRef != null) {
+        if (tasksRef != null) {
             listenForModules();
             listenForTasks();
         }
@@ -107,34 +153,95 @@ public class TasksActivity extends BaseBottomNavActivity {
 
     private void bindViews() {
         rvTasks = findViewById(R.id.rvTasks);
-        emptyTasksState = findViewById(R.id.emptyTasksState);
-        spPriorityFilter = findViewById(R.id.spPriorityFilter);
-
-        etTaskTitle = findViewById(R.id.etTaskTitle);
-        etTaskDescription = findViewById(R.id.etTaskDescription);
-        spTaskModule = findViewById(R.id.spTaskModule);
-        spTaskPriority = findViewById(R.id.spTaskPriority);
-        spTaskType = findViewById(R.id.spTaskType); // ✅ must exist in XML
-        btnPickDueDate = findViewById(R.id.btnPickDueDate);
-        btnAddTask = findViewById(R.id.btnAddTask);
-        tvTaskValidation = findViewById(R.id.tvTaskValidation);
+
+        // Header + footer are list items (see setupRecyclerView), so they're inflated here
+        LayoutInflater inflater = LayoutInflater.from(this);
+        listHeader = inflater.inflate(R.layout.item_tasks_header, rvTasks, false);
+        listFooter = inflater.inflate(R.layout.item_tasks_add_form, rvTasks, false);
+
+        emptyTasksState = listHeader.findViewById(R.id.emptyTasksState);
+        spPriorityFilter = listHeader.findViewById(R.id.spPriorityFilter);
+        spTypeFilter = listHeader.findViewById(R.id.spTypeFilter);
+        spStatusFilter = listHeader.findViewById(R.id.spStatusFilter);
+        spModuleFilter = listHeader.findViewById(R.id.spModuleFilter);
+        spDueFilter = listHeader.findViewById(R.id.spDueFilter);
+        etTaskSearch = listHeader.findViewById(R.id.etTaskSearch);
+
+        etTaskTitle = listFooter.findViewById(R.id.etTaskTitle);
+        etTaskDescription = listFooter.findViewById(R.id.etTaskDescription);
+        spTaskModule = listFooter.findViewById(R.id.spTaskModule);
+        spTaskPriority = listFooter.findViewById(R.id.spTaskPriority);
+        spTaskType = listFooter.findViewById(R.id.spTaskType); // ✅ must exist in XML
+        btnPickDueDate = listFooter.findViewById(R.id.btnPickDueDate);
+        btnAddTask = listFooter.findViewById(R.id.btnAddTask);
+        tvTaskValidation = listFooter.findViewById(R.id.tvTaskValidation);
+        btnImportTasks = listFooter.findViewById(R.id.btnImportTasks);
+        tvImportStatus = listFooter.findViewById(R.id.tvImportStatus);
     }
 
     private void setupRecyclerView() {
-        adapter = new TasksAdapter(filteredTasks, task -> {
+        adapter = new TasksAdapter(this, filteredTasks, task -> {
             Intent i = new Intent(TasksActivity.this, TaskDetailActivity.class);
             i.putExtra("TASK_ID", task.getId());
             startActivity(i);
         });
-        rvTasks.setLayoutManager(new LinearLayoutManager(this));
-        rvTasks.setAdapter(adapter);
+        listLayout = new LinearLayoutManager(this);
+        rvTasks.setLayoutManager(listLayout);
+
+        // Header, rows, footer; each keeps its own stable ids
+        ConcatAdapter.Config config = new ConcatAdapter.Config.Builder()
+                .setStableIdMode(ConcatAdapter.Config.StableIdMode.ISOLATED_STABLE_IDS)
+                .build();
+        rvTasks.setAdapter(new ConcatAdapter(config,
+                new StaticViewAdapter(listHeader), adapter, new StaticViewAdapter(listFooter)));
+
+        rvTasks.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+                growWindowIfNearEnd();
+            }
+        });
+    }
+
+    /** Hand the adapter PAGE_ROWS more rows once the last one on screen is PREFETCH_ROWS from the end. */
+    private void growWindowIfNearEnd() {
+        int shown = Math.min(window, filteredTasks.size());
+        if (shown == filteredTasks.size()) return;
+        int lastRow = listLayout.findLastVisibleItemPosition() - 1; // position 0 is the header
+        if (lastRow < shown - PREFETCH_ROWS) return;
+        window = shown + PAGE_ROWS;
+        showWindow();
+    }
+
+    private void showWindow() {
+        adapter.setTasks(filteredTasks.subList(0, Math.min(window, filteredTasks.size())));
     }
 
     private void setupSpinners() {
-        // Filter spinner
-        spPriorityFilter.setAdapter(new ArrayAdapter<>(this, android.R.layout.simple_spinner_dropdown_item, FILTERS));
+        // Filter spinners (any combination; counts are filled in by applyFilter)
+        priorityFilterAdapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_dropdown_item, priorityFilterLabels);
+        spPriorityFilter.setAdapter(priorityFilterAdapter);
         spPriorityFilter.setSelection(0);
-        spPriorityFilter.setOnItemSelectedListener(new SimpleItemSelectedListener(this::applyFilter));
+        spPriorityFilter.setOnItemSelectedListener(new SimpleItemSelectedListener(this::onFiltersChanged));
+
+        typeFilterAdapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_dropdown_item, typeFilterLabels);
+        spTypeFilter.setAdapter(typeFilterAdapter);
+        spTypeFilter.setOnItemSelectedListener(new SimpleItemSelectedListener(this::onFiltersChanged));
+
+        statusFilterAdapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_dropdown_item, statusFilterLabels);
+        spStatusFilter.setAdapter(statusFilterAdapter);
+        spStatusFilter.setOnItemSelectedListener(new SimpleItemSelectedListener(this::onFiltersChanged));
+
+        moduleFilterLabels.add("All modules");
+        moduleFilterAdapter = new ArrayAdapter<>(this, android.R.layout.simple_spinner_dropdown_item, moduleFilterLabels);
+        spModuleFilter.setAdapter(moduleFilterAdapter);
+        spModuleFilter.setOnItemSelectedListener(new SimpleItemSelectedListener(this::onFiltersChanged));
+
+        spDueFilter.setAdapter(new ArrayAdapter<>(this, android.R.layout.simple_spinner_dropdown_item, DUE_FILTERS));
+        spDueFilter.setOnItemSelectedListener(new SimpleItemSelectedListener(this::onFiltersChanged));
+
+        // Search-as-you-type (index lookup runs on the io thread, see FirestoreRepo)
+        etTaskSearch.addTextChangedListener(new SimpleTextWatcher(text -> onFiltersChanged()));
 
         // Priority spinner (stored on task)
         spTaskPriority.setAdapter(new ArrayAdapter<>(this, android.R.layout.simple_spinner_dropdown_item, PRIORITIES));
@@ -166,95 +273,117 @@ public class TasksActivity extends BaseBottomNavActivity {
             return;
         }
 
-        modulesRef = db.collection("users").document(user.getUid()).collection("modules");
         tasksRef = db.collection("users").document(user.getUid()).collection("tasks");
     }
 
     private void listenForModules() {
-        if (modulesRef == null) return;
-
-        modulesListener = modulesRef
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .addSnapshotListener((snap, err) -> {
-                    if (err != null) {
-                        Log.e("TasksActivity", "modules listen err", err);
-                        return;
-                    }
-
-                    modules.clear();
-                    moduleTitles.clear();
-                    moduleTitles.add("No module (optional)");
-
-                    if (snap != null) {
-                        for (DocumentSnapshot doc : snap.getDocuments()) {
-                            Module m = doc.toObject(Module.class);
-                            if (m != null) {
-                                m.setId(doc.getId());
-                                modules.add(m);
-                                moduleTitles.add(m.getTitle());
-                            }
-                        }
-                    }
-
-                    moduleSpinnerAdapter.notifyDataSetChanged();
-                });
+        LiveCollection<Module> live = repo.modules();
+        if (live == null) return;
+
+        // Shared listener (FirestoreRepo) -> this only subscribes to the cached list
+        modulesListener = live.observe(items -> {
+            modules.clear();
+            moduleTitles.clear();
+            moduleTitles.add("No module (optional)");
+            moduleFilterLabels.clear();
+            moduleFilterLabels.add("All modules");
+
+            for (Module m : items) {
+                modules.add(m);
+                moduleTitles.add(m.getTitle());
+                moduleFilterLabels.add(m.getTitle());
+            }
+
+            moduleSpinnerAdapter.notifyDataSetChanged();
+            moduleFilterAdapter.notifyDataSetChanged();
+        });
     }
 
     private void listenForTasks() {
-        if (tasksRef == null) return;
-
-        tasksListener = tasksRef
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .addSnapshotListener((snap, err) -> {
-
-                    if (err != null) {
-                        showValidation("Failed to load tasks: " + err.getMessage());
-                        return;
-                    }
-
-                    allTasks.clear();
-
-                    if (snap != null) {
-                        for (DocumentSnapshot doc : snap.getDocuments()) {
-                            Task t = doc.toObject(Task.class);
-                            if (t != null) {
-                                t.setId(doc.getId());
-                                allTasks.add(t);
-                            }
-                        }
-                    }
-
-                    applyFilter();
-                    updateTasksUI();
-                });
+        LiveCollection<Task> live = repo.tasks();
+        if (live == null) return;
+
+        tasksListener = live.observe(new LiveCollection.Observer<Task>() {
+            @Override
+            public void onChanged(@NonNull List<Task> items) {
+                // TaskTable is already up to date with `items`; just re-run the filter
+                applyFilter();
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                showValidation("Failed to load tasks: " + e.getMessage());
+            }
+        });
+    }
+
+    /** New criteria: start again from the first page (a data change keeps the window instead). */
+    private void onFiltersChanged() {
+        window = PAGE_ROWS;
+        applyFilter();
     }
 
     private void applyFilter() {
-        String selected = safeSpinnerValue(spPriorityFilter); // All / High / Medium / Low / None
-        filteredTasks.clear();
+        TaskFilter filter = new TaskFilter();
+
+        int p = spPriorityFilter.getSelectedItemPosition();
+        if (p > 0) filter.priorityMask = TaskFilter.bit(FILTER_PRIORITY_CODES[p]);
+
+        int t = spTypeFilter.getSelectedItemPosition();
+        if (t > 0) filter.typeMask = TaskFilter.bit(FILTER_TYPE_CODES[t]);
 
-        String wanted = mapUiPriorityToStored(selected); // null for All, else "HIGH"/"MEDIUM"/"LOW"/"NONE"
+        int status = spStatusFilter.getSelectedItemPosition();
+        if (status == 1) filter.completed = TaskFilter.NO;
+        else if (status == 2) filter.completed = TaskFilter.YES;
 
-        for (Task t : allTasks) {
-            if (wanted == null) {
-                filteredTasks.add(t);
-            } else {
-                String p = (t.getPriority() == null) ? "NONE" : t.getPriority();
-                if (p.equals(wanted)) filteredTasks.add(t);
+        int m = spModuleFilter.getSelectedItemPosition();
+        if (m > 0 && m - 1 < modules.size()) filter.moduleId = modules.get(m - 1).getId();
+
+        long now = System.currentTimeMillis();
+        switch (spDueFilter.getSelectedItemPosition()) {
+            case 1: filter.dueTo = now; break;
+            case 2: filter.dueFrom = now; filter.dueTo = now + TimeUnit.DAYS.toMillis(7); break;
+            case 3: filter.dueFrom = now; filter.dueTo = now + TimeUnit.DAYS.toMillis(30); break;
+            default: break;
+        }
+
+        String search = etTaskSearch.getText() == null ? null : etTaskSearch.getText().toString();
+
+        // Bitmap query (+ text search) over the repository's task indexes, on the io thread
+        repo.queryTasks(filter, search, result -> {
+            filteredTasks.clear();
+            if (result != null) {
+                filteredTasks.addAll(result.tasks);
+                showFacetCounts(result);
             }
+            showWindow();
+            updateTasksUI();
+        });
+    }
+
+    /** "High (4)" etc: how many tasks each option would show with the other filters kept. */
+    private void showFacetCounts(TaskQueryEngine.Result result) {
+        int total = 0;
+        for (int c : result.priorityCounts) total += c;
+        priorityFilterLabels.set(0, FILTERS.get(0) + " (" + total + ")");
+        for (int i = 1; i < FILTERS.size(); i++) {
+            priorityFilterLabels.set(i, FILTERS.get(i) + " (" + result.priorityCounts[FILTER_PRIORITY_CODES[i]] + ")");
         }
+        priorityFilterAdapter.notifyDataSetChanged();
 
-        adapter.setTasks(filteredTasks);
+        for (int i = 1; i < TYPE_FILTERS.size(); i++) {
+            typeFilterLabels.set(i, TYPE_FILTERS.get(i) + " (" + result.typeCounts[FILTER_TYPE_CODES[i]] + ")");
+        }
+        typeFilterAdapter.notifyDataSetChanged();
+
+        statusFilterLabels.set(1, STATUS_FILTERS.get(1) + " (" + result.openCount + ")");
+        statusFilterLabels.set(2, STATUS_FILTERS.get(2) + " (" + result.completedCount + ")");
+        statusFilterAdapter.notifyDataSetChanged();
     }
 
     private void updateTasksUI() {
-        if (filteredTasks.isEmpty()) {
-            rvTasks.setVisibility(View.GONE);
-            emptyTasksState.setVisibility(View.VISIBLE);
-        } else {
-            rvTasks.setVisibility(View.VISIBLE);
-            emptyTasksState.setVisibility(View.GONE);
-        }
+        // rvTasks is the whole page (filters + add form too), so only the empty state toggles
+        emptyTasksState.setVisibility(filteredTasks.isEmpty() ? View.VISIBLE : View.GONE);
     }
 
     private void setupDueDatePicker() {
@@ -293,21 +422,21 @@ public class TasksActivity extends BaseBottomNavActivity {
         btnAddTask.setOnClickListener(v -> {
             hideValidation();
 
-            String title = etTaskTitle.getText() == null ? "" : etTaskTitle.getText().toString().trim();
+            // Same rules as bulk import (TaskRules)
+            String title = TaskRules.title(etTaskTitle.getText() == null ? null : etTaskTitle.getText().toString());
             String desc = etTaskDescription.getText() == null ? "" : etTaskDescription.getText().toString().trim();
 
-            if (title.isEmpty()) {
+            if (title == null) {
                 showValidation("Task title is required");
                 return;
             }
 
             // ✅ REQUIRED: type
-            String typeUi = safeSpinnerValue(spTaskType);
-            if ("Select type...".equals(typeUi)) {
+            String storedType = TaskRules.storedType(safeSpinnerValue(spTaskType)); // task/assignment/exam/demo/presentation
+            if (storedType == null) {
                 showValidation("Task type is required");
                 return;
             }
-            String storedType = typeUi.toLowerCase(Locale.ROOT); // task/assignment/exam/demo/presentation
 
             if (tasksRef == null) {
                 showValidation("Not connected. Please log in again.");
@@ -331,18 +460,12 @@ public class TasksActivity extends BaseBottomNavActivity {
             String uiPriority = safeSpinnerValue(spTaskPriority); // None/High/Medium/Low
             String storedPriority = mapUiPriorityToStored(uiPriority); // "NONE"/"HIGH"/...
 
-            Map<String, Object> data = new HashMap<>();
-            data.put("title", title);
-            data.put("description", desc.isEmpty() ? null : desc);
-            data.put("moduleId", moduleId);
-            data.put("moduleTitle", moduleTitle);
-            data.put("priority", storedPriority);
-            data.put("type", storedType);              // ✅ save type
-            data.put("dueAt", selectedDueAt);          // can be null
-            data.put("completed", false);
-            data.put("createdAt", System.currentTimeMillis());
-
-            tasksRef.add(data)
+            // completed = false, createdAt = now (constructor); dueAt can be null
+            Task task = new Task(title, desc.isEmpty() ? null : desc, moduleId, moduleTitle,
+                    storedPriority, selectedDueAt);
+            task.setType(storedType);              // ✅ save type
+
+            tasksRef.add(SyncedCollection.stamp(TaskMapper.toMap(task)))
                     .addOnSuccessListener(doc -> {
                         btnAddTask.setEnabled(true);
                         clearForm();
@@ -365,6 +488,47 @@ public class TasksActivity extends BaseBottomNavActivity {
         hideValidation();
     }
 
+    // -------- Bulk import --------
+
+    /** Same rules as the form above (TaskRules); new tasks arrive through the usual listeners. */
+    private void importTasks(@Nullable Uri uri) {
+        if (uri == null) return; // picker cancelled
+        InputStream in;
+        try {
+            in = getContentResolver().openInputStream(uri);
+        } catch (Exception e) {
+            showImportStatus("Couldn't open that file: " + e.getMessage());
+            return;
+        }
+        if (in == null) return;
+
+        btnImportTasks.setEnabled(false);
+        showImportStatus("Importing…");
+        repo.importTasks(in, new TaskImport.Listener() {
+            @Override
+            public void onProgress(int imported, int rejected) {
+                showImportStatus("Imported " + imported + " tasks…" + (rejected > 0 ? " (" + rejected + " skipped)" : ""));
+            }
+
+            @Override
+            public void onFinished(@NonNull TaskImport.Result result, @Nullable Exception error) {
+                btnImportTasks.setEnabled(true);
+                StringBuilder msg = new StringBuilder("Imported " + result.imported + " tasks");
+                if (result.rejected > 0) msg.append(", skipped ").append(result.rejected);
+                if (error != null) msg.append(". Stopped early: ").append(error.getMessage());
+                // First few reasons; the rest are usually the same mistake repeated
+                for (int i = 0; i < Math.min(3, result.errors.size()); i++) msg.append("\n").append(result.errors.get(i));
+                if (result.errors.size() > 3) msg.append("\n…");
+                showImportStatus(msg.toString());
+            }
+        });
+    }
+
+    private void showImportStatus(String msg) {
+        tvImportStatus.setText(msg);
+        tvImportStatus.setVisibility(View.VISIBLE);
+    }
+
     private String safeSpinnerValue(Spinner spinner) {
         if (spinner == null || spinner.getSelectedItem() == null) return "";
         return spinner.getSelectedItem().toString();
@@ -375,15 +539,15 @@ public class TasksActivity extends BaseBottomNavActivity {
      * Returns null ONLY for "All" filter selection.
      */
     private String mapUiPriorityToStored(String ui) {
-        if (ui == null) return "NONE";
-        switch (ui.toLowerCase(Locale.ROOT)) {
-            case "high": return "HIGH";
-            case "medium": return "MEDIUM";
-            case "low": return "LOW";
-            case "none": return "NONE";
-            case "all": return null; // filter-only
-            default: return "NONE";
-        }
+        if (ui != null && ui.equalsIgnoreCase("all")) return null; // filter-only
+        return TaskRules.storedPriority(ui);
+    }
+
+    private static List<String> withPlaceholder(String placeholder, List<String> items) {
+        List<String> out = new ArrayList<>(items.size() + 1);
+        out.add(placeholder);
+        out.addAll(items);
+        return out;
     }
 
     private void showValidation(String msg) {
@@ -0,0 +1,55 @@
+package com.example.studybuddy.util;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Shared executors for the data layer.
+ *
+ * - io(): ONE background thread. Snapshot decoding and in-memory store updates run here,
+ *   so they never race each other and never block the UI.
+ * - main(): posts back to the UI thread (observers / adapters).
+ * - compute(): a small pool (cores - 1) for CPU-bound work that can be split up and run
+ *   in parallel, e.g. validating a chunk of imported rows. Never block on io from it.
+ */
+public final class AppExecutors {
+
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "studybuddy-io");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final ExecutorService COMPUTE = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1), r -> {
+                Thread t = new Thread(r, "studybuddy-compute");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+    private static final Executor MAIN = MAIN_HANDLER::post;
+
+    private AppExecutors() {}
+
+    public static Executor io() {
+        return IO;
+    }
+
+    public static Executor compute() {
+        return COMPUTE;
+    }
+
+    /** Threads in compute(), i.e. how many pieces to split parallel work into. */
+    public static int computeThreads() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+    public static Executor main() {
+        return MAIN;
+    }
+}
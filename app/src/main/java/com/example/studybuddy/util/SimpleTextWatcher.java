@@ -0,0 +1,23 @@
+package com.example.studybuddy.util;
+
+import android.text.Editable;
+import android.text.TextWatcher;
+
+public class SimpleTextWatcher implements TextWatcher {
+
+    public interface Callback { void onChanged(String text); }
+
+    private final Callback callback;
+
+    public SimpleTextWatcher(Callback callback) {
+        this.callback = callback;
+    }
+
+    @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+
+    @Override public void onTextChanged(CharSequence s, int start, int before, int count) {}
+
+    @Override public void afterTextChanged(Editable s) {
+        if (callback != null) callback.onChanged(s == null ? "" : s.toString());
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.studybuddy.util;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps Firestore document ids (Strings) to RecyclerView stable ids (longs).
+ *
+ * Each id gets the next counter value the first time it is seen, so two documents
+ * can never collide the way String.hashCode() could. One instance per adapter.
+ */
+public class StableIds {
+
+    private final Map<String, Long> ids = new HashMap<>();
+    private long next = 1;
+
+    public long of(@Nullable String docId) {
+        if (docId == null) return RecyclerView.NO_ID;
+        Long id = ids.get(docId);
+        if (id == null) {
+            id = next++;
+            ids.put(docId, id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.studybuddy.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.example.studybuddy.adapter.Task;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class DueQueueTest {
+
+    private static Task task(String id, Long dueAt, boolean completed) {
+        Task t = new Task();
+        t.setId(id);
+        t.setDueAt(dueAt);
+        t.setCompleted(completed);
+        return t;
+    }
+
+    private static List<String> ids(List<Task> tasks) {
+        List<String> out = new ArrayList<>();
+        for (Task t : tasks) out.add(t.getId());
+        return out;
+    }
+
+    @Test
+    public void movesAndRemovesKeepDueOrder() {
+        DueQueue q = new DueQueue();
+        long[] dues = {1, 100, 2, 101, 102, 3, 4};
+        for (long due : dues) q.upsert(task("t" + due, due, false));
+
+        q.remove("t101");
+        assertEquals(6, q.size());
+        assertEquals(Arrays.asList("t1", "t2", "t3", "t4", "t100", "t102"),
+                ids(q.range(Long.MIN_VALUE, Long.MAX_VALUE, 10)));
+
+        // Removing the earliest, then moving t102 to the front
+        q.remove("t1");
+        assertEquals("t2", q.peek().getId());
+        q.upsert(task("t102", 0L, false));
+        assertEquals(Arrays.asList("t102", "t2", "t3", "t4", "t100"),
+                ids(q.range(Long.MIN_VALUE, Long.MAX_VALUE, 10)));
+    }
+
+    @Test
+    public void sameDueSortsById() {
+        DueQueue q = new DueQueue();
+        q.upsert(task("c", 5L, false));
+        q.upsert(task("a", 5L, false));
+        q.upsert(task("b", 5L, false));
+        q.upsert(task("z", 4L, false));
+
+        assertEquals(Arrays.asList("a", "b", "c"), ids(q.range(5, 6, 10)));
+        assertEquals(Arrays.asList("z", "a"), ids(q.range(Long.MIN_VALUE, Long.MAX_VALUE, 2)));
+        assertEquals(3, q.count(5, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void completedAndUndatedTasksLeaveTheQueue() {
+        DueQueue q = new DueQueue();
+        q.upsert(task("a", 10L, false));
+        q.upsert(task("b", 20L, false));
+        q.upsert(task("a", 10L, true));
+        q.upsert(task("b", null, false));
+        assertEquals(0, q.size());
+        assertNull(q.peek());
+
+        q.remove("missing");
+        q.remove(null);
+        assertEquals(0, q.size());
+    }
+
+    @Test
+    public void rangeAndCountMatchASortedList() {
+        Random rnd = new Random(10);
+        DueQueue q = new DueQueue();
+        Map<String, Long> oracle = new HashMap<>();
+
+        for (int step = 0; step < 3000; step++) {
+            String id = "t" + rnd.nextInt(400);
+            int op = rnd.nextInt(10);
+            if (op < 6) {
+                long due = rnd.nextInt(2_000); // plenty of ties, ordered by id
+                q.upsert(task(id, due, false));
+                oracle.put(id, due);
+            } else if (op < 8) {
+                q.upsert(task(id, 1L, true)); // completed
+                oracle.remove(id);
+            } else {
+                q.remove(id);
+                oracle.remove(id);
+            }
+            assertEquals(oracle.size(), q.size());
+
+            long from = rnd.nextInt(4) == 0 ? Long.MIN_VALUE : rnd.nextInt(2_000);
+            long to = rnd.nextInt(4) == 0 ? Long.MAX_VALUE : from + rnd.nextInt(1_000);
+            int limit = 1 + rnd.nextInt(30);
+
+            List<String> sorted = new ArrayList<>();
+            for (Map.Entry<String, Long> e : oracle.entrySet()) {
+                if (e.getValue() >= from && e.getValue() < to) sorted.add(e.getKey());
+            }
+            sorted.sort((a, b) -> {
+                int c = Long.compare(oracle.get(a), oracle.get(b));
+                return c != 0 ? c : a.compareTo(b);
+            });
+
+            assertEquals("step " + step, sorted.subList(0, Math.min(limit, sorted.size())), ids(q.range(from, to, limit)));
+            assertEquals("step " + step, sorted.size(), q.count(from, to));
+        }
+    }
+}
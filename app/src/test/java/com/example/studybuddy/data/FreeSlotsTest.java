@@ -0,0 +1,182 @@
+package com.example.studybuddy.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.studybuddy.adapter.TimetableEvent;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+public class FreeSlotsTest {
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+    private static final long MIN = 60_000L;
+    private static final long DAY = 24 * 60 * MIN;
+    private static final long SUNDAY = 1704585600000L; // 2024-01-07 00:00 UTC
+    private static final long MONDAY = SUNDAY + DAY;
+
+    private static long at(long day, int hour, int minute) {
+        return day + (hour * 60L + minute) * MIN;
+    }
+
+    private static FreeSlots mondayWithClasses() {
+        FreeSlots slots = new FreeSlots(UTC);
+        slots.setAwakeHours(8 * 60, 22 * 60);
+        slots.addWeekly(Calendar.MONDAY, 9 * 60, 10 * 60);
+        slots.addWeekly(Calendar.MONDAY, 12 * 60, 13 * 60 + 30);
+        return slots;
+    }
+
+    /** Busy all the awake day (08:00-22:00) on the dates `rrule` gives, from dtstart. */
+    private static FreeSlots awakeWithAllDayClass(int dayOfWeek, String rrule, String dtstart) {
+        TimetableEvent e = new TimetableEvent("m1", "Maths", dayOfWeek, 8 * 60, 22 * 60);
+        e.setRrule(rrule);
+        e.setDtstart(dtstart);
+        FreeSlots slots = new FreeSlots(UTC);
+        slots.setAwakeHours(8 * 60, 22 * 60);
+        slots.addClass(e);
+        return slots;
+    }
+
+    @Test
+    public void oneBlockPerFreeStretch() {
+        FreeSlots slots = new FreeSlots(UTC);
+        List<FreeSlots.Slot> found = slots.find(at(SUNDAY, 10, 0), at(SUNDAY, 20, 0), 90, 3);
+
+        assertEquals(1, found.size());
+        assertEquals(at(SUNDAY, 10, 0), found.get(0).start);
+        assertEquals(at(SUNDAY, 11, 30), found.get(0).end);
+    }
+
+    @Test
+    public void skipsClassesAndGapsThatAreTooShort() {
+        List<FreeSlots.Slot> found = mondayWithClasses().find(MONDAY, MONDAY + DAY, 90, 3);
+
+        // 08:00-09:00 is only an hour
+        assertEquals(2, found.size());
+        assertEquals(at(MONDAY, 10, 0), found.get(0).start);
+        assertEquals(at(MONDAY, 13, 30), found.get(1).start);
+
+        List<FreeSlots.Slot> longer = mondayWithClasses().find(MONDAY, MONDAY + DAY, 150, 3);
+        assertEquals(1, longer.size());
+        assertEquals(at(MONDAY, 13, 30), longer.get(0).start);
+    }
+
+    @Test
+    public void queryStartRoundsUpToTheNextSlot() {
+        List<FreeSlots.Slot> found = mondayWithClasses().find(at(MONDAY, 10, 2), MONDAY + DAY, 90, 1);
+
+        assertEquals(1, found.size());
+        assertEquals(at(MONDAY, 10, 5), found.get(0).start);
+    }
+
+    @Test
+    public void blockMustEndBeforeTheDeadline() {
+        // 13:30-15:00 fits exactly, 13:30-14:55 doesn't
+        List<FreeSlots.Slot> found = mondayWithClasses().find(MONDAY, at(MONDAY, 15, 0), 90, 3);
+        assertEquals(2, found.size());
+        assertEquals(at(MONDAY, 15, 0), found.get(1).end);
+
+        assertEquals(1, mondayWithClasses().find(MONDAY, at(MONDAY, 14, 55), 90, 3).size());
+    }
+
+    @Test
+    public void oneOffBusyRangesCountOnlyInTheirWeek() {
+        FreeSlots slots = mondayWithClasses();
+        slots.addBusy(at(MONDAY, 8, 0), at(MONDAY, 8, 6)); // rounds out to 08:10
+
+        List<FreeSlots.Slot> thisWeek = slots.find(MONDAY, MONDAY + DAY, 55, 3);
+        assertEquals(at(MONDAY, 10, 0), thisWeek.get(0).start);
+
+        long nextMonday = MONDAY + 7 * DAY;
+        List<FreeSlots.Slot> nextWeek = slots.find(nextMonday, nextMonday + DAY, 55, 3);
+        assertEquals(at(nextMonday, 8, 0), nextWeek.get(0).start);
+    }
+
+    @Test
+    public void freeStretchCarriesAcrossTheWeekBoundary() {
+        FreeSlots slots = new FreeSlots(UTC);
+        for (int d = Calendar.MONDAY; d <= Calendar.FRIDAY; d++) slots.addWeekly(d, 0, 24 * 60);
+        slots.addWeekly(Calendar.SATURDAY, 0, 23 * 60);
+        slots.addWeekly(Calendar.SUNDAY, 60, 24 * 60);
+
+        long saturday = SUNDAY + 6 * DAY;
+        List<FreeSlots.Slot> found = slots.find(saturday, saturday + 3 * DAY, 120, 3);
+
+        assertEquals(1, found.size());
+        assertEquals(at(saturday, 23, 0), found.get(0).start);
+    }
+
+    @Test
+    public void nothingWhenFullyBookedOrDeadlinePassed() {
+        FreeSlots slots = new FreeSlots(UTC);
+        slots.setAwakeHours(0, 0);
+
+        assertTrue(slots.find(MONDAY, Long.MAX_VALUE, 30, 3).isEmpty());
+        assertTrue(mondayWithClasses().find(MONDAY, MONDAY - 1, 30, 3).isEmpty());
+    }
+
+    @Test
+    public void oneOffClassOnlyBlocksItsOwnDate() {
+        FreeSlots slots = awakeWithAllDayClass(Calendar.MONDAY, "FREQ=WEEKLY;COUNT=1", "20240108");
+
+        assertTrue(slots.find(MONDAY, MONDAY + DAY, 30, 3).isEmpty());
+        long nextMonday = MONDAY + 7 * DAY;
+        List<FreeSlots.Slot> later = slots.find(nextMonday, nextMonday + DAY, 30, 3);
+        assertEquals(1, later.size());
+        assertEquals(at(nextMonday, 8, 0), later.get(0).start);
+    }
+
+    @Test
+    public void everyBydayIsBusy() {
+        FreeSlots slots = awakeWithAllDayClass(Calendar.MONDAY, "FREQ=WEEKLY;BYDAY=MO,WE,FR", "20240101");
+
+        List<FreeSlots.Slot> found = slots.find(SUNDAY, SUNDAY + 7 * DAY, 60, 7);
+        assertEquals(4, found.size());
+        assertEquals(at(SUNDAY, 8, 0), found.get(0).start);
+        assertEquals(at(SUNDAY + 2 * DAY, 8, 0), found.get(1).start);  // Tuesday
+        assertEquals(at(SUNDAY + 4 * DAY, 8, 0), found.get(2).start);  // Thursday
+        assertEquals(at(SUNDAY + 6 * DAY, 8, 0), found.get(3).start);  // Saturday
+    }
+
+    @Test
+    public void classesStopAfterUntilAndStartAtDtstart() {
+        FreeSlots ended = awakeWithAllDayClass(Calendar.MONDAY, "FREQ=WEEKLY;UNTIL=20240110", "20240101");
+        assertTrue(ended.find(MONDAY, MONDAY + DAY, 30, 3).isEmpty());
+        long afterUntil = MONDAY + 7 * DAY;
+        assertEquals(at(afterUntil, 8, 0), ended.find(afterUntil, afterUntil + DAY, 30, 3).get(0).start);
+
+        FreeSlots notYet = awakeWithAllDayClass(Calendar.MONDAY, "FREQ=WEEKLY", "20240115");
+        assertEquals(at(MONDAY, 8, 0), notYet.find(MONDAY, MONDAY + DAY, 30, 3).get(0).start);
+        assertTrue(notYet.find(afterUntil, afterUntil + DAY, 30, 3).isEmpty());
+    }
+
+    @Test
+    public void classOccurrencesAcrossManyWeeks() {
+        // Every other Monday: a month-long search finds the free Mondays only
+        FreeSlots slots = awakeWithAllDayClass(Calendar.MONDAY, "FREQ=WEEKLY;INTERVAL=2", "20240108");
+        for (int d = Calendar.SUNDAY; d <= Calendar.SATURDAY; d++) {
+            if (d != Calendar.MONDAY) slots.addWeekly(d, 0, 24 * 60);
+        }
+        List<FreeSlots.Slot> found = slots.find(SUNDAY, SUNDAY + 35 * DAY, 60, 5);
+        assertEquals(2, found.size());
+        assertEquals(at(MONDAY + 7 * DAY, 8, 0), found.get(0).start);
+        assertEquals(at(MONDAY + 21 * DAY, 8, 0), found.get(1).start);
+    }
+
+    @Test
+    public void bitScansAcrossWords() {
+        long[] bits = new long[32];
+        FreeSlots.setRange(bits, 60, 130);
+
+        assertEquals(-1L, bits[1]);
+        assertEquals(60, FreeSlots.nextSet(bits, 0));
+        assertEquals(130, FreeSlots.nextClear(bits, 60));
+        assertEquals(FreeSlots.SLOTS_PER_WEEK, FreeSlots.nextSet(bits, 130));
+        assertEquals(0, FreeSlots.nextClear(bits, 0));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.studybuddy.data;
+
+import com.example.studybuddy.adapter.TimetableEvent;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.time.ZoneId;
+import java.util.Calendar;
+
+/**
+ * Rough timings for a 10k-event .ics file. Not a test: run main() from the IDE.
+ *
+ * - write: 10k classes through IcsWriter into a counting (discarding) Writer
+ * - read + map: the same file through IcsReader + IcsImport.map, one event at a time
+ *
+ * Memory should not grow with the file: only the current line / event is held.
+ */
+public class IcsBenchmark {
+
+    private static final int EVENTS = 10_000;
+    private static final int ROUNDS = 20;
+    private static final ZoneId ZONE = ZoneId.of("Europe/Dublin");
+
+    public static void main(String[] args) throws IOException {
+        TimetableEvent[] events = new TimetableEvent[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            TimetableEvent e = new TimetableEvent("m" + i % 40, "Module " + i % 40 + " – lecture, room " + i,
+                    Calendar.MONDAY + i % 5, 8 * 60 + (i % 10) * 60, 9 * 60 + (i % 10) * 60);
+            e.setId("e" + i);
+            e.setDtstart("20250113");
+            e.setRrule("FREQ=WEEKLY;BYDAY=" + "MO,TU,WE,TH,FR".split(",")[i % 5] + ";UNTIL=20250516");
+            e.setExdates("20250310,20250317");
+            events[i] = e;
+        }
+
+        StringBuilder file = new StringBuilder();
+        write(events, new Writer() {
+            @Override public void write(char[] b, int off, int len) { file.append(b, off, len); }
+            @Override public void flush() {}
+            @Override public void close() {}
+        });
+        System.out.printf("file: %d events, %.1f MB%n", EVENTS, file.length() / 1e6);
+        String ics = file.toString();
+
+        time("write 10k", () -> write(events, new CountingWriter()));
+        time("read + map 10k", () -> read(new StringReader(ics)));
+    }
+
+    private static int write(TimetableEvent[] events, Writer out) throws IOException {
+        IcsWriter w = new IcsWriter(out, ZONE);
+        for (TimetableEvent e : events) w.writeEvent(e);
+        w.close();
+        return w.count();
+    }
+
+    private static int read(Reader in) throws IOException {
+        IcsReader r = new IcsReader(in);
+        int n = 0;
+        for (IcsReader.VEvent v = r.next(); v != null; v = r.next()) {
+            if (IcsImport.map(v, ZONE).event != null) n++;
+        }
+        return n;
+    }
+
+    private static final class CountingWriter extends Writer {
+        long chars;
+        @Override public void write(char[] b, int off, int len) { chars += len; }
+        @Override public void write(int c) { chars++; }
+        @Override public void write(String s) { chars += s.length(); }
+        @Override public void flush() {}
+        @Override public void close() {}
+    }
+
+    private interface Run {
+        int go() throws IOException;
+    }
+
+    private static void time(String label, Run run) throws IOException {
+        int n = 0;
+        for (int i = 0; i < ROUNDS / 4; i++) n += run.go(); // warm-up
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        long before = rt.totalMemory() - rt.freeMemory();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) n += run.go();
+        long perRound = (System.nanoTime() - t0) / ROUNDS;
+        long heap = rt.totalMemory() - rt.freeMemory() - before;
+        System.out.printf("%-16s %8.1f ms/run  %6.1f µs/event  (%d events, heap delta %d KB)%n",
+                label, perRound / 1e6, perRound / 1e3 / EVENTS, n / (ROUNDS + ROUNDS / 4), heap / 1024);
+    }
+}
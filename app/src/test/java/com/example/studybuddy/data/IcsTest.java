@@ -0,0 +1,124 @@
+package com.example.studybuddy.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.example.studybuddy.adapter.Task;
+import com.example.studybuddy.adapter.TimetableEvent;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+public class IcsTest {
+
+    private static final ZoneId DUBLIN = ZoneId.of("Europe/Dublin");
+
+    private static List<IcsReader.VEvent> readAll(String ics) throws IOException {
+        IcsReader r = new IcsReader(new StringReader(ics));
+        List<IcsReader.VEvent> out = new ArrayList<>();
+        for (IcsReader.VEvent v = r.next(); v != null; v = r.next()) out.add(v);
+        return out;
+    }
+
+    @Test
+    public void exportThenImportGivesTheSameClasses() throws IOException {
+        TimetableEvent e = new TimetableEvent("m1", "Algorithms; Lecture, Room 2\\B", Calendar.TUESDAY, 9 * 60 + 30, 11 * 60);
+        e.setId("abc123");
+        e.setDtstart("20250113");
+        e.setRrule("FREQ=WEEKLY;INTERVAL=2;BYDAY=TU,TH;UNTIL=20250425");
+        e.setExdates("20250311,20250313");
+        Task t = new Task("Essay", null, "m1", "Algorithms", "HIGH", 1_740_000_000_000L);
+        t.setId("t1");
+
+        StringWriter out = new StringWriter();
+        IcsWriter w = new IcsWriter(out, DUBLIN);
+        w.writeEvent(e);
+        w.writeDeadline(t);
+        w.close();
+
+        List<IcsReader.VEvent> read = readAll(out.toString());
+        assertEquals(2, read.size());
+
+        IcsImport.Mapped m = IcsImport.map(read.get(0), DUBLIN);
+        assertNotNull(m.skipReason, m.event);
+        assertEquals("abc123", m.event.getId()); // our own UID maps back to the same doc
+        assertEquals(e.getTitle(), m.event.getTitle());
+        assertEquals(Calendar.TUESDAY, m.event.getDayOfWeek());
+        assertEquals(e.getStartMin(), m.event.getStartMin());
+        assertEquals(e.getEndMin(), m.event.getEndMin());
+        assertEquals(e.getRrule(), m.event.getRrule());
+        assertEquals("20250114", m.event.getDtstart()); // first Tuesday on/after the stored dtstart
+        assertEquals(e.getExdates(), m.event.getExdates());
+
+        assertEquals("Due: Essay", read.get(1).summary);
+        assertEquals("20250219T212000Z", read.get(1).dtstart.value);
+    }
+
+    @Test
+    public void longLinesAreFoldedAt75OctetsAndUnfoldedBack() throws IOException {
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < 40; i++) title.append("Café ☕ ");
+        TimetableEvent e = new TimetableEvent("m1", title.toString().trim(), Calendar.MONDAY, 600, 660);
+        e.setId("x");
+        e.setDtstart("20250106");
+
+        StringWriter out = new StringWriter();
+        IcsWriter w = new IcsWriter(out, ZoneOffset.UTC);
+        w.writeEvent(e);
+        w.close();
+
+        for (String line : out.toString().split("\r\n")) {
+            assertTrue(line, line.getBytes(java.nio.charset.StandardCharsets.UTF_8).length <= 75);
+        }
+        assertEquals(e.getTitle(), readAll(out.toString()).get(0).summary);
+    }
+
+    @Test
+    public void universityExportIsConvertedToLocalTime() throws IOException {
+        String ics = "BEGIN:VCALENDAR\r\n"
+                + "BEGIN:VTIMEZONE\r\nTZID:Europe/London\r\nBEGIN:STANDARD\r\nDTSTART:19701025T020000\r\nEND:STANDARD\r\nEND:VTIMEZONE\r\n"
+                + "BEGIN:VEVENT\r\n"
+                + "UID:2025-CS101-LEC@uni.example\r\n"
+                + "SUMMARY:CS101 Lec\r\n ture\r\n"                           // folded
+                + "DTSTART;TZID=\"Europe/London\":20250113T090000\r\n"
+                + "DURATION:PT1H30M\r\n"
+                + "RRULE:FREQ=WEEKLY;COUNT=12\r\n"
+                + "EXDATE;TZID=Europe/London:20250310T090000,20250317T090000\r\n"
+                + "BEGIN:VALARM\r\nTRIGGER:-PT15M\r\nSUMMARY:not me\r\nEND:VALARM\r\n"
+                + "END:VEVENT\r\n"
+                + "BEGIN:VEVENT\r\nUID:holiday\r\nSUMMARY:Bank holiday\r\nDTSTART;VALUE=DATE:20250317\r\nEND:VEVENT\r\n"
+                + "BEGIN:VEVENT\r\nUID:daily\r\nSUMMARY:Gym\r\nDTSTART:20250113T070000Z\r\nRRULE:FREQ=DAILY\r\nEND:VEVENT\r\n"
+                + "END:VCALENDAR\r\n";
+
+        List<IcsReader.VEvent> read = readAll(ics);
+        assertEquals(3, read.size());
+
+        // Same wall clock in Dublin as in London
+        IcsImport.Mapped lec = IcsImport.map(read.get(0), DUBLIN);
+        assertNotNull(lec.event);
+        assertEquals("CS101 Lecture", lec.moduleTitle);
+        assertEquals(Calendar.MONDAY, lec.event.getDayOfWeek());
+        assertEquals(9 * 60, lec.event.getStartMin());
+        assertEquals(10 * 60 + 30, lec.event.getEndMin());
+        assertEquals("FREQ=WEEKLY;COUNT=12", lec.event.getRrule());
+        assertEquals("20250310,20250317", lec.event.getExdates());
+        assertTrue(lec.event.getId().startsWith(IcsImport.ID_PREFIX));
+
+        // ...but an hour later in Berlin
+        IcsImport.Mapped berlin = IcsImport.map(read.get(0), ZoneId.of("Europe/Berlin"));
+        assertEquals(10 * 60, berlin.event.getStartMin());
+
+        assertNull(IcsImport.map(read.get(1), DUBLIN).event);  // all-day
+        assertNull(IcsImport.map(read.get(2), DUBLIN).event);  // FREQ=DAILY
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.studybuddy.data;
+
+import com.example.studybuddy.adapter.TimetableEvent;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Rough timings for Recurrence over multi-year ranges. Not a test: run main() from the IDE.
+ *
+ * - deep window: 2 weeks, 5 years after dtstart (should cost the same as the first 2 weeks)
+ * - full walk: every date of a 5-year rule
+ * - timetable: 300 events merged over a whole year
+ */
+public class RecurrenceBenchmark {
+
+    private static final int ROUNDS = 2_000;
+
+    public static void main(String[] args) {
+        LocalDate start = LocalDate.of(2025, 1, 6);
+        Recurrence rule = Recurrence.parse("FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE,FR", start, DayOfWeek.MONDAY,
+                "20250310,20250312,20250314");
+
+        LocalDate deep = start.plusYears(5);
+        time("first 2 weeks", () -> drain(rule.between(start, start.plusWeeks(2)).iterator()));
+        time("2 weeks, 5 years in", () -> drain(rule.between(deep, deep.plusWeeks(2)).iterator()));
+        time("all of 5 years", () -> drain(rule.between(start, deep).iterator()));
+
+        List<TimetableEvent> events = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            TimetableEvent e = new TimetableEvent("m" + i, "Event " + i, Calendar.SUNDAY + i % 7,
+                    8 * 60 + (i % 10) * 60, 9 * 60 + (i % 10) * 60);
+            e.setId("e" + i);
+            e.setDtstart("20250106");
+            events.add(e);
+        }
+        time("300 events, 1 year merged", () -> drain(
+                Recurrence.expand(events, start, start.plusYears(1), ZoneOffset.UTC)));
+    }
+
+    private static int drain(Iterator<?> it) {
+        int n = 0;
+        while (it.hasNext()) {
+            it.next();
+            n++;
+        }
+        return n;
+    }
+
+    private interface Run {
+        int go();
+    }
+
+    private static void time(String label, Run run) {
+        int rounds = label.startsWith("300") ? ROUNDS / 100 : ROUNDS;
+        int n = 0;
+        for (int i = 0; i < rounds / 10; i++) n += run.go(); // warm-up
+        long t0 = System.nanoTime();
+        for (int i = 0; i < rounds; i++) n += run.go();
+        long perRound = (System.nanoTime() - t0) / rounds;
+        System.out.printf("%-28s %10d ns/run  (%d dates)%n", label, perRound, n / (rounds + rounds / 10));
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.studybuddy.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.example.studybuddy.adapter.TimetableEvent;
+
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Property tests: random rules (fixed seeds, so failures reproduce) are expanded by
+ * Recurrence and by a day-by-day oracle that follows the RFC 5545 wording directly.
+ */
+public class RecurrenceTest {
+
+    private static final int TRIALS = 400;
+    private static final String[] CODES = {"MO", "TU", "WE", "TH", "FR", "SA", "SU"};
+    private static final LocalDate BASE = LocalDate.of(2024, 9, 2);
+
+    /** A random rule plus everything the oracle needs to expand it by hand. */
+    private static final class Case {
+        LocalDate dtstart;
+        int interval;
+        DayOfWeek wkst;
+        List<DayOfWeek> byDay = new ArrayList<>();
+        LocalDate until;
+        int count;
+        List<LocalDate> exdates = new ArrayList<>();
+        String rrule;
+        String exdateText;
+
+        Recurrence parse() {
+            return Recurrence.parse(rrule, dtstart, byDay.get(0), exdateText);
+        }
+
+        @Override
+        public String toString() {
+            return rrule + " dtstart=" + dtstart + " exdates=" + exdateText;
+        }
+    }
+
+    private static Case randomCase(Random rnd) {
+        Case c = new Case();
+        c.dtstart = BASE.plusDays(rnd.nextInt(400));
+        c.interval = 1 + rnd.nextInt(4);
+        c.wkst = DayOfWeek.of(1 + rnd.nextInt(7));
+        int days = 1 + rnd.nextInt(4);
+        while (c.byDay.size() < days) {
+            DayOfWeek d = DayOfWeek.of(1 + rnd.nextInt(7));
+            if (!c.byDay.contains(d)) c.byDay.add(d);
+        }
+
+        StringBuilder rule = new StringBuilder("FREQ=WEEKLY;INTERVAL=" + c.interval + ";WKST=" + code(c.wkst));
+        rule.append(";BYDAY=");
+        for (int i = 0; i < c.byDay.size(); i++) rule.append(i == 0 ? "" : ",").append(code(c.byDay.get(i)));
+        switch (rnd.nextInt(3)) {
+            case 0:
+                c.until = c.dtstart.plusDays(rnd.nextInt(500));
+                rule.append(";UNTIL=").append(Recurrence.DATE.format(c.until));
+                break;
+            case 1:
+                c.count = 1 + rnd.nextInt(60);
+                rule.append(";COUNT=").append(c.count);
+                break;
+            default:
+                break; // open-ended
+        }
+        c.rrule = rule.toString();
+
+        StringBuilder ex = new StringBuilder();
+        for (int i = rnd.nextInt(6); i > 0; i--) {
+            LocalDate d = c.dtstart.plusDays(rnd.nextInt(300));
+            c.exdates.add(d);
+            ex.append(ex.length() == 0 ? "" : ",").append(Recurrence.DATE.format(d));
+        }
+        c.exdateText = ex.length() == 0 ? null : ex.toString();
+        return c;
+    }
+
+    private static String code(DayOfWeek d) {
+        return CODES[d.getValue() - 1];
+    }
+
+    /** Straight from the spec: walk every day, count instances, drop EXDATEs last. */
+    private static List<LocalDate> oracle(Case c, LocalDate from, LocalDate to) {
+        LocalDate firstWeek = c.dtstart.minusDays(Math.floorMod(c.dtstart.getDayOfWeek().getValue() - c.wkst.getValue(), 7));
+        List<LocalDate> out = new ArrayList<>();
+        int instances = 0;
+        for (LocalDate d = c.dtstart; d.isBefore(to); d = d.plusDays(1)) {
+            if (c.until != null && d.isAfter(c.until)) break;
+            if (c.count > 0 && instances >= c.count) break;
+            if (!c.byDay.contains(d.getDayOfWeek())) continue;
+            long weeks = ChronoUnit.DAYS.between(firstWeek, d) / 7;
+            if (weeks % c.interval != 0) continue;
+            instances++;
+            if (!d.isBefore(from) && !c.exdates.contains(d)) out.add(d);
+        }
+        return out;
+    }
+
+    private static List<LocalDate> list(Iterable<LocalDate> dates) {
+        List<LocalDate> out = new ArrayList<>();
+        for (LocalDate d : dates) out.add(d);
+        return out;
+    }
+
+    // -------- Properties --------
+
+    @Test
+    public void matchesTheDayByDayOracle() {
+        Random rnd = new Random(20);
+        for (int t = 0; t < TRIALS; t++) {
+            Case c = randomCase(rnd);
+            LocalDate from = c.dtstart.plusDays(rnd.nextInt(200) - 30);
+            LocalDate to = from.plusDays(rnd.nextInt(200));
+            assertEquals(c + " in [" + from + ", " + to + ")", oracle(c, from, to), list(c.parse().between(from, to)));
+        }
+    }
+
+    @Test
+    public void splittingTheWindowChangesNothing() {
+        Random rnd = new Random(21);
+        for (int t = 0; t < TRIALS; t++) {
+            Case c = randomCase(rnd);
+            Recurrence r = c.parse();
+            LocalDate a = c.dtstart.minusDays(rnd.nextInt(20));
+            LocalDate b = a.plusDays(rnd.nextInt(150));
+            LocalDate end = b.plusDays(rnd.nextInt(150));
+
+            List<LocalDate> joined = list(r.between(a, b));
+            joined.addAll(list(r.between(b, end)));
+            assertEquals(c.toString(), list(r.between(a, end)), joined);
+        }
+    }
+
+    @Test
+    public void everyDateObeysTheRule() {
+        Random rnd = new Random(22);
+        for (int t = 0; t < TRIALS; t++) {
+            Case c = randomCase(rnd);
+            LocalDate from = c.dtstart.minusDays(10);
+            LocalDate to = from.plusDays(365);
+            LocalDate prev = null;
+            for (LocalDate d : c.parse().between(from, to)) {
+                assertTrue(c + " " + d, !d.isBefore(from) && d.isBefore(to) && !d.isBefore(c.dtstart));
+                assertTrue(c + " " + d, c.byDay.contains(d.getDayOfWeek()));
+                assertFalse(c + " " + d, c.exdates.contains(d));
+                if (c.until != null) assertFalse(c + " " + d, d.isAfter(c.until));
+                if (prev != null) assertTrue(c + " " + d, d.isAfter(prev));
+                prev = d;
+            }
+        }
+    }
+
+    @Test
+    public void countIncludesExcludedDates() {
+        Random rnd = new Random(23);
+        for (int t = 0; t < TRIALS; t++) {
+            Case c = randomCase(rnd);
+            if (c.count == 0) continue;
+            List<LocalDate> all = list(c.parse().between(c.dtstart, c.dtstart.plusYears(10)));
+            int skipped = 0;
+            for (LocalDate d : oracle(c, c.dtstart, c.dtstart.plusYears(10))) assertTrue(all.contains(d));
+            for (LocalDate d : new java.util.HashSet<>(c.exdates)) {
+                if (list(Recurrence.parse(c.rrule, c.dtstart, c.byDay.get(0), null)
+                        .between(c.dtstart, c.dtstart.plusYears(10))).contains(d)) skipped++;
+            }
+            assertEquals(c.toString(), c.count, all.size() + skipped);
+        }
+    }
+
+    @Test
+    public void occurrencesBeforeMatchesCounting() {
+        Random rnd = new Random(24);
+        for (int t = 0; t < TRIALS; t++) {
+            Case c = randomCase(rnd);
+            c.until = null;
+            c.count = 0;
+            c.exdates.clear();
+            c.exdateText = null;
+            c.rrule = c.rrule.replaceAll(";(UNTIL|COUNT)=[^;]*", "");
+            LocalDate day = c.dtstart.plusDays(rnd.nextInt(700));
+            assertEquals(c + " before " + day, oracle(c, c.dtstart, day).size(), c.parse().occurrencesBefore(day));
+        }
+    }
+
+    // -------- Examples --------
+
+    @Test
+    public void semesterWithReadingWeek() {
+        // Mon + Thu, every week, 12 weeks from 2025-01-13, no classes in reading week (w/c 2025-03-10)
+        Recurrence r = Recurrence.parse("RRULE:FREQ=WEEKLY;BYDAY=MO,TH;UNTIL=20250404T235959Z",
+                LocalDate.of(2025, 1, 13), DayOfWeek.MONDAY, "20250310,20250313");
+
+        List<LocalDate> dates = list(r.between(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)));
+        assertEquals(22, dates.size());
+        assertEquals(LocalDate.of(2025, 1, 13), dates.get(0));
+        assertEquals(LocalDate.of(2025, 4, 3), dates.get(dates.size() - 1));
+        assertFalse(dates.contains(LocalDate.of(2025, 3, 10)));
+        assertEquals(LocalDate.of(2025, 3, 17), r.next(LocalDate.of(2025, 3, 8)));
+        assertNull(r.next(LocalDate.of(2025, 4, 4)));
+    }
+
+    @Test
+    public void legacyWeeklyUsesTheEventsDay() {
+        TimetableEvent e = new TimetableEvent("m1", "Maths", Calendar.WEDNESDAY, 9 * 60, 10 * 60);
+        e.setDtstart("20250101"); // a Wednesday
+
+        Iterator<LocalDate> it = Recurrence.of(e, ZoneOffset.UTC).between(
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 16)).iterator();
+        assertEquals(LocalDate.of(2025, 1, 1), it.next());
+        assertEquals(LocalDate.of(2025, 1, 8), it.next());
+        assertEquals(LocalDate.of(2025, 1, 15), it.next());
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    public void unreadableRuleFallsBackToWeekly() {
+        TimetableEvent e = new TimetableEvent("m1", "Maths", Calendar.FRIDAY, 9 * 60, 10 * 60);
+        e.setDtstart("20250103");
+        e.setRrule("FREQ=DAILY");
+
+        assertEquals(LocalDate.of(2025, 1, 10), Recurrence.of(e, ZoneOffset.UTC).next(LocalDate.of(2025, 1, 4)));
+    }
+
+    @Test
+    public void rejectsWhatItDoesNotSupport() {
+        for (String bad : Arrays.asList("FREQ=MONTHLY", "FREQ=WEEKLY;BYDAY=1MO", "FREQ=WEEKLY;INTERVAL=0",
+                "FREQ=WEEKLY;COUNT=2;UNTIL=20250101", "FREQ=WEEKLY;BYMONTH=1", "INTERVAL=2")) {
+            try {
+                Recurrence.parse(bad, BASE, DayOfWeek.MONDAY, null);
+                fail("accepted " + bad);
+            } catch (IllegalArgumentException expected) {
+                // ok
+            }
+        }
+    }
+
+    @Test
+    public void expandMergesEventsInTimeOrder() {
+        TimetableEvent late = new TimetableEvent("m1", "Late", Calendar.MONDAY, 14 * 60, 15 * 60);
+        late.setId("a");
+        late.setDtstart("20250106");
+        TimetableEvent early = new TimetableEvent("m2", "Early", Calendar.MONDAY, 9 * 60, 10 * 60);
+        early.setId("b");
+        early.setDtstart("20250106");
+        TimetableEvent tue = new TimetableEvent("m3", "Tue", Calendar.TUESDAY, 8 * 60, 9 * 60);
+        tue.setId("c");
+        tue.setDtstart("20250106");
+
+        Iterator<Recurrence.Occurrence> it = Recurrence.expand(Arrays.asList(late, early, tue),
+                LocalDate.of(2025, 1, 6), LocalDate.of(2025, 1, 14), ZoneOffset.UTC);
+        List<String> order = new ArrayList<>();
+        while (it.hasNext()) {
+            Recurrence.Occurrence o = it.next();
+            order.add(o.date.getDayOfMonth() + " " + o.event.getTitle());
+        }
+        assertEquals(Arrays.asList("6 Early", "6 Late", "7 Tue", "13 Early", "13 Late"), order);
+    }
+}
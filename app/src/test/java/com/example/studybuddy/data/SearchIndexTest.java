@@ -0,0 +1,200 @@
+package com.example.studybuddy.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.example.studybuddy.adapter.Module;
+import com.example.studybuddy.adapter.Task;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class SearchIndexTest {
+
+    private static final int BOTH = SearchIndex.KIND_TASK | SearchIndex.KIND_MODULE;
+
+    private static Task task(String id, String title, String moduleTitle, String description) {
+        Task t = new Task();
+        t.setId(id);
+        t.setTitle(title);
+        t.setModuleTitle(moduleTitle);
+        t.setDescription(description);
+        return t;
+    }
+
+    private static Module module(String id, String title, String description) {
+        Module m = new Module();
+        m.setId(id);
+        m.setTitle(title);
+        m.setDescription(description);
+        return m;
+    }
+
+    /** "t:id" / "m:id" in result order. */
+    private static List<String> ids(List<SearchIndex.Hit> hits) {
+        List<String> out = new ArrayList<>();
+        for (SearchIndex.Hit h : hits) out.add(h.task != null ? "t:" + h.task.getId() : "m:" + h.module.getId());
+        return out;
+    }
+
+    @Test
+    public void everyWordMustMatchAsAPrefix() {
+        SearchIndex index = new SearchIndex();
+        index.putTask(task("1", "Linear algebra sheet", "Maths", null));
+        index.putTask(task("2", "Algorithms essay", "Computing", "graphs and sorting"));
+        index.putTask(task("3", "Essay plan", "History", null));
+
+        assertEquals(Arrays.asList("t:1", "t:2"), sorted(ids(index.search("alg", BOTH, 10))));
+        // Both words, in any field, in any order
+        assertEquals(Arrays.asList("t:2"), ids(index.search("ess algo", BOTH, 10)));
+        assertEquals(Arrays.asList("t:2"), ids(index.search("sort comp", BOTH, 10)));
+        // One word matching is not enough
+        assertEquals(0, index.search("essay maths", BOTH, 10).size());
+        // A word longer than any term matches nothing
+        assertEquals(0, index.search("algebras", BOTH, 10).size());
+        // Accents and case are ignored on both sides
+        assertEquals(Arrays.asList("t:3"), ids(index.search("ÉSSAY  HIST", BOTH, 10)));
+        assertEquals(0, index.search("  ,. ", BOTH, 10).size());
+    }
+
+    @Test
+    public void exactWordsAndTitlesRankFirst() {
+        SearchIndex index = new SearchIndex();
+        index.putTask(task("prefix", "Examples", null, null));
+        index.putTask(task("exact", "Exam", null, null));
+        index.putTask(task("described", "Revision", null, "exam"));
+        index.putModule(module("m", "Exam skills", null));
+
+        List<SearchIndex.Hit> hits = index.search("exam", BOTH, 10);
+        // title exact 3*2 = 6 (task and module tie), prefix 3, description exact 1*2 = 2
+        assertEquals(4, hits.size());
+        assertEquals(6, hits.get(0).score);
+        assertEquals(6, hits.get(1).score);
+        assertEquals("t:prefix", ids(hits).get(2));
+        assertEquals(3, hits.get(2).score);
+        assertEquals("t:described", ids(hits).get(3));
+        assertEquals(2, hits.get(3).score);
+
+        // Kind mask and limit
+        assertEquals(Arrays.asList("m:m"), ids(index.search("exam", SearchIndex.KIND_MODULE, 10)));
+        assertEquals(Arrays.asList("t:exact"), ids(index.search("exam", SearchIndex.KIND_TASK, 1)));
+    }
+
+    @Test
+    public void removedDocsDisappearAndTheirSlotIsReused() {
+        SearchIndex index = new SearchIndex();
+        index.putTask(task("a", "Chemistry lab", null, null));
+        index.putModule(module("a", "Chemistry", null)); // same id, other kind: separate doc
+        index.putTask(task("b", "Physics lab", null, null));
+
+        index.remove(SearchIndex.KIND_TASK, "a");
+        assertEquals(Arrays.asList("m:a"), ids(index.search("chem", BOTH, 10)));
+        index.remove(SearchIndex.KIND_TASK, "a"); // already gone: no-op
+
+        // The next doc takes a's slot; nothing of a's must leak into it
+        index.putTask(task("c", "Biology", null, null));
+        assertEquals(Arrays.asList("m:a"), ids(index.search("chem", BOTH, 10)));
+        assertEquals(Arrays.asList("t:b"), ids(index.search("lab", BOTH, 10)));
+        SearchIndex.Hit bio = index.search("bio", BOTH, 10).get(0);
+        assertNotNull(bio.task);
+        assertNull(bio.module);
+        assertEquals("c", bio.task.getId());
+
+        // Re-putting replaces the old terms
+        index.putTask(task("b", "Physics exam", null, null));
+        assertEquals(0, index.search("lab", BOTH, 10).size());
+        assertEquals(Arrays.asList("t:b"), ids(index.search("phys ex", BOTH, 10)));
+    }
+
+    @Test
+    public void matchesBruteForceThroughEdits() {
+        String[] vocab = {"alg", "algebra", "algorithms", "essay", "ess", "exam", "lab", "labs", "graph", "notes"};
+        Random rnd = new Random(11);
+        SearchIndex index = new SearchIndex();
+        Map<String, String[]> fields = new HashMap<>(); // "t:id" -> title, moduleTitle, description
+
+        for (int step = 0; step < 2000; step++) {
+            int n = rnd.nextInt(150);
+            boolean isTask = rnd.nextBoolean();
+            String key = (isTask ? "t:" : "m:") + n;
+            if (rnd.nextInt(4) == 0) {
+                index.remove(isTask ? SearchIndex.KIND_TASK : SearchIndex.KIND_MODULE, "" + n);
+                fields.remove(key);
+            } else {
+                String title = words(rnd, vocab), moduleTitle = isTask ? words(rnd, vocab) : null, desc = words(rnd, vocab);
+                if (isTask) index.putTask(task("" + n, title, moduleTitle, desc));
+                else index.putModule(module("" + n, title, desc));
+                fields.put(key, new String[]{title, moduleTitle, desc});
+            }
+
+            String query = words(rnd, vocab);
+            int mask = 1 + rnd.nextInt(BOTH);
+            Map<String, Integer> want = bruteForce(fields, query, mask);
+            Map<String, Integer> got = new TreeMap<>();
+            List<SearchIndex.Hit> hits = index.search(query, mask, 1000);
+            for (int i = 0; i < hits.size(); i++) {
+                got.put(ids(hits).get(i), hits.get(i).score);
+                if (i > 0) assertTrue("step " + step + " ordered", hits.get(i - 1).score >= hits.get(i).score);
+            }
+            assertEquals("step " + step + " \"" + query + "\"", want, got);
+        }
+    }
+
+    // -------- Helpers --------
+
+    private static List<String> sorted(List<String> in) {
+        List<String> out = new ArrayList<>(in);
+        Collections.sort(out);
+        return out;
+    }
+
+    private static String words(Random rnd, String[] vocab) {
+        StringBuilder s = new StringBuilder();
+        int n = rnd.nextInt(3);
+        for (int i = 0; i <= n; i++) s.append(vocab[rnd.nextInt(vocab.length)]).append(' ');
+        return s.toString();
+    }
+
+    /** Score per document, straight from the documented weights (title 3, module title 2, description 1, exact x2). */
+    private static Map<String, Integer> bruteForce(Map<String, String[]> fields, String query, int mask) {
+        List<String> words = SearchIndex.tokenize(query);
+        int[] weights = {3, 2, 1};
+        Map<String, Integer> out = new TreeMap<>();
+        for (Map.Entry<String, String[]> e : fields.entrySet()) {
+            int kind = e.getKey().startsWith("t:") ? SearchIndex.KIND_TASK : SearchIndex.KIND_MODULE;
+            if ((kind & mask) == 0) continue;
+
+            // distinct terms of the doc with their summed field weights
+            Map<String, Integer> terms = new HashMap<>();
+            for (int f = 0; f < 3; f++) {
+                for (String term : SearchIndex.tokenize(e.getValue()[f])) {
+                    Integer w = terms.get(term);
+                    terms.put(term, (w == null ? 0 : w) + weights[f]);
+                }
+            }
+            int score = 0;
+            boolean all = true;
+            for (String word : words) {
+                boolean any = false;
+                for (Map.Entry<String, Integer> t : terms.entrySet()) {
+                    if (!t.getKey().startsWith(word)) continue;
+                    any = true;
+                    score += t.getValue() * (t.getKey().equals(word) ? 2 : 1);
+                }
+                all &= any;
+            }
+            if (all) out.put(e.getKey(), score);
+        }
+        return out;
+    }
+}
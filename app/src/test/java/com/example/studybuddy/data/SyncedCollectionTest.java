@@ -0,0 +1,117 @@
+package com.example.studybuddy.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.studybuddy.adapter.Task;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** SyncedCollection's listener rules, driven the way the docs / cache-only listeners would. */
+public class SyncedCollectionTest {
+
+    private final List<Task> ordered = new ArrayList<>();
+    private final Map<String, Task> byId = new HashMap<>();
+    private final Set<String> unconfirmed = new HashSet<>();
+    private final SortedStore<Task> store = new SortedStore<>(ordered, byId,
+            Comparator.comparingLong(Task::getCreatedAt).reversed().thenComparing(Task::getId));
+
+    private static Task task(String id, long createdAt, String title) {
+        Task t = new Task();
+        t.setId(id);
+        t.setCreatedAt(createdAt);
+        t.setTitle(title);
+        return t;
+    }
+
+    private List<String> titles() {
+        List<String> out = new ArrayList<>();
+        for (Task t : ordered) out.add(t.getTitle());
+        return out;
+    }
+
+    /** What the delta query delivers: a confirmed doc, or REMOVED when one stops matching it. */
+    private ChangeSet<Task> server(String id, Task item) {
+        ChangeSet<Task> changes = ChangeSet.delta();
+        SyncedCollection.onDoc(store, unconfirmed, false, id, item == null, item, changes);
+        return changes;
+    }
+
+    /** What the cache-only listener delivers. */
+    private ChangeSet<Task> local(String id, Task item, boolean pending) {
+        ChangeSet<Task> changes = ChangeSet.delta();
+        SyncedCollection.onLocalDoc(store, unconfirmed, id, item == null, pending, item, changes);
+        return changes;
+    }
+
+    @Test
+    public void anEditMadeOfflineShowsUntilItIsConfirmed() {
+        server("a", task("a", 2, "Essay"));
+        server("b", task("b", 1, "Lab"));
+
+        // Offline edit: the cache has it at once, the delta query drops the doc (no server time yet)
+        ChangeSet<Task> edit = local("a", task("a", 2, "Essay draft 2"), true);
+        assertEquals(1, edit.getChanged().size());
+        assertTrue(server("a", null).isEmpty());
+        assertEquals(Arrays.asList("Essay draft 2", "Lab"), titles());
+
+        // Still offline: a new task too
+        local("c", task("c", 3, "Revise"), true);
+        assertTrue(server("c", null).isEmpty());
+        assertEquals(Arrays.asList("Revise", "Essay draft 2", "Lab"), titles());
+
+        // Back online: Firestore confirms both, the delta query gets them with their updatedAt
+        assertEquals(1, local("a", task("a", 2, "Essay draft 2"), false).getChanged().size());
+        server("a", task("a", 2, "Essay draft 2"));
+        server("c", task("c", 3, "Revise"));
+        assertEquals(Arrays.asList("Revise", "Essay draft 2", "Lab"), titles());
+        assertTrue(unconfirmed.isEmpty());
+
+        // Later cache-only events for confirmed docs are the server listeners' business
+        assertTrue(local("b", task("b", 1, "stale cache copy"), false).isEmpty());
+        assertEquals(Arrays.asList("Revise", "Essay draft 2", "Lab"), titles());
+    }
+
+    @Test
+    public void aRejectedWriteFallsBackToTheCachedVersion() {
+        server("a", task("a", 1, "Essay"));
+        local("a", task("a", 1, "Renamed"), true);
+        assertEquals(Arrays.asList("Renamed"), titles());
+
+        // e.g. PERMISSION_DENIED: the cache rolls back and the delta query never sees it
+        local("a", task("a", 1, "Essay"), false);
+        assertEquals(Arrays.asList("Essay"), titles());
+        assertTrue(unconfirmed.isEmpty());
+    }
+
+    @Test
+    public void deletesComeFromTombstonesOrLocalDeletesOnly() {
+        server("a", task("a", 1, "Essay"));
+        server("b", task("b", 2, "Lab"));
+
+        // A REMOVED from the delta query is not a delete
+        assertTrue(server("a", null).isEmpty());
+        assertEquals(2, ordered.size());
+
+        // A delete made here leaves the cache straight away
+        ChangeSet<Task> gone = local("b", null, true);
+        assertEquals(1, gone.getRemoved().size());
+        assertEquals(Arrays.asList("Essay"), titles());
+
+        // With the full listing (no mark yet) REMOVED is the only way to hear about deletes
+        ChangeSet<Task> full = ChangeSet.delta();
+        SyncedCollection.onDoc(store, unconfirmed, true, "a", true, null, full);
+        assertEquals(1, full.getRemoved().size());
+        assertTrue(ordered.isEmpty());
+        assertTrue(byId.isEmpty());
+    }
+}
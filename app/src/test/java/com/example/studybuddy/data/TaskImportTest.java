@@ -0,0 +1,120 @@
+package com.example.studybuddy.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.example.studybuddy.adapter.Module;
+import com.example.studybuddy.adapter.Task;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class TaskImportTest {
+
+    private static final ZoneId DUBLIN = ZoneId.of("Europe/Dublin");
+
+    private static List<TaskRows.Row> readAll(String csv) throws IOException {
+        TaskRows rows = TaskRows.open(new StringReader(csv));
+        List<TaskRows.Row> out = new ArrayList<>();
+        for (TaskRows.Row r = rows.next(); r != null; r = rows.next()) out.add(r);
+        return out;
+    }
+
+    private static TaskRows.Row row(String title, String type, String priority, String due, String module) {
+        TaskRows.Row r = new TaskRows.Row();
+        r.line = 2;
+        r.title = title;
+        r.type = type;
+        r.priority = priority;
+        r.due = due;
+        r.module = module;
+        return r;
+    }
+
+    @Test
+    public void csvQuotingHeaderAliasesAndLineNumbers() throws IOException {
+        String csv = "\uFEFFName,Due Date,Type,Notes,Extra\r\n"
+                + "Essay,2025-03-14,Assignment,\"Read ch. 3, then \"\"draft\"\"\",x\r\n"
+                + "\r\n"
+                + "Revise,,exam,\"line one\nline two\",\r\n"
+                + "Short row,,Task";
+        List<TaskRows.Row> rows = readAll(csv);
+        assertEquals(3, rows.size());
+
+        assertEquals("Essay", rows.get(0).title);
+        assertEquals("2025-03-14", rows.get(0).due);
+        assertEquals("Read ch. 3, then \"draft\"", rows.get(0).description);
+        assertEquals(2, rows.get(0).line);
+
+        assertEquals("line one\nline two", rows.get(1).description);
+        assertNull(rows.get(1).due);
+        assertEquals(4, rows.get(1).line);
+
+        assertEquals("Short row", rows.get(2).title);
+        assertEquals(6, rows.get(2).line); // after the quoted newline
+    }
+
+    @Test
+    public void csvWithoutTitleAndTypeColumnsIsRejected() {
+        try {
+            TaskRows.open(new StringReader("title,priority\nEssay,High\n"));
+            fail("expected IOException");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage().contains("title and type"));
+        }
+    }
+
+    @Test
+    public void checkUsesTheFormRules() {
+        Module algos = new Module("Algorithms", null, "2", "1", "Monday");
+        algos.setId("m1");
+        Map<String, Module> modules = Collections.singletonMap(TaskImport.key(algos.getTitle()), algos);
+
+        TaskImport.Checked ok = TaskImport.check(row("  Essay ", "assignment", "high", "2025-03-14", "algorithms"), modules, DUBLIN);
+        assertNull(ok.error);
+        Task t = ok.task;
+        assertNotNull(t);
+        assertEquals("Essay", t.getTitle());
+        assertEquals("assignment", t.getType());
+        assertEquals("HIGH", t.getPriority());
+        assertEquals("m1", t.getModuleId());
+        assertEquals("Algorithms", t.getModuleTitle());
+        assertEquals((Long) LocalDateTime.of(2025, 3, 14, 9, 0).atZone(DUBLIN).toInstant().toEpochMilli(), t.getDueAt());
+
+        TaskImport.Checked noPriority = TaskImport.check(row("Quiz", "Exam", "urgent", null, null), modules, DUBLIN);
+        assertEquals("NONE", noPriority.task.getPriority());
+        assertNull(noPriority.task.getModuleId());
+        assertNull(noPriority.task.getDueAt());
+
+        assertEquals("Task title is required", TaskImport.check(row(" ", "Task", null, null, null), modules, DUBLIN).error);
+        assertEquals("Task type is required", TaskImport.check(row("Essay", null, null, null, null), modules, DUBLIN).error);
+        assertTrue(TaskImport.check(row("Essay", TaskRules.TYPE_PLACEHOLDER, null, null, null), modules, DUBLIN).error.startsWith("Unknown type"));
+        assertTrue(TaskImport.check(row("Essay", "Task", null, "next week", null), modules, DUBLIN).error.startsWith("Can't read due date"));
+        assertTrue(TaskImport.check(row("Essay", "Task", null, null, "Databases"), modules, DUBLIN).error.startsWith("No module"));
+    }
+
+    @Test
+    public void dueDateFormats() {
+        long nine = LocalDateTime.of(2025, 3, 14, 9, 0).atZone(DUBLIN).toInstant().toEpochMilli();
+        assertEquals((Long) nine, TaskImport.parseDue("2025-03-14", DUBLIN));
+        assertEquals((Long) nine, TaskImport.parseDue("14/3/2025", DUBLIN));
+        assertEquals((Long) (nine + 8 * 3_600_000L), TaskImport.parseDue("2025-03-14 17:00", DUBLIN));
+        assertEquals((Long) (nine + 8 * 3_600_000L), TaskImport.parseDue("2025-03-14T17:00:00", DUBLIN));
+        assertEquals((Long) 1_741_971_600_000L, TaskImport.parseDue("2025-03-14T17:00:00Z", DUBLIN));
+        assertEquals((Long) 1_741_968_000_000L, TaskImport.parseDue("2025-03-14T17:00:00+01:00", DUBLIN));
+        assertEquals((Long) 1_741_971_600_000L, TaskImport.parseDue("1741971600000", DUBLIN));
+        assertNull(TaskImport.parseDue("tomorrow", DUBLIN));
+        assertNull(TaskImport.parseDue("2025-13-01", DUBLIN));
+    }
+}
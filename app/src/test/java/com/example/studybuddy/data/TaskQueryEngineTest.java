@@ -0,0 +1,190 @@
+package com.example.studybuddy.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.studybuddy.adapter.Task;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class TaskQueryEngineTest {
+
+    private static final String[] PRIORITIES = {"NONE", "LOW", "MEDIUM", "HIGH", null};
+    private static final String[] TYPES = {"task", "assignment", "exam", "Demo", "presentation", "other", null};
+    private static final String[] MODULES = {"m0", "m1", "m2", null};
+
+    private static Task task(String id, String priority, String type, String moduleId, Long dueAt,
+                             boolean completed, long createdAt) {
+        Task t = new Task();
+        t.setId(id);
+        t.setPriority(priority);
+        t.setType(type);
+        t.setModuleId(moduleId);
+        t.setDueAt(dueAt);
+        t.setCompleted(completed);
+        t.setCreatedAt(createdAt);
+        return t;
+    }
+
+    private static List<String> ids(List<Task> tasks) {
+        List<String> out = new ArrayList<>();
+        for (Task t : tasks) out.add(t.getId());
+        return out;
+    }
+
+    @Test
+    public void eachFacetIgnoresItsOwnCriterion() {
+        TaskQueryEngine engine = new TaskQueryEngine();
+        engine.upsert(task("a", "HIGH", "exam", "m1", 100L, false, 1));
+        engine.upsert(task("b", "HIGH", "task", "m1", 200L, true, 2));
+        engine.upsert(task("c", "LOW", "exam", "m1", 300L, false, 3));
+        engine.upsert(task("d", "HIGH", "exam", "m1", 400L, true, 4));
+        engine.upsert(task("e", "HIGH", "exam", "m2", 500L, false, 5)); // other module: never counted
+
+        TaskFilter f = new TaskFilter();
+        f.moduleId = "m1";
+        f.priorityMask = TaskFilter.bit(TaskCodes.PRIORITY_HIGH);
+        f.typeMask = TaskFilter.bit(TaskCodes.TYPE_EXAM);
+        f.completed = TaskFilter.NO;
+
+        TaskQueryEngine.Result r = engine.query(f);
+        assertEquals(Arrays.asList("a"), ids(r.tasks));
+        // exam + open in m1, by priority: a (HIGH), c (LOW)
+        assertArrayEquals(new int[]{0, 1, 0, 1}, r.priorityCounts);
+        // HIGH + open in m1, by type: a (exam)
+        assertArrayEquals(new int[]{0, 0, 1, 0, 0}, r.typeCounts);
+        // HIGH + exam in m1, by status: a open, d done
+        assertEquals(1, r.openCount);
+        assertEquals(1, r.completedCount);
+
+        // Moving a task to another module takes it out of every count
+        engine.upsert(task("a", "HIGH", "exam", "m2", 100L, false, 1));
+        r = engine.query(f);
+        assertEquals(0, r.tasks.size());
+        assertArrayEquals(new int[]{0, 1, 0, 0}, r.priorityCounts);
+        assertEquals(0, r.openCount);
+        assertEquals(1, r.completedCount);
+    }
+
+    @Test
+    public void unknownModuleAndDueRange() {
+        TaskQueryEngine engine = new TaskQueryEngine();
+        engine.upsert(task("a", "LOW", "task", "m1", 100L, false, 1));
+        engine.upsert(task("b", "LOW", "task", null, null, false, 2));
+        engine.upsert(task("c", "LOW", "task", "m1", 250L, false, 3));
+
+        TaskFilter f = new TaskFilter();
+        f.dueFrom = 100;
+        f.dueTo = 250; // end exclusive; undated b never matches a range
+        assertEquals(Arrays.asList("a"), ids(engine.query(f).tasks));
+
+        f = new TaskFilter();
+        f.moduleId = "gone"; // must not fall back to the tasks without a module
+        TaskQueryEngine.Result r = engine.query(f);
+        assertEquals(0, r.tasks.size());
+        assertArrayEquals(new int[4], r.priorityCounts);
+        assertEquals(0, r.openCount + r.completedCount);
+    }
+
+    @Test
+    public void matchesBruteForceThroughEdits() {
+        Random rnd = new Random(7);
+        TaskQueryEngine engine = new TaskQueryEngine();
+        Map<String, Task> all = new HashMap<>();
+
+        for (int step = 0; step < 3000; step++) {
+            String id = "t" + rnd.nextInt(120);
+            int op = rnd.nextInt(10);
+            if (op < 6) {
+                Task t = task(id, pick(rnd, PRIORITIES), pick(rnd, TYPES), pick(rnd, MODULES),
+                        rnd.nextInt(4) == 0 ? null : (long) rnd.nextInt(1000), rnd.nextBoolean(), rnd.nextInt(500));
+                engine.upsert(t);
+                all.put(id, t);
+            } else if (op < 9) {
+                engine.remove(id);
+                all.remove(id);
+            } else if (rnd.nextInt(50) == 0) {
+                engine.clear();
+                all.clear();
+            }
+
+            TaskFilter f = randomFilter(rnd);
+            TaskQueryEngine.Result r = engine.query(f);
+            String at = "step " + step;
+            List<String> got = ids(r.tasks);
+            for (int i = 1; i < r.tasks.size(); i++) {
+                assertTrue(at, r.tasks.get(i - 1).getCreatedAt() >= r.tasks.get(i).getCreatedAt());
+            }
+            Collections.sort(got);
+            assertEquals(at, bruteForce(all, f), got);
+
+            int[] byPriority = new int[TaskCodes.PRIORITY_COUNT];
+            int[] byType = new int[TaskCodes.TYPE_COUNT];
+            int open = 0, done = 0;
+            for (Task t : all.values()) {
+                if (matches(t, f, true, false, false)) byPriority[TaskCodes.priorityCode(t.getPriority())]++;
+                if (matches(t, f, false, true, false)) byType[TaskCodes.typeCode(t.getType())]++;
+                if (matches(t, f, false, false, true)) {
+                    if (t.isCompleted()) done++;
+                    else open++;
+                }
+            }
+            assertEquals(at, Arrays.toString(byPriority), Arrays.toString(r.priorityCounts));
+            assertEquals(at, Arrays.toString(byType), Arrays.toString(r.typeCounts));
+            assertEquals(at, open, r.openCount);
+            assertEquals(at, done, r.completedCount);
+            assertEquals(at, all.size(), engine.table().size());
+        }
+    }
+
+    // -------- Helpers --------
+
+    private static <T> T pick(Random rnd, T[] from) {
+        return from[rnd.nextInt(from.length)];
+    }
+
+    private static TaskFilter randomFilter(Random rnd) {
+        TaskFilter f = new TaskFilter();
+        if (rnd.nextBoolean()) f.priorityMask = rnd.nextInt(1 << TaskCodes.PRIORITY_COUNT);
+        if (rnd.nextBoolean()) f.typeMask = rnd.nextInt(1 << TaskCodes.TYPE_COUNT);
+        if (rnd.nextBoolean()) f.completed = rnd.nextBoolean() ? TaskFilter.YES : TaskFilter.NO;
+        if (rnd.nextInt(3) == 0) f.moduleId = rnd.nextInt(5) == 0 ? "m9" : "m" + rnd.nextInt(3);
+        if (rnd.nextInt(3) == 0) {
+            f.dueFrom = rnd.nextInt(1000);
+            f.dueTo = f.dueFrom + rnd.nextInt(400);
+        }
+        return f;
+    }
+
+    /** Straight from the Task fields; the skip flags drop one criterion for a facet. */
+    private static boolean matches(Task t, TaskFilter f, boolean skipPriority, boolean skipType, boolean skipStatus) {
+        if (!skipPriority && (f.priorityMask & TaskFilter.bit(TaskCodes.priorityCode(t.getPriority()))) == 0) return false;
+        if (!skipType && (f.typeMask & TaskFilter.bit(TaskCodes.typeCode(t.getType()))) == 0) return false;
+        if (!skipStatus && f.completed != TaskFilter.ANY && t.isCompleted() != (f.completed == TaskFilter.YES)) return false;
+        if (f.moduleId != null && !f.moduleId.equals(t.getModuleId())) return false;
+        if (f.hasDueRange()) {
+            Long due = t.getDueAt();
+            if (due == null || due < f.dueFrom || due >= f.dueTo) return false;
+        }
+        return true;
+    }
+
+    /** Matching ids, sorted (createdAt ties may come back in any order, so order is checked separately). */
+    private static List<String> bruteForce(Map<String, Task> all, TaskFilter f) {
+        List<String> out = new ArrayList<>();
+        for (Task t : all.values()) {
+            if (matches(t, f, false, false, false)) out.add(t.getId());
+        }
+        Collections.sort(out);
+        return out;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.studybuddy.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.example.studybuddy.adapter.Task;
+
+import org.junit.Test;
+
+public class TaskTableTest {
+
+    static Task task(String id, String priority, String type, String moduleId, Long dueAt,
+                     boolean completed, long createdAt) {
+        Task t = new Task();
+        t.setId(id);
+        t.setTitle("Task " + id);
+        t.setPriority(priority);
+        t.setType(type);
+        t.setModuleId(moduleId);
+        t.setDueAt(dueAt);
+        t.setCompleted(completed);
+        t.setCreatedAt(createdAt);
+        return t;
+    }
+
+    @Test
+    public void freedSlotsAreReused() {
+        TaskTable table = new TaskTable();
+        int a = table.upsert(task("a", "HIGH", "exam", "m1", 10L, false, 1));
+        int b = table.upsert(task("b", "LOW", "task", "m1", null, false, 2));
+        assertEquals(2, table.highWater());
+
+        // Overwriting keeps the slot
+        assertEquals(a, table.upsert(task("a", "LOW", "exam", "m1", 10L, true, 1)));
+        assertTrue(table.isCompleted(a));
+        assertEquals(TaskCodes.PRIORITY_LOW, table.priorityAt(a));
+
+        assertEquals(b, table.remove("b"));
+        assertFalse(table.isLive(b));
+        assertEquals(-1, table.remove("b"));
+        assertEquals(1, table.size());
+
+        // The next insert takes b's slot instead of growing
+        assertEquals(b, table.upsert(task("c", "NONE", "demo", null, null, false, 3)));
+        assertEquals(2, table.highWater());
+        assertEquals(TaskCodes.NO_DUE, table.dueAt(b));
+        assertEquals(TaskTable.NO_MODULE, table.moduleAt(b));
+        assertEquals("c", table.taskAt(b).getId());
+        assertEquals(b, table.slotOf("c"));
+    }
+
+    @Test
+    public void clearForgetsSlotsAndModuleCodes() {
+        TaskTable table = new TaskTable();
+        for (int i = 0; i < 100; i++) table.upsert(task("t" + i, "HIGH", "task", "old" + i, null, false, i));
+        assertEquals(99, table.moduleCode("old99"));
+
+        table.clear();
+        assertEquals(0, table.size());
+        assertEquals(0, table.highWater());
+        assertEquals(-1, table.slotOf("t5"));
+        assertEquals(TaskTable.NO_MODULE, table.moduleCode("old5"));
+
+        // Codes start from 0 again
+        int slot = table.upsert(task("n", "HIGH", "task", "new", null, false, 1));
+        assertEquals(0, slot);
+        assertEquals(0, table.moduleAt(slot));
+        assertEquals(0, table.moduleCode("new"));
+
+        TaskFilter old = new TaskFilter();
+        old.moduleId = "old5";
+        assertEquals(0, table.count(old));
+    }
+
+    @Test
+    public void selectCountAndPriorityFacet() {
+        TaskTable table = new TaskTable();
+        table.upsert(task("a", "HIGH", "exam", "m1", 100L, false, 1));
+        table.upsert(task("b", "HIGH", "task", "m1", 200L, true, 2));
+        table.upsert(task("c", "LOW", "exam", "m2", null, false, 3));
+        table.upsert(task("d", "MEDIUM", "exam", "m1", 300L, false, 4));
+
+        TaskFilter f = new TaskFilter();
+        f.priorityMask = TaskFilter.bit(TaskCodes.PRIORITY_HIGH);
+        f.moduleId = "m1";
+        int[] slots = table.select(f);
+        assertEquals(2, slots.length);
+        assertEquals("b", table.taskAt(slots[0]).getId()); // newest first
+        assertEquals("a", table.taskAt(slots[1]).getId());
+        assertEquals(2, table.count(f));
+
+        // The priority facet ignores the priority criterion, but keeps the module one
+        int[] byPriority = table.countByPriority(f);
+        assertArrayEquals(new int[]{0, 0, 1, 2}, byPriority);
+        assertEquals(TaskFilter.bit(TaskCodes.PRIORITY_HIGH), f.priorityMask); // restored
+
+        // No due date never matches a due range
+        TaskFilter due = new TaskFilter();
+        due.dueFrom = 0;
+        due.dueTo = 250;
+        assertEquals(2, table.count(due));
+
+        TaskFilter unknownModule = new TaskFilter();
+        unknownModule.moduleId = "nope";
+        assertEquals(0, table.select(unknownModule).length);
+    }
+}
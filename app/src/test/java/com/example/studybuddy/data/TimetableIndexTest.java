@@ -0,0 +1,176 @@
+package com.example.studybuddy.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.example.studybuddy.adapter.TimetableEvent;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class TimetableIndexTest {
+
+    private static final LocalDate MON = LocalDate.of(2024, 1, 8);
+    private static final String[] CODES = {"SU", "MO", "TU", "WE", "TH", "FR", "SA"}; // Calendar order
+
+    private static TimetableEvent event(String id, int dayOfWeek, int startMin, int endMin,
+                                        String rrule, String dtstart) {
+        TimetableEvent e = new TimetableEvent("m-" + id, id, dayOfWeek, startMin, endMin);
+        e.setId(id);
+        e.setRrule(rrule);
+        e.setDtstart(dtstart);
+        return e;
+    }
+
+    private static List<TimetableEvent> clashes(TimetableIndex index, int dayOfWeek, LocalDate from, LocalDate to) {
+        return index.overlapping(dayOfWeek, 9 * 60 + 30, 10 * 60 + 30, from, to, null);
+    }
+
+    @Test
+    public void oneOffClashesUntilItsDateHasPassed() {
+        TimetableIndex index = new TimetableIndex(ZoneOffset.UTC);
+        index.upsert(event("a", Calendar.MONDAY, 9 * 60, 10 * 60, "FREQ=WEEKLY;COUNT=1", "20240108"));
+
+        assertEquals(1, clashes(index, Calendar.MONDAY, MON, LocalDate.MAX).size());
+        assertTrue(clashes(index, Calendar.MONDAY, MON.plusDays(1), LocalDate.MAX).isEmpty());
+    }
+
+    @Test
+    public void everyBydayIsIndexed() {
+        TimetableIndex index = new TimetableIndex(ZoneOffset.UTC);
+        index.upsert(event("a", Calendar.MONDAY, 9 * 60, 10 * 60, "FREQ=WEEKLY;BYDAY=MO,WE,FR", "20240101"));
+
+        assertEquals(1, index.size());
+        assertEquals(1, clashes(index, Calendar.MONDAY, MON, LocalDate.MAX).size());
+        assertEquals(1, clashes(index, Calendar.WEDNESDAY, MON, LocalDate.MAX).size());
+        assertEquals(1, clashes(index, Calendar.FRIDAY, MON, LocalDate.MAX).size());
+        assertTrue(clashes(index, Calendar.TUESDAY, MON, LocalDate.MAX).isEmpty());
+
+        // Moving it to Tuesdays drops all three old nodes
+        index.upsert(event("a", Calendar.TUESDAY, 9 * 60, 10 * 60, "FREQ=WEEKLY", "20240101"));
+        assertTrue(clashes(index, Calendar.WEDNESDAY, MON, LocalDate.MAX).isEmpty());
+        assertEquals(1, clashes(index, Calendar.TUESDAY, MON, LocalDate.MAX).size());
+
+        index.remove("a");
+        assertEquals(0, index.size());
+        assertTrue(clashes(index, Calendar.TUESDAY, MON, LocalDate.MAX).isEmpty());
+    }
+
+    @Test
+    public void endedAndNotYetStartedSeries() {
+        TimetableIndex index = new TimetableIndex(ZoneOffset.UTC);
+        index.upsert(event("ended", Calendar.MONDAY, 9 * 60, 10 * 60, "FREQ=WEEKLY;UNTIL=20240131", "20240101"));
+        index.upsert(event("later", Calendar.MONDAY, 10 * 60, 11 * 60, "FREQ=WEEKLY", "20240304"));
+
+        List<TimetableEvent> january = clashes(index, Calendar.MONDAY, MON, MON.plusWeeks(4));
+        assertEquals(1, january.size());
+        assertEquals("ended", january.get(0).getId());
+
+        List<TimetableEvent> february = clashes(index, Calendar.MONDAY, LocalDate.of(2024, 2, 1), LocalDate.MAX);
+        assertEquals(1, february.size());
+        assertEquals("later", february.get(0).getId());
+    }
+
+    @Test
+    public void exdateAndIntervalOnlySkipTheirOwnDates() {
+        TimetableIndex index = new TimetableIndex(ZoneOffset.UTC);
+        index.upsert(event("a", Calendar.MONDAY, 9 * 60, 10 * 60, "FREQ=WEEKLY;INTERVAL=2;COUNT=2", "20240108"));
+
+        // Jan 8 and Jan 22; the Monday between is free
+        assertEquals(1, clashes(index, Calendar.MONDAY, MON, MON.plusDays(1)).size());
+        assertTrue(clashes(index, Calendar.MONDAY, MON.plusWeeks(1), MON.plusWeeks(2)).isEmpty());
+        assertEquals(1, clashes(index, Calendar.MONDAY, MON.plusWeeks(1), LocalDate.MAX).size());
+
+        TimetableEvent skipped = event("a", Calendar.MONDAY, 9 * 60, 10 * 60, "FREQ=WEEKLY;COUNT=2", "20240108");
+        skipped.setExdates("20240108,20240115");
+        index.upsert(skipped);
+        assertTrue(clashes(index, Calendar.MONDAY, MON, LocalDate.MAX).isEmpty());
+    }
+
+    // -------- Randomized against a brute-force scan --------
+
+    /** What the oracle knows about an event: its weekdays (Calendar.*) and times. */
+    private static final class Spec {
+        final boolean[] days = new boolean[8];
+        int start, end;
+    }
+
+    @Test
+    public void matchesBruteForceThroughInsertsMovesAndRemoves() {
+        Random rnd = new Random(18);
+        TimetableIndex index = new TimetableIndex(ZoneOffset.UTC);
+        Map<String, Spec> oracle = new HashMap<>();
+
+        for (int step = 0; step < 4000; step++) {
+            String id = "e" + rnd.nextInt(300);
+            int op = rnd.nextInt(10);
+            if (op < 6) {
+                // Insert or move (same id again): 1-3 weekdays, 15 min .. 3 h, any time of day
+                Spec spec = new Spec();
+                StringBuilder byDay = new StringBuilder();
+                int first = 0;
+                for (int n = 1 + rnd.nextInt(3); n > 0; n--) {
+                    int d = 1 + rnd.nextInt(7);
+                    if (spec.days[d]) continue;
+                    spec.days[d] = true;
+                    if (first == 0) first = d;
+                    if (byDay.length() > 0) byDay.append(',');
+                    byDay.append(CODES[d - 1]);
+                }
+                spec.start = rnd.nextInt(24 * 60 - 15);
+                spec.end = Math.min(24 * 60, spec.start + 15 + rnd.nextInt(180));
+                index.upsert(event(id, first, spec.start, spec.end, "FREQ=WEEKLY;BYDAY=" + byDay, "20240101"));
+                oracle.put(id, spec);
+            } else if (op < 9) {
+                index.remove(id);
+                oracle.remove(id);
+            } else {
+                // Now and then most of it goes, so deletes rebalance a shrinking tree too
+                for (int i = 0; i < 300; i++) {
+                    if (rnd.nextInt(4) != 0) continue;
+                    index.remove("e" + i);
+                    oracle.remove("e" + i);
+                }
+            }
+
+            assertEquals(oracle.size(), index.size());
+            int nodes = 0;
+            for (Spec s : oracle.values()) for (boolean on : s.days) if (on) nodes++;
+            assertEquals(nodes, index.checkInvariants());
+
+            for (int q = 0; q < 3; q++) {
+                int day = 1 + rnd.nextInt(7);
+                int from = rnd.nextInt(24 * 60 - 1);
+                int to = from + 1 + rnd.nextInt(Math.min(240, 24 * 60 - from));
+                String exclude = rnd.nextBoolean() ? "e" + rnd.nextInt(300) : null;
+
+                List<String> want = bruteForce(oracle, day, from, to, exclude);
+                List<String> got = new ArrayList<>();
+                for (TimetableEvent e : index.overlapping(day, from, to, MON, LocalDate.MAX, exclude)) got.add(e.getId());
+                assertEquals("step " + step + " day " + day + " " + from + "-" + to, want, got);
+            }
+        }
+    }
+
+    /** Every event that day overlapping [from, to), ordered like the tree: start, then id. */
+    private static List<String> bruteForce(Map<String, Spec> oracle, int day, int from, int to, String exclude) {
+        List<String> out = new ArrayList<>();
+        for (Map.Entry<String, Spec> e : oracle.entrySet()) {
+            Spec s = e.getValue();
+            if (s.days[day] && s.start < to && s.end > from && !e.getKey().equals(exclude)) out.add(e.getKey());
+        }
+        out.sort((a, b) -> {
+            int c = Integer.compare(oracle.get(a).start, oracle.get(b).start);
+            return c != 0 ? c : a.compareTo(b);
+        });
+        return out;
+    }
+}
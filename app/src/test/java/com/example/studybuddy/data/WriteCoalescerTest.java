@@ -0,0 +1,159 @@
+package com.example.studybuddy.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.google.android.gms.tasks.Task;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class WriteCoalescerTest {
+
+    /** Commits synchronously and records every batch; paths in `bad` fail the batch they are in. */
+    private static final class FakeBatches implements WriteCoalescer.Committer {
+        final List<List<WriteCoalescer.Pending>> batches = new ArrayList<>();
+        final Set<String> bad = new HashSet<>();
+
+        @Override
+        public void commit(List<WriteCoalescer.Pending> ops, WriteCoalescer.Done done) {
+            batches.add(new ArrayList<>(ops));
+            for (WriteCoalescer.Pending p : ops) {
+                if (bad.contains(p.path)) {
+                    done.onDone(new IllegalStateException("NOT_FOUND " + p.path));
+                    return;
+                }
+            }
+            done.onDone(null);
+        }
+
+        List<String> paths(int batch) {
+            List<String> out = new ArrayList<>();
+            for (WriteCoalescer.Pending p : batches.get(batch)) out.add(p.path);
+            return out;
+        }
+    }
+
+    /** The window only ends when the test says so. */
+    private static final class ManualTimer implements WriteCoalescer.Scheduler {
+        Runnable due;
+        int scheduled;
+
+        @Override
+        public void schedule(Runnable r, long delayMs) {
+            due = r;
+            scheduled++;
+        }
+
+        @Override
+        public void cancel(Runnable r) {
+            if (due == r) due = null;
+        }
+
+        void fire() {
+            Runnable r = due;
+            due = null;
+            if (r != null) r.run();
+        }
+    }
+
+    private static Map<String, Object> fields(Object... kv) {
+        Map<String, Object> out = new HashMap<>();
+        for (int i = 0; i < kv.length; i += 2) out.put((String) kv[i], kv[i + 1]);
+        return out;
+    }
+
+    @Test
+    public void editsInTheWindowMergeInFirstTouchedOrder() {
+        FakeBatches fake = new FakeBatches();
+        ManualTimer timer = new ManualTimer();
+        WriteCoalescer w = new WriteCoalescer(fake, timer, 250);
+
+        Task<Void> a1 = w.update("tasks/a", null, fields("title", "Draft", "completed", false));
+        Task<Void> b = w.update("tasks/b", null, fields("completed", true));
+        Task<Void> a2 = w.update("tasks/a", null, fields("completed", true));
+        assertEquals(1, timer.scheduled);
+        assertEquals(0, fake.batches.size());
+        assertFalse(a1.isComplete());
+
+        timer.fire();
+        assertEquals(1, fake.batches.size());
+        assertEquals(Arrays.asList("tasks/a", "tasks/b"), fake.paths(0));
+        // the last value for a field wins, untouched fields stay
+        assertEquals(fields("title", "Draft", "completed", true), fake.batches.get(0).get(0).fields);
+        assertTrue(a1.isSuccessful());
+        assertTrue(a2.isSuccessful());
+        assertTrue(b.isSuccessful());
+
+        // A new window starts with the next edit
+        w.update("tasks/a", null, fields("title", "Final"));
+        assertEquals(2, timer.scheduled);
+        w.flush(); // e.g. an Activity pausing
+        assertEquals(2, fake.batches.size());
+        assertNull(timer.due);
+        timer.fire();
+        assertEquals(2, fake.batches.size());
+    }
+
+    @Test
+    public void fullBatchesGoOutRightAway() {
+        FakeBatches fake = new FakeBatches();
+        ManualTimer timer = new ManualTimer();
+        WriteCoalescer w = new WriteCoalescer(fake, timer, 250);
+
+        for (int i = 0; i < 1200; i++) w.update("tasks/t" + i, null, fields("completed", true));
+        // Repeat edits to a queued doc don't take another op
+        w.update("tasks/t1100", null, fields("completed", false));
+        assertEquals(2, fake.batches.size());
+        assertEquals(WriteCoalescer.MAX_BATCH_OPS, fake.batches.get(0).size());
+        assertEquals(WriteCoalescer.MAX_BATCH_OPS, fake.batches.get(1).size());
+        assertEquals("tasks/t500", fake.paths(1).get(0));
+
+        timer.fire();
+        assertEquals(3, fake.batches.size());
+        assertEquals(200, fake.batches.get(2).size());
+        assertEquals("tasks/t1000", fake.paths(2).get(0));
+    }
+
+    @Test
+    public void aFailedBatchIsRetriedOneWriteAtATime() {
+        FakeBatches fake = new FakeBatches();
+        ManualTimer timer = new ManualTimer();
+        WriteCoalescer w = new WriteCoalescer(fake, timer, 250);
+        fake.bad.add("tasks/deleted");
+
+        Task<Void> a = w.update("tasks/a", null, fields("completed", true));
+        Task<Void> gone = w.update("tasks/deleted", null, fields("completed", true));
+        Task<Void> goneAgain = w.update("tasks/deleted", null, fields("title", "x"));
+        Task<Void> c = w.update("tasks/c", null, fields("completed", true));
+        w.flush();
+
+        // The batch, then each write alone; the bad one is not retried again
+        assertEquals(4, fake.batches.size());
+        assertEquals(Arrays.asList("tasks/a", "tasks/deleted", "tasks/c"), fake.paths(0));
+        assertEquals(Arrays.asList("tasks/a"), fake.paths(1));
+        assertEquals(Arrays.asList("tasks/deleted"), fake.paths(2));
+        assertEquals(Arrays.asList("tasks/c"), fake.paths(3));
+
+        assertTrue(a.isSuccessful());
+        assertTrue(c.isSuccessful());
+        assertTrue(gone.isComplete());
+        assertFalse(gone.isSuccessful());
+        assertFalse(goneAgain.isSuccessful());
+        assertEquals("NOT_FOUND tasks/deleted", gone.getException().getMessage());
+
+        // A batch of one fails straight away
+        w.update("tasks/deleted", null, fields("completed", false));
+        w.flush();
+        assertEquals(5, fake.batches.size());
+    }
+}
@@ -0,0 +1,10 @@
+// Annotation processor that generates Firestore <-> POJO mappers for the app's models.
+// The app uses it as compileOnly + annotationProcessor; nothing from here ships in the APK.
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
@@ -0,0 +1,18 @@
+package com.example.studybuddy.mapper;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generate a `<Class>Mapper` next to this model with fromDocument / fromMap / toMap.
+ *
+ * Every non-static, non-transient field is mapped under its own name, through its
+ * getX()/isX() and setX() methods (the same ones toObject() would use). The class
+ * needs a public no-arg constructor.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface FirestoreModel {
+}
@@ -0,0 +1,232 @@
+package com.example.studybuddy.mapper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Writes `<Model>Mapper` for every @FirestoreModel class:
+ *
+ *   static T fromDocument(DocumentSnapshot doc)        // null if the doc doesn't exist
+ *   static T fromMap(String id, Map<String, Object> m)
+ *   static Map<String, Object> toMap(T model)
+ *
+ * The generated code is straight-line field copies (no reflection, no bean introspection).
+ * Reading is lenient the same way the app needs it: numbers of any width are narrowed,
+ * and long/Long/Date fields also accept Firestore Timestamps (older documents have those).
+ */
+public class MapperProcessor extends AbstractProcessor {
+
+    private static final String TIMESTAMP = "com.google.firebase.Timestamp";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(FirestoreModel.class.getCanonicalName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (Element e : round.getElementsAnnotatedWith(FirestoreModel.class)) {
+            if (e.getKind() != ElementKind.CLASS) {
+                error(e, "@FirestoreModel only works on classes");
+                continue;
+            }
+            try {
+                generate((TypeElement) e);
+            } catch (IOException ex) {
+                error(e, "Could not write mapper: " + ex.getMessage());
+            }
+        }
+        return true;
+    }
+
+    // -------- Model inspection --------
+
+    private static class Field {
+        String name;
+        TypeMirror type;
+        String getter;
+        String setter;
+        boolean isId;
+    }
+
+    private List<Field> fieldsOf(TypeElement model) {
+        List<ExecutableElement> methods = ElementFilter.methodsIn(model.getEnclosedElements());
+        List<Field> out = new ArrayList<>();
+
+        for (VariableElement v : ElementFilter.fieldsIn(model.getEnclosedElements())) {
+            Set<Modifier> mods = v.getModifiers();
+            if (mods.contains(Modifier.STATIC) || mods.contains(Modifier.TRANSIENT)) continue;
+
+            Field f = new Field();
+            f.name = v.getSimpleName().toString();
+            f.type = v.asType();
+            f.isId = v.getAnnotation(DocumentId.class) != null;
+
+            String cap = Character.toUpperCase(f.name.charAt(0)) + f.name.substring(1);
+            f.setter = findMethod(methods, "set" + cap, 1);
+            f.getter = findMethod(methods, "get" + cap, 0);
+            if (f.getter == null && isBoolean(f.type)) f.getter = findMethod(methods, "is" + cap, 0);
+
+            if (f.setter == null || (f.getter == null && !f.isId)) {
+                error(v, "Field '" + f.name + "' needs a public getter and setter to be mapped");
+                continue;
+            }
+            out.add(f);
+        }
+        return out;
+    }
+
+    private static String findMethod(List<ExecutableElement> methods, String name, int params) {
+        for (ExecutableElement m : methods) {
+            if (m.getSimpleName().contentEquals(name)
+                    && m.getParameters().size() == params
+                    && m.getModifiers().contains(Modifier.PUBLIC)
+                    && !m.getModifiers().contains(Modifier.STATIC)) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    // -------- Code generation --------
+
+    private void generate(TypeElement model) throws IOException {
+        String pkg = ((PackageElement) model.getEnclosingElement()).getQualifiedName().toString();
+        String type = model.getSimpleName().toString();
+        String mapper = type + "Mapper";
+        List<Field> fields = fieldsOf(model);
+
+        StringBuilder s = new StringBuilder();
+        s.append("package ").append(pkg).append(";\n\n");
+        s.append("import com.google.firebase.firestore.DocumentSnapshot;\n\n");
+        s.append("import java.util.HashMap;\n");
+        s.append("import java.util.Map;\n\n");
+        s.append("/** Generated by MapperProcessor from ").append(type).append(". Do not edit. */\n");
+        s.append("public final class ").append(mapper).append(" {\n\n");
+        s.append("    private ").append(mapper).append("() {}\n\n");
+
+        // fromDocument
+        s.append("    public static ").append(type).append(" fromDocument(DocumentSnapshot doc) {\n");
+        s.append("        Map<String, Object> data = doc.getData();\n");
+        s.append("        return data == null ? null : fromMap(doc.getId(), data);\n");
+        s.append("    }\n\n");
+
+        // fromMap
+        s.append("    @SuppressWarnings(\"unchecked\")\n");
+        s.append("    public static ").append(type).append(" fromMap(String id, Map<String, Object> data) {\n");
+        s.append("        ").append(type).append(" out = new ").append(type).append("();\n");
+        s.append("        Object v;\n");
+        for (Field f : fields) {
+            if (f.isId) {
+                s.append("        out.").append(f.setter).append("(id);\n");
+                continue;
+            }
+            s.append("        v = data.get(\"").append(f.name).append("\");\n");
+            s.append("        ").append(readStatement(f)).append("\n");
+        }
+        s.append("        return out;\n");
+        s.append("    }\n\n");
+
+        // toMap
+        int stored = 0;
+        for (Field f : fields) if (!f.isId) stored++;
+        s.append("    public static Map<String, Object> toMap(").append(type).append(" in) {\n");
+        s.append("        Map<String, Object> out = new HashMap<>(").append(stored * 2).append(");\n");
+        for (Field f : fields) {
+            if (f.isId) continue;
+            s.append("        out.put(\"").append(f.name).append("\", in.").append(f.getter).append("());\n");
+        }
+        s.append("        return out;\n");
+        s.append("    }\n\n");
+
+        // helpers
+        s.append("    private static Long toMillis(Object v) {\n");
+        s.append("        if (v instanceof Number) return ((Number) v).longValue();\n");
+        s.append("        if (v instanceof ").append(TIMESTAMP).append(") return ((")
+                .append(TIMESTAMP).append(") v).toDate().getTime();\n");
+        s.append("        if (v instanceof java.util.Date) return ((java.util.Date) v).getTime();\n");
+        s.append("        return null;\n");
+        s.append("    }\n");
+        s.append("}\n");
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(pkg + "." + mapper, model);
+        try (Writer w = file.openWriter()) {
+            w.write(s.toString());
+        }
+    }
+
+    /** One line that converts `v` and calls the setter (missing/mistyped values are skipped). */
+    private String readStatement(Field f) {
+        String set = "out." + f.setter;
+        TypeKind kind = f.type.getKind();
+        String name = f.type.toString();
+
+        switch (kind) {
+            case LONG:
+                return "{ Long x = toMillis(v); if (x != null) " + set + "(x); }";
+            case INT:
+                return "if (v instanceof Number) " + set + "(((Number) v).intValue());";
+            case DOUBLE:
+                return "if (v instanceof Number) " + set + "(((Number) v).doubleValue());";
+            case FLOAT:
+                return "if (v instanceof Number) " + set + "(((Number) v).floatValue());";
+            case BOOLEAN:
+                return "if (v instanceof Boolean) " + set + "((Boolean) v);";
+            default:
+                break;
+        }
+        switch (name) {
+            case "java.lang.String":
+                return "if (v instanceof String) " + set + "((String) v);";
+            case "java.lang.Long":
+                return set + "(toMillis(v));";
+            case "java.lang.Integer":
+                return set + "(v instanceof Number ? ((Number) v).intValue() : null);";
+            case "java.lang.Double":
+                return set + "(v instanceof Number ? ((Number) v).doubleValue() : null);";
+            case "java.lang.Boolean":
+                return set + "(v instanceof Boolean ? (Boolean) v : null);";
+            case "java.util.Date":
+                return "{ Long x = toMillis(v); " + set + "(x == null ? null : new java.util.Date(x)); }";
+            default: {
+                String raw = processingEnv.getTypeUtils().erasure(f.type).toString();
+                return "if (v instanceof " + raw + ") " + set + "((" + name + ") v);";
+            }
+        }
+    }
+
+    private static boolean isBoolean(TypeMirror t) {
+        return t.getKind() == TypeKind.BOOLEAN || t.toString().equals("java.lang.Boolean");
+    }
+
+    private void error(Element e, String msg) {
+        Messager m = processingEnv.getMessager();
+        m.printMessage(Diagnostic.Kind.ERROR, msg, e);
+    }
+}
@@ -24,5 +24,6 @@ dependencyResolutionManagement {
 
 rootProject.name = "StudyBuddy"
 include(":app")
+include(":firestore-mapper")
 
  
\ No newline at end of file